@@ -1041,6 +1041,11 @@ async function startWebSocketGateway(backendBase) {
           }
         })();
       }, 250);
+      // ✅ NOVO: Reconexão com jogador já conhecido: pedir só a lacuna do log.
+      // Se a nova sessão ainda não estiver identificada, o backend responde
+      // event_resume_failed e o electron_identify (com lastEventSeq) cobre
+      sendEventResume();
+
       // if we have a pending identify from renderer, send it
       if (lastRendererIdentify) {
         try {
@@ -1068,6 +1073,16 @@ async function startWebSocketGateway(backendBase) {
           json.type
         );
 
+        // ✅ NOVO: Frames do log de eventos trazem "seq"; replay pode repetir
+        // eventos já processados (entrega at-least-once), então descarta
+        const eventSeq = typeof json.seq === "number" ? json.seq : null;
+        if (eventSeq !== null && eventSeq <= getEventCursor()) {
+          safeLog(
+            `⏭️ [EventLog] Evento #${eventSeq} (${json.type}) já processado - ignorando`
+          );
+          return;
+        }
+
         // Handle LCU requests
         if (json.type === "lcu_request") {
           console.log(
@@ -1429,6 +1444,13 @@ async function startWebSocketGateway(backendBase) {
           await handleDraftUpdateEvent(json);
         } else if (json.type === "draft_updated") {
           await handleDraftUpdatedEvent(json);
+        } else if (
+          json.type === "draft_action_applied" ||
+          json.type === "draft_turn_changed"
+        ) {
+          await handleDraftDeltaEvent(json);
+        } else if (json.type === "draft_resync_result") {
+          handleDraftResyncResult(json);
         } else if (json.type === "pick_champion") {
           await handlePickChampionEvent(json);
         } else if (json.type === "ban_champion") {
@@ -1464,6 +1486,12 @@ async function startWebSocketGateway(backendBase) {
         } else if (json.type === "game_cancelled") {
           await handleGameCancelledEvent(json);
         }
+        // ✅ NOVO: Log de eventos (resume/resync)
+        else if (json.type === "event_resync") {
+          handleEventResync(json);
+        } else if (json.type === "event_resume_failed") {
+          handleEventResumeFailed(json);
+        }
         // ✅ QUEUE EVENTS
         else if (json.type === "queue_status") {
           safeLog("📊 [Queue] queue_status recebido:", json);
@@ -1617,6 +1645,11 @@ async function startWebSocketGateway(backendBase) {
             checkAndRebindOnSummonerEvent(json.type || "unknown", json);
           }
         }
+
+        // ✅ NOVO: Só avança o cursor depois de processar o evento
+        if (eventSeq !== null) {
+          advanceEventCursor(eventSeq);
+        }
       } catch (e) {
         safeLog("ws gateway message error", String(e));
       }
@@ -1633,6 +1666,7 @@ async function startWebSocketGateway(backendBase) {
       stopIdentityMonitor(); // Parar monitor de identidade
       stopSessionSyncMonitor(); // ✅ NOVO: Parar monitor de sincronização
       stopHeartbeat(); // ✅ NOVO: Parar heartbeat com dados
+      stopEventAck(); // ✅ NOVO: ack pendente vai no próximo resume
       wsClient = null;
 
       // ✅ CRÍTICO: Só agendar reconexão se NÃO for uma desconexão intencional
@@ -1674,6 +1708,21 @@ const WS_BASE_BACKOFF_MS = 2000; // 2 segundos
 const WS_MAX_BACKOFF_MS = 60000; // 1 minuto
 const WS_HEARTBEAT_INTERVAL = 60000; // 60 segundos
 
+// ✅ NOVO: Cursor do log de eventos por jogador (Redis Streams no backend)
+// Frames direcionados chegam com "seq" na raiz; o último seq processado vai no
+// electron_identify (lastEventSeq) e no event_resume, e é confirmado com
+// event_ack para o backend podar o log
+let eventCursors = null; // { [summonerName]: último seq processado }
+let eventAckTimer = null;
+let lastAckedEventSeq = 0;
+const EVENT_ACK_DEBOUNCE_MS = 1000;
+
+// ✅ NOVO: Último snapshot do draft por partida (base dos eventos delta
+// draft_action_applied/draft_turn_changed); lacuna de versão → draft_resync
+const draftSnapshots = new Map(); // matchId → draft_updated/draft_starting (data)
+const draftResyncRequestedAt = new Map(); // matchId → timestamp do último pedido
+const DRAFT_RESYNC_THROTTLE_MS = 2000;
+
 // ✅ NOVO: Variáveis para identificação automática
 let lastKnownPuuid = null;
 let lastKnownSummoner = null;
@@ -2172,6 +2221,7 @@ async function handleDraftStartedEvent(json) {
       json.data ? Object.keys(json.data) : "NO DATA"
     );
     safeLog("🎮 [draft-started] JSON completo:", JSON.stringify(json, null, 2));
+    rememberDraftSnapshot(json.data);
 
     const currentSummoner = await getCurrentSummonerFromLCU();
     safeLog(
@@ -3102,6 +3152,7 @@ async function handleDraftUpdatedEvent(json) {
     }
 
     safeLog("✅ [draft-updated] ✅ Draft_updated É para este jogador!");
+    rememberDraftSnapshot(draftData);
     safeLog(
       "✅ [draft-updated] ================================================"
     );
@@ -3148,6 +3199,161 @@ async function handleDraftUpdatedEvent(json) {
   }
 }
 
+// ✅ NOVO: Snapshot completo versionado vira a base dos próximos deltas
+function rememberDraftSnapshot(draftData) {
+  if (!draftData || draftData.matchId == null || typeof draftData.version !== "number") {
+    return;
+  }
+  const key = String(draftData.matchId);
+  const current = draftSnapshots.get(key);
+  if (current && current.version > draftData.version) {
+    return; // snapshot atrasado (replay) não volta o estado
+  }
+  draftSnapshots.set(key, draftData);
+  draftResyncRequestedAt.delete(key);
+}
+
+/**
+ * ✅ NOVO: Eventos delta do draft (app.draft.delta-events)
+ * - draft_action_applied {index, championId, championName, player, version}:
+ *   versão esperada = snapshot + 1
+ * - draft_turn_changed {currentIndex, currentPlayer, ..., version}: mesma
+ *   versão da ação que acabou de ser aplicada
+ * O snapshot local é atualizado e repassado ao frontend como draft-updated
+ * (mesmo formato do snapshot completo); sem base ou com lacuna de versão, pede
+ * draft_resync e o backend manda o snapshot só para este jogador.
+ */
+async function handleDraftDeltaEvent(json) {
+  try {
+    const delta = json.data || json;
+    if (delta.matchId == null || typeof delta.version !== "number") {
+      return;
+    }
+    const base = draftSnapshots.get(String(delta.matchId));
+    const isAction = json.type === "draft_action_applied";
+    if (!base) {
+      requestDraftResync(delta.matchId, 0);
+      return;
+    }
+
+    const expected = isAction ? base.version + 1 : base.version;
+    if (delta.version < expected || (isAction && delta.version === base.version)) {
+      return; // já refletido no snapshot (resync chegou antes do delta)
+    }
+    if (delta.version !== expected) {
+      safeLog(
+        `🔄 [draft-delta] ${json.type} v${delta.version}, local v${base.version} - pedindo resync`
+      );
+      requestDraftResync(delta.matchId, base.version);
+      return;
+    }
+
+    const patched = isAction
+      ? applyDraftActionDelta(base, delta)
+      : applyDraftTurnDelta(base, delta);
+    await handleDraftUpdatedEvent({ type: "draft_updated", data: patched });
+  } catch (error) {
+    safeLog("❌ [draft-delta] Erro ao aplicar delta do draft:", error);
+  }
+}
+
+function applyDraftActionDelta(base, delta) {
+  const fill = (action) =>
+    action && action.index === delta.index
+      ? {
+          ...action,
+          championId: delta.championId,
+          championName: delta.championName,
+          byPlayer: delta.player,
+        }
+      : action;
+  const fillPlayerAction = (action) =>
+    action && action.index === delta.index
+      ? { ...fill(action), status: "completed" }
+      : action;
+
+  const ownerKey = delta.team === 1 ? "blue" : "red";
+  let teams = base.teams;
+  if (teams) {
+    teams = { ...teams };
+    for (const key of ["blue", "red"]) {
+      const team = teams[key];
+      if (!team) continue;
+      const next = {
+        ...team,
+        players: (team.players || []).map((player) => ({
+          ...player,
+          actions: (player.actions || []).map(fillPlayerAction),
+        })),
+      };
+      if (key === ownerKey && delta.championId && delta.championId !== "SKIPPED") {
+        const list = delta.actionType === "ban" ? "allBans" : "allPicks";
+        next[list] = [...(team[list] || []), delta.championId];
+      }
+      teams[key] = next;
+    }
+  }
+
+  return {
+    ...base,
+    version: delta.version,
+    actions: (base.actions || []).map(fill),
+    phases: base.phases ? base.phases.map(fill) : base.phases,
+    teams,
+  };
+}
+
+function applyDraftTurnDelta(base, delta) {
+  return {
+    ...base,
+    version: delta.version,
+    currentIndex: delta.currentIndex,
+    currentAction: delta.currentIndex,
+    currentPlayer: delta.currentPlayer,
+    currentTeam: delta.currentTeam,
+    currentActionType: delta.currentActionType,
+    currentPhase: delta.currentPhase,
+    timeRemaining: delta.timeRemaining,
+    timeRemainingMs: delta.timeRemaining * 1000,
+    remainingMs: delta.timeRemaining * 1000,
+  };
+}
+
+function requestDraftResync(matchId, version) {
+  const key = String(matchId);
+  const now = Date.now();
+  if (now - (draftResyncRequestedAt.get(key) || 0) < DRAFT_RESYNC_THROTTLE_MS) {
+    return;
+  }
+  if (!wsClient || wsClient.readyState !== WebSocket.OPEN || !lastKnownSummoner) {
+    return;
+  }
+  draftResyncRequestedAt.set(key, now);
+  try {
+    wsClient.send(
+      JSON.stringify({
+        type: "draft_resync",
+        data: { matchId, playerId: lastKnownSummoner, version },
+      })
+    );
+    safeLog(`🔄 [draft-delta] draft_resync enviado (match ${matchId}, v${version})`);
+  } catch (e) {
+    safeLog("❌ [draft-delta] Erro ao enviar draft_resync", String(e));
+  }
+}
+
+function forgetDraftSnapshot(matchId) {
+  if (matchId == null) return;
+  draftSnapshots.delete(String(matchId));
+  draftResyncRequestedAt.delete(String(matchId));
+}
+
+function handleDraftResyncResult(json) {
+  if (json.success === false) {
+    safeLog("⚠️ [draft-delta] draft_resync recusado:", json.error || "unknown");
+  }
+}
+
 async function handlePickChampionEvent(json) {
   try {
     safeLog(
@@ -3293,6 +3499,7 @@ async function handleGameStartedEvent(json) {
   try {
     safeLog("🎮 [game-started] ===== GAME_STARTED RECEBIDO NO ELECTRON =====");
     safeLog("🎮 [game-started] MatchId:", json.data?.matchId || json.matchId);
+    forgetDraftSnapshot(json.data?.matchId || json.matchId);
     safeLog("🎮 [game-started] Timestamp:", json.timestamp);
 
     const currentSummoner = await getCurrentSummonerFromLCU();
@@ -3673,6 +3880,7 @@ async function handleDraftCancelledEvent(json) {
       "🚫 [draft-cancelled] ===== DRAFT_CANCELLED RECEBIDO NO ELECTRON ====="
     );
     safeLog("🚫 [draft-cancelled] MatchId:", json.data?.matchId);
+    forgetDraftSnapshot(json.data?.matchId);
     safeLog("🚫 [draft-cancelled] Reason:", json.data?.reason);
     safeLog("🚫 [draft-cancelled] CancelledBy:", json.data?.cancelledBy);
     safeLog("🚫 [draft-cancelled] Timestamp:", json.timestamp);
@@ -3956,6 +4164,10 @@ async function identifyPlayerToBackend(lockfileInfo) {
       profileIconId: summoner.profileIconId,
       summonerLevel: summoner.summonerLevel,
 
+      // ✅ NOVO: Último seq processado; backend reenvia só o que veio depois
+      // (null = sem cursor local, backend usa o cursor de entrega dele)
+      lastEventSeq: getEventCursor(fullName) || null,
+
       // Dados de ranked (opcional)
       tier: ranked?.queueMap?.RANKED_SOLO_5x5?.tier,
       division: ranked?.queueMap?.RANKED_SOLO_5x5?.division,
@@ -4475,6 +4687,110 @@ function resetWebSocketReconnect() {
   }
 }
 
+// ✅ NOVO: Cursor do log de eventos, persistido em userData para sobreviver a
+// reinícios do app (o log no backend guarda os eventos por jogador)
+function eventCursorFile() {
+  return path.join(app.getPath("userData"), "event-cursor.json");
+}
+
+function loadEventCursors() {
+  if (eventCursors) return eventCursors;
+  try {
+    eventCursors = JSON.parse(fs.readFileSync(eventCursorFile(), "utf8")) || {};
+  } catch (e) {
+    eventCursors = {};
+  }
+  return eventCursors;
+}
+
+function getEventCursor(summonerName = lastKnownSummoner) {
+  if (!summonerName) return 0;
+  return loadEventCursors()[summonerName] || 0;
+}
+
+function advanceEventCursor(seq) {
+  if (!lastKnownSummoner || seq <= getEventCursor()) return;
+  loadEventCursors()[lastKnownSummoner] = seq;
+  scheduleEventAck();
+}
+
+// Ack agrupado: um event_ack por segundo com o maior seq processado
+function scheduleEventAck() {
+  if (eventAckTimer) return;
+  eventAckTimer = setTimeout(() => {
+    eventAckTimer = null;
+    const seq = getEventCursor();
+    if (seq <= lastAckedEventSeq) return;
+    if (wsClient && wsClient.readyState === WebSocket.OPEN) {
+      try {
+        wsClient.send(JSON.stringify({ type: "event_ack", seq }));
+        lastAckedEventSeq = seq;
+      } catch (e) {
+        safeLog("❌ [EventLog] Erro ao enviar event_ack", String(e));
+      }
+    }
+    try {
+      fs.writeFileSync(eventCursorFile(), JSON.stringify(loadEventCursors()));
+    } catch (e) {
+      safeLog("⚠️ [EventLog] Não foi possível salvar cursor de eventos", String(e));
+    }
+  }, EVENT_ACK_DEBOUNCE_MS);
+}
+
+function stopEventAck() {
+  if (eventAckTimer) {
+    clearTimeout(eventAckTimer);
+    eventAckTimer = null;
+  }
+  lastAckedEventSeq = 0;
+}
+
+function sendEventResume() {
+  const lastSeq = getEventCursor();
+  if (!lastSeq || !wsClient || wsClient.readyState !== WebSocket.OPEN) return;
+  try {
+    wsClient.send(JSON.stringify({ type: "event_resume", lastSeq }));
+    safeLog(`📬 [EventLog] event_resume enviado (lastSeq: ${lastSeq})`);
+  } catch (e) {
+    safeLog("❌ [EventLog] Erro ao enviar event_resume", String(e));
+  }
+}
+
+// Parte da lacuna já foi podada no backend: os eventos perdidos não voltam,
+// então pede o estado atual (fila aqui; draft/partida no renderer)
+function handleEventResync(json) {
+  safeLog("⚠️ [EventLog] event_resync recebido:", json.data || json);
+  if (wsClient && wsClient.readyState === WebSocket.OPEN && lastKnownSummoner) {
+    try {
+      wsClient.send(
+        JSON.stringify({
+          type: "get_queue_status",
+          data: { summonerName: lastKnownSummoner },
+        })
+      );
+    } catch (e) {
+      safeLog("❌ [EventLog] Erro ao pedir queue status", String(e));
+    }
+  }
+  // Deltas de draft perdidos no buraco do log: snapshot de novo
+  for (const [matchId, snapshot] of draftSnapshots) {
+    requestDraftResync(snapshot.matchId ?? matchId, snapshot.version);
+  }
+  if (mainWindow && mainWindow.webContents) {
+    mainWindow.webContents.send("event-resync", json.data || json);
+  }
+}
+
+// Sessão nova ainda não identificada: electron_identify leva o lastEventSeq
+function handleEventResumeFailed(json) {
+  safeLog("⚠️ [EventLog] event_resume_failed:", json.reason);
+  lastIdentifiedSession = null; // furar o cooldown de identificação
+  const lockfileInfo = readLockfileInfo();
+  if (lockfileInfo) {
+    identifyPlayerToBackend(lockfileInfo);
+  }
+}
+
 // Iniciar heartbeat para manter conexão ativa
 function startWebSocketHeartbeat() {
   if (wsHeartbeatTimer) {
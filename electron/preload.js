@@ -159,6 +159,7 @@ const electronAPI = {
   // ✅ CONNECTION EVENTS
   onBackendConnection: (callback) => ipcRenderer.on("backend-connection", callback),
   onPlayerSessionUpdate: (callback) => ipcRenderer.on("player-session-update", callback),
+  onEventResync: (callback) => ipcRenderer.on("event-resync", callback),
 
   getBackendApiUrl: () => {
     // CONFIGURAÇÃO DE REDE: Altere esta URL para o IP do servidor na rede
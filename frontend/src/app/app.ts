@@ -154,6 +154,13 @@ export class App implements OnInit, OnDestroy {
   // ✅ NOVO: Controle para priorizar backend sobre QueueStateService
   private hasRecentBackendQueueStatus = false;
 
+  // ✅ NOVO: Versão do snapshot da fila aplicada localmente (deltas queue_delta)
+  private queueVersion = 0;
+
+  // ✅ NOVO: Último snapshot completo do draft (base dos deltas draft_action_applied/draft_turn_changed)
+  private draftSnapshot: any = null;
+  private lastDraftResyncAt = 0;
+
   private lcuCheckInterval: any; // ✅ REMOVIDO readonly para permitir reatribuição
   private readonly LCU_CHECK_INTERVAL = 5000; // Intervalo de verificação do status do LCU
 
@@ -672,6 +679,7 @@ export class App implements OnInit, OnDestroy {
     // ✅ CRÍTICO: Atualizar estado do draft com novas ações
     if (this.inDraftPhase && this.draftData) {
       const data = updatedData.data || updatedData;
+      this.rememberDraftSnapshot(data);
 
       // ✅ Extrair phases/actions
       const phases = (data.phases && data.phases.length > 0) ? data.phases :
@@ -1484,6 +1492,20 @@ export class App implements OnInit, OnDestroy {
         if (message.status) {
           // ✅ CRÍTICO: Criar NOVA referência ao invés de atribuir diretamente
           this.queueStatus = { ...message.status };
+          this.queueVersion = message.status.version ?? this.queueVersion;
+        }
+        break;
+
+      case 'queue_delta':
+        // ✅ NOVO: Delta versionado (entrou/saiu/posição) - snapshot completo só se ficamos para trás
+        this.applyQueueDelta(message);
+        break;
+
+      case 'queue_version':
+        // ✅ NOVO: Heartbeat de versão - algum delta foi perdido?
+        if (typeof message.version === 'number' && message.version > this.queueVersion && !this.refreshInProgress) {
+          console.log(`🔄 [App] Fila na versão ${message.version}, local ${this.queueVersion} - buscando snapshot`);
+          this.refreshQueueStatus();
         }
         break;
 
@@ -1632,6 +1654,18 @@ export class App implements OnInit, OnDestroy {
           });
         }
         break;
+      case 'draft_action_applied':
+      case 'draft_turn_changed':
+        // ✅ NOVO: Delta versionado do draft - snapshot completo (draft_resync) só se houver lacuna
+        this.applyDraftDelta(message.type, message.data || message);
+        break;
+
+      case 'draft_resync_result':
+        if (message.success === false) {
+          console.warn('⚠️ [App] draft_resync recusado:', message.error);
+        }
+        break;
+
       case 'draft_update': // ✅ APENAS Timer (leve, a cada 1s)
         console.log('⏰ [App] draft_update (TIMER) recebido:', message);
 
@@ -1668,6 +1702,8 @@ export class App implements OnInit, OnDestroy {
           break;
         }
 
+        this.rememberDraftSnapshot(message.data || message);
+
         const debugState = {
           timestamp: new Date().toISOString(),
           inDraftPhase: this.inDraftPhase,
@@ -1977,6 +2013,7 @@ export class App implements OnInit, OnDestroy {
       case 'draft_starting':
         console.log('🎯 [App] Draft iniciando:', message);
         const draftData = message.data || message;
+        this.rememberDraftSnapshot(draftData);
 
         // ✅ CRÍTICO: Proteger contra draft já completo
         const draftPhase = draftData.currentPhase || draftData.phase;
@@ -3528,6 +3565,8 @@ export class App implements OnInit, OnDestroy {
         console.log(`📊 [App] Jogadores na fila: ${status.playersInQueue}`);
         console.log(`📊 [App] Lista de jogadores:`, status.playersInQueueList?.map(p => p.summonerName) || []);
 
+        this.queueVersion = statusWithPlayerInfo.version ?? this.queueVersion;
+
         // ✅ CORREÇÃO: Converter joinTime de Date para string se necessário
         this.queueStatus = {
           ...status,
@@ -4959,6 +4998,160 @@ export class App implements OnInit, OnDestroy {
     }
   }
 
+  /**
+   * ✅ NOVO: Aplica queue_delta sobre a lista local
+   *
+   * Aplica apenas se baseVersion é a versão local; delta antigo/duplicado é
+   * ignorado e, se ficamos para trás, busca o snapshot completo.
+   */
+  private applyQueueDelta(delta: any): void {
+    if (typeof delta.version !== 'number' || delta.version <= this.queueVersion) {
+      return;
+    }
+    if (delta.baseVersion !== this.queueVersion) {
+      console.log(`🔄 [App] queue_delta v${delta.version} sobre v${delta.baseVersion}, local v${this.queueVersion} - buscando snapshot`);
+      if (!this.refreshInProgress) {
+        this.refreshQueueStatus();
+      }
+      return;
+    }
+
+    const left = new Set<string>((delta.left || []).map((name: string) => name.toLowerCase()));
+    const joinedNames = new Set<string>((delta.joined || []).map((p: any) => p.summonerName.toLowerCase()));
+    const positions: Record<string, number> = delta.positions || {};
+
+    const players = (this.queueStatus.playersInQueueList || [])
+      .filter(p => !left.has(p.summonerName.toLowerCase()) && !joinedNames.has(p.summonerName.toLowerCase()))
+      .map(p => positions[p.summonerName] !== undefined ? { ...p, queuePosition: positions[p.summonerName] } : p);
+
+    for (const joined of delta.joined || []) {
+      players.push({
+        ...joined,
+        joinTime: typeof joined.joinTime === 'string' ? joined.joinTime : new Date(joined.joinTime).toISOString(),
+        isCurrentPlayer: this.isCurrentPlayerName(joined.summonerName)
+      });
+    }
+    players.sort((a, b) => (a.queuePosition || 0) - (b.queuePosition || 0));
+
+    this.queueVersion = delta.version;
+    this.queueStatus = {
+      ...this.queueStatus,
+      playersInQueue: delta.playersInQueue ?? players.length,
+      playersInQueueList: players,
+      isActive: true
+    };
+  }
+
+  /**
+   * ✅ NOVO: Snapshot completo e versionado do draft vira a base dos próximos deltas
+   */
+  private rememberDraftSnapshot(data: any): void {
+    if (!data || data.matchId == null || typeof data.version !== 'number') {
+      return;
+    }
+    if (this.draftSnapshot && String(this.draftSnapshot.matchId) === String(data.matchId)
+      && this.draftSnapshot.version > data.version) {
+      return; // snapshot atrasado não volta o estado
+    }
+    this.draftSnapshot = data;
+  }
+
+  /**
+   * ✅ NOVO: Aplica draft_action_applied/draft_turn_changed sobre o último snapshot
+   *
+   * draft_action_applied deve ser a versão local + 1 e draft_turn_changed a
+   * mesma versão (vem logo depois da ação); delta antigo/duplicado é ignorado e,
+   * se há lacuna, pede draft_resync (o backend manda o snapshot só para nós).
+   * O resultado segue pelo mesmo caminho do draft_updated completo.
+   */
+  private applyDraftDelta(type: string, delta: any): void {
+    if (delta?.matchId == null || typeof delta.version !== 'number') {
+      return;
+    }
+    const base = this.draftSnapshot;
+    if (!base || String(base.matchId) !== String(delta.matchId)) {
+      this.requestDraftResync(delta.matchId, 0);
+      return;
+    }
+
+    const isAction = type === 'draft_action_applied';
+    const expected = isAction ? base.version + 1 : base.version;
+    if (delta.version < expected || (isAction && delta.version === base.version)) {
+      return;
+    }
+    if (delta.version !== expected) {
+      console.log(`🔄 [App] ${type} v${delta.version}, local v${base.version} - pedindo draft_resync`);
+      this.requestDraftResync(delta.matchId, base.version);
+      return;
+    }
+
+    const patched = isAction ? this.patchDraftAction(base, delta) : {
+      ...base,
+      version: delta.version,
+      currentIndex: delta.currentIndex,
+      currentAction: delta.currentIndex,
+      currentPlayer: delta.currentPlayer,
+      currentTeam: delta.currentTeam,
+      currentActionType: delta.currentActionType,
+      currentPhase: delta.currentPhase,
+      timeRemaining: delta.timeRemaining,
+      timeRemainingMs: delta.timeRemaining * 1000,
+      remainingMs: delta.timeRemaining * 1000
+    };
+    this.handleBackendMessage({ type: 'draft_updated', data: patched });
+  }
+
+  private patchDraftAction(base: any, delta: any): any {
+    const fill = (action: any) => action?.index === delta.index
+      ? { ...action, championId: delta.championId, championName: delta.championName, byPlayer: delta.player }
+      : action;
+
+    let teams = base.teams;
+    if (teams) {
+      const owner = delta.team === 1 ? 'blue' : 'red';
+      const list = delta.actionType === 'ban' ? 'allBans' : 'allPicks';
+      teams = { ...teams };
+      for (const key of ['blue', 'red']) {
+        const team = teams[key];
+        if (!team) continue;
+        teams[key] = {
+          ...team,
+          players: (team.players || []).map((player: any) => ({
+            ...player,
+            actions: (player.actions || []).map((action: any) =>
+              action?.index === delta.index ? { ...fill(action), status: 'completed' } : action)
+          })),
+          ...(key === owner && delta.championId && delta.championId !== 'SKIPPED'
+            ? { [list]: [...(team[list] || []), delta.championId] }
+            : {})
+        };
+      }
+    }
+
+    return {
+      ...base,
+      version: delta.version,
+      actions: (base.actions || []).map(fill),
+      phases: base.phases ? base.phases.map(fill) : base.phases,
+      teams
+    };
+  }
+
+  private requestDraftResync(matchId: any, version: number): void {
+    const playerId = this.currentPlayer?.summonerName;
+    const now = Date.now();
+    if (!playerId || now - this.lastDraftResyncAt < 2000) {
+      return;
+    }
+    this.lastDraftResyncAt = now;
+    this.apiService.sendWebSocketMessage({ type: 'draft_resync', data: { matchId, playerId, version } });
+  }
+
+  private isCurrentPlayerName(summonerName: string): boolean {
+    const displayName = this.currentPlayer?.displayName;
+    return !!displayName && summonerName.toLowerCase() === displayName.toLowerCase();
+  }
+
   private refreshQueueStatusWithDebounce(): void {
     const now = Date.now();
 
@@ -40,6 +40,7 @@ export interface QueueStatus {
   playersInQueueList?: QueuedPlayerInfo[]; // Lista dos jogadores na fila
   recentActivities?: QueueActivity[]; // Atividades recentes
   isCurrentPlayerInQueue?: boolean; // Indica se o usuário atual está na fila (calculado no backend)
+  version?: number; // Versão do snapshot da fila (deltas queue_delta)
 }
 
 export interface QueuedPlayerInfo {
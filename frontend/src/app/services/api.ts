@@ -12,6 +12,7 @@ interface QueueStatus {
   isActive: boolean;
   playersInQueueList?: QueuedPlayerInfo[];
   recentActivities?: QueueActivity[];
+  version?: number; // Versão do snapshot da fila (deltas queue_delta)
   activeMatches?: number; // Backwards compatibility
   queuedPlayers?: any[]; // Backwards compatibility (deprecated)
 }
@@ -697,7 +698,8 @@ export class ApiService {
             playersInQueueList: response.playersInQueueList || [],
             averageWaitTime: response.averageWaitTime || 0,
             estimatedMatchTime: response.estimatedMatchTime || 0,
-            isActive: response.isActive || false
+            isActive: response.isActive || false,
+            version: response.version
           } as QueueStatus;
         }),
         catchError(this.handleError)
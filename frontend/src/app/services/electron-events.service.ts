@@ -55,6 +55,8 @@ export class ElectronEventsService {
   // === CONNECTION EVENTS (SIGNALS) ===
   public backendConnection: WritableSignal<any> = signal(null);
   public playerSessionUpdate: WritableSignal<any> = signal(null);
+  // ✅ NOVO: Lacuna no log de eventos podada - componentes pedem snapshot
+  public eventResync: WritableSignal<any> = signal(null);
 
   // ✅ COMPATIBILIDADE: Observables para código legado (gerados automaticamente dos signals)
   public readonly matchFound$: Observable<any> = toObservable(this.matchFound);
@@ -83,6 +85,7 @@ export class ElectronEventsService {
   public readonly queueUpdate$: Observable<any> = toObservable(this.queueUpdate);
   public readonly backendConnection$: Observable<any> = toObservable(this.backendConnection);
   public readonly playerSessionUpdate$: Observable<any> = toObservable(this.playerSessionUpdate);
+  public readonly eventResync$: Observable<any> = toObservable(this.eventResync);
 
   constructor() {
     this.initializeElectronListeners();
@@ -284,6 +287,12 @@ export class ElectronEventsService {
           this.playerSessionUpdate.set({ ...data });
         });
 
+        window.electronAPI.onEventResync((event: any, data: any) => {
+          console.log('🎯 [ElectronEvents] event-resync recebido:', data);
+          // ✅ SIGNALS FIX: Criar nova referência para evitar mutação
+          this.eventResync.set({ ...data });
+        });
+
         console.log('✅ [ElectronEvents] Listeners do Electron configurados com sucesso!');
       } else {
         console.warn('⚠️ [ElectronEvents] Métodos de eventos não estão disponíveis ainda, tentando novamente em 1s...');
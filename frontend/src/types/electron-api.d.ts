@@ -54,6 +54,7 @@ declare global {
       // === CONNECTION EVENTS ===
       onBackendConnection: (callback: (event: any, data: any) => void) => void;
       onPlayerSessionUpdate: (callback: (event: any, data: any) => void) => void;
+      onEventResync: (callback: (event: any, data: any) => void) => void;
 
       // === LCU API ===
       lcu: {
@@ -50,6 +50,19 @@ public class AsyncConfig {
         return executor;
     }
 
+    @Bean(name = "matchmakingExecutor")
+    public Executor matchmakingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("Matchmaking-");
+        // Lobbies já estão reservados: se o pool saturar, cria no thread chamador
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
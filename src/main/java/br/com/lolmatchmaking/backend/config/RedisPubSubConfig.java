@@ -1,10 +1,12 @@
 package br.com.lolmatchmaking.backend.config;
 
 import br.com.lolmatchmaking.backend.service.EventBroadcastService;
+import br.com.lolmatchmaking.backend.service.redis.SessionRouteCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -25,13 +27,18 @@ import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
  * instância
  * 
  * CANAIS CONFIGURADOS:
- * - queue:* (eventos de fila: queue:update, queue:player_joined,
+ * - queue:* (eventos de fila: queue:update, queue:delta, queue:player_joined,
  * queue:player_left)
  * - match:* (eventos de partida: match:found, match:acceptance)
- * - draft:* (eventos de draft: draft:started, draft:pick, draft:ban)
+ * - ws:route (invalidação do near-cache de sessões, ver SessionRouteCache)
+ * - ws:node:{nodeId} (✅ NOVO: eventos dirigidos a jogadores conectados NESTA
+ * instância; só ela assina)
  * 
  * ARQUITETURA:
  * Evento → Redis Pub/Sub → TODAS as instâncias → WebSocket → TODOS os clientes
+ * Evento dirigido → ws:node:{dona} → instância dona → WebSocket → jogadores
+ * (match:* e game:* seguem assinados para compatibilidade com instâncias
+ * antigas durante o deploy)
  * 
  * REFERÊNCIA:
  * - ARQUITETURA-CORRETA-SINCRONIZACAO.md#implementação---redis-pubsub
@@ -51,9 +58,11 @@ public class RedisPubSubConfig {
             RedisConnectionFactory connectionFactory,
             MessageListenerAdapter queueListenerAdapter,
             MessageListenerAdapter matchListenerAdapter,
-            MessageListenerAdapter draftListenerAdapter,
             MessageListenerAdapter spectatorListenerAdapter,
-            MessageListenerAdapter gameListenerAdapter) {
+            MessageListenerAdapter gameListenerAdapter,
+            MessageListenerAdapter routeListenerAdapter,
+            MessageListenerAdapter nodeListenerAdapter,
+            SessionRouteCache sessionRouteCache) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
@@ -64,16 +73,20 @@ public class RedisPubSubConfig {
         // ✅ CANAIS DE PARTIDA (match:*)
         container.addMessageListener(matchListenerAdapter, new PatternTopic("match:*"));
 
-        // ✅ CANAIS DE DRAFT (draft:*)
-        container.addMessageListener(draftListenerAdapter, new PatternTopic("draft:*"));
-
         // ✅ CANAIS DE ESPECTADORES (spectator:*)
         container.addMessageListener(spectatorListenerAdapter, new PatternTopic("spectator:*"));
 
         // ✅ CANAIS DE GAME (game:*)
         container.addMessageListener(gameListenerAdapter, new PatternTopic("game:*"));
 
-        log.info("✅ [RedisPubSub] Configurado para escutar canais: queue:*, match:*, draft:*, spectator:*, game:*");
+        // ✅ INVALIDAÇÃO DE ROTAS DE SESSÃO (ws:route)
+        container.addMessageListener(routeListenerAdapter, new ChannelTopic(SessionRouteCache.ROUTE_CHANNEL));
+
+        // ✅ NOVO: CANAL EXCLUSIVO DESTA INSTÂNCIA (ws:node:{nodeId})
+        container.addMessageListener(nodeListenerAdapter, new ChannelTopic(sessionRouteCache.nodeChannel()));
+
+        log.info("✅ [RedisPubSub] Configurado para escutar canais: queue:*, match:*, spectator:*, "
+                + "game:*, ws:route, {}", sessionRouteCache.nodeChannel());
 
         return container;
     }
@@ -113,53 +126,66 @@ public class RedisPubSubConfig {
     }
 
     /**
-     * ✅ Adapter para escutar eventos de draft
+     * ✅ Adapter para escutar eventos de espectadores
      */
     @Bean
-    public MessageListenerAdapter draftListenerAdapter(EventBroadcastService eventBroadcastService) {
+    public MessageListenerAdapter spectatorListenerAdapter(EventBroadcastService eventBroadcastService) {
         MessageListenerAdapter adapter = new MessageListenerAdapter(
                 eventBroadcastService,
-                "handleDraftEvent");
+                "handleSpectatorEvent");
 
         // ✅ CRÍTICO: Configurar adapter para aceitar nome do canal como segundo
         // parâmetro
         adapter.setSerializer(null); // Usar String diretamente
 
-        log.info("✅ [RedisPubSub] Draft listener adapter criado");
+        log.info("✅ [RedisPubSub] Spectator listener adapter criado");
         return adapter;
     }
 
     /**
-     * ✅ Adapter para escutar eventos de espectadores
+     * ✅ Adapter para escutar eventos de game
      */
     @Bean
-    public MessageListenerAdapter spectatorListenerAdapter(EventBroadcastService eventBroadcastService) {
+    public MessageListenerAdapter gameListenerAdapter(EventBroadcastService eventBroadcastService) {
         MessageListenerAdapter adapter = new MessageListenerAdapter(
                 eventBroadcastService,
-                "handleSpectatorEvent");
+                "handleGameEvent");
 
         // ✅ CRÍTICO: Configurar adapter para aceitar nome do canal como segundo
         // parâmetro
         adapter.setSerializer(null); // Usar String diretamente
 
-        log.info("✅ [RedisPubSub] Spectator listener adapter criado");
+        log.info("✅ [RedisPubSub] Game listener adapter criado");
         return adapter;
     }
 
     /**
-     * ✅ Adapter para escutar eventos de game
+     * ✅ NOVO: Adapter para invalidações do near-cache de sessões
      */
     @Bean
-    public MessageListenerAdapter gameListenerAdapter(EventBroadcastService eventBroadcastService) {
+    public MessageListenerAdapter routeListenerAdapter(SessionRouteCache sessionRouteCache) {
+        MessageListenerAdapter adapter = new MessageListenerAdapter(
+                sessionRouteCache,
+                "handleRouteInvalidation");
+
+        adapter.setSerializer(null); // Usar String diretamente
+
+        log.info("✅ [RedisPubSub] Route listener adapter criado");
+        return adapter;
+    }
+
+    /**
+     * ✅ NOVO: Adapter para eventos dirigidos a esta instância
+     */
+    @Bean
+    public MessageListenerAdapter nodeListenerAdapter(EventBroadcastService eventBroadcastService) {
         MessageListenerAdapter adapter = new MessageListenerAdapter(
                 eventBroadcastService,
-                "handleGameEvent");
+                "handleNodeEvent");
 
-        // ✅ CRÍTICO: Configurar adapter para aceitar nome do canal como segundo
-        // parâmetro
         adapter.setSerializer(null); // Usar String diretamente
 
-        log.info("✅ [RedisPubSub] Game listener adapter criado");
+        log.info("✅ [RedisPubSub] Node listener adapter criado");
         return adapter;
     }
 }
@@ -1,14 +1,20 @@
 package br.com.lolmatchmaking.backend.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 import org.springframework.lang.NonNull;
 
+import java.util.List;
+
 import br.com.lolmatchmaking.backend.websocket.CoreWebSocketHandler;
 import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 
@@ -20,6 +26,12 @@ public class WebSocketConfig implements WebSocketConfigurer {
         private final CoreWebSocketHandler coreWebSocketHandler;
         private final MatchmakingWebSocketService matchmakingWebSocketService;
 
+        private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+        // ✅ NOVO: Compressão por mensagem (RFC 7692) negociada no handshake
+        @Value("${app.websocket.permessage-deflate:true}")
+        private boolean permessageDeflate;
+
         public WebSocketConfig(CoreWebSocketHandler coreWebSocketHandler,
                         MatchmakingWebSocketService matchmakingWebSocketService) {
                 this.coreWebSocketHandler = coreWebSocketHandler;
@@ -30,20 +42,52 @@ public class WebSocketConfig implements WebSocketConfigurer {
         public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
                 // ✅ CORREÇÃO COMPLETA: WebSocket simples sem SockJS que estava causando
                 // conflito
+                DefaultHandshakeHandler handshakeHandler = handshakeHandler();
+
                 registry.addHandler(coreWebSocketHandler, "/api/ws")
+                                .setHandshakeHandler(handshakeHandler)
                                 .setAllowedOriginPatterns("*"); // Usar allowedOriginPatterns em vez de allowedOrigins
 
                 // ✅ OPCIONAL: WebSocket alternativo sem /api (se necessário)
                 registry.addHandler(coreWebSocketHandler, "/ws")
+                                .setHandshakeHandler(handshakeHandler)
                                 .setAllowedOriginPatterns("*");
 
                 // Handler para clientes Electron (RPC LCU) em /client-ws (com interceptor de
                 // autenticação)
                 registry.addHandler(matchmakingWebSocketService, "/client-ws")
+                                .setHandshakeHandler(handshakeHandler)
                                 .addInterceptors(new br.com.lolmatchmaking.backend.config.WebSocketAuthInterceptor())
                                 .setAllowedOriginPatterns("*");
 
-                log.info("🔌 WebSocket registrado em: /api/ws e /ws");
+                log.info("🔌 WebSocket registrado em: /api/ws e /ws (permessage-deflate: {})",
+                                permessageDeflate ? "habilitado" : "desabilitado");
+        }
+
+        /**
+         * ✅ NOVO: Handshake com controle explícito do permessage-deflate
+         * 
+         * O container (Tomcat) implementa a extensão; aqui ela é aceita quando o
+         * cliente oferece (Electron/Chromium oferece por padrão) ou removida da
+         * negociação com app.websocket.permessage-deflate=false.
+         * Frames de draft/timer (1Hz) são JSON repetitivo e comprimem bem.
+         */
+        private DefaultHandshakeHandler handshakeHandler() {
+                return new DefaultHandshakeHandler() {
+                        @Override
+                        protected List<WebSocketExtension> filterRequestedExtensions(@NonNull ServerHttpRequest request,
+                                        List<WebSocketExtension> requestedExtensions,
+                                        List<WebSocketExtension> supportedExtensions) {
+                                List<WebSocketExtension> accepted = super.filterRequestedExtensions(request,
+                                                requestedExtensions, supportedExtensions);
+                                if (permessageDeflate) {
+                                        return accepted;
+                                }
+                                return accepted.stream()
+                                                .filter(extension -> !PERMESSAGE_DEFLATE.equals(extension.getName()))
+                                                .toList();
+                        }
+                };
         }
 
         @Bean
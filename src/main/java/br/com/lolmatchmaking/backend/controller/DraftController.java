@@ -2,6 +2,7 @@ package br.com.lolmatchmaking.backend.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import br.com.lolmatchmaking.backend.service.DraftStateStore;
 import br.com.lolmatchmaking.backend.util.SummonerAuthUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
@@ -225,14 +226,14 @@ public class DraftController {
                         }
                         log.info("🔄 [DraftController] Chamando DraftFlowService.processAction()...");
 
-                        // ✅ Chamar DraftFlowService.processAction()
-                        boolean success = draftFlowService.processAction(
+                        // ✅ Chamar DraftFlowService.submitAction() (compare-and-set, sem lock)
+                        DraftStateStore.ActionResult result = draftFlowService.submitAction(
                                         req.matchId(),
                                         req.actionIndex(),
                                         req.championId(),
                                         req.playerId());
 
-                        if (success) {
+                        if (result == DraftStateStore.ActionResult.APPLIED) {
                                 log.info("╔════════════════════════════════════════════════════════════════╗");
                                 log.info("║  ✅ [DraftController] AÇÃO PROCESSADA COM SUCESSO             ║");
                                 log.info("╚════════════════════════════════════════════════════════════════╝\n");
@@ -245,9 +246,11 @@ public class DraftController {
                                 log.warn("   - Campeão já utilizado");
                                 log.warn("   - Jogador incorreto para esta ação");
                                 log.warn("   - Ação fora de ordem");
+                                log.warn("⚠️ Resultado: {}", result);
                                 log.info("════════════════════════════════════════════════════════════════\n");
                                 return ResponseEntity.badRequest().body(Map.of(
                                                 KEY_SUCCESS, false,
+                                                "result", result.wireName(),
                                                 KEY_ERROR,
                                                 "Ação inválida: campeão já utilizado, jogador errado ou fora de ordem"));
                         }
@@ -6,6 +6,9 @@ import org.springframework.web.bind.annotation.*;
 
 import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/internal")
 public class LcuProxyController {
@@ -18,19 +21,25 @@ public class LcuProxyController {
 
     // POST /internal/lcu-proxy
     // body: { sessionId: string, method: 'GET', path: '/lol-summoner/v1/current-summoner', body?: {...} }
+    // Resposta assíncrona: a thread do servlet é liberada enquanto o Electron responde
     @PostMapping("/lcu-proxy")
-    public ResponseEntity<Object> proxy(@RequestBody JsonNode req) {
+    public CompletableFuture<ResponseEntity<Object>> proxy(@RequestBody JsonNode req) {
         String sessionId = req.has("sessionId") ? req.get("sessionId").asText(null) : null;
         String method = req.has("method") ? req.get("method").asText("GET") : "GET";
         String path = req.has("path") ? req.get("path").asText("/") : "/";
         JsonNode body = req.has("body") ? req.get("body") : null;
-        if (sessionId == null) return ResponseEntity.badRequest().body("sessionId required");
-        try {
-            JsonNode resp = wsService.requestLcu(sessionId, method, path, body, 5000);
-            return ResponseEntity.ok(resp);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(e.getMessage());
-        }
+        if (sessionId == null)
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("sessionId required"));
+        return wsService.requestLcuAsync(sessionId, method, path, body, 5000)
+                .handle((resp, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        return ResponseEntity.status(500).body(cause.getMessage());
+                    }
+                    return ResponseEntity.ok(resp);
+                });
     }
 }
 
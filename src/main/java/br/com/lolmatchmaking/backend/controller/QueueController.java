@@ -58,7 +58,8 @@ public class QueueController {
                     "averageWaitTime", status.getAverageWaitTime(),
                     "estimatedMatchTime", status.getEstimatedMatchTime(),
                     "isActive", status.isActive(),
-                    "isCurrentPlayerInQueue", status.isCurrentPlayerInQueue()));
+                    "isCurrentPlayerInQueue", status.isCurrentPlayerInQueue(),
+                    "version", status.getVersion()));
 
         } catch (Exception e) {
             log.error("❌ Erro ao obter status da fila", e);
@@ -1,5 +1,6 @@
 package br.com.lolmatchmaking.backend.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,10 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
 
     Optional<Player> findBySummonerNameIgnoreCase(String summonerName);
 
+    // ✅ NOVO: Busca em lote (nomes já em minúsculo) - uma única query IN (...)
+    @Query("SELECT p FROM Player p WHERE LOWER(p.summonerName) IN :names")
+    List<Player> findBySummonerNameLowerIn(@Param("names") Collection<String> names);
+
     Optional<Player> findByPuuid(String puuid);
 
     @Query("SELECT p FROM Player p ORDER BY p.customMmr DESC LIMIT :limit")
@@ -1,6 +1,12 @@
 package br.com.lolmatchmaking.backend.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -9,10 +15,28 @@ import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
 public interface QueuePlayerRepository extends JpaRepository<QueuePlayer, Long> {
     Optional<QueuePlayer> findBySummonerName(String summonerName);
 
+    List<QueuePlayer> findBySummonerNameIn(Collection<String> summonerNames);
+
     List<QueuePlayer> findByActiveTrueOrderByJoinTimeAsc();
 
     List<QueuePlayer> findByActiveTrue();
 
     // ✅ NOVO: Conta jogadores ativos
     long countByActiveTrue();
+
+    // ✅ NOVO: Entradas ativas de um jogador (busca pelo índice do nome, sem ler
+    // a fila inteira)
+    List<QueuePlayer> findBySummonerNameIgnoreCaseAndActiveTrue(String summonerName);
+
+    // ✅ NOVO: Atualiza acceptance_status de vários jogadores em um único UPDATE
+    @Modifying
+    @Transactional
+    @Query("UPDATE QueuePlayer q SET q.acceptanceStatus = :status WHERE q.summonerName IN :names")
+    int updateAcceptanceStatus(@Param("names") Collection<String> names, @Param("status") Integer status);
+
+    // ✅ NOVO: Fecha o buraco deixado por quem saiu da fila em um único UPDATE
+    @Modifying
+    @Transactional
+    @Query("UPDATE QueuePlayer q SET q.queuePosition = q.queuePosition - 1 WHERE q.active = true AND q.queuePosition > :position")
+    int shiftQueuePositionsAfter(@Param("position") int position);
 }
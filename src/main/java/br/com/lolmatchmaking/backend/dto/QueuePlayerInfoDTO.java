@@ -30,6 +30,7 @@ public class QueuePlayerInfoDTO {
     private Boolean isAutofill; // Se foi forçado para outra lane
     private Integer teamIndex; // 0-4 (time 1) ou 5-9 (time 2)
     private Instant joinTime;
+    private Long estimatedWaitTime; // Segundos (ocupação da janela de MMR do jogador)
     private Integer queuePosition;
     private Boolean isActive;
     private Integer acceptanceStatus;
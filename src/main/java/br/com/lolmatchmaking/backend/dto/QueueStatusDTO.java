@@ -14,6 +14,8 @@ public class QueueStatusDTO {
     private boolean isActive;
     // Novo campo: indica se o jogador requisitante está na fila
     private boolean isCurrentPlayerInQueue;
+    // Versão do snapshot da fila (deltas queue_delta aplicam-se a partir dela)
+    private long version;
 
     public void setIsCurrentPlayerInQueue(boolean isCurrentPlayerInQueue) {
         this.isCurrentPlayerInQueue = isCurrentPlayerInQueue;
@@ -0,0 +1,41 @@
+package br.com.lolmatchmaking.backend.dto.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ✅ NOVO: Evento dirigido encaminhado para a instância dona das sessões
+ * 
+ * Publicado por sendToPlayers quando parte dos destinatários está conectada
+ * em outra instância. Só a instância dona recebe (canal ws:node:{nodeId}) e
+ * entrega com targetSummoner/seq; o payload segue já serializado, sem
+ * Map intermediário.
+ * 
+ * CANAL REDIS: ws:node:{nodeId} (envelope ws:directed)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectedPlayerEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tipo do evento WebSocket (match_found, draft_updated, ...)
+     */
+    private String eventType;
+
+    /**
+     * Payload serializado (objeto JSON sem targetSummoner)
+     */
+    private String dataJson;
+
+    /**
+     * Destinatários conectados na instância dona
+     */
+    private List<String> playerNames;
+}
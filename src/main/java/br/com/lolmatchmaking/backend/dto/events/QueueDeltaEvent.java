@@ -0,0 +1,73 @@
+package br.com.lolmatchmaking.backend.dto.events;
+
+import br.com.lolmatchmaking.backend.dto.QueuePlayerInfoDTO;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ Evento incremental da fila (delta versionado)
+ *
+ * Publicado a cada mudança do snapshot da fila (jogador entrou/saiu ou
+ * mudou de posição). Carrega apenas o que mudou, com versão monotônica
+ * global (Redis INCR).
+ *
+ * Clientes aplicam o delta se {@code baseVersion} é a versão que possuem;
+ * caso contrário pedem o snapshot completo (get_queue_status).
+ *
+ * CANAL REDIS: queue:delta
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueDeltaEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Versão do snapshot após aplicar este delta
+     */
+    private long version;
+
+    /**
+     * Versão sobre a qual o delta foi calculado
+     */
+    private long baseVersion;
+
+    /**
+     * Jogadores que entraram na fila
+     */
+    private List<QueuePlayerInfoDTO> joined;
+
+    /**
+     * Nomes dos jogadores que saíram da fila
+     */
+    private List<String> left;
+
+    /**
+     * Novas posições (summonerName → queuePosition) dos jogadores que mudaram
+     */
+    private Map<String, Integer> positions;
+
+    /**
+     * Total de jogadores na fila após o delta
+     */
+    private int playersInQueue;
+
+    /**
+     * Timestamp do evento
+     */
+    private Instant timestamp;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return (joined == null || joined.isEmpty()) && (left == null || left.isEmpty())
+                && (positions == null || positions.isEmpty());
+    }
+}
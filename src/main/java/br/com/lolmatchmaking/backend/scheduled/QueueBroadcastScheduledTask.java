@@ -1,9 +1,9 @@
 package br.com.lolmatchmaking.backend.scheduled;
 
 import br.com.lolmatchmaking.backend.dto.QueueStatusDTO;
-import br.com.lolmatchmaking.backend.service.EventBroadcastService;
 import br.com.lolmatchmaking.backend.service.QueueManagementService;
-import br.com.lolmatchmaking.backend.service.redis.RedisQueueCacheService;
+import br.com.lolmatchmaking.backend.service.QueueSnapshotService;
+import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 import br.com.lolmatchmaking.backend.websocket.SessionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +38,11 @@ import org.springframework.stereotype.Component;
  * - Fila atualiza automaticamente (sem clicar)
  * - Sincronizado entre todos os jogadores
  * - Igual Discord (tempo real)
+ *
+ * ✅ NOVO: Entrada/saída já chegam aos clientes como queue_delta versionado.
+ * O timer só atua quando a versão da fila mudou desde o último ciclo, e envia
+ * apenas um heartbeat compacto (queue_version) para os clientes que perderam
+ * algum delta buscarem o snapshot completo.
  * 
  * REFERÊNCIA:
  * - ARQUITETURA-CORRETA-SINCRONIZACAO.md#scheduled-task-de-broadcast-automático
@@ -49,19 +54,20 @@ import org.springframework.stereotype.Component;
 public class QueueBroadcastScheduledTask {
 
     private final QueueManagementService queueManagementService;
-    private final EventBroadcastService eventBroadcastService;
-    private final RedisQueueCacheService redisQueueCache;
+    private final QueueSnapshotService queueSnapshotService;
+    private final MatchmakingWebSocketService webSocketService;
     private final SessionRegistry sessionRegistry;
     private final RedisTemplate<String, Object> redisTemplate;
 
+    // ✅ NOVO: Última versão anunciada por esta instância
+    private volatile long lastBroadcastVersion = -1;
+
     /**
-     * ✅ BROADCAST AUTOMÁTICO DA FILA A CADA 3 SEGUNDOS
-     * 
-     * Garante que todos os clientes tenham a fila atualizada em tempo real,
-     * mesmo que não haja eventos de entrar/sair.
+     * ✅ HEARTBEAT DE VERSÃO DA FILA A CADA 3 SEGUNDOS
      * 
-     * ⚠️ IMPORTANTE: Apenas jogadores que estão REALMENTE na fila (não em
-     * draft/game)
+     * Suprimido quando a versão não mudou. Quando mudou, envia apenas
+     * {version, playersInQueue} para os clientes desta instância (cada
+     * instância executa o próprio timer, por isso sem Pub/Sub).
      * 
      * Executado a cada 3 segundos para manter fila sincronizada.
      */
@@ -74,32 +80,19 @@ public class QueueBroadcastScheduledTask {
                 return;
             }
 
-            // 1. Buscar status da fila (APENAS jogadores que estão aguardando)
-            // getQueueStatus já filtra jogadores que estão em match/draft
-            QueueStatusDTO status = queueManagementService.getQueueStatus(null);
+            QueueSnapshotService.Snapshot snapshot = queueSnapshotService.snapshot();
 
-            if (status == null) {
-                log.warn("⚠️ [QueueBroadcast] Status nulo, pulando broadcast");
+            // ✅ NOVO: Versão não mudou → nada a enviar
+            if (snapshot.version() == lastBroadcastVersion) {
+                log.trace("⏭️ [QueueBroadcast] Fila sem mudanças (v{}), pulando broadcast", snapshot.version());
                 return;
             }
+            lastBroadcastVersion = snapshot.version();
 
-            // ✅ FILTRO: Não fazer broadcast se não houver jogadores na fila
-            // Isso evita enviar eventos vazios para jogadores em draft/game
-            if (status.getPlayersInQueue() == 0) {
-                log.debug("⏭️ [QueueBroadcast] Fila vazia, pulando broadcast (jogadores podem estar em partida)");
-                return;
-            }
-
-            // 2. Cachear no Redis (para performance)
-            redisQueueCache.cacheQueueStatus(status);
-
-            // 3. Publicar via Pub/Sub (todas instâncias fazem broadcast)
-            // ✅ NOTA: Apenas jogadores na tela de fila receberão este evento
-            // Jogadores em draft/game ignoram este evento
-            eventBroadcastService.publishQueueUpdate(status);
+            webSocketService.broadcastQueueVersion(snapshot.version(), snapshot.players().size());
 
-            log.info("✅ [QueueBroadcast] Broadcast automático executado: {} jogadores em tempo real",
-                    status.getPlayersInQueue());
+            log.debug("✅ [QueueBroadcast] Versão da fila anunciada: v{} ({} jogadores)",
+                    snapshot.version(), snapshot.players().size());
 
         } catch (Exception e) {
             log.error("❌ [QueueBroadcast] Erro no broadcast automático da fila", e);
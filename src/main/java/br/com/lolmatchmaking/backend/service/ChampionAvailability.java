@@ -0,0 +1,115 @@
+package br.com.lolmatchmaking.backend.service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ✅ NOVO: Campeões já usados (ban/pick) de um draft como máscara de bits
+ *
+ * PROBLEMA RESOLVIDO:
+ * - Cada timeout copiava getAllChampions() numa lista nova, montava um HashSet
+ * dos usados, filtrava numa terceira lista e criava um new Random()
+ * - A validação do pick varria todas as ações a cada tentativa
+ *
+ * SOLUÇÃO:
+ * - Bit por ordinal denso do {@link DataDragonService.ChampionOrdinals}
+ * - take/release/isTaken em O(1); sorteio em O(1) esperado (no máximo 20 dos
+ * ~170 bits ocupados) com {@link ThreadLocalRandom}, sem alocação
+ * - Construída uma vez por DraftState a partir das ações (O(ações))
+ *
+ * Keys fora do Data Dragon (ex.: catálogo ainda não carregado) não têm bit: o
+ * chamador cai na varredura das ações para esses casos.
+ *
+ * Não é thread-safe: vive dentro do DraftState, carregado por requisição; a
+ * concorrência entre ações é resolvida no compare-and-set do DraftStateStore.
+ */
+public final class ChampionAvailability {
+
+    // Tentativas de sorteio antes de varrer a partir de um ponto aleatório
+    private static final int MAX_RANDOM_PROBES = 32;
+
+    private final DataDragonService.ChampionOrdinals ordinals;
+    private final long[] taken;
+    private int takenCount;
+
+    private ChampionAvailability(DataDragonService.ChampionOrdinals ordinals) {
+        this.ordinals = ordinals != null ? ordinals : DataDragonService.ChampionOrdinals.EMPTY;
+        this.taken = new long[(this.ordinals.size() + 63) >>> 6];
+    }
+
+    public static ChampionAvailability of(DataDragonService.ChampionOrdinals ordinals,
+            List<DraftFlowService.DraftAction> actions) {
+        ChampionAvailability availability = new ChampionAvailability(ordinals);
+        for (DraftFlowService.DraftAction action : actions) {
+            availability.take(action.championId());
+        }
+        return availability;
+    }
+
+    /**
+     * true se o campeão tem ordinal (a máscara responde por ele)
+     */
+    public boolean isKnown(String championKey) {
+        return ordinals.ordinalOf(championKey) >= 0;
+    }
+
+    public boolean isTaken(String championKey) {
+        int ordinal = ordinals.ordinalOf(championKey);
+        return ordinal >= 0 && (taken[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    public void take(String championKey) {
+        int ordinal = ordinals.ordinalOf(championKey);
+        if (ordinal < 0) {
+            return;
+        }
+        long bit = 1L << ordinal;
+        if ((taken[ordinal >>> 6] & bit) == 0) {
+            taken[ordinal >>> 6] |= bit;
+            takenCount++;
+        }
+    }
+
+    public void release(String championKey) {
+        int ordinal = ordinals.ordinalOf(championKey);
+        if (ordinal < 0) {
+            return;
+        }
+        long bit = 1L << ordinal;
+        if ((taken[ordinal >>> 6] & bit) != 0) {
+            taken[ordinal >>> 6] &= ~bit;
+            takenCount--;
+        }
+    }
+
+    public int availableCount() {
+        return ordinals.size() - takenCount;
+    }
+
+    /**
+     * Key de um campeão livre escolhido ao acaso; null se não há nenhum (ou o
+     * catálogo não está carregado)
+     */
+    public String randomAvailable() {
+        int size = ordinals.size();
+        if (availableCount() <= 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int probe = 0; probe < MAX_RANDOM_PROBES; probe++) {
+            int ordinal = random.nextInt(size);
+            if ((taken[ordinal >>> 6] & (1L << ordinal)) == 0) {
+                return ordinals.keyAt(ordinal);
+            }
+        }
+        // Máscara quase cheia: primeiro livre a partir de um ponto aleatório
+        int start = random.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int ordinal = (start + i) % size;
+            if ((taken[ordinal >>> 6] & (1L << ordinal)) == 0) {
+                return ordinals.keyAt(ordinal);
+            }
+        }
+        return null;
+    }
+}
@@ -31,6 +31,58 @@ public class DataDragonService {
     // ✅ NOVO: Usar cache do Spring (@Cacheable) em vez de HashMap local
     private boolean championsLoaded = false;
 
+    // ✅ NOVO: Ordinais densos (0..n-1) dos campeões, trocados por inteiro a cada
+    // carga (ChampionAvailability guarda a instância com que foi construída)
+    private volatile ChampionOrdinals championOrdinals = ChampionOrdinals.EMPTY;
+
+    /**
+     * ✅ NOVO: Key numérico ↔ ordinal denso, ordenado pelo key (estável entre
+     * instâncias com a mesma versão do Data Dragon). Imutável.
+     */
+    public static final class ChampionOrdinals {
+
+        public static final ChampionOrdinals EMPTY = new ChampionOrdinals(new String[0]);
+
+        private final String[] keys;
+        private final Map<String, Integer> ordinals;
+
+        private ChampionOrdinals(String[] keys) {
+            this.keys = keys;
+            Map<String, Integer> byKey = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                byKey.put(keys[i], i);
+            }
+            this.ordinals = Collections.unmodifiableMap(byKey);
+        }
+
+        static ChampionOrdinals of(Collection<String> championKeys) {
+            return new ChampionOrdinals(championKeys.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()))
+                    .toArray(String[]::new));
+        }
+
+        /**
+         * @return ordinal do campeão ou -1 se o key não existe
+         */
+        public int ordinalOf(String championKey) {
+            if (championKey == null) {
+                return -1;
+            }
+            Integer ordinal = ordinals.get(championKey);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        public String keyAt(int ordinal) {
+            return keys[ordinal];
+        }
+
+        public int size() {
+            return keys.length;
+        }
+    }
+
     @Data
     public static class ChampionData {
         private String id;
@@ -137,6 +189,9 @@ public class DataDragonService {
                 }
             });
 
+            championOrdinals = ChampionOrdinals.of(championsCache.values().stream()
+                    .map(ChampionData::getKey)
+                    .toList());
             championsLoaded = true;
             log.info("✅ {} campeões carregados com sucesso", championsCache.size());
 
@@ -235,6 +290,16 @@ public class DataDragonService {
         return new ArrayList<>(championsCache.values());
     }
 
+    /**
+     * ✅ NOVO: Ordinais densos dos campeões carregados (ChampionAvailability)
+     */
+    public ChampionOrdinals getChampionOrdinals() {
+        if (!championsLoaded) {
+            loadChampions();
+        }
+        return championOrdinals;
+    }
+
     /**
      * Busca campeões por nome
      */
@@ -0,0 +1,422 @@
+package br.com.lolmatchmaking.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ✅ NOVO: Motor único de prazos do draft (deadline por ação)
+ *
+ * PROBLEMA RESOLVIDO:
+ * - Dois loops de 1s (thread Draft-Simple-Timer + @Scheduled
+ * monitorActionTimeouts) faziam findByStatus("draft") e parse do
+ * pick_ban_data de CADA draft, todo segundo, mesmo sem nada para fazer
+ * - Timer em Redis decrementado por DECR a cada segundo; o timeout real era
+ * decidido por outro relógio (lastActionStartMs) → dois relógios divergentes
+ *
+ * SOLUÇÃO:
+ * - Um prazo por draft ativo: (matchId, actionIndex) → instante absoluto de
+ * expiração (timeout do jogador ou auto-ação de bot)
+ * - UMA thread dorme até o próximo prazo (fila de prioridade + Condition):
+ * sem drafts ativos, não acorda nem consulta o MySQL
+ * - Ticks de timer para o cliente derivados do prazo em memória (1/s por draft
+ * armado nesta instância, sem MySQL); cada tick confere o score no ZSET e
+ * solta o draft se outra instância rearmou o prazo
+ * - Coordenação entre instâncias: ZSET {@link #DEADLINES_KEY} (matchId →
+ * prazo). Quem dispara precisa "reivindicar" o prazo (ZREM atômico se o score
+ * ainda é o mesmo) → cada prazo dispara uma única vez no cluster
+ * - Prazos órfãos (instância que armou caiu/reiniciou) são recolhidos por uma
+ * varredura leve do ZSET a cada {@link #ORPHAN_SWEEP_MS}
+ */
+@Slf4j
+@Component
+public class DraftDeadlineScheduler {
+
+    public static final String DEADLINES_KEY = "draft:deadlines"; // ZSET matchId → prazo (epoch ms)
+
+    static final long TICK_MS = 1_000;
+    static final long ORPHAN_SWEEP_MS = 5_000;
+    // Prazo vencido há mais que isso sem reivindicação → instância dona não está
+    // mais processando
+    static final long ORPHAN_GRACE_MS = 3_000;
+    private static final int ORPHAN_BATCH = 16;
+
+    /**
+     * ARGV = matchId, prazo, modo. Modo "nx" mantém um prazo já registrado
+     * (restauração após restart). Retorna o prazo efetivo.
+     */
+    private static final RedisScript<Long> ARM_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[3] == 'nx' then\n" +
+                    "  local existing = redis.call('ZSCORE', KEYS[1], ARGV[1])\n" +
+                    "  if existing then return tonumber(existing) end\n" +
+                    "end\n" +
+                    "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])\n" +
+                    "return tonumber(ARGV[2])",
+            Long.class);
+
+    /**
+     * Reivindica o prazo: remove só se o score ainda é o prazo esperado (ARGV =
+     * matchId, prazo). 0 = outra instância já disparou ou o draft foi reagendado.
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1])\n" +
+                    "if score and tonumber(score) == tonumber(ARGV[2]) then\n" +
+                    "  return redis.call('ZREM', KEYS[1], ARGV[1])\n" +
+                    "end\n" +
+                    "return 0",
+            Long.class);
+
+    /**
+     * Prazo registrado no cluster para o match (ARGV = matchId); -1 se ausente
+     */
+    private static final RedisScript<Long> SCORE_SCRIPT = new DefaultRedisScript<>(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1])\n" +
+                    "if score then return tonumber(score) end\n" +
+                    "return -1",
+            Long.class);
+
+    private static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>(
+            "return redis.call('ZREM', KEYS[1], ARGV[1])",
+            Long.class);
+
+    /**
+     * Prazos vencidos até ARGV[1], no máximo ARGV[2], como "matchId=prazo"
+     * separados por vírgula
+     */
+    private static final RedisScript<String> OVERDUE_SCRIPT = new DefaultRedisScript<>(
+            "local items = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1],\n" +
+                    "  'WITHSCORES', 'LIMIT', 0, ARGV[2])\n" +
+                    "local out = {}\n" +
+                    "for i = 1, #items, 2 do\n" +
+                    "  out[#out + 1] = items[i] .. '=' .. items[i + 1]\n" +
+                    "end\n" +
+                    "return table.concat(out, ',')",
+            String.class);
+
+    private static final GenericToStringSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    /**
+     * Prazo expirado e reivindicado por esta instância. actionIndex = -1 para
+     * prazos órfãos (índice desconhecido: usar a ação atual do draft).
+     */
+    @FunctionalInterface
+    public interface DeadlineHandler {
+        void onDeadline(long matchId, int actionIndex);
+    }
+
+    @FunctionalInterface
+    public interface TimerTickSink {
+        void onTick(long matchId, List<String> players, int secondsRemaining);
+    }
+
+    private enum Kind {
+        DEADLINE, TICK, SWEEP
+    }
+
+    private static final class Armed {
+        private final long matchId;
+        private final int actionIndex;
+        private final long deadlineAt;
+        private final List<String> players;
+
+        private Armed(long matchId, int actionIndex, long deadlineAt, List<String> players) {
+            this.matchId = matchId;
+            this.actionIndex = actionIndex;
+            this.deadlineAt = deadlineAt;
+            this.players = players;
+        }
+    }
+
+    private record Wakeup(long at, Kind kind, Armed armed) {
+    }
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final Map<Long, Armed> armed = new ConcurrentHashMap<>();
+    private final PriorityQueue<Wakeup> wakeups = new PriorityQueue<>(Comparator.comparingLong(Wakeup::at));
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private volatile DeadlineHandler deadlineHandler = (matchId, actionIndex) -> {
+    };
+    private volatile TimerTickSink tickSink = (matchId, players, seconds) -> {
+    };
+
+    public DraftDeadlineScheduler(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        enqueue(new Wakeup(System.currentTimeMillis() + ORPHAN_SWEEP_MS, Kind.SWEEP, null));
+        this.worker = new Thread(this::runLoop, "draft-deadlines");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Destinos dos prazos expirados e dos ticks de timer (DraftFlowService)
+     */
+    public void bind(DeadlineHandler deadlineHandler, TimerTickSink tickSink) {
+        this.deadlineHandler = deadlineHandler;
+        this.tickSink = tickSink;
+    }
+
+    /**
+     * Arma (ou substitui) o prazo da ação atual do draft
+     */
+    public void arm(long matchId, int actionIndex, long deadlineAt, List<String> players) {
+        long effective = register(matchId, deadlineAt, "set");
+        armLocally(matchId, actionIndex, effective, players);
+    }
+
+    /**
+     * Como {@link #arm}, mas preserva um prazo já registrado no cluster
+     * (restauração após restart não estende o tempo do jogador)
+     */
+    public void armIfAbsent(long matchId, int actionIndex, long deadlineAt, List<String> players) {
+        long effective = register(matchId, deadlineAt, "nx");
+        armLocally(matchId, actionIndex, effective, players);
+    }
+
+    public void cancel(long matchId) {
+        armed.remove(matchId);
+        try {
+            redisTemplate.execute(CANCEL_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(DEADLINES_KEY), String.valueOf(matchId));
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftDeadline] Falha ao remover prazo do match {}: {}", matchId, e.getMessage());
+        }
+    }
+
+    public boolean isArmed(long matchId) {
+        return armed.containsKey(matchId);
+    }
+
+    public int armedCount() {
+        return armed.size();
+    }
+
+    private long register(long matchId, long deadlineAt, String mode) {
+        try {
+            Long effective = redisTemplate.execute(ARM_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(DEADLINES_KEY), String.valueOf(matchId), String.valueOf(deadlineAt), mode);
+            return effective != null ? effective : deadlineAt;
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftDeadline] Falha ao registrar prazo no Redis (match {}): {}", matchId,
+                    e.getMessage());
+            return deadlineAt;
+        }
+    }
+
+    private void armLocally(long matchId, int actionIndex, long deadlineAt, List<String> players) {
+        Armed entry = new Armed(matchId, actionIndex, deadlineAt, List.copyOf(players));
+        armed.put(matchId, entry);
+
+        lock.lock();
+        try {
+            wakeups.add(new Wakeup(deadlineAt, Kind.DEADLINE, entry));
+            long firstTick = System.currentTimeMillis() + TICK_MS;
+            if (firstTick < deadlineAt) {
+                wakeups.add(new Wakeup(firstTick, Kind.TICK, entry));
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("⏰ [DraftDeadline] Prazo armado: match={}, ação={}, em {}ms", matchId, actionIndex,
+                deadlineAt - System.currentTimeMillis());
+    }
+
+    private void enqueue(Wakeup wakeup) {
+        lock.lock();
+        try {
+            wakeups.add(wakeup);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        log.info("⏰ [DraftDeadline] Motor de prazos do draft iniciado");
+        while (running) {
+            try {
+                lock.lock();
+                try {
+                    Wakeup head = wakeups.peek();
+                    long now = System.currentTimeMillis();
+                    if (head == null) {
+                        changed.await();
+                    } else if (head.at() > now) {
+                        changed.await(head.at() - now, TimeUnit.MILLISECONDS);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                runDue(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ [DraftDeadline] Erro no motor de prazos", e);
+            }
+        }
+        log.info("⏰ [DraftDeadline] Motor de prazos do draft finalizado");
+    }
+
+    /**
+     * Processa tudo que venceu até {@code now} (fora do lock: handlers fazem I/O)
+     */
+    void runDue(long now) {
+        List<Wakeup> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!wakeups.isEmpty() && wakeups.peek().at() <= now) {
+                due.add(wakeups.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Wakeup wakeup : due) {
+            try {
+                switch (wakeup.kind()) {
+                    case DEADLINE -> fireDeadline(wakeup.armed());
+                    case TICK -> fireTick(wakeup);
+                    case SWEEP -> {
+                        sweepOrphans(now);
+                        enqueue(new Wakeup(now + ORPHAN_SWEEP_MS, Kind.SWEEP, null));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("❌ [DraftDeadline] Erro processando {} do match {}", wakeup.kind(),
+                        wakeup.armed() != null ? wakeup.armed().matchId : null, e);
+            }
+        }
+    }
+
+    private void fireDeadline(Armed entry) {
+        if (armed.get(entry.matchId) != entry) {
+            return; // substituído por um prazo mais novo
+        }
+        armed.remove(entry.matchId, entry);
+        if (!claim(entry.matchId, entry.deadlineAt)) {
+            log.debug("⏭️ [DraftDeadline] Prazo do match {} já tratado em outra instância", entry.matchId);
+            return;
+        }
+        log.info("⏰ [DraftDeadline] Prazo expirado: match={}, ação={}", entry.matchId, entry.actionIndex);
+        deadlineHandler.onDeadline(entry.matchId, entry.actionIndex);
+    }
+
+    private void fireTick(Wakeup wakeup) {
+        Armed entry = wakeup.armed();
+        if (armed.get(entry.matchId) != entry) {
+            return;
+        }
+        if (!ownsDeadline(entry)) {
+            // Outra instância rearmou (ou já disparou/cancelou): ticks daqui
+            // levariam um timeRemaining velho para os jogadores
+            armed.remove(entry.matchId, entry);
+            log.debug("⏭️ [DraftDeadline] Prazo do match {} não é mais desta instância, parando ticks",
+                    entry.matchId);
+            return;
+        }
+        int seconds = (int) Math.ceil((entry.deadlineAt - wakeup.at()) / 1000.0);
+        if (seconds > 0) {
+            tickSink.onTick(entry.matchId, entry.players, seconds);
+        }
+        long next = wakeup.at() + TICK_MS;
+        if (next < entry.deadlineAt) {
+            enqueue(new Wakeup(next, Kind.TICK, entry));
+        }
+    }
+
+    private void sweepOrphans(long now) {
+        String overdue;
+        try {
+            overdue = redisTemplate.execute(OVERDUE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    List.of(DEADLINES_KEY), String.valueOf(now - ORPHAN_GRACE_MS), String.valueOf(ORPHAN_BATCH));
+        } catch (Exception e) {
+            log.debug("⚠️ [DraftDeadline] Varredura de prazos órfãos falhou: {}", e.getMessage());
+            return;
+        }
+        if (overdue == null || overdue.isEmpty()) {
+            return;
+        }
+
+        for (String item : overdue.split(",")) {
+            int sep = item.indexOf('=');
+            if (sep <= 0) {
+                continue;
+            }
+            long matchId;
+            long deadlineAt;
+            try {
+                matchId = Long.parseLong(item.substring(0, sep));
+                deadlineAt = (long) Double.parseDouble(item.substring(sep + 1));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            Armed local = armed.get(matchId);
+            if (local != null && local.deadlineAt == deadlineAt) {
+                continue; // armado aqui: o próprio DEADLINE dispara
+            }
+            if (claim(matchId, deadlineAt)) {
+                log.warn("🧹 [DraftDeadline] Prazo órfão recolhido: match={}, vencido há {}ms", matchId,
+                        now - deadlineAt);
+                armed.remove(matchId);
+                deadlineHandler.onDeadline(matchId, -1);
+            }
+        }
+    }
+
+    private boolean ownsDeadline(Armed entry) {
+        try {
+            Long registered = redisTemplate.execute(SCORE_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(DEADLINES_KEY), String.valueOf(entry.matchId));
+            return registered == null || registered == entry.deadlineAt;
+        } catch (Exception e) {
+            // Redis indisponível: segue com o prazo local (mesmo critério do claim)
+            log.debug("⚠️ [DraftDeadline] Falha ao conferir prazo do match {}: {}", entry.matchId, e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean claim(long matchId, long deadlineAt) {
+        try {
+            Long removed = redisTemplate.execute(CLAIM_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(DEADLINES_KEY), String.valueOf(matchId), String.valueOf(deadlineAt));
+            return removed != null && removed > 0;
+        } catch (Exception e) {
+            // Redis indisponível: instância local segue disparando (DraftFlowService
+            // revalida o índice da ação antes de aplicar)
+            log.warn("⚠️ [DraftDeadline] Falha ao reivindicar prazo do match {}: {}", matchId, e.getMessage());
+            return true;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
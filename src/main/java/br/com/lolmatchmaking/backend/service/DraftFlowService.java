@@ -5,6 +5,7 @@ import br.com.lolmatchmaking.backend.domain.repository.CustomMatchRepository;
 import br.com.lolmatchmaking.backend.domain.repository.QueuePlayerRepository;
 import br.com.lolmatchmaking.backend.websocket.SessionRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +13,6 @@ import org.springframework.beans.factory.annotation.Value;
 import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
@@ -57,17 +57,37 @@ public class DraftFlowService {
     // ✅ NOVO: MatchOperationsLockService para evitar múltiplos drafts simultâneos
     private final br.com.lolmatchmaking.backend.service.lock.MatchOperationsLockService matchOpsLockService;
 
+    // ✅ NOVO: Motor único de prazos (timeout/auto-ação de bot) no lugar dos loops
+    // de 1s
+    private final DraftDeadlineScheduler draftDeadlines;
+
+    // ✅ NOVO: Estado quente (HASH no Redis) + flush write-behind do pick_ban_data
+    private final DraftStateStore draftStateStore;
+
     @Value("${app.draft.action-timeout-ms:30000}")
     private long configuredActionTimeoutMs;
 
+    // ✅ NOVO: Eventos delta por ação (draft_action_applied/draft_turn_changed) no
+    // lugar do snapshot completo; Electron e frontend aplicam sobre o último
+    // snapshot e pedem draft_resync se a versão pular
+    private boolean deltaEventsEnabled = true;
+
+    @Value("${app.draft.delta-events:true}")
+    void setDeltaEventsEnabled(boolean deltaEventsEnabled) {
+        this.deltaEventsEnabled = deltaEventsEnabled;
+    }
+
     // ✅ REMOVIDO: finalConfirmations e matchTimers (agora em Redis para
     // performance)
     // MySQL = Fonte da verdade (persistent storage em pick_ban_data)
     // Redis = Cache/estado volátil (draft temporário, confirmações, timers)
     // SEMPRE salvar no MySQL (pick_ban_data) antes de transições críticas
 
-    private Thread timerThread;
-    private volatile boolean timerRunning = false;
+    private static final long BOT_ACTION_DELAY_MS = 2000; // bots agem 2s após o início da vez
+    private static final long AUTO_ACTION_RETRY_MS = 2000; // auto-seleção que falhou (Redis indisponível)
+    // Índices que abrem uma nova fase (bans 1 → picks 1 → bans 2 → picks 2): flush
+    // síncrono do pick_ban_data
+    private static final Set<Integer> PHASE_BOUNDARIES = Set.of(6, 12, 16);
 
     public record DraftAction(
             int index,
@@ -87,6 +107,9 @@ public class DraftFlowService {
         private final Set<String> team1Players;
         private final Set<String> team2Players;
         private long lastActionStartMs;
+        private long version; // versão do estado quente (DraftStateStore)
+        @Getter(AccessLevel.NONE)
+        private ChampionAvailability availability; // campeões usados, sob demanda
 
         public DraftState(long matchId, List<DraftAction> actions, Collection<String> team1, Collection<String> team2) {
             this.matchId = matchId;
@@ -111,6 +134,25 @@ public class DraftFlowService {
             this.lastActionStartMs = System.currentTimeMillis();
         }
 
+        void restoreActionStart(long lastActionStartMs) {
+            this.lastActionStartMs = lastActionStartMs;
+        }
+
+        void setVersion(long version) {
+            this.version = version;
+        }
+
+        /**
+         * Máscara dos campeões já usados, montada das ações no primeiro uso e
+         * mantida por take/release a cada ação aplicada
+         */
+        ChampionAvailability availability(DataDragonService dataDragon) {
+            if (availability == null) {
+                availability = ChampionAvailability.of(dataDragon.getChampionOrdinals(), actions);
+            }
+            return availability;
+        }
+
         public boolean isPlayerInTeam(String player, int team) {
             if (team == 1)
                 return team1Players.contains(player);
@@ -143,125 +185,29 @@ public class DraftFlowService {
             }
         });
 
-        // ✅ TIMER: Iniciar thread simples
-        startSimpleTimer();
+        // ✅ TIMER: prazos por ação (sem polling do MySQL)
+        draftDeadlines.bind(this::onActionDeadline, this::sendTimerOnly);
+        draftStateStore.bind(this::flushToMySQL);
 
         log.info("✅ DraftFlowService inicializado com sucesso");
     }
 
-    /**
-     * ✅ TIMER SIMPLES: Thread que apenas decrementa 30→0 e envia o número
-     */
-    private void startSimpleTimer() {
-        timerRunning = true;
-        timerThread = new Thread(() -> {
-            log.info("⏰ Thread de timer INICIADA");
-
-            while (timerRunning) {
-                try {
-                    Thread.sleep(1000); // 1 segundo
-
-                    // ✅ REFATORADO: Buscar drafts ativos do MySQL (não de HashMap)
-                    List<br.com.lolmatchmaking.backend.domain.entity.CustomMatch> activeDrafts = customMatchRepository
-                            .findByStatus("draft");
-
-                    for (br.com.lolmatchmaking.backend.domain.entity.CustomMatch match : activeDrafts) {
-                        Long matchId = match.getId();
-                        log.info("🔍 [Timer] Processando draft ativo: matchId={}", matchId);
-
-                        // ✅ Buscar estado do Redis (com fallback MySQL)
-                        DraftState st = getDraftStateFromRedis(matchId);
-
-                        if (st == null) {
-                            log.info("⚠️ [Timer] DraftState não encontrado: matchId={}", matchId);
-                            continue;
-                        }
-
-                        log.info("🔍 [Timer] DraftState encontrado: matchId={}, currentIndex={}/{}, actions={}",
-                                matchId, st.getCurrentIndex(), st.getActions().size(), st.getActions().size());
-
-                        // Só se não estiver completo
-                        if (st.getCurrentIndex() >= st.getActions().size()) {
-                            log.info("⏭️ [Timer] Draft já completo: matchId={}, currentIndex={}, actions={}",
-                                    matchId, st.getCurrentIndex(), st.getActions().size());
-                            continue;
-                        }
-
-                        log.info("⏰ [Timer] Decrementando timer para matchId={}", matchId);
-                        // ⚡ REDIS: Decrementar timer atomicamente
-                        int currentTimer = redisDraftFlow.decrementTimer(matchId);
-                        log.info("⏰ [Timer] Timer decrementado: matchId={}, newTimer={}", matchId, currentTimer);
-
-                        // ✅ CORREÇÃO: Se timer chegou a 0, progredir draft automaticamente
-                        if (currentTimer <= 0) {
-                            log.warn("⏰ [Timer] Timer ZEROU para matchId={}, progredindo draft automaticamente",
-                                    matchId);
-
-                            // ✅ CORREÇÃO: Progredir draft automaticamente
-                            DraftAction currentAction = st.getActions().get(st.getCurrentIndex());
-                            String currentPlayer = getPlayerForTeamAndIndex(st, currentAction.team(),
-                                    st.getCurrentIndex());
-
-                            // ✅ CORREÇÃO: Selecionar campeão aleatório no timeout
-                            String randomChampionId = selectRandomAvailableChampion(st);
-                            if (randomChampionId == null) {
-                                log.error("❌ [Timer] Nenhum campeão disponível para timeout de matchId={}", matchId);
-                                randomChampionId = "266"; // Fallback para Aatrox se nenhum disponível
-                            }
-                            log.info("🎲 [Timer] Campeão aleatório selecionado para timeout: {} (player: {})",
-                                    randomChampionId, currentPlayer);
-                            boolean success = processAction(matchId, st.getCurrentIndex(), currentPlayer,
-                                    randomChampionId);
-                            if (success) {
-                                log.info("✅ [Timer] Draft progredido automaticamente para matchId={}", matchId);
-
-                                // ✅ CORREÇÃO: Reinicializar timer para próxima ação
-                                redisDraftFlow.initTimer(matchId);
-                                log.info("⏰ [Timer] Timer reinicializado para próxima ação: matchId={}", matchId);
-                            } else {
-                                log.error("❌ [Timer] Falha ao progredir draft automaticamente para matchId={}",
-                                        matchId);
-                            }
-                        } else {
-                            // Enviar atualização apenas se timer não zerou
-                            log.info("📡 [Timer] Enviando timer update: matchId={}, timer={}", matchId, currentTimer);
-                            sendTimerOnly(matchId, st, currentTimer);
-                        }
-                    }
-
-                } catch (InterruptedException e) {
-                    timerRunning = false;
-                    break;
-                } catch (Exception e) {
-                    log.error("❌ Erro no timer", e);
-                }
-            }
-
-            log.info("⏰ Thread de timer FINALIZADA");
-        }, "Draft-Simple-Timer");
-
-        timerThread.setDaemon(true);
-        timerThread.start();
-    }
-
     /**
      * ✅ TIMER: Envia APENAS o número via draft_update usando arquitetura global
+     * Chamado pelo {@link DraftDeadlineScheduler} a cada segundo do prazo armado
+     * (segundos derivados do prazo em memória, sem DECR no Redis)
+     *
+     * Sem allowedSummoners: o envio é direcionado e o Electron valida pelo
+     * targetSummoner emendado em cada frame
      */
-    private void sendTimerOnly(Long matchId, DraftState st, int seconds) {
+    private void sendTimerOnly(long matchId, List<String> players, int seconds) {
         try {
-            // Criar payload padronizado
-            List<String> allowedSummoners = new ArrayList<>();
-            allowedSummoners.addAll(st.getTeam1Players());
-            allowedSummoners.addAll(st.getTeam2Players());
-
-            Map<String, Object> data = new HashMap<>();
-            data.put("matchId", matchId);
+            Map<String, Object> data = new HashMap<>(4);
+            data.put(KEY_MATCH_ID, matchId);
             data.put("timeRemaining", seconds);
-            data.put("allowedSummoners", allowedSummoners);
 
             // ✅ CORREÇÃO: Enviar para jogadores específicos da partida
-            List<String> allPlayers = getAllPlayersFromDraftState(st);
-            webSocketService.sendToPlayers("draft_update", data, allPlayers);
+            webSocketService.sendToPlayers("draft_update", data, players);
 
         } catch (Exception e) {
             log.error("❌ Erro sendTimerOnly", e);
@@ -315,6 +261,12 @@ public class DraftFlowService {
                         // saveDraftStateToRedis(cm.getId(), st); // ✅ REMOVIDO: Método deprecated
                         // redisDraftFlow.saveDraftState(cm.getId(), st); // ✅ MÉTODO NÃO EXISTE
                         // TODO: Implementar salvamento no Redis usando saveDraftStateJson
+
+                        // ✅ Semear o estado quente (sem sobrescrever um já existente) e
+                        // rearmar o prazo da ação atual (mantém o prazo já registrado no
+                        // cluster, se houver)
+                        draftStateStore.seed(st, true);
+                        armActionDeadline(st, true);
                         log.info("Draft restaurado matchId={} actions={} currentIndex={}", cm.getId(), actions.size(),
                                 st.getCurrentIndex());
                     } catch (Exception e) {
@@ -344,18 +296,23 @@ public class DraftFlowService {
      */
     /**
      * ✅ REFATORADO: Busca DraftState (para lógica interna)
-     * Redis/MySQL têm JSON puro, este método converte para DraftState
+     * 1. Estado quente (HASH draft_flow:{matchId}:hot, {@link DraftStateStore})
+     * 2. Se ausente → MySQL (pick_ban_data) e semeia o estado quente
      */
     private DraftState getDraftStateFromRedis(Long matchId) {
         try {
-            // ✅ ESTRATÉGIA: SEMPRE buscar do MySQL (fonte da verdade)
-            // Redis tem JSON puro, mas DraftState precisa de conversão complexa
-            // Para lógica interna, é mais seguro buscar direto do MySQL
+            DraftState hot = draftStateStore.load(matchId);
+            if (hot != null) {
+                log.debug("⚡ [getDraftStateFromRedis] Estado quente: matchId={}, currentIndex={}/{}, versão={}",
+                        matchId, hot.getCurrentIndex(), hot.getActions().size(), hot.getVersion());
+                return hot;
+            }
 
             log.debug("🔄 [getDraftStateFromRedis] Buscando do MySQL: matchId={}", matchId);
             DraftState state = loadDraftStateFromMySQL(matchId);
 
             if (state != null) {
+                draftStateStore.seed(state, true);
                 log.info(
                         "✅ [getDraftStateFromRedis] MySQL → DraftState: matchId={}, currentIndex={}/{}, actions={}, team1={}, team2={}",
                         matchId,
@@ -527,35 +484,6 @@ public class DraftFlowService {
 
     // ✅ REMOVIDO: Método duplicado (versão correta está nas linhas 716-726)
 
-    /**
-     * ✅ REFATORADO: Sincroniza MySQL → Redis (JSON puro, sem conversões)
-     * Redis armazena EXATAMENTE o mesmo JSON que está no MySQL
-     */
-    private void syncMySQLtoRedis(Long matchId) {
-        try {
-            // 1. Buscar JSON puro do MySQL
-            var matchOpt = customMatchRepository.findById(matchId);
-            if (matchOpt.isEmpty()) {
-                log.warn("⚠️ [syncMySQLtoRedis] Match {} não encontrado", matchId);
-                return;
-            }
-
-            String pickBanDataJson = matchOpt.get().getPickBanDataJson();
-            if (pickBanDataJson == null || pickBanDataJson.isBlank()) {
-                log.warn("⚠️ [syncMySQLtoRedis] pick_ban_data_json NULL/vazio para match {}", matchId);
-                return;
-            }
-
-            // 2. Salvar STRING JSON DIRETA no Redis (zero conversões!)
-            redisDraftFlow.saveDraftStateJson(matchId, pickBanDataJson);
-            log.debug("💾 [syncMySQLtoRedis] JSON puro sincronizado MySQL→Redis: matchId={}, {}chars",
-                    matchId, pickBanDataJson.length());
-
-        } catch (Exception e) {
-            log.error("❌ [syncMySQLtoRedis] Erro ao sincronizar: matchId={}", matchId, e);
-        }
-    }
-
     /**
      * ✅ NOVO: Serializa DraftState para Map
      */
@@ -656,6 +584,7 @@ public class DraftFlowService {
                     // frontend receba
                     broadcastUpdate(existingState, false);
                     log.info("✅ [startDraft] Broadcast enviado para estado existente: matchId={}", matchId);
+                    armActionDeadline(existingState, true);
 
                     return existingState;
                 } else {
@@ -697,6 +626,7 @@ public class DraftFlowService {
 
             // ✅ Persistir o estado inicial no MySQL
             persist(matchId, st);
+            armActionDeadline(st, false);
 
             log.info("📡 [DraftFlow] startDraft - Estado salvo no Redis e MySQL: matchId={}", matchId);
 
@@ -867,38 +797,52 @@ public class DraftFlowService {
     }
 
     /**
-     * ✅ REFATORADO: Processa ação do draft usando 100% Redis + Distributed Lock
-     * Lock previne bugs quando 2+ players tentam ações simultâneas
+     * ✅ REFATORADO: Processa ação do draft usando 100% Redis
+     *
+     * @return true se a ação foi aplicada
+     * @see #submitAction
      */
     @Transactional
     public boolean processAction(long matchId, int actionIndex, String championId, String byPlayer) {
-        // ✅ CRÍTICO: Distributed lock para prevenir ações simultâneas
-        org.redisson.api.RLock lock = redisDraftFlow.getLock("draft_action:" + matchId);
+        return submitAction(matchId, actionIndex, championId, byPlayer) == DraftStateStore.ActionResult.APPLIED;
+    }
 
+    /**
+     * ✅ NOVO: Ação do draft sem lock distribuído
+     *
+     * PROBLEMA RESOLVIDO:
+     * - RLock draft_action:{matchId} (tryLock 5s/30s) segurado durante validação
+     * de PlayerState, recarga do MySQL e persistência: centenas de ms por ação,
+     * com os outros 9 jogadores enfileirados atrás dele
+     *
+     * SOLUÇÃO:
+     * - Validação e montagem da ação fora de qualquer lock
+     * - Um único script Lua no estado quente confere índice esperado == atual e o
+     * time do turno, grava a ação e avança o índice
+     * ({@link DraftStateStore#applyAction})
+     *
+     * @return APPLIED, STALE (outra ação/timeout chegou antes), NOT_YOUR_TURN ou
+     *         REJECTED/FAILED
+     */
+    @Transactional
+    public DraftStateStore.ActionResult submitAction(long matchId, int actionIndex, String championId,
+            String byPlayer) {
+        long startedAt = System.nanoTime();
+        DraftStateStore.ActionResult result = DraftStateStore.ActionResult.FAILED;
         try {
-            // Tentar adquirir lock por 5 segundos
-            if (!lock.tryLock(5, 30, java.util.concurrent.TimeUnit.SECONDS)) {
-                log.warn("⚠️ [processAction] Não foi possível adquirir lock para matchId={}", matchId);
-                return false;
-            }
-
-            return processActionWithLock(matchId, actionIndex, championId, byPlayer);
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("❌ [processAction] Lock interrompido", e);
-            return false;
+            result = applyPlayerAction(matchId, actionIndex, championId, byPlayer);
+            return result;
         } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            draftStateStore.recordActionLatency(System.nanoTime() - startedAt,
+                    result == DraftStateStore.ActionResult.APPLIED);
         }
     }
 
     /**
-     * ✅ NOVO: Lógica interna com lock garantido
+     * ✅ NOVO: Validação local + compare-and-set da ação
      */
-    private boolean processActionWithLock(long matchId, int actionIndex, String championId, String byPlayer) {
+    private DraftStateStore.ActionResult applyPlayerAction(long matchId, int actionIndex, String championId,
+            String byPlayer) {
         log.info("\n========================================");
         log.info("🔵 [processAction] === INICIANDO AÇÃO ===");
         log.info("========================================");
@@ -937,7 +881,7 @@ public class DraftFlowService {
             } else {
                 log.warn("❌ [processAction] Player {} NÃO está no draft {} (estado: {})",
                         byPlayer, matchId, state);
-                return false;
+                return DraftStateStore.ActionResult.REJECTED;
             }
         }
 
@@ -946,7 +890,7 @@ public class DraftFlowService {
         if (st == null) {
             log.warn("❌ [processAction] DraftState não encontrado no Redis/MySQL para matchId={}", matchId);
             log.info("========================================\n");
-            return false;
+            return DraftStateStore.ActionResult.REJECTED;
         }
 
         // ✅ LOGS DETALHADOS DO ESTADO ATUAL
@@ -960,20 +904,20 @@ public class DraftFlowService {
         final String normalizedChampionId = normalizeChampionId(championId);
         if (normalizedChampionId == null) {
             log.warn("❌ [processAction] championId inválido após normalização: {}", championId);
-            return false;
+            return DraftStateStore.ActionResult.REJECTED;
         }
         log.info("✅ [processAction] championId normalizado: {} -> {}", championId, normalizedChampionId);
 
         if (st.getCurrentIndex() >= st.getActions().size()) { // draft já completo
             log.warn("❌ [processAction] Draft já completo: currentIndex={}, totalActions={}",
                     st.getCurrentIndex(), st.getActions().size());
-            return false;
+            return DraftStateStore.ActionResult.STALE;
         }
 
         if (actionIndex != st.currentIndex) {
             log.warn("❌ [processAction] actionIndex diferente: esperado={}, recebido={}",
                     st.currentIndex, actionIndex);
-            return false;
+            return DraftStateStore.ActionResult.STALE;
         }
         log.info("✅ [processAction] actionIndex validado: {}", actionIndex);
 
@@ -990,14 +934,11 @@ public class DraftFlowService {
             log.warn("❌ [processAction] Jogador {} NÃO pertence ao time {}", byPlayer, prev.team());
             log.warn("❌ [processAction] Team1 players: {}", st.getTeam1Players());
             log.warn("❌ [processAction] Team2 players: {}", st.getTeam2Players());
-            return false;
+            return DraftStateStore.ActionResult.NOT_YOUR_TURN;
         }
         log.info("✅ [processAction] Jogador {} pertence ao team{}", byPlayer, prev.team());
-        boolean alreadyUsed = st.actions.stream()
-                .filter(a -> a.championId() != null && !SKIPPED.equalsIgnoreCase(a.championId()))
-                .anyMatch(a -> normalizedChampionId.equalsIgnoreCase(a.championId()));
-        if (alreadyUsed) {
-            return false;
+        if (isChampionTaken(st, normalizedChampionId)) {
+            return DraftStateStore.ActionResult.REJECTED;
         }
 
         // ✅ CORREÇÃO: Buscar nome do campeão antes de criar DraftAction
@@ -1011,6 +952,7 @@ public class DraftFlowService {
                 championName, // ⭐ ADICIONAR championName
                 byPlayer);
         st.getActions().set(actionIndex, updated);
+        st.availability(dataDragonService).take(normalizedChampionId);
         st.advance();
 
         // ✅ CORREÇÃO BOTS: Se próximo jogador é bot, ajustar timer para auto-pick
@@ -1028,14 +970,20 @@ public class DraftFlowService {
             st.markActionStart(); // Última ação: resetar normalmente
         }
 
+        // ✅ Compare-and-set no estado quente (MySQL via write-behind / fronteira de
+        // fase)
+        log.info("💾 Salvando ação no MySQL e Redis...");
+        DraftStateStore.ActionResult result = commitAction(st, actionIndex, byPlayer);
+        if (result != DraftStateStore.ActionResult.APPLIED) {
+            log.warn("❌ [processAction] Ação {} do match {} não aplicada: {}", actionIndex, matchId, result);
+            return result;
+        }
+
         // ⚡ REDIS: Resetar timer para 30 quando ação acontece
         redisDraftFlow.resetTimer(matchId);
 
-        // ✅ LOGS ANTES DE PERSISTIR
-        log.info("💾 Salvando ação no MySQL e Redis...");
-
-        // ✅ Persistir no MySQL
-        persist(matchId, st);
+        // ⏰ Prazo da próxima ação (ou cancela se o draft completou)
+        armActionDeadline(st, false);
 
         // ✅ CRÍTICO: Salvar no Redis para sincronizar com outros backends
         // saveDraftStateToRedis(matchId, st); // ✅ REMOVIDO: Método deprecated
@@ -1076,13 +1024,13 @@ public class DraftFlowService {
         log.info("========================================\n");
 
         // ✅ Broadcast para TODOS (não só jogadores da partida)
-        broadcastUpdate(st, false);
+        broadcastActionApplied(st, actionIndex);
 
         if (st.getCurrentIndex() >= st.getActions().size()) {
             log.info("🏁 [processAction] Draft completo! Broadcast de conclusão...");
             broadcastDraftCompleted(st);
         }
-        return true;
+        return DraftStateStore.ActionResult.APPLIED;
     }
 
     /**
@@ -1131,16 +1079,16 @@ public class DraftFlowService {
             return;
         }
 
-        st.getConfirmations().add(playerId);
-
-        // ✅ Salvar no Redis
-        // saveDraftStateToRedis(matchId, st); // ✅ REMOVIDO: Método deprecated
-        // redisDraftFlow.saveDraftState(matchId, st); // ✅ MÉTODO NÃO EXISTE
-        // TODO: Implementar salvamento no Redis usando saveDraftStateJson
+        // ✅ CORREÇÃO: merge atômico no estado quente (antes: regravava o conjunto
+        // inteiro lido aqui, perdendo confirmações simultâneas de outro nó)
+        boolean confirmedNow = draftStateStore.updateConfirmation(st, playerId, true);
 
         broadcastUpdate(st, true);
 
-        if (st.getConfirmations().size() >= 10) {
+        // Só quem completou o conjunto finaliza (confirmação repetida não dispara de novo)
+        if (confirmedNow && st.getConfirmations().size() >= 10) {
+            draftStateStore.flushNow(matchId);
+            draftStateStore.finish(matchId);
             customMatchRepository.findById(matchId).ifPresent(cm -> {
                 cm.setStatus("draft_completed");
                 customMatchRepository.save(cm);
@@ -1219,12 +1167,10 @@ public class DraftFlowService {
         DraftAction oldAction = st.getActions().get(actionIndex);
         log.info("🔍 [changePick] Pick anterior: {} (index={})", oldAction.championName(), actionIndex);
 
-        // ✅ Verificar se o novo campeão já está sendo usado (exceto pelo próprio
-        // jogador)
-        boolean alreadyUsed = st.getActions().stream()
-                .filter(a -> a.championId() != null && !SKIPPED.equalsIgnoreCase(a.championId()))
-                .filter(a -> !playerId.equals(a.byPlayer())) // Ignorar o próprio jogador
-                .anyMatch(a -> normalizedChampionId.equalsIgnoreCase(a.championId()));
+        // ✅ Verificar se o novo campeão já está banido/escolhido (o pick atual do
+        // próprio jogador não conta)
+        boolean alreadyUsed = !normalizedChampionId.equals(oldAction.championId())
+                && isChampionTaken(st, normalizedChampionId);
 
         if (alreadyUsed) {
             log.warn("❌ [changePick] Campeão {} já está sendo usado por outro jogador", normalizedChampionId);
@@ -1245,13 +1191,15 @@ public class DraftFlowService {
 
         // ✅ Atualizar a ação
         st.getActions().set(actionIndex, updatedAction);
+        st.availability(dataDragonService).release(oldAction.championId());
+        st.availability(dataDragonService).take(normalizedChampionId);
 
-        // ✅ Remover confirmação do jogador (precisa confirmar novamente)
-        st.getConfirmations().remove(playerId);
-
-        // ✅ Salvar no banco
+        // ✅ Salvar no estado quente (delta da ação)
         log.info("💾 Salvando alteração no banco de dados...");
-        persist(matchId, st);
+        persistAction(st, actionIndex);
+
+        // ✅ Remover confirmação do jogador (precisa confirmar novamente)
+        draftStateStore.updateConfirmation(st, playerId, false);
         log.info("✅ Alteração salva com sucesso!");
 
         log.info("\n========================================");
@@ -1272,171 +1220,236 @@ public class DraftFlowService {
         return Optional.ofNullable(getDraftStateFromRedis(matchId));
     }
 
-    private void persist(long matchId, DraftState st) {
+    /**
+     * ✅ REFATORADO: Grava o estado completo (início do draft, reatribuição,
+     * confirmações) no estado quente e no MySQL de forma síncrona
+     */
+    void persist(long matchId, DraftState st) {
+        draftStateStore.seed(st, false);
+        draftStateStore.flushNow(matchId);
+    }
+
+    /**
+     * ✅ NOVO: Delta de uma ação (troca de pick) no estado quente. O
+     * pick_ban_data completo vai para o MySQL pelo write-behind, ou na hora ao
+     * abrir uma nova fase / completar o draft.
+     */
+    private void persistAction(DraftState st, int actionIndex) {
+        draftStateStore.applyDelta(st, actionIndex);
+        flushAtPhaseBoundary(st);
+    }
+
+    /**
+     * ✅ NOVO: Ação que avança o draft (pick/ban/timeout) por compare-and-set no
+     * estado quente. st já traz a ação preenchida e o índice avançado.
+     *
+     * @param byPlayer jogador validado contra o time do turno; null = sistema
+     */
+    private DraftStateStore.ActionResult commitAction(DraftState st, int actionIndex, String byPlayer) {
+        DraftStateStore.ActionResult result = draftStateStore.applyAction(st, actionIndex, byPlayer);
+        if (result == DraftStateStore.ActionResult.MISSING) {
+            // HASH expirou/foi limpo: recarrega do MySQL (semeia) e tenta de novo
+            getDraftStateFromRedis(st.getMatchId());
+            result = draftStateStore.applyAction(st, actionIndex, byPlayer);
+        }
+        if (result == DraftStateStore.ActionResult.MISSING) {
+            // HASH segue ausente: semeia o estado já com a ação, só se ninguém
+            // semeou no meio (nunca regrava idx/start de um estado mais novo)
+            log.warn("⚠️ [DraftFlow] Sem estado quente para match {}, semeando com a ação {}",
+                    st.getMatchId(), actionIndex);
+            result = draftStateStore.seedAction(st);
+        }
+        if (result == DraftStateStore.ActionResult.APPLIED) {
+            flushAtPhaseBoundary(st);
+        }
+        return result;
+    }
+
+    private void flushAtPhaseBoundary(DraftState st) {
+        if (PHASE_BOUNDARIES.contains(st.getCurrentIndex()) || st.getCurrentIndex() >= st.getActions().size()) {
+            draftStateStore.flushNow(st.getMatchId());
+        }
+    }
+
+    /**
+     * ✅ NOVO: Flush write-behind (chamado pelo {@link DraftStateStore}): monta o
+     * pick_ban_data completo a partir do estado quente e grava no MySQL
+     */
+    void flushToMySQL(DraftState st) {
+        long matchId = st.getMatchId();
+        Optional<CustomMatch> match = customMatchRepository.findById(matchId);
+        if (match.isEmpty()) {
+            log.warn("🧹 [DraftFlow] Match {} não existe mais no MySQL, descartando estado quente", matchId);
+            draftDeadlines.cancel(matchId);
+            draftStateStore.finish(matchId);
+            redisDraftFlow.clearAllDraftData(matchId);
+            return;
+        }
+        writePickBanData(match.get(), st);
+    }
+
+    /**
+     * Grava o pick_ban_data na entidade já carregada pelo flush (um único SELECT
+     * por flush)
+     */
+    private void writePickBanData(CustomMatch cm, DraftState st) {
+        long matchId = st.getMatchId();
         try {
-            customMatchRepository.findById(matchId).ifPresent(cm -> {
-                try {
-                    Map<String, Object> snapshot;
+            Map<String, Object> snapshot;
 
-                    if (cm.getPickBanDataJson() != null && !cm.getPickBanDataJson().isEmpty()) {
-                        // ✅ Carregar dados existentes
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> existing = objectMapper.readValue(cm.getPickBanDataJson(), Map.class);
-                        snapshot = new HashMap<>(existing);
-
-                        // ✅ CRÍTICO: Atualizar apenas campos de estado do draft
-                        // NUNCA sobrescrever team1/team2 - eles já vêm completos do MatchFoundService
-                        snapshot.put(KEY_ACTIONS, st.getActions());
-                        snapshot.put(KEY_CURRENT_INDEX, st.getCurrentIndex());
-                        snapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
-                        snapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
-                                                                                      // para calcular elapsed
-
-                        // ✅ Verificar se team1/team2 existem (com dados completos do MatchFoundService)
-                        Object team1Data = snapshot.get(KEY_TEAM1);
-                        Object team2Data = snapshot.get(KEY_TEAM2);
-
-                        // ✅ Se não existem OU são arrays vazios, adicionar apenas nomes (fallback)
-                        boolean team1Empty = team1Data == null ||
-                                (team1Data instanceof java.util.List && ((java.util.List<?>) team1Data).isEmpty());
-                        boolean team2Empty = team2Data == null ||
-                                (team2Data instanceof java.util.List && ((java.util.List<?>) team2Data).isEmpty());
-
-                        if (team1Empty) {
-                            log.warn("⚠️ [DraftFlow] team1 vazio, criando dados completos (fallback): {}",
-                                    st.getTeam1Players());
-                            // ✅ Criar dados completos dos jogadores como fallback
-                            snapshot.put(KEY_TEAM1, createCompleteTeamDataFromMemory(st.getTeam1Players(), 0));
-                        } else {
-                            log.debug("✅ [DraftFlow] team1 já existe com {} jogadores, PRESERVANDO",
-                                    ((java.util.List<?>) team1Data).size());
-                            // ✅ NÃO SOBRESCREVER - manter dados completos existentes
-                        }
+            if (cm.getPickBanDataJson() != null && !cm.getPickBanDataJson().isEmpty()) {
+                // ✅ Carregar dados existentes
+                @SuppressWarnings("unchecked")
+                Map<String, Object> existing = objectMapper.readValue(cm.getPickBanDataJson(), Map.class);
+                snapshot = new HashMap<>(existing);
+
+                // ✅ CRÍTICO: Atualizar apenas campos de estado do draft
+                // NUNCA sobrescrever team1/team2 - eles já vêm completos do MatchFoundService
+                snapshot.put(KEY_ACTIONS, st.getActions());
+                snapshot.put(KEY_CURRENT_INDEX, st.getCurrentIndex());
+                snapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
+                snapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
+                                                                              // para calcular elapsed
+
+                // ✅ Verificar se team1/team2 existem (com dados completos do MatchFoundService)
+                Object team1Data = snapshot.get(KEY_TEAM1);
+                Object team2Data = snapshot.get(KEY_TEAM2);
+
+                // ✅ Se não existem OU são arrays vazios, adicionar apenas nomes (fallback)
+                boolean team1Empty = team1Data == null ||
+                        (team1Data instanceof java.util.List && ((java.util.List<?>) team1Data).isEmpty());
+                boolean team2Empty = team2Data == null ||
+                        (team2Data instanceof java.util.List && ((java.util.List<?>) team2Data).isEmpty());
+
+                if (team1Empty) {
+                    log.warn("⚠️ [DraftFlow] team1 vazio, criando dados completos (fallback): {}",
+                            st.getTeam1Players());
+                    // ✅ Criar dados completos dos jogadores como fallback
+                    snapshot.put(KEY_TEAM1, createCompleteTeamDataFromMemory(st.getTeam1Players(), 0));
+                } else {
+                    log.debug("✅ [DraftFlow] team1 já existe com {} jogadores, PRESERVANDO",
+                            ((java.util.List<?>) team1Data).size());
+                    // ✅ NÃO SOBRESCREVER - manter dados completos existentes
+                }
 
-                        if (team2Empty) {
-                            log.warn("⚠️ [DraftFlow] team2 vazio, criando dados completos (fallback): {}",
-                                    st.getTeam2Players());
-                            // ✅ Criar dados completos dos jogadores como fallback
-                            snapshot.put(KEY_TEAM2, createCompleteTeamDataFromMemory(st.getTeam2Players(), 5));
-                        } else {
-                            log.debug("✅ [DraftFlow] team2 já existe com {} jogadores, PRESERVANDO",
-                                    ((java.util.List<?>) team2Data).size());
-                            // ✅ NÃO SOBRESCREVER - manter dados completos existentes
-                        }
-                    } else {
-                        // ✅ Primeira persistência - criar estrutura básica
-                        // (Normalmente não deveria acontecer pois MatchFoundService salva primeiro)
-                        snapshot = new HashMap<>();
-                        snapshot.put(KEY_ACTIONS, st.getActions());
-                        snapshot.put(KEY_CURRENT_INDEX, st.getCurrentIndex());
-                        snapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
-                        snapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
-                                                                                      // para calcular elapsed
-
-                        log.warn(
-                                "⚠️ [DraftFlow] Criando pick_ban_data pela primeira vez - criando dados completos dos times!");
-                        // ✅ Criar estrutura completa dos times
-                        snapshot.put(KEY_TEAM1, createCompleteTeamDataFromMemory(st.getTeam1Players(), 0));
-                        snapshot.put(KEY_TEAM2, createCompleteTeamDataFromMemory(st.getTeam2Players(), 5));
-                    }
+                if (team2Empty) {
+                    log.warn("⚠️ [DraftFlow] team2 vazio, criando dados completos (fallback): {}",
+                            st.getTeam2Players());
+                    // ✅ Criar dados completos dos jogadores como fallback
+                    snapshot.put(KEY_TEAM2, createCompleteTeamDataFromMemory(st.getTeam2Players(), 5));
+                } else {
+                    log.debug("✅ [DraftFlow] team2 já existe com {} jogadores, PRESERVANDO",
+                            ((java.util.List<?>) team2Data).size());
+                    // ✅ NÃO SOBRESCREVER - manter dados completos existentes
+                }
+            } else {
+                // ✅ Primeira persistência - criar estrutura básica
+                // (Normalmente não deveria acontecer pois MatchFoundService salva primeiro)
+                snapshot = new HashMap<>();
+                snapshot.put(KEY_ACTIONS, st.getActions());
+                snapshot.put(KEY_CURRENT_INDEX, st.getCurrentIndex());
+                snapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
+                snapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
+                                                                              // para calcular elapsed
+
+                log.warn(
+                        "⚠️ [DraftFlow] Criando pick_ban_data pela primeira vez - criando dados completos dos times!");
+                // ✅ Criar estrutura completa dos times
+                snapshot.put(KEY_TEAM1, createCompleteTeamDataFromMemory(st.getTeam1Players(), 0));
+                snapshot.put(KEY_TEAM2, createCompleteTeamDataFromMemory(st.getTeam2Players(), 5));
+            }
+
+            // ✅ ESTRUTURA LIMPA + COMPATIBILIDADE
+            log.info("🔨 [persist] Gerando JSON LIMPO (teams + metadados + team1/team2 para compatibilidade)");
+            Map<String, Object> cleanData = buildHierarchicalDraftData(st);
 
-                    // ✅ ESTRUTURA LIMPA + COMPATIBILIDADE
-                    log.info("🔨 [persist] Gerando JSON LIMPO (teams + metadados + team1/team2 para compatibilidade)");
-                    Map<String, Object> cleanData = buildHierarchicalDraftData(st);
-
-                    // ✅ JSON FINAL: teams.blue/red (limpo) + team1/team2 (compatibilidade) +
-                    // metadados
-                    Map<String, Object> finalSnapshot = new HashMap<>();
-
-                    // ✅ 1. Estrutura limpa (teams hierárquicos)
-                    finalSnapshot.put("teams", cleanData.get("teams"));
-
-                    // ✅ 2. Compatibilidade (team1/team2 flat) - NECESSÁRIO para
-                    // buildHierarchicalDraftData funcionar
-                    finalSnapshot.put(KEY_TEAM1, snapshot.get(KEY_TEAM1));
-                    finalSnapshot.put(KEY_TEAM2, snapshot.get(KEY_TEAM2));
-
-                    // ✅ 3. Metadados
-                    finalSnapshot.put("currentIndex", cleanData.get("currentIndex"));
-                    finalSnapshot.put("currentPhase", cleanData.get("currentPhase"));
-                    finalSnapshot.put("currentPlayer", cleanData.get("currentPlayer"));
-                    finalSnapshot.put("currentTeam", cleanData.get("currentTeam"));
-                    finalSnapshot.put("currentActionType", cleanData.get("currentActionType"));
-                    finalSnapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
-                    finalSnapshot.put(KEY_MATCH_ID, matchId);
-                    finalSnapshot.put(KEY_TYPE, "draft_snapshot");
-                    finalSnapshot.put("timestamp", System.currentTimeMillis());
-
-                    // ✅ CRÍTICO: Salvar lastActionStartMs para timer de bots funcionar!
-                    finalSnapshot.put("lastActionStartMs", st.getLastActionStartMs());
-
-                    // ✅ 4. Actions e confirmations (fonte da verdade para restauração)
-                    finalSnapshot.put(KEY_ACTIONS, st.getActions());
-                    finalSnapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
-
-                    // ✅ NOVO: Contar actions completed vs pending para debug
-                    long completedActions = st.getActions().stream()
-                            .filter(a -> a.championId() != null && !SKIPPED.equals(a.championId()))
-                            .count();
-                    long pendingActions = st.getActions().stream()
-                            .filter(a -> a.championId() == null || SKIPPED.equals(a.championId()))
-                            .count();
-
-                    String jsonToSave = objectMapper.writeValueAsString(finalSnapshot);
-                    cm.setPickBanDataJson(jsonToSave);
-                    customMatchRepository.save(cm);
-
-                    // ✅ CRÍTICO: Sincronizar MySQL → Redis após cada ação
-                    syncMySQLtoRedis(matchId);
-
-                    log.info("📊 [persist] AÇÕES - Total:{}, Completed:{}, Pending:{}",
-                            st.getActions().size(), completedActions, pendingActions);
-
-                    // ✅ VERIFICAR se teams.blue/red.players[].actions estão sendo salvos
-                    if (finalSnapshot.containsKey("teams") && finalSnapshot.get("teams") instanceof Map) {
-                        Map<?, ?> teams = (Map<?, ?>) finalSnapshot.get("teams");
-                        if (teams.containsKey("blue") && teams.get("blue") instanceof Map) {
-                            Map<?, ?> blue = (Map<?, ?>) teams.get("blue");
-                            if (blue.containsKey("players") && blue.get("players") instanceof List) {
-                                List<?> players = (List<?>) blue.get("players");
-                                log.info("📊 [persist] VERIFICAÇÃO - Blue team tem {} players no JSON", players.size());
-                                if (!players.isEmpty() && players.get(0) instanceof Map) {
-                                    Map<?, ?> firstPlayer = (Map<?, ?>) players.get(0);
-                                    Object actions = firstPlayer.get("actions");
-                                    log.info("📊 [persist] VERIFICAÇÃO - Primeiro player Blue tem actions? {}, size={}",
-                                            actions != null,
-                                            actions instanceof List ? ((List<?>) actions).size() : 0);
-                                }
-                            }
+            // ✅ JSON FINAL: teams.blue/red (limpo) + team1/team2 (compatibilidade) +
+            // metadados
+            Map<String, Object> finalSnapshot = new HashMap<>();
+
+            // ✅ 1. Estrutura limpa (teams hierárquicos)
+            finalSnapshot.put("teams", cleanData.get("teams"));
+
+            // ✅ 2. Compatibilidade (team1/team2 flat) - NECESSÁRIO para
+            // buildHierarchicalDraftData funcionar
+            finalSnapshot.put(KEY_TEAM1, snapshot.get(KEY_TEAM1));
+            finalSnapshot.put(KEY_TEAM2, snapshot.get(KEY_TEAM2));
+
+            // ✅ 3. Metadados
+            finalSnapshot.put("currentIndex", cleanData.get("currentIndex"));
+            finalSnapshot.put("currentPhase", cleanData.get("currentPhase"));
+            finalSnapshot.put("currentPlayer", cleanData.get("currentPlayer"));
+            finalSnapshot.put("currentTeam", cleanData.get("currentTeam"));
+            finalSnapshot.put("currentActionType", cleanData.get("currentActionType"));
+            finalSnapshot.put("lastActionStartMs", st.getLastActionStartMs()); // ✅ CRÍTICO: Salvar timestamp
+            finalSnapshot.put(KEY_MATCH_ID, matchId);
+            finalSnapshot.put(KEY_TYPE, "draft_snapshot");
+            finalSnapshot.put("timestamp", System.currentTimeMillis());
+
+            // ✅ CRÍTICO: Salvar lastActionStartMs para timer de bots funcionar!
+            finalSnapshot.put("lastActionStartMs", st.getLastActionStartMs());
+
+            // ✅ 4. Actions e confirmations (fonte da verdade para restauração)
+            finalSnapshot.put(KEY_ACTIONS, st.getActions());
+            finalSnapshot.put(KEY_CONFIRMATIONS, st.getConfirmations());
+
+            // ✅ NOVO: Contar actions completed vs pending para debug
+            long completedActions = st.getActions().stream()
+                    .filter(a -> a.championId() != null && !SKIPPED.equals(a.championId()))
+                    .count();
+            long pendingActions = st.getActions().stream()
+                    .filter(a -> a.championId() == null || SKIPPED.equals(a.championId()))
+                    .count();
+
+            String jsonToSave = objectMapper.writeValueAsString(finalSnapshot);
+            cm.setPickBanDataJson(jsonToSave);
+            customMatchRepository.save(cm);
+            draftStateStore.recordMySqlWrite(matchId, jsonToSave);
+
+            log.info("📊 [persist] AÇÕES - Total:{}, Completed:{}, Pending:{}",
+                    st.getActions().size(), completedActions, pendingActions);
+
+            // ✅ VERIFICAR se teams.blue/red.players[].actions estão sendo salvos
+            if (finalSnapshot.containsKey("teams") && finalSnapshot.get("teams") instanceof Map) {
+                Map<?, ?> teams = (Map<?, ?>) finalSnapshot.get("teams");
+                if (teams.containsKey("blue") && teams.get("blue") instanceof Map) {
+                    Map<?, ?> blue = (Map<?, ?>) teams.get("blue");
+                    if (blue.containsKey("players") && blue.get("players") instanceof List) {
+                        List<?> players = (List<?>) blue.get("players");
+                        log.info("📊 [persist] VERIFICAÇÃO - Blue team tem {} players no JSON", players.size());
+                        if (!players.isEmpty() && players.get(0) instanceof Map) {
+                            Map<?, ?> firstPlayer = (Map<?, ?>) players.get(0);
+                            Object actions = firstPlayer.get("actions");
+                            log.info("📊 [persist] VERIFICAÇÃO - Primeiro player Blue tem actions? {}, size={}",
+                                    actions != null,
+                                    actions instanceof List ? ((List<?>) actions).size() : 0);
                         }
                     }
+                }
+            }
 
-                    log.info("✅ [persist] JSON salvo: {} keys (teams LIMPO + team1/team2 compatibilidade)",
-                            finalSnapshot.keySet().size());
+            log.info("✅ [persist] JSON salvo: {} keys (teams LIMPO + team1/team2 compatibilidade)",
+                    finalSnapshot.keySet().size());
 
-                    // ✅ NOVO: Log detalhado do que foi salvo no MySQL
-                    log.info(
-                            "📊 [persist] MySQL SALVO - Match {}: currentIndex={}/{}, currentPlayer={}, currentPhase={}",
-                            matchId,
-                            finalSnapshot.get("currentIndex"),
-                            st.getActions().size(),
-                            finalSnapshot.get("currentPlayer"),
-                            finalSnapshot.get("currentPhase"));
-
-                    // ✅ NOVO: Log do JSON salvo (primeiros 1000 chars para debug)
-                    if (jsonToSave.length() > 1000) {
-                        log.debug("📄 [persist] JSON (primeiros 1000 chars): {}", jsonToSave.substring(0, 1000));
-                    } else {
-                        log.debug("📄 [persist] JSON completo: {}", jsonToSave);
-                    }
+            // ✅ NOVO: Log detalhado do que foi salvo no MySQL
+            log.info(
+                    "📊 [persist] MySQL SALVO - Match {}: currentIndex={}/{}, currentPlayer={}, currentPhase={}",
+                    matchId,
+                    finalSnapshot.get("currentIndex"),
+                    st.getActions().size(),
+                    finalSnapshot.get("currentPlayer"),
+                    finalSnapshot.get("currentPhase"));
+
+            // ✅ NOVO: Log do JSON salvo (primeiros 1000 chars para debug)
+            if (jsonToSave.length() > 1000) {
+                log.debug("📄 [persist] JSON (primeiros 1000 chars): {}", jsonToSave.substring(0, 1000));
+            } else {
+                log.debug("📄 [persist] JSON completo: {}", jsonToSave);
+            }
 
-                    log.debug("✅ [DraftFlow] Draft state persistido para match {}", matchId);
-                } catch (Exception e) {
-                    log.error("❌ [DraftFlow] Falha ao serializar pickBanData", e);
-                }
-            });
+            log.debug("✅ [DraftFlow] Draft state persistido para match {}", matchId);
         } catch (Exception e) {
-            log.error("❌ [DraftFlow] Erro ao persistir snapshot draft", e);
+            log.error("❌ [DraftFlow] Falha ao serializar pickBanData", e);
         }
     }
 
@@ -1445,6 +1458,7 @@ public class DraftFlowService {
     private static final String KEY_CURRENT_INDEX = "currentIndex";
     private static final String KEY_ACTIONS = "actions";
     private static final String KEY_CONFIRMATIONS = "confirmations";
+    private static final String KEY_VERSION = "version";
     // ✅ Usar "team1" e "team2" (como no backend antigo), não
     // "team1Players"/"team2Players"
     private static final String KEY_TEAM1 = "team1";
@@ -1460,6 +1474,87 @@ public class DraftFlowService {
     private static final String KEY_ACTION_TIMEOUT_MS = "actionTimeoutMs";
 
     private void broadcastUpdate(DraftState st, boolean confirmationOnly) {
+        sendFullUpdate(st, confirmationOnly, getAllPlayersFromDraftState(st));
+    }
+
+    /**
+     * ✅ NOVO: Eventos delta de uma ação aplicada (app.draft.delta-events)
+     *
+     * PROBLEMA RESOLVIDO:
+     * - Cada pick/ban remontava buildHierarchicalDraftData/buildCleanTeamData
+     * (2 leituras + parse do pick_ban_data) e enviava a árvore inteira aos 10
+     * jogadores, mudando só uma ação e o turno
+     *
+     * SOLUÇÃO:
+     * - draft_action_applied {index, championId, player, version}: a ação
+     * - draft_turn_changed {currentIndex, currentPlayer, ..., version}: o turno
+     * - version = versão do estado quente após a ação (DraftStateStore); o
+     * cliente que não tiver version - 1 pede draft_resync e recebe o snapshot
+     * - Snapshot completo continua no início, entrada/reconexão, fim do draft,
+     * confirmações e troca de pick
+     */
+    private void broadcastActionApplied(DraftState st, int actionIndex) {
+        if (!deltaEventsEnabled || st.getCurrentIndex() >= st.getActions().size()) {
+            broadcastUpdate(st, false);
+            return;
+        }
+        try {
+            List<String> players = getAllPlayersFromDraftState(st);
+            DraftAction action = st.getActions().get(actionIndex);
+
+            Map<String, Object> applied = new HashMap<>(12);
+            applied.put(KEY_MATCH_ID, st.getMatchId());
+            applied.put(KEY_VERSION, st.getVersion());
+            applied.put("index", action.index());
+            applied.put("actionType", action.type());
+            applied.put("team", action.team());
+            applied.put("championId", action.championId());
+            applied.put("championName", action.championName());
+            applied.put("player", action.byPlayer());
+            webSocketService.sendToPlayers("draft_action_applied", applied, players);
+
+            int currentIdx = st.getCurrentIndex();
+            DraftAction next = st.getActions().get(currentIdx);
+            Map<String, Object> turn = new HashMap<>(12);
+            turn.put(KEY_MATCH_ID, st.getMatchId());
+            turn.put(KEY_VERSION, st.getVersion());
+            turn.put(KEY_CURRENT_INDEX, currentIdx);
+            turn.put("currentPlayer", getPlayerForTeamAndIndex(st, next.team(), currentIdx));
+            turn.put("currentTeam", next.team() == 1 ? "blue" : "red");
+            turn.put("currentActionType", next.type());
+            turn.put("currentPhase", getCurrentPhaseName(currentIdx));
+            turn.put("timeRemaining", (int) Math.ceil(calcRemainingMs(st) / 1000.0));
+            webSocketService.sendToPlayers("draft_turn_changed", turn, players);
+
+            log.debug("📡 [DraftFlow] Delta v{} enviado: match={}, ação={}, próxima={}",
+                    st.getVersion(), st.getMatchId(), actionIndex, currentIdx);
+        } catch (Exception e) {
+            log.error("❌ [DraftFlow] Erro ao enviar delta do draft, usando snapshot completo", e);
+            broadcastUpdate(st, false);
+        }
+    }
+
+    /**
+     * ✅ NOVO: Cliente detectou lacuna de versão nos eventos delta → snapshot
+     * completo só para ele (nada a enviar se já está na versão atual)
+     *
+     * @return true se o snapshot foi enviado
+     */
+    public boolean resyncIfStale(long matchId, String playerId, long clientVersion) {
+        DraftState st = getDraftStateFromRedis(matchId);
+        if (st == null) {
+            return false;
+        }
+        if (clientVersion > 0 && clientVersion == st.getVersion()) {
+            return false;
+        }
+        log.info("🔄 [DraftFlow] Resync do draft {} para {} (cliente v{}, atual v{})", matchId, playerId,
+                clientVersion, st.getVersion());
+        sendFullUpdate(st, false, List.of(playerId));
+        return true;
+    }
+
+    private void sendFullUpdate(DraftState st, boolean confirmationOnly, List<String> recipients) {
         try {
             long remainingMs = calcRemainingMs(st);
             long elapsed = System.currentTimeMillis() - st.getLastActionStartMs();
@@ -1485,6 +1580,7 @@ public class DraftFlowService {
             String eventType = (st.getCurrentIndex() == 0 && !confirmationOnly) ? "draft_starting" : "draft_updated";
             updateData.put(KEY_TYPE, eventType);
             updateData.put(KEY_MATCH_ID, st.getMatchId());
+            updateData.put(KEY_VERSION, st.getVersion()); // base para os eventos delta
             updateData.put(KEY_CURRENT_INDEX, st.getCurrentIndex());
             updateData.put("currentAction", st.getCurrentIndex()); // ✅ CRÍTICO: Frontend espera currentAction
 
@@ -1684,11 +1780,10 @@ public class DraftFlowService {
             log.info("====================================================");
 
             // ✅ CORREÇÃO: Enviar para jogadores específicos da partida
-            List<String> allPlayers = getAllPlayersFromDraftState(st);
             log.info("📤 [DraftFlow] Enviando {} para {} jogadores (CustomSessionIds: {})",
-                    eventType, allPlayers.size(), allPlayers);
-            webSocketService.sendToPlayers(eventType, updateData, allPlayers);
-            log.info("✅ [DraftFlow] {} enviado com sucesso para {} jogadores", eventType, allPlayers.size());
+                    eventType, recipients.size(), recipients);
+            webSocketService.sendToPlayers(eventType, updateData, recipients);
+            log.info("✅ [DraftFlow] {} enviado com sucesso para {} jogadores", eventType, recipients.size());
         } catch (Exception e) {
             log.error("Erro broadcast draft_updated", e);
         }
@@ -2245,6 +2340,10 @@ public class DraftFlowService {
     }
 
     public Map<String, Object> snapshot(long matchId) {
+        // teams.blue/red vêm do pick_ban_data: aplicar deltas pendentes antes de ler
+        if (draftStateStore.isDirty(matchId)) {
+            draftStateStore.flushNow(matchId);
+        }
         DraftState st = getDraftStateFromRedis(matchId);
         if (st == null)
             return Map.of("exists", false);
@@ -2399,280 +2498,192 @@ public class DraftFlowService {
     }
 
     /**
-     * ✅ REFATORADO: Monitora timeouts usando MySQL como fonte
+     * ✅ NOVO: Arma o prazo da ação atual no {@link DraftDeadlineScheduler}
+     * - Jogador real: lastActionStartMs + timeout configurado
+     * - Bot: lastActionStartMs + {@link #BOT_ACTION_DELAY_MS}
+     * - Ação sem jogador: imediato
+     * Draft completo → cancela o prazo
      */
-    @Scheduled(fixedDelay = 1000)
-    public void monitorActionTimeouts() {
-        long now = System.currentTimeMillis();
-
-        // ✅ Buscar drafts ativos do MySQL
-        List<br.com.lolmatchmaking.backend.domain.entity.CustomMatch> drafts = customMatchRepository
-                .findByStatus("draft");
-
-        if (drafts.isEmpty()) {
-            return; // Sem drafts ativos
-        }
-
-        log.info("⏰ [DraftFlow] Monitorando {} drafts ativos", drafts.size());
-
-        for (br.com.lolmatchmaking.backend.domain.entity.CustomMatch match : drafts) {
-            DraftState st = getDraftStateFromRedis(match.getId());
-            if (st == null) {
-                log.warn("⚠️ [DraftFlow] Estado null para match {}", match.getId());
-                continue;
-            }
-
-            // ✅ DEBUG CRÍTICO: Logar currentIndex para diagnosticar
-            log.debug("🔍 [Monitor] Match {}: currentIndex={}/{}, matchId do state={}",
-                    match.getId(), st.getCurrentIndex(), st.getActions().size(), st.getMatchId());
-
-            if (st.getCurrentIndex() >= st.getActions().size()) {
-                log.info("✅ [DraftFlow] Draft {} completo (currentIndex={}/{})",
-                        match.getId(), st.getCurrentIndex(), st.getActions().size());
-                continue; // ✅ CORREÇÃO: continue ao invés de return!
-            }
-
-            long elapsed = now - st.getLastActionStartMs();
-
-            // ✅ NOVO: Para bots, fazer ação automática após 2 segundos ao invés de esperar
-            // timeout completo
-            int currentIdx = st.getCurrentIndex();
-            DraftAction currentAction = st.getActions().get(currentIdx);
-            String currentPlayer = getPlayerForTeamAndIndex(st, currentAction.team(), currentIdx);
-
-            log.info("🔍 [DraftFlow] Match {} - Ação {}/{}: team={}, type={}, player={}, elapsed={}ms, isBot={}",
-                    st.getMatchId(), currentIdx, st.getActions().size(),
-                    currentAction.team(), currentAction.type(), currentPlayer, elapsed, isBot(currentPlayer));
-
-            if (currentPlayer == null) {
-                log.error("❌ [DraftFlow] Match {} - Jogador NULL para ação {} (team {})",
-                        st.getMatchId(), currentIdx, currentAction.team());
-                // Selecionar campeão aleatório para pular esta ação
-                String randomChampionId = selectRandomAvailableChampion(st);
-                if (randomChampionId == null) {
-                    log.error("❌ [DraftFlow] Nenhum campeão disponível para ação sem jogador, usando fallback");
-                    randomChampionId = "266"; // Fallback para Aatrox
-                }
-                String championName = dataDragonService.getChampionName(randomChampionId);
-                DraftAction autoSelected = new DraftAction(
-                        currentAction.index(),
-                        currentAction.type(),
-                        currentAction.team(),
-                        randomChampionId,
-                        championName,
-                        "NO_PLAYER");
-                st.getActions().set(currentIdx, autoSelected);
-                st.advance();
-                st.markActionStart();
-                persist(st.getMatchId(), st);
-                broadcastUpdate(st, false);
-                return;
-            }
-
-            // ✅ CRÍTICO: RETRY draft_updated para jogadores que podem ter perdido conexão
-            // A cada 3 segundos, reenviar o estado completo para TODOS os jogadores da
-            // partida
-            if (elapsed > 0 && elapsed % 3000 < 1000) { // A cada 3s (com margem de 1s)
-                retryDraftUpdateForAllPlayers(st);
-            }
-
-            if (isBot(currentPlayer) && elapsed >= 2000) { // 2 segundos para bots
-                log.info("🤖 [DraftFlow] Match {} - Bot {} fazendo ação automática (ação {}, {}) - elapsed={}ms",
-                        st.getMatchId(), currentPlayer, currentIdx, currentAction.type(), elapsed);
-                handleBotAutoAction(st, currentPlayer);
+    private void armActionDeadline(DraftState st, boolean keepExisting) {
+        try {
+            int idx = st.getCurrentIndex();
+            if (idx >= st.getActions().size()) {
+                draftDeadlines.cancel(st.getMatchId());
                 return;
-            } else if (isBot(currentPlayer)) {
-                log.debug("⏳ [DraftFlow] Bot {} aguardando... elapsed={}ms (precisa 2000ms)", currentPlayer, elapsed);
             }
 
-            // ✅ Para jogadores reais, usar timeout configurado
-            if (elapsed >= getActionTimeoutMs()) {
-                int idx = st.getCurrentIndex();
-                DraftAction prev = st.getActions().get(idx);
-                log.warn("⏰ [DraftFlow] Timeout na ação {} - selecionando campeão aleatório", idx);
-                String randomChampionId = selectRandomAvailableChampion(st);
-                if (randomChampionId == null) {
-                    log.error("❌ [DraftFlow] Nenhum campeão disponível para timeout, usando fallback");
-                    randomChampionId = "266"; // Fallback para Aatrox
-                }
-                String championName = dataDragonService.getChampionName(randomChampionId);
-                log.info("🎲 [DraftFlow] Campeão aleatório selecionado por timeout: {} ({})",
-                        randomChampionId, championName);
-                DraftAction autoSelected = new DraftAction(
-                        prev.index(),
-                        prev.type(),
-                        prev.team(),
-                        randomChampionId,
-                        championName,
-                        TIMEOUT_PLAYER);
-                st.getActions().set(idx, autoSelected);
-                st.advance();
-                st.markActionStart();
-                persist(st.getMatchId(), st);
+            DraftAction current = st.getActions().get(idx);
+            String player = getPlayerForTeamAndIndex(st, current.team(), idx);
+            long delay = player == null ? 0 : isBot(player) ? BOT_ACTION_DELAY_MS : getActionTimeoutMs();
+            long deadlineAt = st.getLastActionStartMs() + delay;
+            List<String> players = getAllPlayersFromDraftState(st);
 
-                // ✅ Salvar estado no Redis
-                // saveDraftStateToRedis(st.getMatchId(), st); // ✅ REMOVIDO: Método deprecated
-                // redisDraftFlow.saveDraftState(st.getMatchId(), st); // ✅ MÉTODO NÃO EXISTE
-                // TODO: Implementar salvamento no Redis usando saveDraftStateJson
-
-                broadcastUpdate(st, false);
-                if (st.getCurrentIndex() >= st.getActions().size()) {
-                    broadcastDraftCompleted(st);
-                }
+            if (keepExisting) {
+                draftDeadlines.armIfAbsent(st.getMatchId(), idx, deadlineAt, players);
+            } else {
+                draftDeadlines.arm(st.getMatchId(), idx, deadlineAt, players);
             }
+        } catch (Exception e) {
+            log.error("❌ [DraftFlow] Erro ao armar prazo da ação: matchId={}", st.getMatchId(), e);
         }
     }
 
     /**
-     * ✅ NOVO: Reenviar draft_updated para TODOS os jogadores (retry para
-     * desconectados)
+     * ✅ REFATORADO: Prazo da ação expirou (substitui os loops de 1s que varriam
+     * findByStatus("draft"))
+     *
+     * Chamado pelo {@link DraftDeadlineScheduler} só quando um prazo vence e foi
+     * reivindicado por esta instância. actionIndex = -1 → prazo órfão recolhido de
+     * outra instância (usa a ação atual).
      */
-    private void retryDraftUpdateForAllPlayers(DraftState st) {
-        try {
-            Long matchId = st.getMatchId();
-
-            // ✅ THROTTLE: Reenviar apenas a cada 3 segundos
-            String retryKey = "draft_retry:" + matchId;
-            Long lastRetrySec = redisTemplate.opsForValue()
-                    .get(retryKey) != null ? (Long) redisTemplate.opsForValue().get(retryKey) : null;
-
-            long nowSec = System.currentTimeMillis() / 1000;
-            if (lastRetrySec != null && (nowSec - lastRetrySec) < 3) {
-                return; // Já reenviou recentemente
-            }
-
-            // ✅ Marcar último retry
-            redisTemplate.opsForValue().set(retryKey, nowSec, java.time.Duration.ofMinutes(5));
-
-            // ✅ CRÍTICO: VALIDAR COM MYSQL ANTES DE RETRY
-            Optional<CustomMatch> matchOpt = customMatchRepository.findById(matchId);
+    public void onActionDeadline(long matchId, int actionIndex) {
+        DraftState st = getDraftStateFromRedis(matchId);
+        if (st == null) {
+            log.warn("⚠️ [DraftFlow] Prazo expirou mas draft {} não está ativo no MySQL", matchId);
+            validateDraftStillActive(matchId);
+            return;
+        }
 
-            if (matchOpt.isEmpty()) {
-                log.warn("🧹 [CLEANUP] Match {} não existe no MySQL! Limpando Redis fantasma...", matchId);
-                redisDraftFlow.clearAllDraftData(matchId);
-                log.info("✅ [CLEANUP] Draft fantasma {} removida do Redis", matchId);
-                return; // ABORTAR retry
-            }
+        int currentIdx = st.getCurrentIndex();
+        if (currentIdx >= st.getActions().size()) {
+            log.info("✅ [DraftFlow] Draft {} completo (currentIndex={}/{})",
+                    matchId, currentIdx, st.getActions().size());
+            return;
+        }
 
-            CustomMatch match = matchOpt.get();
+        DraftAction currentAction = st.getActions().get(currentIdx);
+        String currentPlayer = getPlayerForTeamAndIndex(st, currentAction.team(), currentIdx);
+        long elapsed = System.currentTimeMillis() - st.getLastActionStartMs();
 
-            // Validar status
-            if (!"draft".equalsIgnoreCase(match.getStatus())) {
-                log.warn("🧹 [CLEANUP] Match {} não está em draft no MySQL (status: {})! Limpando Redis...",
-                        matchId, match.getStatus());
-                redisDraftFlow.clearAllDraftData(matchId);
-                log.info("✅ [CLEANUP] Draft {} removida do Redis (status MySQL: {})", matchId, match.getStatus());
-                return;
-            }
+        // Prazo velho (ação já avançou) ou disparado cedo: rearmar para a ação atual
+        long dueAfter = currentPlayer == null ? 0 : isBot(currentPlayer) ? BOT_ACTION_DELAY_MS : getActionTimeoutMs();
+        if ((actionIndex >= 0 && actionIndex != currentIdx) || elapsed < dueAfter) {
+            log.debug("⏭️ [DraftFlow] Prazo da ação {} obsoleto para match {} (atual={}, elapsed={}ms)",
+                    actionIndex, matchId, currentIdx, elapsed);
+            armActionDeadline(st, false);
+            return;
+        }
 
-            log.info("✅ [Validação MySQL] Match {} confirmada como 'draft' - prosseguindo retry", matchId);
-
-            // ✅ Buscar todos os jogadores (team1 + team2)
-            List<String> allPlayers = new ArrayList<>();
-            allPlayers.addAll(st.getTeam1Players());
-            allPlayers.addAll(st.getTeam2Players());
-
-            // ✅ CRÍTICO: NÃO parar retry apenas porque está "conectado"!
-            // Estar conectado ≠ Estar vendo o draft (evento pode ter sido perdido)
-            // SEMPRE continuar enviando (com throttle 3s) até que o draft termine
-            log.debug("🔄 [DraftFlow] {} jogadores na partida - enviando retry (throttle 3s)",
-                    allPlayers.size());
-
-            // ✅ Validar ownership case-insensitive + verificar acknowledgment
-            List<String> validPlayers = new ArrayList<>();
-            for (String player : allPlayers) {
-                // ✅ OTIMIZAÇÃO: Verificar se jogador JÁ acknowledgou (já viu o draft)
-                String ackKey = "draft_ack:" + matchId + ":" + player.toLowerCase();
-                Boolean hasAcked = (Boolean) redisTemplate.opsForValue().get(ackKey);
-                if (Boolean.TRUE.equals(hasAcked)) {
-                    log.debug("✅ [DraftFlow] Jogador {} já acknowledged - pulando retry", player);
-                    continue; // Pula este jogador
-                }
+        log.info("🔍 [DraftFlow] Match {} - Ação {}/{}: team={}, type={}, player={}, elapsed={}ms, isBot={}",
+                matchId, currentIdx, st.getActions().size(),
+                currentAction.team(), currentAction.type(), currentPlayer, elapsed, isBot(currentPlayer));
 
-                boolean inTeam1 = match.getTeam1PlayersJson() != null &&
-                        match.getTeam1PlayersJson().toLowerCase().contains(player.toLowerCase());
-                boolean inTeam2 = match.getTeam2PlayersJson() != null &&
-                        match.getTeam2PlayersJson().toLowerCase().contains(player.toLowerCase());
+        if (currentPlayer == null) {
+            log.error("❌ [DraftFlow] Match {} - Jogador NULL para ação {} (team {})",
+                    matchId, currentIdx, currentAction.team());
+            applyAutoSelection(st, currentIdx, "NO_PLAYER");
+            return;
+        }
 
-                if (inTeam1 || inTeam2) {
-                    validPlayers.add(player);
-                }
-            }
+        if (isBot(currentPlayer)) {
+            log.info("🤖 [DraftFlow] Match {} - Bot {} fazendo ação automática (ação {}, {}) - elapsed={}ms",
+                    matchId, currentPlayer, currentIdx, currentAction.type(), elapsed);
+            handleBotAutoAction(st, currentPlayer);
+            return;
+        }
 
-            if (!validPlayers.isEmpty()) {
-                log.debug("🔄 [DraftFlow] RETRY: Reenviando draft state para {} jogadores da partida {}",
-                        validPlayers.size(), matchId);
+        // ✅ Para jogadores reais: timeout configurado → campeão aleatório
+        log.warn("⏰ [DraftFlow] Timeout na ação {} - selecionando campeão aleatório", currentIdx);
+        applyAutoSelection(st, currentIdx, TIMEOUT_PLAYER);
+    }
 
-                // ✅ CRÍTICO: Enviar EVENTO INICIAL (draft_starting) para jogadores
-                // desconectados
-                // Isso garante que quem perdeu o evento inicial vê o draft completo
-                retryDraftStartingForPlayers(matchId, validPlayers);
+    /**
+     * Preenche a ação com campeão aleatório (timeout ou ação sem jogador) e
+     * avança o draft
+     */
+    private void applyAutoSelection(DraftState st, int idx, String byPlayer) {
+        DraftAction prev = st.getActions().get(idx);
+        String randomChampionId = selectRandomAvailableChampion(st);
+        if (randomChampionId == null) {
+            log.error("❌ [DraftFlow] Nenhum campeão disponível para seleção automática, usando fallback");
+            randomChampionId = "266"; // Fallback para Aatrox
+        }
+        String championName = dataDragonService.getChampionName(randomChampionId);
+        log.info("🎲 [DraftFlow] Campeão aleatório selecionado ({}): {} ({})",
+                byPlayer, randomChampionId, championName);
+        DraftAction autoSelected = new DraftAction(
+                prev.index(),
+                prev.type(),
+                prev.team(),
+                randomChampionId,
+                championName,
+                byPlayer);
+        st.getActions().set(idx, autoSelected);
+        st.availability(dataDragonService).take(randomChampionId);
+        st.advance();
+        st.markActionStart();
+        DraftStateStore.ActionResult result = commitAction(st, idx, null);
+        if (result != DraftStateStore.ActionResult.APPLIED) {
+            // Jogador agiu no limite do prazo (STALE) ou Redis indisponível
+            log.info("⏭️ [DraftFlow] Auto-seleção da ação {} do match {} descartada: {}", idx, st.getMatchId(),
+                    result);
+            rearmAfterDiscardedAutoSelection(st, idx, result);
+            return;
+        }
+        armActionDeadline(st, false);
 
-                // ✅ Também enviar update normal (para quem já está no draft)
-                broadcastUpdate(st, false);
-            }
+        broadcastActionApplied(st, idx);
+        if (st.getCurrentIndex() >= st.getActions().size()) {
+            broadcastDraftCompleted(st);
+        }
+    }
 
-        } catch (Exception e) {
-            log.debug("❌ [DraftFlow] Erro ao retry draft_updated", e);
+    /**
+     * ✅ CORREÇÃO: O prazo já foi reivindicado (ZREM) quando a auto-seleção é
+     * descartada; sem rearmar, o draft para de vez
+     *
+     * A cópia local já foi avançada (advance/markActionStart/take) e não vale
+     * mais nada:
+     * - FAILED (Redis indisponível): nova tentativa em AUTO_ACTION_RETRY_MS; o
+     * prazo recarrega o estado salvo ao disparar
+     * - Demais (jogador agiu no limite): recarrega o estado salvo e arma o prazo
+     * da ação atual
+     */
+    private void rearmAfterDiscardedAutoSelection(DraftState discarded, int idx, DraftStateStore.ActionResult result) {
+        long matchId = discarded.getMatchId();
+        if (result == DraftStateStore.ActionResult.FAILED) {
+            draftDeadlines.arm(matchId, idx, System.currentTimeMillis() + AUTO_ACTION_RETRY_MS,
+                    getAllPlayersFromDraftState(discarded));
+            return;
         }
+        DraftState current = getDraftStateFromRedis(matchId);
+        if (current == null) {
+            validateDraftStillActive(matchId);
+            return;
+        }
+        armActionDeadline(current, false);
     }
 
     /**
-     * ✅ NOVO: Reenviar draft_starting para jogadores que perderam o evento inicial
-     * Garante que TODOS vejam o draft, mesmo com latência/desconexão em produção
+     * ✅ Valida no MySQL que o draft ainda existe e limpa drafts fantasma do
+     * Redis. Chamado quando um prazo vence para um draft que não carrega mais.
      */
-    private void retryDraftStartingForPlayers(Long matchId, List<String> players) {
+    private void validateDraftStillActive(Long matchId) {
         try {
-            // ✅ CRÍTICO: VALIDAR COM MYSQL ANTES DE RETRY
-            // Previne loops infinitos de retry para matches fantasma
+            // ✅ CRÍTICO: VALIDAR COM MYSQL
             Optional<CustomMatch> matchOpt = customMatchRepository.findById(matchId);
 
             if (matchOpt.isEmpty()) {
                 log.warn("🧹 [CLEANUP] Match {} não existe no MySQL! Limpando Redis fantasma...", matchId);
+                draftStateStore.finish(matchId);
                 redisDraftFlow.clearAllDraftData(matchId);
                 log.info("✅ [CLEANUP] Draft fantasma {} removida do Redis", matchId);
-                return; // ABORTAR retry
+                return;
             }
 
             CustomMatch match = matchOpt.get();
-            String status = match.getStatus();
 
-            // Se não está em draft, limpar Redis
-            if (!"draft".equalsIgnoreCase(status)) {
+            // Validar status
+            if (!"draft".equalsIgnoreCase(match.getStatus())) {
                 log.warn("🧹 [CLEANUP] Match {} não está em draft no MySQL (status: {})! Limpando Redis...",
-                        matchId, status);
+                        matchId, match.getStatus());
+                draftStateStore.finish(matchId);
                 redisDraftFlow.clearAllDraftData(matchId);
-                log.info("✅ [CLEANUP] Draft {} removida do Redis (status MySQL: {})", matchId, status);
-                return; // ABORTAR retry
-            }
-
-            log.info("✅ [Validação MySQL] Match {} confirmada como 'draft' - prosseguindo retry", matchId);
-
-            // ✅ CORREÇÃO: Usar DraftState do Redis e broadcastUpdate padronizado
-            DraftState st = getDraftStateFromRedis(matchId);
-            if (st == null) {
-                log.error("❌ [DraftFlow] RETRY: Não foi possível reconstruir DraftState do MySQL. Abortando retry.");
-                return;
-            }
-
-            // Garantir que começa em 0
-            if (st.getCurrentIndex() != 0) {
-                log.warn("⚠️ [DraftFlow] RETRY: currentIndex={} ajustado para 0", st.getCurrentIndex());
-                // não há setter público; se existir método para reset, usar. Caso contrário,
-                // reconstroi
-                List<DraftAction> acts = new ArrayList<>(st.getActions());
-                st = new DraftState(matchId, acts, st.getTeam1Players(), st.getTeam2Players());
-                // saveDraftStateToRedis(matchId, st); // ✅ REMOVIDO: Método deprecated
-                // redisDraftFlow.saveDraftState(matchId, st); // ✅ MÉTODO NÃO EXISTE
-                // TODO: Implementar salvamento no Redis usando saveDraftStateJson
+                log.info("✅ [CLEANUP] Draft {} removida do Redis (status MySQL: {})", matchId, match.getStatus());
             }
 
-            log.info("🔄 [DraftFlow] RETRY: Enviando broadcastUpdate inicial padronizado");
-            broadcastUpdate(st, false);
-            log.info("✅ [DraftFlow] RETRY: draft_starting enviado via broadcastUpdate padronizado");
-
         } catch (Exception e) {
-            log.error("❌ [DraftFlow] Erro ao retry draft_starting", e);
+            log.debug("❌ [DraftFlow] Erro ao validar draft no MySQL", e);
         }
     }
 
@@ -2840,6 +2851,9 @@ public class DraftFlowService {
 
             if (!success) {
                 log.error("❌ [DraftFlow] Falha ao processar ação do bot {}", botName);
+                // Nova tentativa no próximo prazo de bot (antes: próximo tick de 1s)
+                draftDeadlines.arm(st.getMatchId(), actionIndex, System.currentTimeMillis() + BOT_ACTION_DELAY_MS,
+                        getAllPlayersFromDraftState(st));
             }
 
         } catch (Exception e) {
@@ -2849,40 +2863,24 @@ public class DraftFlowService {
 
     /**
      * Seleciona um campeão aleatório disponível (não banido, não escolhido)
+     * ✅ OTIMIZADO: sorteio na máscara de bits do draft, sem copiar o catálogo
      */
     private String selectRandomAvailableChampion(DraftState st) {
-        // Lista de IDs de campeões (simplificada - em produção, buscar de Data Dragon)
-        List<String> allChampions = generateChampionIds();
-
-        // Filtrar campeões já usados (banidos ou escolhidos)
-        Set<String> usedChampions = st.getActions().stream()
-                .filter(a -> a.championId() != null && !SKIPPED.equals(a.championId()))
-                .map(DraftAction::championId)
-                .collect(java.util.stream.Collectors.toSet());
-
-        List<String> availableChampions = allChampions.stream()
-                .filter(id -> !usedChampions.contains(id))
-                .collect(java.util.stream.Collectors.toList());
-
-        if (availableChampions.isEmpty()) {
-            return null;
-        }
-
-        // Selecionar aleatório
-        int randomIndex = new java.util.Random().nextInt(availableChampions.size());
-        return availableChampions.get(randomIndex);
+        return st.availability(dataDragonService).randomAvailable();
     }
 
     /**
-     * Gera lista de IDs de campeões (simplificada)
+     * ✅ NOVO: Campeão já banido/escolhido? O(1) pela máscara; keys fora do Data
+     * Dragon (sem ordinal) caem na varredura das ações
      */
-    private List<String> generateChampionIds() {
-        // ✅ Buscar IDs reais do Data Dragon dinamicamente
-        List<DataDragonService.ChampionData> allChampions = dataDragonService.getAllChampions();
-        return allChampions.stream()
-                .map(DataDragonService.ChampionData::getKey)
-                .filter(Objects::nonNull)
-                .toList();
+    private boolean isChampionTaken(DraftState st, String championId) {
+        ChampionAvailability availability = st.availability(dataDragonService);
+        if (availability.isKnown(championId)) {
+            return availability.isTaken(championId);
+        }
+        return st.getActions().stream()
+                .filter(a -> a.championId() != null && !SKIPPED.equalsIgnoreCase(a.championId()))
+                .anyMatch(a -> championId.equalsIgnoreCase(a.championId()));
     }
 
     private long getActionTimeoutMs() {
@@ -3032,6 +3030,10 @@ public class DraftFlowService {
         try {
             log.info("🏁 [DraftFlow] Finalizando draft e iniciando jogo...");
 
+            // 0. Flush do estado quente pendente antes de sair do status draft
+            draftStateStore.flushNow(matchId);
+            draftStateStore.finish(matchId);
+
             // 1. Atualizar status da partida para "game_ready"
             customMatchRepository.findById(matchId).ifPresent(cm -> {
                 cm.setStatus("game_ready");
@@ -3092,6 +3094,8 @@ public class DraftFlowService {
             // 1. Verificar se partida existe
             var match = customMatchRepository.findById(matchId)
                     .orElseThrow(() -> new RuntimeException("Partida não encontrada: " + matchId));
+            draftDeadlines.cancel(matchId);
+            draftStateStore.finish(matchId);
 
             log.info("📊 [DraftFlow] Partida encontrada - Status: {}", match.getStatus());
 
@@ -3294,6 +3298,11 @@ public class DraftFlowService {
         Map<String, Object> result = new HashMap<>();
 
         try {
+            // ✅ 0. Deltas do estado quente ainda não gravados → flush antes de ler
+            if (draftStateStore.isDirty(matchId)) {
+                draftStateStore.flushNow(matchId);
+            }
+
             // ✅ 1. Buscar do MySQL (SEMPRE fonte da verdade)
             var matchOpt = customMatchRepository.findById(matchId);
             if (matchOpt.isEmpty()) {
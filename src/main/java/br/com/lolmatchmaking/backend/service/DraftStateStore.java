@@ -0,0 +1,573 @@
+package br.com.lolmatchmaking.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * ✅ NOVO: Estado QUENTE do draft (HASH no Redis) com persistência write-behind
+ *
+ * PROBLEMA RESOLVIDO:
+ * - getDraftStateFromRedis nunca lia o Redis: cada leitura fazia findById +
+ * parse completo do pick_ban_data no MySQL
+ * - persist() relia o mesmo JSON, mesclava num HashMap e regravava o TEXT
+ * inteiro a cada pick/ban/timeout
+ *
+ * SOLUÇÃO:
+ * - HASH draft_flow:{matchId}:hot com campos por ação (a:{i}) + índice atual,
+ * início da ação, times, confirmações e versão (incrementada a cada delta)
+ * - Cada ação grava só os campos que mudaram (delta) num único script
+ * - O documento pick_ban_data completo vai para o MySQL de forma assíncrona
+ * ({@link #flushDirty}, a cada {@link #FLUSH_INTERVAL_MS}) ou síncrona nas
+ * fronteiras de fase/transições críticas ({@link #flushNow})
+ * - HASH ausente (restart, draft anterior ao deploy) → chamador carrega do
+ * MySQL e semeia ({@link #seed})
+ * - Ações que avançam o draft passam por compare-and-set do índice atual +
+ * dono do turno ({@link #applyAction}), sem lock distribuído
+ * - idx/start só mudam pelo compare-and-set ou pela semente; deltas e
+ * confirmações ({@link #updateConfirmation}, merge atômico no Redis) nunca
+ * regravam esses campos a partir de uma cópia possivelmente velha
+ *
+ * Métricas: draft.action.latency, draft.state.bytes_written (por escrita,
+ * tag target=redis|mysql) e draft.state.bytes_per_draft (total por draft).
+ */
+@Slf4j
+@Component
+public class DraftStateStore {
+
+    private static final String KEY_PREFIX = "draft_flow:";
+    private static final long TTL_MS = TimeUnit.HOURS.toMillis(1);
+    static final long FLUSH_INTERVAL_MS = 2_000;
+
+    private static final String F_VERSION = "ver";
+    private static final String F_INDEX = "idx";
+    private static final String F_ACTION_START = "start";
+    private static final String F_ACTION_COUNT = "n";
+    private static final String F_TEAM1 = "t1";
+    private static final String F_TEAM2 = "t2";
+    private static final String F_CONFIRMATIONS = "conf";
+    private static final String F_ACTION_PREFIX = "a:";
+
+    /**
+     * Substitui o HASH inteiro preservando a versão. ARGV[1] = modo ("nx" não
+     * sobrescreve um estado existente), ARGV[2] = TTL ms, ARGV[3..] = pares
+     * campo/valor. Retorna a nova versão (0 se "nx" e já existia).
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[1] == 'nx' and redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+                    "local ver = tonumber(redis.call('HGET', KEYS[1], 'ver') or '0')\n" +
+                    "redis.call('DEL', KEYS[1])\n" +
+                    "for i = 3, #ARGV, 2 do\n" +
+                    "  redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])\n" +
+                    "end\n" +
+                    "ver = ver + 1\n" +
+                    "redis.call('HSET', KEYS[1], 'ver', ver)\n" +
+                    "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+                    "return ver",
+            Long.class);
+
+    /**
+     * Aplica um delta (ARGV[2..] = pares campo/valor) e incrementa a versão.
+     * Só para campos que não dependem da ordem das ações (a:{i} já aplicadas).
+     * -1 se o HASH expirou/foi limpo (chamador semeia o estado completo).
+     */
+    private static final RedisScript<Long> DELTA_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end\n" +
+                    "for i = 2, #ARGV, 2 do\n" +
+                    "  redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])\n" +
+                    "end\n" +
+                    "local ver = redis.call('HINCRBY', KEYS[1], 'ver', 1)\n" +
+                    "redis.call('PEXPIRE', KEYS[1], ARGV[1])\n" +
+                    "return ver",
+            Long.class);
+
+    /**
+     * ✅ NOVO: Ação do draft por compare-and-set (substitui o RLock
+     * draft_action:{matchId}). Aplica só se idx == ARGV[1] e o jogador ARGV[2]
+     * pertence ao time da ação atual ('' = sistema: timeout/auto-seleção).
+     * ARGV[3] = JSON da ação preenchida, ARGV[4] = início da próxima ação,
+     * ARGV[5] = TTL ms. Retorna applied:{versão} | stale:{idx} | not_your_turn |
+     * missing.
+     */
+    private static final RedisScript<String> ACTION_SCRIPT = new DefaultRedisScript<>(
+            "local idx = redis.call('HGET', KEYS[1], 'idx')\n" +
+                    "if not idx then return 'missing' end\n" +
+                    "idx = tonumber(idx)\n" +
+                    "local n = tonumber(redis.call('HGET', KEYS[1], 'n') or '0')\n" +
+                    "if idx ~= tonumber(ARGV[1]) or idx >= n then return 'stale:' .. idx end\n" +
+                    "if ARGV[2] ~= '' then\n" +
+                    "  local current = redis.call('HGET', KEYS[1], 'a:' .. idx)\n" +
+                    "  if not current then return 'missing' end\n" +
+                    "  local team = redis.call('HGET', KEYS[1], 't' .. cjson.decode(current)['team']) or '[]'\n" +
+                    "  local owner = false\n" +
+                    "  for _, player in ipairs(cjson.decode(team)) do\n" +
+                    "    if player == ARGV[2] then owner = true break end\n" +
+                    "  end\n" +
+                    "  if not owner then return 'not_your_turn' end\n" +
+                    "end\n" +
+                    "redis.call('HSET', KEYS[1], 'a:' .. idx, ARGV[3], 'idx', idx + 1, 'start', ARGV[4])\n" +
+                    "local ver = redis.call('HINCRBY', KEYS[1], 'ver', 1)\n" +
+                    "redis.call('PEXPIRE', KEYS[1], ARGV[5])\n" +
+                    "return 'applied:' .. ver",
+            String.class);
+
+    /**
+     * ✅ NOVO: Confirmação por merge atômico no campo conf (substitui o
+     * read-modify-write do conjunto inteiro). ARGV[1] = jogador, ARGV[2] =
+     * add|remove, ARGV[3] = TTL ms. Retorna {versão}|{mudou 0/1}|{conf JSON} ou
+     * missing.
+     */
+    private static final RedisScript<String> CONFIRM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 'missing' end\n" +
+                    "local players = cjson.decode(redis.call('HGET', KEYS[1], 'conf') or '[]')\n" +
+                    "local out = {}\n" +
+                    "local found = false\n" +
+                    "for _, player in ipairs(players) do\n" +
+                    "  if player == ARGV[1] then found = true end\n" +
+                    "  if player ~= ARGV[1] or ARGV[2] == 'add' then out[#out + 1] = player end\n" +
+                    "end\n" +
+                    "if ARGV[2] == 'add' and not found then out[#out + 1] = ARGV[1] end\n" +
+                    "local changed = (ARGV[2] == 'add') ~= found\n" +
+                    "local conf = '[]'\n" +
+                    "if #out > 0 then conf = cjson.encode(out) end\n" +
+                    "local ver = redis.call('HGET', KEYS[1], 'ver') or '0'\n" +
+                    "if changed then\n" +
+                    "  redis.call('HSET', KEYS[1], 'conf', conf)\n" +
+                    "  ver = redis.call('HINCRBY', KEYS[1], 'ver', 1)\n" +
+                    "  redis.call('PEXPIRE', KEYS[1], ARGV[3])\n" +
+                    "end\n" +
+                    "return ver .. '|' .. (changed and '1' or '0') .. '|' .. conf",
+            String.class);
+
+    /**
+     * Resultado de uma ação do draft
+     */
+    public enum ActionResult {
+        APPLIED,
+        STALE, // índice esperado já não é o atual (outra ação/timeout venceu)
+        NOT_YOUR_TURN,
+        REJECTED, // campeão inválido/já usado, jogador fora do draft
+        MISSING, // estado quente ausente (uso interno: chamador recarrega)
+        FAILED; // Redis indisponível
+
+        public String wireName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>(
+            "return redis.call('HGETALL', KEYS[1])",
+            List.class);
+
+    private static final GenericToStringSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary redisBytes;
+    private final DistributionSummary mysqlBytes;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Último estado gravado por este nó: fallback do flush se o HASH sumiu
+    // (Redis indisponível/expirado) para não perder a escrita no MySQL
+    private final Map<Long, DraftFlowService.DraftState> pending = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> bytesPerDraft = new ConcurrentHashMap<>();
+    private volatile Consumer<DraftFlowService.DraftState> flusher = st -> {
+    };
+
+    public DraftStateStore(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.redisBytes = DistributionSummary.builder("draft.state.bytes_written")
+                .description("Bytes gravados por escrita de estado do draft")
+                .baseUnit("bytes")
+                .tag("target", "redis")
+                .register(meterRegistry);
+        this.mysqlBytes = DistributionSummary.builder("draft.state.bytes_written")
+                .description("Bytes gravados por escrita de estado do draft")
+                .baseUnit("bytes")
+                .tag("target", "mysql")
+                .register(meterRegistry);
+    }
+
+    public static String hotKey(long matchId) {
+        return KEY_PREFIX + matchId + ":hot";
+    }
+
+    /**
+     * Gravação do documento pick_ban_data completo no MySQL (DraftFlowService)
+     */
+    public void bind(Consumer<DraftFlowService.DraftState> flusher) {
+        this.flusher = flusher;
+    }
+
+    // ========================================
+    // LEITURA
+    // ========================================
+
+    /**
+     * Estado quente do draft; null se o HASH não existe (carregar do MySQL e
+     * semear)
+     */
+    @SuppressWarnings("unchecked")
+    public DraftFlowService.DraftState load(long matchId) {
+        List<Object> flat;
+        try {
+            flat = redisTemplate.execute(READ_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    List.of(hotKey(matchId)));
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao ler estado quente do match {}: {}", matchId, e.getMessage());
+            return null;
+        }
+        if (flat == null || flat.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> fields = new HashMap<>(flat.size());
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            fields.put(String.valueOf(flat.get(i)), String.valueOf(flat.get(i + 1)));
+        }
+
+        try {
+            int count = Integer.parseInt(fields.getOrDefault(F_ACTION_COUNT, "0"));
+            List<DraftFlowService.DraftAction> actions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String json = fields.get(F_ACTION_PREFIX + i);
+                if (json == null) {
+                    log.warn("⚠️ [DraftState] Estado quente incompleto para match {} (falta ação {})", matchId, i);
+                    return null;
+                }
+                actions.add(objectMapper.readValue(json, DraftFlowService.DraftAction.class));
+            }
+
+            DraftFlowService.DraftState st = new DraftFlowService.DraftState(matchId, actions,
+                    objectMapper.readValue(fields.getOrDefault(F_TEAM1, "[]"), STRING_LIST),
+                    objectMapper.readValue(fields.getOrDefault(F_TEAM2, "[]"), STRING_LIST));
+            int currentIndex = Integer.parseInt(fields.getOrDefault(F_INDEX, "0"));
+            while (st.getCurrentIndex() < currentIndex && st.getCurrentIndex() < actions.size()) {
+                st.advance();
+            }
+            st.restoreActionStart(Long.parseLong(fields.getOrDefault(F_ACTION_START, "0")));
+            st.getConfirmations().addAll(objectMapper.readValue(fields.getOrDefault(F_CONFIRMATIONS, "[]"),
+                    STRING_LIST));
+            st.setVersion(Long.parseLong(fields.getOrDefault(F_VERSION, "0")));
+            return st;
+        } catch (Exception e) {
+            log.error("❌ [DraftState] Estado quente inválido para match {}", matchId, e);
+            return null;
+        }
+    }
+
+    // ========================================
+    // ESCRITA (deltas)
+    // ========================================
+
+    /**
+     * Grava o estado completo (início do draft ou carga a frio do MySQL).
+     * onlyIfAbsent = não sobrescreve um estado quente existente.
+     */
+    public void seed(DraftFlowService.DraftState st, boolean onlyIfAbsent) {
+        if (!onlyIfAbsent) {
+            pending.put(st.getMatchId(), st);
+        }
+        try {
+            List<String> args = seedArgs(st, onlyIfAbsent ? "nx" : "set");
+            Long version = redisTemplate.execute(SEED_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(hotKey(st.getMatchId())), args.toArray());
+            if (version != null && version > 0) {
+                st.setVersion(version);
+                recordRedisWrite(st.getMatchId(), args);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao semear estado quente do match {}: {}", st.getMatchId(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ NOVO: Fallback do compare-and-set quando o HASH segue ausente: semeia o
+     * estado já com a ação, mas só se ninguém semeou no meio ("nx"). Nunca
+     * sobrescreve idx/start de um estado mais novo (outro nó → STALE).
+     */
+    public ActionResult seedAction(DraftFlowService.DraftState st) {
+        long matchId = st.getMatchId();
+        try {
+            List<String> args = seedArgs(st, "nx");
+            Long version = redisTemplate.execute(SEED_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(hotKey(matchId)), args.toArray());
+            if (version != null && version == 0) {
+                return ActionResult.STALE;
+            }
+            if (version != null) {
+                st.setVersion(version);
+                recordRedisWrite(matchId, args);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao semear ação do match {}: {}", matchId, e.getMessage());
+            return ActionResult.FAILED;
+        }
+        // Sem resposta do Redis: o último estado local segue para o MySQL no flush
+        pending.put(matchId, st);
+        dirty.add(matchId);
+        return ActionResult.APPLIED;
+    }
+
+    private List<String> seedArgs(DraftFlowService.DraftState st, String mode) throws JsonProcessingException {
+        List<String> args = new ArrayList<>();
+        args.add(mode);
+        args.add(String.valueOf(TTL_MS));
+        put(args, F_INDEX, String.valueOf(st.getCurrentIndex()));
+        put(args, F_ACTION_START, String.valueOf(st.getLastActionStartMs()));
+        put(args, F_ACTION_COUNT, String.valueOf(st.getActions().size()));
+        put(args, F_TEAM1, objectMapper.writeValueAsString(st.getTeam1Players()));
+        put(args, F_TEAM2, objectMapper.writeValueAsString(st.getTeam2Players()));
+        put(args, F_CONFIRMATIONS, objectMapper.writeValueAsString(st.getConfirmations()));
+        for (int i = 0; i < st.getActions().size(); i++) {
+            put(args, F_ACTION_PREFIX + i, objectMapper.writeValueAsString(st.getActions().get(i)));
+        }
+        return args;
+    }
+
+    /**
+     * Delta de ações já aplicadas (troca de pick): grava só os campos a:{i}.
+     * Índice/início da ação não vão no delta: só o compare-and-set avança o
+     * draft. Marca o draft para flush write-behind.
+     */
+    public void applyDelta(DraftFlowService.DraftState st, int... actionIndexes) {
+        pending.put(st.getMatchId(), st);
+        try {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(TTL_MS));
+            for (int index : actionIndexes) {
+                put(args, F_ACTION_PREFIX + index, objectMapper.writeValueAsString(st.getActions().get(index)));
+            }
+
+            Long version = redisTemplate.execute(DELTA_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(hotKey(st.getMatchId())), args.toArray());
+            if (version == null || version < 0) {
+                seed(st, false);
+            } else {
+                st.setVersion(version);
+                recordRedisWrite(st.getMatchId(), args);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao gravar delta do match {}: {}", st.getMatchId(), e.getMessage());
+        }
+        dirty.add(st.getMatchId());
+    }
+
+    /**
+     * ✅ NOVO: Confirma (ou retira a confirmação de) um jogador com merge
+     * atômico no HASH: confirmações simultâneas em nós diferentes não se
+     * sobrescrevem. st recebe o conjunto resultante e a nova versão.
+     *
+     * @return true se o conjunto mudou (false = confirmação repetida)
+     */
+    public boolean updateConfirmation(DraftFlowService.DraftState st, String player, boolean confirmed) {
+        long matchId = st.getMatchId();
+        String reply;
+        try {
+            reply = redisTemplate.execute(CONFIRM_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    List.of(hotKey(matchId)), player, confirmed ? "add" : "remove", String.valueOf(TTL_MS));
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao gravar confirmação do match {}: {}", matchId, e.getMessage());
+            reply = null;
+        }
+
+        if (reply != null && !"missing".equals(reply)) {
+            String[] parts = reply.split("\\|", 3);
+            try {
+                List<String> merged = objectMapper.readValue(parts[2], STRING_LIST);
+                st.getConfirmations().clear();
+                st.getConfirmations().addAll(merged);
+                st.setVersion(Long.parseLong(parts[0]));
+                boolean changed = "1".equals(parts[1]);
+                if (changed) {
+                    recordRedisWrite(matchId, List.of(player, parts[2]));
+                    pending.put(matchId, st);
+                    dirty.add(matchId);
+                }
+                return changed;
+            } catch (Exception e) {
+                log.error("❌ [DraftState] Resposta inválida da confirmação do match {}: {}", matchId, reply, e);
+            }
+        }
+
+        // HASH ausente ou Redis sem resposta: aplica na cópia local (semeada se o
+        // HASH sumiu) e segue para o MySQL no flush
+        boolean changed = confirmed ? st.getConfirmations().add(player) : st.getConfirmations().remove(player);
+        if ("missing".equals(reply)) {
+            seed(st, false);
+        } else {
+            pending.put(matchId, st);
+        }
+        dirty.add(matchId);
+        return changed;
+    }
+
+    /**
+     * ✅ NOVO: Aplica a ação expectedIndex atomicamente no HASH (um round-trip,
+     * sem lock). st já traz a ação preenchida, o índice avançado e o início da
+     * próxima ação; em APPLIED recebe a nova versão e entra no write-behind.
+     *
+     * @param player jogador da ação (validado contra o time do turno); null =
+     *               sistema (timeout/auto-seleção)
+     */
+    public ActionResult applyAction(DraftFlowService.DraftState st, int expectedIndex, String player) {
+        long matchId = st.getMatchId();
+        String reply;
+        try {
+            String actionJson = objectMapper.writeValueAsString(st.getActions().get(expectedIndex));
+            reply = redisTemplate.execute(ACTION_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    List.of(hotKey(matchId)), String.valueOf(expectedIndex), player != null ? player : "",
+                    actionJson, String.valueOf(st.getLastActionStartMs()), String.valueOf(TTL_MS));
+            if (reply != null && reply.startsWith("applied:")) {
+                st.setVersion(Long.parseLong(reply.substring("applied:".length())));
+                recordRedisWrite(matchId, List.of(actionJson, String.valueOf(st.getLastActionStartMs())));
+                pending.put(matchId, st);
+                dirty.add(matchId);
+                return ActionResult.APPLIED;
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha no compare-and-set da ação {} do match {}: {}", expectedIndex, matchId,
+                    e.getMessage());
+            return ActionResult.FAILED;
+        }
+
+        if (reply == null || "missing".equals(reply)) {
+            return ActionResult.MISSING;
+        }
+        if (reply.startsWith("stale")) {
+            log.debug("⏭️ [DraftState] Ação {} do match {} obsoleta ({})", expectedIndex, matchId, reply);
+            return ActionResult.STALE;
+        }
+        return ActionResult.NOT_YOUR_TURN;
+    }
+
+    private static void put(List<String> args, String field, String value) {
+        args.add(field);
+        args.add(value);
+    }
+
+    // ========================================
+    // WRITE-BEHIND (MySQL)
+    // ========================================
+
+    /**
+     * Flush assíncrono: drafts com delta pendente recebem o documento completo
+     * no MySQL. Sem drafts pendentes, não faz I/O.
+     */
+    @Scheduled(fixedDelay = FLUSH_INTERVAL_MS)
+    public void flushDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        for (Long matchId : List.copyOf(dirty)) {
+            flushNow(matchId);
+        }
+    }
+
+    /**
+     * Flush síncrono (fronteira de fase, draft completo, confirmação, leitura
+     * que depende do MySQL)
+     */
+    public void flushNow(long matchId) {
+        dirty.remove(matchId);
+        DraftFlowService.DraftState local = pending.get(matchId);
+        try {
+            DraftFlowService.DraftState st = load(matchId);
+            if (st == null) {
+                st = local;
+            }
+            if (st != null) {
+                flusher.accept(st);
+            }
+            if (local != null) {
+                pending.remove(matchId, local);
+            }
+        } catch (Exception e) {
+            log.error("❌ [DraftState] Erro no flush do match {} para o MySQL", matchId, e);
+            dirty.add(matchId);
+        }
+    }
+
+    public boolean isDirty(long matchId) {
+        return dirty.contains(matchId);
+    }
+
+    /**
+     * Registra a gravação do documento completo no MySQL (chamado pelo flusher)
+     */
+    public void recordMySqlWrite(long matchId, String json) {
+        int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+        mysqlBytes.record(bytes);
+        bytesPerDraft.computeIfAbsent(matchId, id -> new AtomicLong()).addAndGet(bytes);
+    }
+
+    private void recordRedisWrite(long matchId, List<String> args) {
+        long bytes = 0;
+        for (String arg : args) {
+            bytes += arg.getBytes(StandardCharsets.UTF_8).length;
+        }
+        redisBytes.record(bytes);
+        bytesPerDraft.computeIfAbsent(matchId, id -> new AtomicLong()).addAndGet(bytes);
+    }
+
+    public void recordActionLatency(long nanos, boolean applied) {
+        Timer.builder("draft.action.latency")
+                .description("Latência de processAction (validação + compare-and-set + broadcast)")
+                .tag("result", applied ? "applied" : "rejected")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Fim do draft (jogo iniciado/cancelado/limpo): registra o total de bytes e
+     * remove o estado quente
+     */
+    public void finish(long matchId) {
+        dirty.remove(matchId);
+        pending.remove(matchId);
+        try {
+            redisTemplate.delete(hotKey(matchId));
+        } catch (Exception e) {
+            log.warn("⚠️ [DraftState] Falha ao remover estado quente do match {}: {}", matchId, e.getMessage());
+        }
+        AtomicLong total = bytesPerDraft.remove(matchId);
+        if (total != null) {
+            DistributionSummary.builder("draft.state.bytes_per_draft")
+                    .description("Bytes de estado gravados (Redis + MySQL) durante um draft")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(total.get());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.com.lolmatchmaking.backend.service;
 
 import br.com.lolmatchmaking.backend.dto.QueueStatusDTO;
 import br.com.lolmatchmaking.backend.dto.events.*;
+import br.com.lolmatchmaking.backend.service.redis.SessionRouteCache;
 import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -28,21 +30,27 @@ import java.util.concurrent.TimeUnit;
  * - TODAS as instâncias escutam e fazem broadcast via WebSocket
  * - Garantia de entrega para TODOS os clientes
  * 
- * FLUXO:
+ * FLUXO (broadcast - fila):
  * 1. Instância A publica evento → Redis Pub/Sub
  * 2. TODAS as instâncias (A, B, C, ...) recebem evento
  * 3. Cada instância faz broadcast via WebSocket para SEUS clientes
  * 4. TODOS os clientes recebem evento em tempo real
  * 
+ * ✅ NOVO: FLUXO (dirigido - partida/votação):
+ * 1. Instância A agrupa os jogadores pela instância dona da sessão
+ * 2. Publica só no canal ws:node:{nodeId} de cada dona (envelope com o canal
+ * lógico, ex.: match:found)
+ * 3. Cada instância decodifica apenas eventos dos próprios clientes
+ * 
  * CANAIS:
  * - queue:update - Atualização completa da fila
+ * - queue:delta - Delta versionado da fila (entrou/saiu/posição)
  * - queue:player_joined - Jogador entrou na fila
  * - queue:player_left - Jogador saiu da fila
  * - match:found - Partida encontrada
  * - match:acceptance - Progresso de aceitação
- * - draft:started - Draft iniciado
- * - draft:pick - Campeão escolhido
- * - draft:ban - Campeão banido
+ * (draft não tem canal: DraftFlowService usa sendToPlayers, que já roteia
+ * para a instância dona de cada jogador)
  * 
  * REFERÊNCIA:
  * - ARQUITETURA-CORRETA-SINCRONIZACAO.md#service-de-broadcasting
@@ -56,6 +64,8 @@ public class EventBroadcastService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final MatchmakingWebSocketService webSocketService;
     private final ObjectMapper objectMapper;
+    private final QueueSnapshotService queueSnapshotService;
+    private final SessionRouteCache sessionRoutes;
 
     // ═══════════════════════════════════════════════════════════
     // PUBLICAÇÃO DE EVENTOS (Métodos chamados por services)
@@ -88,6 +98,34 @@ public class EventBroadcastService {
         }
     }
 
+    /**
+     * ✅ NOVO: Publica delta versionado da fila
+     *
+     * Substitui a atualização completa em entrada/saída: apenas o que mudou
+     * trafega no Pub/Sub e no WebSocket.
+     *
+     * @param delta Delta gerado pelo QueueSnapshotService (null = nada mudou)
+     */
+    public void publishQueueDelta(QueueDeltaEvent delta) {
+        if (delta == null || delta.isEmpty()) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(delta);
+
+            redisTemplate.convertAndSend("queue:delta", json);
+
+            log.info("📢 [Pub/Sub] queue_delta v{} publicado: +{} -{} ({} jogadores)",
+                    delta.getVersion(), delta.getJoined().size(), delta.getLeft().size(),
+                    delta.getPlayersInQueue());
+
+        } catch (JsonProcessingException e) {
+            log.error("❌ [Pub/Sub] Erro ao serializar QueueDeltaEvent", e);
+        } catch (Exception e) {
+            log.error("❌ [Pub/Sub] Erro ao publicar queue_delta", e);
+        }
+    }
+
     /**
      * ✅ Publica evento de jogador entrando na fila
      * 
@@ -141,13 +179,15 @@ public class EventBroadcastService {
      */
     public void publishMatchFound(Long matchId, List<String> playerNames) {
         try {
-            MatchFoundEvent event = new MatchFoundEvent(matchId, playerNames);
-            String json = objectMapper.writeValueAsString(event);
-
-            redisTemplate.convertAndSend("match:found", json);
+            // ✅ ROTEAMENTO: cada instância dona recebe só os seus jogadores
+            Map<String, List<String>> byNode = sessionRoutes.partitionByOwner(playerNames);
+            for (Map.Entry<String, List<String>> owner : byNode.entrySet()) {
+                MatchFoundEvent event = new MatchFoundEvent(matchId, owner.getValue());
+                sessionRoutes.publishToNode(owner.getKey(), "match:found", objectMapper.writeValueAsString(event));
+            }
 
-            log.info("📢 [Pub/Sub] match_found publicado: match {} para {} jogadores",
-                    matchId, playerNames.size());
+            log.info("📢 [Pub/Sub] match_found publicado: match {} para {} jogadores ({} instâncias)",
+                    matchId, playerNames.size(), byNode.size());
 
         } catch (JsonProcessingException e) {
             log.error("❌ [Pub/Sub] Erro ao serializar MatchFoundEvent", e);
@@ -171,7 +211,9 @@ public class EventBroadcastService {
             MatchAcceptanceEvent event = new MatchAcceptanceEvent(matchId, summonerName, accepted, total);
             String json = objectMapper.writeValueAsString(event);
 
-            redisTemplate.convertAndSend("match:acceptance", json);
+            // ✅ Entrega dirigida (sendToPlayers roteia por instância dona): basta
+            // esta instância processar
+            sessionRoutes.publishToNode(sessionRoutes.nodeId(), "match:acceptance", json);
 
             log.info("📢 [Pub/Sub] match_acceptance publicado: {} ({}/{})",
                     summonerName, accepted, total);
@@ -183,81 +225,6 @@ public class EventBroadcastService {
         }
     }
 
-    /**
-     * ✅ Publica evento de draft iniciado
-     * 
-     * @param matchId     ID da partida
-     * @param playerNames Lista dos jogadores
-     */
-    public void publishDraftStarted(Long matchId, List<String> playerNames) {
-        try {
-            DraftEvent event = new DraftEvent("draft_started", matchId, playerNames);
-            String json = objectMapper.writeValueAsString(event);
-
-            redisTemplate.convertAndSend("draft:started", json);
-
-            log.info("📢 [Pub/Sub] draft_started publicado: match {}", matchId);
-
-        } catch (JsonProcessingException e) {
-            log.error("❌ [Pub/Sub] Erro ao serializar DraftEvent", e);
-        } catch (Exception e) {
-            log.error("❌ [Pub/Sub] Erro ao publicar draft_started", e);
-        }
-    }
-
-    /**
-     * ✅ Publica evento de pick/ban no draft
-     * 
-     * @param eventType    "pick" ou "ban"
-     * @param matchId      ID da partida
-     * @param summonerName Jogador
-     * @param championId   ID do campeão
-     */
-    public void publishDraftAction(String eventType, Long matchId, String summonerName, Integer championId) {
-        try {
-            br.com.lolmatchmaking.backend.dto.events.DraftPickEvent event = new br.com.lolmatchmaking.backend.dto.events.DraftPickEvent(
-                    eventType, matchId, summonerName, championId);
-            String json = objectMapper.writeValueAsString(event);
-
-            String channel = "draft:" + eventType;
-            redisTemplate.convertAndSend(channel, json);
-
-            log.info("📢 [Pub/Sub] draft:{} publicado: match {} {} champion {}",
-                    eventType, matchId, summonerName, championId);
-
-        } catch (JsonProcessingException e) {
-            log.error("❌ [Pub/Sub] Erro ao serializar DraftPickEvent", e);
-        } catch (Exception e) {
-            log.error("❌ [Pub/Sub] Erro ao publicar draft:{}", eventType, e);
-        }
-    }
-
-    /**
-     * ✅ Publica progresso de confirmação do draft
-     * 
-     * @param matchId      ID da partida
-     * @param summonerName Jogador que confirmou
-     * @param confirmed    Número de confirmações
-     * @param total        Total de jogadores
-     */
-    public void publishDraftConfirmation(Long matchId, String summonerName, Integer confirmed, Integer total) {
-        try {
-            br.com.lolmatchmaking.backend.dto.events.DraftConfirmEvent event = new br.com.lolmatchmaking.backend.dto.events.DraftConfirmEvent(
-                    matchId, summonerName, confirmed, total);
-            String json = objectMapper.writeValueAsString(event);
-
-            redisTemplate.convertAndSend("draft:confirm", json);
-
-            log.info("📢 [Pub/Sub] draft:confirm publicado: match {} ({}/{})",
-                    matchId, confirmed, total);
-
-        } catch (JsonProcessingException e) {
-            log.error("❌ [Pub/Sub] Erro ao serializar DraftConfirmEvent", e);
-        } catch (Exception e) {
-            log.error("❌ [Pub/Sub] Erro ao publicar draft:confirm", e);
-        }
-    }
-
     /**
      * ✅ Publica voto de vencedor
      * 
@@ -275,7 +242,9 @@ public class EventBroadcastService {
                     matchId, summonerName, votedTeam, votesTeam1, votesTeam2, totalNeeded);
             String json = objectMapper.writeValueAsString(event);
 
-            redisTemplate.convertAndSend("game:winner_vote", json);
+            // ✅ Entrega dirigida (sendToPlayers roteia por instância dona): basta
+            // esta instância processar
+            sessionRoutes.publishToNode(sessionRoutes.nodeId(), "game:winner_vote", json);
 
             log.info("📢 [Pub/Sub] game:winner_vote publicado: match {} {} votou em team {} ({}/{}+{}/{})",
                     matchId, summonerName, votedTeam, votesTeam1, votesTeam2, totalNeeded);
@@ -318,6 +287,39 @@ public class EventBroadcastService {
     // ESCUTA DE EVENTOS (Métodos chamados pelo Redis Pub/Sub)
     // ═══════════════════════════════════════════════════════════
 
+    /**
+     * ✅ NOVO: Handler do canal exclusivo desta instância (ws:node:{nodeId})
+     * 
+     * Recebe apenas eventos dirigidos a jogadores conectados aqui e repassa ao
+     * handler do canal lógico do envelope.
+     * 
+     * @param message JSON do {@link SessionRouteCache.NodeEnvelope}
+     * @param channel Canal da instância
+     */
+    public void handleNodeEvent(String message, String channel) {
+        try {
+            SessionRouteCache.NodeEnvelope envelope = objectMapper.readValue(message,
+                    SessionRouteCache.NodeEnvelope.class);
+            String logical = envelope.getChannel();
+
+            if (SessionRouteCache.DIRECTED_CHANNEL.equals(logical)) {
+                webSocketService.deliverRoutedEvent(
+                        objectMapper.readValue(envelope.getPayload(), DirectedPlayerEvent.class));
+            } else if (logical.startsWith("match:")) {
+                handleMatchEvent(envelope.getPayload(), logical);
+            } else if (logical.startsWith("game:")) {
+                handleGameEvent(envelope.getPayload(), logical);
+            } else {
+                log.warn("⚠️ [Pub/Sub] Canal lógico desconhecido em {}: {}", channel, logical);
+            }
+
+        } catch (JsonProcessingException e) {
+            log.error("❌ [Pub/Sub] Erro ao parsear evento da instância", e);
+        } catch (Exception e) {
+            log.error("❌ [Pub/Sub] Erro ao processar evento da instância", e);
+        }
+    }
+
     /**
      * ✅ Handler de eventos de fila
      * 
@@ -340,6 +342,20 @@ public class EventBroadcastService {
                 log.info("✅ [Pub/Sub] queue_update processado e broadcast WebSocket realizado para {} jogadores",
                         event.getQueueStatus().getPlayersInQueue());
 
+            } else if (pattern.equals("queue:delta")) {
+                QueueDeltaEvent event = objectMapper.readValue(message, QueueDeltaEvent.class);
+
+                // Snapshot local acompanha deltas de todas as instâncias
+                if (!queueSnapshotService.applyRemote(event)) {
+                    log.debug("🔄 [Pub/Sub] queue_delta v{} não aplicado (snapshot será recarregado)",
+                            event.getVersion());
+                }
+
+                // ✅ BROADCAST VIA WEBSOCKET para clientes desta instância
+                webSocketService.broadcastQueueDelta(event);
+
+                log.debug("✅ [Pub/Sub] queue_delta v{} processado", event.getVersion());
+
             } else if (pattern.equals("queue:player_joined")) {
                 PlayerQueueEvent event = objectMapper.readValue(message, PlayerQueueEvent.class);
 
@@ -429,55 +445,6 @@ public class EventBroadcastService {
         }
     }
 
-    /**
-     * ✅ Handler de eventos de draft
-     * 
-     * Chamado automaticamente quando evento é recebido no canal draft:*
-     * 
-     * @param message JSON do evento
-     * @param pattern Canal que recebeu (draft:started, draft:pick, etc)
-     */
-    public void handleDraftEvent(String message, String pattern) {
-        try {
-            log.debug("📥 [Pub/Sub] Evento recebido no canal: {}", pattern);
-
-            if (pattern.equals("draft:started")) {
-                DraftEvent event = objectMapper.readValue(message, DraftEvent.class);
-
-                // Broadcast draft iniciado
-                // webSocketService.broadcastDraftStarted(event.getMatchId(),
-                // event.getPlayerNames());
-
-                log.info("✅ [Pub/Sub] draft_started processado: match {}", event.getMatchId());
-
-            } else if (pattern.equals("draft:pick") || pattern.equals("draft:ban") || pattern.equals("draft:edit")) {
-                br.com.lolmatchmaking.backend.dto.events.DraftPickEvent event = objectMapper.readValue(message,
-                        br.com.lolmatchmaking.backend.dto.events.DraftPickEvent.class);
-
-                // Broadcast pick/ban/edit para todos da partida
-                // webSocketService.broadcastDraftAction(event);
-
-                log.info("✅ [Pub/Sub] draft:{} processado: match {} {} champion {}",
-                        pattern.substring(6), event.getMatchId(), event.getSummonerName(), event.getChampionId());
-
-            } else if (pattern.equals("draft:confirm")) {
-                br.com.lolmatchmaking.backend.dto.events.DraftConfirmEvent event = objectMapper.readValue(message,
-                        br.com.lolmatchmaking.backend.dto.events.DraftConfirmEvent.class);
-
-                // Broadcast progresso de confirmação
-                // webSocketService.broadcastDraftConfirmProgress(event);
-
-                log.info("✅ [Pub/Sub] draft:confirm processado: match {} ({}/{})",
-                        event.getMatchId(), event.getConfirmed(), event.getTotal());
-            }
-
-        } catch (JsonProcessingException e) {
-            log.error("❌ [Pub/Sub] Erro ao parsear evento de draft", e);
-        } catch (Exception e) {
-            log.error("❌ [Pub/Sub] Erro ao processar evento de draft", e);
-        }
-    }
-
     /**
      * ✅ Handler de eventos de espectadores
      * 
@@ -4,7 +4,6 @@ import br.com.lolmatchmaking.backend.domain.entity.CustomMatch;
 import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
 import br.com.lolmatchmaking.backend.domain.repository.CustomMatchRepository;
 import br.com.lolmatchmaking.backend.domain.repository.QueuePlayerRepository;
-import br.com.lolmatchmaking.backend.mapper.UnifiedMatchDataMapper;
 import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 import org.springframework.web.socket.WebSocketSession;
 import lombok.extern.slf4j.Slf4j;
@@ -46,7 +45,6 @@ public class MatchFoundService {
     // ✅ NOVO: RedisTemplate para throttling de retries
     private final org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate;
     private final br.com.lolmatchmaking.backend.websocket.SessionRegistry sessionRegistry;
-    private final br.com.lolmatchmaking.backend.mapper.UnifiedMatchDataMapper matchDataMapper;
 
     public MatchFoundService(
             QueuePlayerRepository queuePlayerRepository,
@@ -63,8 +61,7 @@ public class MatchFoundService {
             br.com.lolmatchmaking.backend.service.lock.PlayerLockService playerLockService,
             EventBroadcastService eventBroadcastService,
             org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate,
-            br.com.lolmatchmaking.backend.websocket.SessionRegistry sessionRegistry,
-            br.com.lolmatchmaking.backend.mapper.UnifiedMatchDataMapper matchDataMapper) {
+            br.com.lolmatchmaking.backend.websocket.SessionRegistry sessionRegistry) {
         this.queuePlayerRepository = queuePlayerRepository;
         this.customMatchRepository = customMatchRepository;
         this.webSocketService = webSocketService;
@@ -80,7 +77,6 @@ public class MatchFoundService {
         this.eventBroadcastService = eventBroadcastService;
         this.redisTemplate = redisTemplate;
         this.sessionRegistry = sessionRegistry;
-        this.matchDataMapper = matchDataMapper;
     }
 
     // ✅ REMOVIDO: HashMap local removido
@@ -444,9 +440,7 @@ public class MatchFoundService {
                             playerName);
                 });
             }
-
-            // ✅ NOVO: PUBLICAR draft_started VIA REDIS PUB/SUB
-            eventBroadcastService.publishDraftStarted(matchId, allPlayers);
+            queueManagementService.onPlayersLeftQueue(allPlayers);
 
             // Notificar todos os jogadores
             notifyAllPlayersAccepted(matchId);
@@ -517,11 +511,13 @@ public class MatchFoundService {
             }
 
             // ✅ Resetar status de aceitação dos OUTROS jogadores (voltam ao normal na fila)
+            List<String> returningPlayers = new ArrayList<>();
             for (String playerName : allPlayers) {
                 if (!playerName.equals(declinedPlayer)) {
                     queuePlayerRepository.findBySummonerName(playerName).ifPresent(player -> {
                         player.setAcceptanceStatus(0); // Resetar status para voltar à fila normal
                         queuePlayerRepository.save(player);
+                        returningPlayers.add(playerName);
                         log.info("🔄 [MatchFound] Jogador {} voltou ao estado normal na fila", playerName);
                     });
 
@@ -547,6 +543,9 @@ public class MatchFoundService {
                 log.error("❌ [MatchFound] Erro ao limpar ownership do match {}: {}", matchId, e.getMessage());
             }
 
+            // ✅ NOVO: Devolver os outros jogadores ao pool de matchmaking (nova tentativa imediata)
+            queueManagementService.onPlayersReturnedToQueue(returningPlayers);
+
             // ✅ NOVO: Limpar canais Discord (se existirem)
             try {
                 log.info("🧹 [MatchFound] Limpando canais Discord do match {} (recusado)", matchId);
@@ -602,11 +601,11 @@ public class MatchFoundService {
                     log.warn("⏰ [MatchFound] Timeout na partida {}", matchId);
                     handleAcceptanceTimeout(matchId);
                 } else {
-                    // ✅ CRÍTICO: Reenviar match_found para jogadores que não aceitaram
-                    // Isso garante que TODOS vejam o modal, mesmo se houve falha de WebSocket
-                    log.debug("🔄 [MatchFound] Match {} - {}s decorridos, verificando retry...",
+                    // ✅ Quem perdeu match_found recebe a lacuna do log de eventos ao
+                    // reconectar (sem reenvio periódico); aqui só validamos a partida no MySQL
+                    log.debug("🔄 [MatchFound] Match {} - {}s decorridos, validando partida...",
                             matchId, secondsElapsed);
-                    retryMatchFoundForPendingPlayers(matchId);
+                    validateAcceptanceStillActive(matchId);
 
                     // Atualizar timer
                     int secondsRemaining = ACCEPTANCE_TIMEOUT_SECONDS - (int) secondsElapsed;
@@ -1032,65 +1031,38 @@ public class MatchFoundService {
     }
 
     /**
-     * ✅ NOVO: Reenviar match_found para jogadores que ainda não aceitaram
-     * Garante que TODOS vejam o modal, mesmo se houve falha de WebSocket
+     * ✅ Valida no MySQL que a aceitação em Redis ainda é válida (throttle 5s) e
+     * limpa partidas fantasma. O reenvio de match_found para pendentes foi
+     * substituído pelo replay do log de eventos na reconexão.
      */
-    private void retryMatchFoundForPendingPlayers(Long matchId) {
+    private void validateAcceptanceStillActive(Long matchId) {
         try {
-            // ✅ Buscar todos os jogadores da partida
-            List<String> allPlayers = redisAcceptance.getAllPlayers(matchId);
-            if (allPlayers == null || allPlayers.isEmpty()) {
-                return;
-            }
-
-            // ✅ Buscar quem JÁ aceitou
-            final Set<String> acceptedPlayers = redisAcceptance.getAcceptedPlayers(matchId) != null
-                    ? redisAcceptance.getAcceptedPlayers(matchId)
-                    : new HashSet<>();
-
-            // ✅ Identificar jogadores PENDENTES (não aceitaram ainda)
-            List<String> pendingPlayers = allPlayers.stream()
-                    .filter(player -> !acceptedPlayers.contains(player))
-                    .toList();
-
-            if (pendingPlayers.isEmpty()) {
-                log.debug("✅ [MatchFound-Retry] Match {} - todos aceitaram, sem retry necessário", matchId);
-                return; // Todos já aceitaram
-            }
-
-            // ✅ LOG INFO: Importante para debug em produção!
-            log.info("🔍 [MatchFound-Retry] Match {}: {}/{} jogadores pendentes",
-                    matchId, pendingPlayers.size(), allPlayers.size());
-            log.info("  📋 Pendentes: {}", pendingPlayers);
-            log.info("  ✅ Aceitaram: {}", acceptedPlayers);
-
-            // ✅ THROTTLE: Reenviar apenas a cada 5 segundos para não spammar
+            // ✅ THROTTLE: Validar apenas a cada 5 segundos
             String retryKey = "match_found_retry:" + matchId;
             Long lastRetrySec = redisTemplate.opsForValue()
                     .get(retryKey) != null ? (Long) redisTemplate.opsForValue().get(retryKey) : null;
 
             long nowSec = System.currentTimeMillis() / 1000;
             if (lastRetrySec != null && (nowSec - lastRetrySec) < 5) {
-                return; // Reenviar apenas a cada 5s
+                return;
             }
 
-            // ✅ Marcar último retry
+            // ✅ Marcar última validação
             redisTemplate.opsForValue().set(retryKey, nowSec,
                     java.time.Duration.ofSeconds(ACCEPTANCE_TIMEOUT_SECONDS + 10));
 
-            // ✅ CRÍTICO: VALIDAR COM MYSQL ANTES DE RETRY
-            // Previne loops infinitos de retry para matches fantasma
+            // ✅ CRÍTICO: VALIDAR COM MYSQL
+            // Previne loops infinitos para matches fantasma
             Optional<CustomMatch> matchOpt = customMatchRepository.findById(matchId);
 
             if (matchOpt.isEmpty()) {
                 log.warn("🧹 [CLEANUP] Match {} não existe no MySQL! Limpando Redis fantasma...", matchId);
                 redisAcceptance.clearMatch(matchId);
                 log.info("✅ [CLEANUP] Match fantasma {} removida do Redis", matchId);
-                return; // ABORTAR retry
+                return;
             }
 
-            CustomMatch match = matchOpt.get();
-            String status = match.getStatus();
+            String status = matchOpt.get().getStatus();
 
             // Se já foi cancelada/completada no MySQL, limpar Redis
             if ("cancelled".equalsIgnoreCase(status) || "completed".equalsIgnoreCase(status) ||
@@ -1099,91 +1071,13 @@ public class MatchFoundService {
                         matchId, status);
                 redisAcceptance.clearMatch(matchId);
                 log.info("✅ [CLEANUP] Match {} removida do Redis de aceitação", matchId);
-                return; // ABORTAR retry
             }
 
-            // ✅ Verificar ownership + acknowledgment de cada jogador pendente
-            List<String> validPendingPlayers = new ArrayList<>();
-            for (String player : pendingPlayers) {
-                // ✅ OTIMIZAÇÃO: Verificar se jogador JÁ acknowledgou (já viu o modal)
-                String ackKey = "match_found_ack:" + matchId + ":" + player.toLowerCase();
-                Boolean hasAcked = (Boolean) redisTemplate.opsForValue().get(ackKey);
-                if (Boolean.TRUE.equals(hasAcked)) {
-                    log.debug("✅ [MatchFound] Jogador {} já acknowledged - pulando retry", player);
-                    continue; // Pula este jogador
-                }
-
-                // ✅ CASE-INSENSITIVE ownership check
-                boolean inTeam1 = match.getTeam1PlayersJson() != null &&
-                        match.getTeam1PlayersJson().toLowerCase().contains(player.toLowerCase());
-                boolean inTeam2 = match.getTeam2PlayersJson() != null &&
-                        match.getTeam2PlayersJson().toLowerCase().contains(player.toLowerCase());
-
-                if (inTeam1 || inTeam2) {
-                    validPendingPlayers.add(player);
-                } else {
-                    log.warn("⚠️ [MatchFound] Jogador {} não pertence à partida {} (ownership fail)",
-                            player, matchId);
-                }
-            }
-
-            if (validPendingPlayers.isEmpty()) {
-                log.info("⏭️ [MatchFound-Retry] Match {} - Todos os pendentes já acknowledged ou sem ownership",
-                        matchId);
-                return;
-            }
-
-            // ✅ Buscar dados completos da partida para reenviar
-            List<String> team1Names = redisAcceptance.getTeam1Players(matchId);
-            List<String> team2Names = redisAcceptance.getTeam2Players(matchId);
-
-            // Montar payload igual ao original
-            Map<String, Object> matchFoundData = buildMatchFoundPayload(
-                    matchId, match, team1Names, team2Names);
-
-            log.info("╔═══════════════════════════════════════════════════════════════════════╗");
-            log.info("║  🔄 [RETRY] REENVIANDO MATCH_FOUND                                    ║");
-            log.info("╚═══════════════════════════════════════════════════════════════════════╝");
-            log.info("🔄 [MatchFound-Retry] Match {}: {} jogadores pendentes receberão match_found",
-                    matchId, validPendingPlayers.size());
-            for (String player : validPendingPlayers) {
-                log.info("  📤 {}", player);
-            }
-
-            // ✅ CORREÇÃO: Enviar apenas para os jogadores da partida
-            webSocketService.sendToPlayers("match_found", matchFoundData, validPendingPlayers);
-
-            log.info("✅ [MatchFound-Retry] ENVIADO para {} jogadores", validPendingPlayers.size());
-            log.info("╚═══════════════════════════════════════════════════════════════════════╝");
-
         } catch (Exception e) {
-            log.debug("❌ [MatchFound] Erro ao retry match_found", e);
+            log.debug("❌ [MatchFound] Erro ao validar partida no MySQL", e);
         }
     }
 
-    private Map<String, Object> buildMatchFoundPayload(
-            Long matchId,
-            CustomMatch match,
-            List<String> team1Names,
-            List<String> team2Names) {
-
-        List<QueuePlayer> team1Players = new ArrayList<>();
-        List<QueuePlayer> team2Players = new ArrayList<>();
-
-        for (String playerName : team1Names) {
-            queuePlayerRepository.findBySummonerName(playerName).ifPresent(team1Players::add);
-        }
-
-        for (String playerName : team2Names) {
-            queuePlayerRepository.findBySummonerName(playerName).ifPresent(team2Players::add);
-        }
-
-        br.com.lolmatchmaking.backend.dto.UnifiedMatchDataDTO dto = matchDataMapper.toUnifiedDTO(match, team1Players,
-                team2Players, "match_found");
-        String json = matchDataMapper.toJson(dto);
-        return matchDataMapper.jsonToMap(json);
-    }
-
     private void notifyTimerUpdate(Long matchId, int secondsRemaining) {
         try {
             // ✅ REDIS ONLY: Buscar jogadores do Redis
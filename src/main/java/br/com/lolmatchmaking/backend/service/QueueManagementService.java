@@ -4,21 +4,34 @@ import br.com.lolmatchmaking.backend.domain.entity.*;
 import br.com.lolmatchmaking.backend.domain.repository.*;
 import br.com.lolmatchmaking.backend.dto.QueueStatusDTO;
 import br.com.lolmatchmaking.backend.dto.QueuePlayerInfoDTO;
+import br.com.lolmatchmaking.backend.dto.events.QueueDeltaEvent;
 import br.com.lolmatchmaking.backend.service.lock.PlayerState;
+import br.com.lolmatchmaking.backend.service.matchmaking.MatchmakingPool;
+import br.com.lolmatchmaking.backend.service.matchmaking.PlayerRatingSnapshot;
+import br.com.lolmatchmaking.backend.service.matchmaking.TeamBalancer;
 import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.time.Duration;
 
@@ -51,6 +64,18 @@ public class QueueManagementService {
     private final br.com.lolmatchmaking.backend.websocket.SessionRegistry sessionRegistry;
     private final RedisTemplate<String, Object> redisTemplate;
 
+    // ✅ NOVO: Pool de candidatos em memória (gatilho por evento)
+    private final MatchmakingPool matchmakingPool;
+    private final TeamBalancer teamBalancer;
+
+    // ✅ NOVO: Lobbies de um ciclo são criados em paralelo (fora do lock global)
+    private final Executor matchmakingExecutor;
+    private final Counter matchesCreatedCounter;
+    private final Counter lobbiesFormedCounter;
+
+    // ✅ NOVO: Snapshot versionado da fila (broadcast por delta)
+    private final QueueSnapshotService queueSnapshotService;
+
     // ✅ Construtor com injeção de dependências
     public QueueManagementService(
             QueuePlayerRepository queuePlayerRepository,
@@ -72,7 +97,12 @@ public class QueueManagementService {
             RedisDraftFlowService redisDraftFlowService,
             @Lazy DraftFlowService draftFlowService,
             br.com.lolmatchmaking.backend.websocket.SessionRegistry sessionRegistry,
-            RedisTemplate<String, Object> redisTemplate) {
+            RedisTemplate<String, Object> redisTemplate,
+            MatchmakingPool matchmakingPool,
+            TeamBalancer teamBalancer,
+            @Qualifier("matchmakingExecutor") Executor matchmakingExecutor,
+            MeterRegistry meterRegistry,
+            QueueSnapshotService queueSnapshotService) {
         this.queuePlayerRepository = queuePlayerRepository;
         this.playerRepository = playerRepository;
         this.customMatchRepository = customMatchRepository;
@@ -93,13 +123,25 @@ public class QueueManagementService {
         this.draftFlowService = draftFlowService;
         this.sessionRegistry = sessionRegistry;
         this.redisTemplate = redisTemplate;
+        this.matchmakingPool = matchmakingPool;
+        this.teamBalancer = teamBalancer;
+        this.matchmakingExecutor = matchmakingExecutor;
+        this.queueSnapshotService = queueSnapshotService;
+        // Vazão: taxa de matchmaking.matches.created (partidas/s) via actuator
+        this.matchesCreatedCounter = Counter.builder("matchmaking.matches.created")
+                .description("Partidas criadas pelo matchmaking")
+                .register(meterRegistry);
+        this.lobbiesFormedCounter = Counter.builder("matchmaking.lobbies.formed")
+                .description("Lobbies de 10 jogadores reservados pelo matchmaking")
+                .register(meterRegistry);
     }
 
     // ✅ REMOVIDO: HashMaps locais removidos - SQL é fonte da verdade
     // Use queuePlayerRepository para todas as operações de fila
 
     // Configurações
-    private static final int MAX_QUEUE_SIZE = 30;
+    @Value("${app.queue.max-size:30}")
+    private int maxQueueSize;
     private static final int MATCH_SIZE = 10;
     private static final long QUEUE_SYNC_INTERVAL = 10000; // 10 segundos
     private static final long MATCH_FOUND_TIMEOUT = 30000; // 30 segundos
@@ -107,6 +149,18 @@ public class QueueManagementService {
     // Contador de bots
     private int botCounter = 0;
 
+    // ✅ NOVO: Status da fila compartilhado (imutável por convenção) + idade máxima
+    private record SharedQueueStatus(QueueSnapshotService.Snapshot snapshot, QueueStatusDTO status,
+            long builtAtMillis) {
+    }
+
+    private static final long SHARED_STATUS_TTL_MS = 3000;
+    private volatile SharedQueueStatus sharedQueueStatus;
+
+    // ✅ NOVO: Coalescência de tentativas de partida disparadas por evento
+    private final AtomicBoolean matchAttemptRequested = new AtomicBoolean(false);
+    private final AtomicBoolean matchAttemptRunning = new AtomicBoolean(false);
+
     /**
      * Inicializa o serviço de fila
      */
@@ -123,6 +177,7 @@ public class QueueManagementService {
     @Transactional
     public void loadQueueFromDatabase() {
         try {
+            long snapshotStart = System.nanoTime();
             List<QueuePlayer> activePlayers = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
 
             log.info("🔄 [QueueManagementService] Carregando fila do banco...");
@@ -141,6 +196,12 @@ public class QueueManagementService {
 
             log.info("✅ [QueueManagementService] Fila carregada do SQL: {} jogadores", activePlayers.size());
 
+            // ✅ NOVO: Popular pool em memória (todos disponíveis após o reset)
+            matchmakingPool.reconcile(activePlayers, snapshotStart);
+
+            // ✅ NOVO: Snapshot versionado recarregado na próxima leitura
+            queueSnapshotService.invalidate();
+
             // ✅ Notificar todos os clientes sobre a atualização
             broadcastQueueUpdate();
         } catch (Exception e) {
@@ -258,13 +319,13 @@ public class QueueManagementService {
                 return false;
             }
 
-            // ✅ SQL ONLY: Buscar fila do banco
-            List<QueuePlayer> currentQueue = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
+            // ✅ SQL: Entradas do próprio jogador (índice do nome) + contagem da fila,
+            // sem ler a fila inteira a cada entrada
+            List<QueuePlayer> duplicates = queuePlayerRepository
+                    .findBySummonerNameIgnoreCaseAndActiveTrue(summonerName);
+            long queueSize = queuePlayerRepository.countByActiveTrue();
 
             // 🧹 CLEANUP CRÍTICO: GARANTIR que player só tem UMA entrada na fila
-            List<QueuePlayer> duplicates = currentQueue.stream()
-                    .filter(qp -> qp.getSummonerName().equalsIgnoreCase(summonerName))
-                    .toList();
 
             if (duplicates.size() > 1) {
                 log.error("🚨 [addToQueue] DUPLICAÇÃO DETECTADA! {} tem {} entradas na fila!",
@@ -279,15 +340,16 @@ public class QueueManagementService {
                 log.info("🧹 [addToQueue] Todas as {} entradas duplicadas removidas para {}",
                         duplicates.size(), summonerName);
 
-                // Recarregar fila após limpeza
-                currentQueue = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
+                // Fila sem as entradas removidas (posições reorganizadas na reconciliação)
+                queueSize -= duplicates.size();
+                duplicates = List.of();
             }
 
             log.info("➕ [addToQueue] Adicionando jogador à fila: {} (fila atual: {} jogadores)",
-                    summonerName, currentQueue.size());
+                    summonerName, queueSize);
 
             // Verificar se já está na fila
-            boolean alreadyInQueue = currentQueue.stream()
+            boolean alreadyInQueue = duplicates.stream()
                     .anyMatch(p -> p.getSummonerName().equals(summonerName));
 
             if (alreadyInQueue) {
@@ -296,8 +358,8 @@ public class QueueManagementService {
             }
 
             // Verificar limite da fila
-            if (currentQueue.size() >= MAX_QUEUE_SIZE) {
-                log.warn("⚠️ Fila cheia ({} jogadores)", MAX_QUEUE_SIZE);
+            if (queueSize >= maxQueueSize) {
+                log.warn("⚠️ Fila cheia ({} jogadores)", maxQueueSize);
                 return false;
             }
 
@@ -332,7 +394,7 @@ public class QueueManagementService {
                     .primaryLane(primaryLane)
                     .secondaryLane(secondaryLane)
                     .joinTime(Instant.now())
-                    .queuePosition(calculateNextPosition())
+                    .queuePosition((int) queueSize + 1) // entrou por último: posição = fim da fila
                     .active(true)
                     .acceptanceStatus(0)
                     .build();
@@ -348,37 +410,22 @@ public class QueueManagementService {
                 return false;
             }
 
-            // Atualizar posições
-            updateQueuePositions();
-
             // ✅ NOVO: INVALIDAR CACHE REDIS
             redisQueueCache.clearCache();
 
             // ✅ NOVO: PUBLICAR EVENTO DE JOGADOR ENTROU (Redis Pub/Sub)
             eventBroadcastService.publishPlayerJoinedQueue(summonerName);
 
-            // ✅ NOVO: PUBLICAR ATUALIZAÇÃO COMPLETA DA FILA (Redis Pub/Sub)
-            QueueStatusDTO status = getQueueStatus(null);
-            eventBroadcastService.publishQueueUpdate(status);
+            // ✅ NOVO: PUBLICAR DELTA DA FILA (jogador entrou) após o commit
+            final QueuePlayer joinedPlayer = queuePlayer;
+            publishQueueDeltaAfterCommit(() -> queueSnapshotService.playerJoined(joinedPlayer));
 
             log.info("✅ {} entrou na fila EM TEMPO REAL (posição: {})", summonerName, queuePlayer.getQueuePosition());
 
-            // ✅ CRÍTICO: Se fila chegou a 10+ jogadores, processar IMEDIATAMENTE!
-            // Não esperar os 5 segundos do @Scheduled
-            // Recarregar fila para ter contagem atualizada
-            int queueSize = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc().size();
-            if (queueSize >= MATCH_SIZE) {
-                log.info("🎯 [TRIGGER IMEDIATO] Fila chegou a {} jogadores - processando partida AGORA!",
-                        queueSize);
-                // ✅ Chamar processQueue de forma assíncrona para não bloquear a resposta HTTP
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        processQueue();
-                    } catch (Exception e) {
-                        log.error("❌ Erro ao processar fila imediatamente", e);
-                    }
-                });
-            }
+            // ✅ NOVO: Atualizar pool em memória incrementalmente após o commit
+            // (posições dos demais não mudam: o novo jogador é o último por joinTime)
+            // e, se o pool já forma uma partida, tentar IMEDIATAMENTE
+            addToPoolAfterCommit(queuePlayer);
 
             return true;
 
@@ -402,25 +449,28 @@ public class QueueManagementService {
                 log.warn("⚠️ Jogador {} não encontrado na fila, verificando locks/estado...", summonerName);
                 // Cleanup inteligente: se não está no MySQL, limpar locks/estado Redis
                 playerStateService.forceSetPlayerState(summonerName, PlayerState.AVAILABLE);
+                matchmakingPool.remove(summonerName);
                 redisQueueCache.clearCache();
                 log.info("✅ [removeFromQueue] Cleanup inteligente: locks/estado limpos para {} (não estava na fila)",
                         summonerName);
-                // Publicar evento de saída e atualização da fila
+                // Publicar evento de saída e delta da fila
                 eventBroadcastService.publishPlayerLeftQueue(summonerName);
-                QueueStatusDTO status = getQueueStatus(null);
-                eventBroadcastService.publishQueueUpdate(status);
+                publishQueueDeltaAfterCommit(() -> queueSnapshotService.playersLeft(List.of(summonerName)));
                 return true;
             }
 
             // Remover do banco
             queuePlayerRepository.delete(queuePlayer);
+            matchmakingPool.remove(summonerName);
             log.info("✅ [removeFromQueue] Jogador removido do SQL: {}", summonerName);
 
             // Atualizar estado para AVAILABLE
             playerStateService.setPlayerState(summonerName, PlayerState.AVAILABLE);
 
-            // Atualizar posições
-            updateQueuePositions();
+            // ✅ Atualizar posições: um UPDATE para quem estava atrás (sem reler a fila)
+            if (queuePlayer.getQueuePosition() != null) {
+                queuePlayerRepository.shiftQueuePositionsAfter(queuePlayer.getQueuePosition());
+            }
 
             // Invalidar cache Redis
             redisQueueCache.clearCache();
@@ -428,10 +478,9 @@ public class QueueManagementService {
             // ✅ NOVO: LIMPAR INFORMAÇÕES DA SESSÃO QUANDO JOGADOR SAI DA FILA
             clearSessionInfoFromRedis(summonerName);
 
-            // Publicar evento de saída e atualização da fila
+            // Publicar evento de saída e delta da fila
             eventBroadcastService.publishPlayerLeftQueue(summonerName);
-            QueueStatusDTO status = getQueueStatus(null);
-            eventBroadcastService.publishQueueUpdate(status);
+            publishQueueDeltaAfterCommit(() -> queueSnapshotService.playersLeft(List.of(summonerName)));
 
             log.info("✅ {} saiu da fila EM TEMPO REAL", summonerName);
             return true;
@@ -443,77 +492,123 @@ public class QueueManagementService {
     }
 
     /**
-     * ✅ SQL ONLY: Obtém status da fila do banco
+     * ✅ Obtém status da fila
+     *
+     * ✅ NOVO: Status compartilhado montado a partir do snapshot versionado em
+     * memória (uma vez por versão ou a cada SHARED_STATUS_TTL_MS, para os
+     * tempos de espera). O campo version permite ao cliente aplicar os deltas
+     * seguintes (queue_delta).
+     *
+     * ✅ NOVO: O jogador atual é marcado em um overlay por requisição (busca
+     * O(1) no índice de nomes do snapshot); o status compartilhado nunca é
+     * modificado, então chamadas concorrentes não veem o isCurrentPlayer umas
+     * das outras.
      */
     public QueueStatusDTO getQueueStatus(String currentPlayerDisplayName) {
-        // Tentar buscar do cache Redis primeiro (performance)
-        QueueStatusDTO cachedStatus = redisQueueCache.getCachedQueueStatus();
-
-        boolean isCurrentPlayerInQueue = false;
-
-        if (cachedStatus != null) {
-            log.debug("⚡ [QueueManagementService] Status retornado do cache Redis (rápido)");
-
-            // Marcar jogador atual se fornecido
-            if (currentPlayerDisplayName != null) {
-                isCurrentPlayerInQueue = cachedStatus.getPlayersInQueueList().stream()
-                        .anyMatch(player -> player.getSummonerName().equals(currentPlayerDisplayName) ||
-                                player.getSummonerName().contains(currentPlayerDisplayName));
-                cachedStatus.getPlayersInQueueList().forEach(player -> {
-                    if (player.getSummonerName().equals(currentPlayerDisplayName) ||
-                            player.getSummonerName().contains(currentPlayerDisplayName)) {
-                        player.setIsCurrentPlayer(true);
-                    }
-                });
-            }
-            cachedStatus.setIsCurrentPlayerInQueue(isCurrentPlayerInQueue);
-            return cachedStatus;
+        SharedQueueStatus shared = sharedQueueStatus();
+        if (currentPlayerDisplayName == null) {
+            return shared.status();
         }
 
-        // Cache miss: Buscar do SQL e cachear
-        log.info("🔄 [QueueManagementService] Cache miss - buscando do SQL");
-        List<QueuePlayer> activePlayers = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
+        int index = shared.snapshot().indexOf(currentPlayerDisplayName);
+        if (index < 0) {
+            return shared.status();
+        }
 
-        log.info("📊 [QueueManagementService] getQueueStatus - {} jogadores no SQL", activePlayers.size());
-        log.info("📊 [QueueManagementService] Jogadores: {}",
-                activePlayers.stream().map(p -> p.getSummonerName()).collect(Collectors.toList()));
+        QueueStatusDTO base = shared.status();
+        QueuePlayerInfoDTO current = QueueSnapshotService.copy(base.getPlayersInQueueList().get(index));
+        current.setIsCurrentPlayer(true);
+
+        return QueueStatusDTO.builder()
+                .playersInQueue(base.getPlayersInQueue())
+                .playersInQueueList(new CurrentPlayerOverlay(base.getPlayersInQueueList(), index, current))
+                .averageWaitTime(base.getAverageWaitTime())
+                .estimatedMatchTime(base.getEstimatedMatchTime())
+                .isActive(base.isActive())
+                .isCurrentPlayerInQueue(true)
+                .version(base.getVersion())
+                .build();
+    }
 
-        List<QueuePlayerInfoDTO> playersInQueueList = activePlayers.stream()
-                .map(this::convertToQueuePlayerInfoDTO)
-                .collect(Collectors.toList());
+    /**
+     * ✅ NOVO: Status compartilhado (somente leitura) do snapshot atual
+     */
+    private SharedQueueStatus sharedQueueStatus() {
+        QueueSnapshotService.Snapshot snapshot = queueSnapshotService.snapshot();
+        SharedQueueStatus shared = sharedQueueStatus;
+        long now = System.currentTimeMillis();
+        if (shared != null && shared.snapshot() == snapshot && now - shared.builtAtMillis() < SHARED_STATUS_TTL_MS) {
+            return shared;
+        }
 
-        if (currentPlayerDisplayName != null) {
-            log.info("📊 [QueueManagementService] Procurando jogador atual: {}", currentPlayerDisplayName);
-            isCurrentPlayerInQueue = playersInQueueList.stream()
-                    .anyMatch(player -> player.getSummonerName().equals(currentPlayerDisplayName) ||
-                            player.getSummonerName().contains(currentPlayerDisplayName));
-            playersInQueueList.forEach(player -> {
-                if (player.getSummonerName().equals(currentPlayerDisplayName) ||
-                        player.getSummonerName().contains(currentPlayerDisplayName)) {
-                    player.setIsCurrentPlayer(true);
-                    log.info("📊 [QueueManagementService] Jogador atual marcado: {}", player.getSummonerName());
-                }
-            });
+        // Cópias: os tempos de espera estimados são calculados no momento da montagem
+        Instant nowInstant = Instant.ofEpochMilli(now);
+        List<QueuePlayerInfoDTO> playersInQueueList = new ArrayList<>(snapshot.players().size());
+        long totalWaitSeconds = 0;
+        for (QueuePlayerInfoDTO info : snapshot.players()) {
+            QueuePlayerInfoDTO player = QueueSnapshotService.copy(info);
+            player.setEstimatedWaitTime(estimatedWaitTime(player.getSummonerName()));
+            playersInQueueList.add(player);
+            if (player.getJoinTime() != null) {
+                totalWaitSeconds += ChronoUnit.SECONDS.between(player.getJoinTime(), nowInstant);
+            }
         }
 
         QueueStatusDTO status = QueueStatusDTO.builder()
-                .playersInQueue(activePlayers.size())
-                .playersInQueueList(playersInQueueList)
-                .averageWaitTime(calculateAverageWaitTime(activePlayers))
-                .estimatedMatchTime(calculateEstimatedMatchTime(activePlayers.size()))
+                .playersInQueue(playersInQueueList.size())
+                .playersInQueueList(Collections.unmodifiableList(playersInQueueList))
+                .averageWaitTime(playersInQueueList.isEmpty() ? 0 : totalWaitSeconds / playersInQueueList.size())
+                .estimatedMatchTime(calculateEstimatedMatchTime(playersInQueueList.size()))
                 .isActive(true)
-                .isCurrentPlayerInQueue(isCurrentPlayerInQueue)
+                .isCurrentPlayerInQueue(false)
+                .version(snapshot.version())
                 .build();
 
-        redisQueueCache.cacheQueueStatus(status);
-        log.info("✅ [QueueManagementService] Status cacheado no Redis");
+        shared = new SharedQueueStatus(snapshot, status, now);
+        sharedQueueStatus = shared;
+
+        log.debug("📊 [QueueManagementService] Status compartilhado montado: v{} ({} jogadores)",
+                snapshot.version(), status.getPlayersInQueue());
+        return shared;
+    }
+
+    /**
+     * ✅ NOVO: Lista do status compartilhado com apenas a entrada do jogador
+     * atual substituída (sem copiar os demais jogadores)
+     */
+    private static final class CurrentPlayerOverlay extends AbstractList<QueuePlayerInfoDTO>
+            implements RandomAccess {
+        private final List<QueuePlayerInfoDTO> shared;
+        private final int index;
+        private final QueuePlayerInfoDTO current;
+
+        CurrentPlayerOverlay(List<QueuePlayerInfoDTO> shared, int index, QueuePlayerInfoDTO current) {
+            this.shared = shared;
+            this.index = index;
+            this.current = current;
+        }
+
+        @Override
+        public QueuePlayerInfoDTO get(int i) {
+            return i == index ? current : shared.get(i);
+        }
 
-        log.info("📊 [QueueManagementService] Status retornado: {} jogadores", status.getPlayersInQueue());
-        return status;
+        @Override
+        public int size() {
+            return shared.size();
+        }
     }
 
     /**
      * Processa a fila para encontrar partidas
+     *
+     * ✅ NOVO: Agora é apenas a rede de segurança. A formação de partidas é
+     * disparada por evento (entrada na fila) a partir do pool em memória; este
+     * sweep reconcilia o pool com o MySQL e tenta formar partida caso algum
+     * evento tenha sido perdido (ex.: entrada feita em outra instância).
+     *
+     * ✅ NOVO: Cada ciclo forma quantos lobbies de 10 o pool permitir, não
+     * apenas uma partida.
      */
     @Scheduled(fixedRate = 5000) // Executa a cada 5 segundos
     public void processQueue() {
@@ -530,12 +625,18 @@ public class QueueManagementService {
             return;
         }
 
+        List<List<QueuePlayer>> lobbies = List.of();
         try {
-            // ✅ SQL ONLY: Buscar fila do banco
+            // ✅ SQL ONLY: Buscar fila do banco (reconciliação do pool em memória)
+            long snapshotStart = System.nanoTime();
             List<QueuePlayer> allPlayers = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
+            matchmakingPool.reconcile(allPlayers, snapshotStart);
+            updateQueuePositions(allPlayers);
+            // ✅ NOVO: Mesma leitura corrige o snapshot versionado (eventos perdidos)
+            eventBroadcastService.publishQueueDelta(queueSnapshotService.reconcile(allPlayers, snapshotStart));
 
-            log.debug("🔍 [Scheduled] Verificando fila... SQL: {} jogadores, MATCH_SIZE: {}",
-                    allPlayers.size(), MATCH_SIZE);
+            log.debug("🔍 [Scheduled] Verificando fila... SQL: {} jogadores, pool disponível: {}, MATCH_SIZE: {}",
+                    allPlayers.size(), matchmakingPool.availableCount(), MATCH_SIZE);
 
             if (allPlayers.size() < MATCH_SIZE) {
                 log.debug("⏭️ [Scheduled] Fila insuficiente ({} < {}), aguardando mais jogadores",
@@ -543,144 +644,372 @@ public class QueueManagementService {
                 return;
             }
 
-            log.info("🎯 Processando fila para encontrar partida ({} jogadores)", allPlayers.size());
-
             // ✅ Log dos status de aceitação
             allPlayers.forEach(
                     p -> log.debug("  - {}: acceptanceStatus = {}", p.getSummonerName(), p.getAcceptanceStatus()));
 
-            // ✅ NOVO: Filtrar jogadores por PlayerState (deve estar IN_QUEUE ou AVAILABLE)
-            List<QueuePlayer> activePlayers = allPlayers.stream()
-                    .filter(p -> {
-                        // Filtro antigo: acceptanceStatus
-                        if (p.getAcceptanceStatus() != 0) {
-                            return false;
-                        }
+            // ✅ CLEANUP INTELIGENTE: Jogador disponível na FILA (MySQL) mas estado Redis
+            // diz que está em PARTIDA. MySQL é fonte da verdade → corrigir para IN_QUEUE
+            // ✅ NOVO: Estados de todos em um único MGET
+            Map<String, PlayerState> states = playerStateService.getPlayerStates(allPlayers.stream()
+                    .filter(p -> p.getAcceptanceStatus() == 0)
+                    .map(QueuePlayer::getSummonerName)
+                    .collect(Collectors.toList()));
+            for (QueuePlayer p : allPlayers) {
+                PlayerState state = states.get(p.getSummonerName());
+                if (state != null && state.isInMatch()) {
+                    log.warn(
+                            "🧹 [processQueue] ESTADO INCONSISTENTE: {} está na FILA (MySQL) mas estado Redis é {}",
+                            p.getSummonerName(), state);
+                    playerStateService.forceSetPlayerState(p.getSummonerName(), PlayerState.IN_QUEUE);
+                    log.info("✅ [processQueue] PlayerState de {} FORÇADAMENTE corrigido para IN_QUEUE",
+                            p.getSummonerName());
+                }
+            }
 
-                        // ✅ NOVO: Verificar PlayerState COM CLEANUP INTELIGENTE
-                        br.com.lolmatchmaking.backend.service.lock.PlayerState state = playerStateService
-                                .getPlayerState(p.getSummonerName());
-
-                        // Aceitar apenas jogadores AVAILABLE ou IN_QUEUE
-                        // Rejeitar jogadores em IN_MATCH_FOUND, IN_DRAFT, IN_GAME
-                        if (state.isInMatch()) {
-                            // ✅ CLEANUP INTELIGENTE: Jogador está na FILA (MySQL) mas estado diz que está
-                            // em PARTIDA
-                            // Isso é INCONSISTÊNCIA! MySQL diz que está na fila, Redis diz que está em
-                            // partida
-                            log.warn(
-                                    "🧹 [processQueue] ESTADO INCONSISTENTE: {} está na FILA (MySQL) mas estado Redis é {}",
-                                    p.getSummonerName(), state);
-                            log.warn(
-                                    "🧹 [processQueue] Player está em queue_players (active=true) - Corrigindo PlayerState...");
-
-                            // ✅ CORRIGIR: Player está na fila do MySQL, então estado deveria ser IN_QUEUE
-                            playerStateService.forceSetPlayerState(p.getSummonerName(), PlayerState.IN_QUEUE);
-                            log.info("✅ [processQueue] PlayerState de {} FORÇADAMENTE corrigido para IN_QUEUE",
-                                    p.getSummonerName());
-
-                            // ✅ AGORA ACEITAR: Player agora pode ser incluído no matchmaking
-                            return true;
-                        }
+            lobbies = claimLobbiesFromPool();
 
-                        return true;
-                    })
-                    .sorted(Comparator.comparing(QueuePlayer::getJoinTime))
-                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar fila", e);
+        } finally {
+            // ✅ SEMPRE LIBERAR LOCK
+            matchmakingLockService.releaseProcessLock();
+        }
 
-            log.info("📊 Jogadores disponíveis para matchmaking: {}/{}", activePlayers.size(), allPlayers.size());
+        // ✅ NOVO: Lobbies já reservados por jogador - criação fora do lock global
+        createLobbiesConcurrently(lobbies);
+    }
 
-            if (activePlayers.size() < MATCH_SIZE) {
-                log.warn("⏳ Apenas {} jogadores disponíveis (outros aguardando aceitação ou em partida)",
-                        activePlayers.size());
-                return;
+    /**
+     * ✅ NOVO: Dispara tentativa de partida após o commit da transação atual
+     *
+     * Garante que os dados do jogador que acabou de entrar já estão visíveis no
+     * MySQL quando a tentativa ler as entidades selecionadas.
+     */
+    private void triggerMatchAttemptAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    triggerMatchAttempt();
+                }
+            });
+        } else {
+            triggerMatchAttempt();
+        }
+    }
+
+    /**
+     * ✅ NOVO: Coloca o jogador no pool em memória só após o commit
+     *
+     * Antes do commit uma tentativa concorrente podia reservar um jogador cuja
+     * linha ainda não é visível no MySQL, e um rollback deixava uma entrada
+     * fantasma no pool até o próximo sweep de reconciliação.
+     */
+    private void addToPoolAfterCommit(QueuePlayer player) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addToPool(player);
+                }
+            });
+        } else {
+            addToPool(player);
+        }
+    }
+
+    private void addToPool(QueuePlayer player) {
+        matchmakingPool.upsert(player);
+        // ✅ CRÍTICO: Se o pool já forma uma partida, tentar IMEDIATAMENTE!
+        // Não esperar os 5 segundos do @Scheduled (nem consultar o banco para contar)
+        if (matchmakingPool.canFormMatch(MATCH_SIZE)) {
+            log.info("🎯 [TRIGGER IMEDIATO] Pool com {} jogadores disponíveis - processando partida AGORA!",
+                    matchmakingPool.availableCount());
+            triggerMatchAttempt();
+        }
+    }
+
+    /**
+     * ✅ NOVO: Aplica a mudança no snapshot versionado e publica o delta só
+     * após o commit (a versão avança quando o MySQL já reflete a mudança)
+     */
+    private void publishQueueDeltaAfterCommit(Supplier<QueueDeltaEvent> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventBroadcastService.publishQueueDelta(change.get());
+                }
+            });
+        } else {
+            eventBroadcastService.publishQueueDelta(change.get());
+        }
+    }
+
+    /**
+     * ✅ NOVO: Dispara (de forma assíncrona) uma tentativa de formar partida a
+     * partir do pool em memória
+     *
+     * Pedidos concorrentes são coalescidos: se já existe uma tentativa em
+     * execução, ela repete o ciclo ao terminar em vez de empilhar threads.
+     */
+    public void triggerMatchAttempt() {
+        matchAttemptRequested.set(true);
+        if (!matchAttemptRunning.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                while (matchAttemptRequested.getAndSet(false)) {
+                    if (!matchmakingPool.canFormMatch(MATCH_SIZE)) {
+                        continue;
+                    }
+                    if (!hasActiveSessions()) {
+                        continue;
+                    }
+                    if (!matchmakingLockService.acquireProcessLock()) {
+                        // Outra instância/sweep está processando; o sweep de 5s cobre o restante
+                        log.debug("⏭️ [TRIGGER] Lock ocupado, tentativa fica para o sweep de reconciliação");
+                        continue;
+                    }
+                    List<List<QueuePlayer>> lobbies;
+                    try {
+                        lobbies = claimLobbiesFromPool();
+                    } finally {
+                        matchmakingLockService.releaseProcessLock();
+                    }
+                    createLobbiesConcurrently(lobbies);
+                }
+            } catch (Exception e) {
+                log.error("❌ Erro ao processar fila imediatamente", e);
+            } finally {
+                matchAttemptRunning.set(false);
+            }
+            // Pedido chegou entre o último ciclo e a liberação da flag
+            if (matchAttemptRequested.get()) {
+                triggerMatchAttempt();
             }
+        });
+    }
 
-            // Selecionar 10 jogadores mais antigos (FIFO)
-            List<QueuePlayer> selectedPlayers = activePlayers.stream()
-                    .limit(MATCH_SIZE)
-                    .collect(Collectors.toList());
+    /**
+     * ✅ NOVO: Divide os candidatos disponíveis do pool no maior número possível
+     * de lobbies disjuntos de 10 jogadores e reserva cada jogador
+     *
+     * Lobbies são montados pelo pool em volta de quem espera há mais tempo,
+     * com janela de MMR que cresce com o tempo de fila (ver MatchmakingPool).
+     *
+     * DEVE ser chamado com lock:matchmaking:process adquirido. O lock cobre
+     * apenas seleção e reserva (pool em memória + acceptance_status = -1);
+     * balanceamento e createMatch rodam depois, fora do lock.
+     *
+     * @return lobbies reservados (cada um com exatamente MATCH_SIZE jogadores)
+     */
+    private List<List<QueuePlayer>> claimLobbiesFromPool() {
+        int available = matchmakingPool.availableCount();
+        int lobbyCapacity = available / MATCH_SIZE;
 
-            // ✅ NOVO: DOUBLE-CHECK - Verificar se todos ainda estão disponíveis
-            boolean allStillAvailable = selectedPlayers.stream()
-                    .allMatch(p -> !playerStateService.isInMatch(p.getSummonerName()));
+        log.info("📊 Jogadores disponíveis para matchmaking (pool): {}", available);
 
-            if (!allStillAvailable) {
-                log.warn("⚠️ Alguns jogadores já não estão mais disponíveis, abortando criação de partida");
-                return;
+        if (lobbyCapacity == 0) {
+            log.debug("⏳ Apenas {} jogadores disponíveis (outros aguardando aceitação ou em partida)",
+                    available);
+            return List.of();
+        }
+
+        List<List<MatchmakingPool.Candidate>> candidateLobbies = matchmakingPool.selectLobbies(MATCH_SIZE,
+                lobbyCapacity, Instant.now());
+
+        log.info("🎯 Processando fila: {} lobby(s) dentro da janela de MMR ({} candidatos no pool)",
+                candidateLobbies.size(), matchmakingPool.size());
+
+        if (candidateLobbies.isEmpty()) {
+            return List.of();
+        }
+
+        // ✅ Carregar apenas as entidades selecionadas (1 query) e validar contra MySQL
+        List<Long> ids = candidateLobbies.stream()
+                .flatMap(List::stream)
+                .map(MatchmakingPool.Candidate::queuePlayerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, QueuePlayer> loaded = queuePlayerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(QueuePlayer::getId, qp -> qp));
+
+        // ✅ NOVO: DOUBLE-CHECK de estado de todos os candidatos em um único MGET
+        Map<String, PlayerState> states = playerStateService.getPlayerStates(candidateLobbies.stream()
+                .flatMap(List::stream)
+                .map(MatchmakingPool.Candidate::summonerName)
+                .collect(Collectors.toList()));
+
+        List<List<QueuePlayer>> lobbies = new ArrayList<>();
+        List<QueuePlayer> claimedPlayers = new ArrayList<>();
+        for (List<MatchmakingPool.Candidate> candidateLobby : candidateLobbies) {
+            List<QueuePlayer> lobby = new ArrayList<>(MATCH_SIZE);
+            for (MatchmakingPool.Candidate candidate : candidateLobby) {
+                QueuePlayer qp = candidate.queuePlayerId() != null ? loaded.get(candidate.queuePlayerId()) : null;
+                if (qp == null || !Boolean.TRUE.equals(qp.getActive())) {
+                    log.warn("🧹 [Pool] {} não está mais na fila do MySQL - removendo do pool",
+                            candidate.summonerName());
+                    matchmakingPool.remove(candidate.summonerName());
+                    continue;
+                }
+                if (qp.getAcceptanceStatus() != 0) {
+                    log.warn("🧹 [Pool] {} já está reservado no MySQL (status {}) - sincronizando pool",
+                            candidate.summonerName(), qp.getAcceptanceStatus());
+                    matchmakingPool.upsert(qp);
+                    continue;
+                }
+                // ✅ DOUBLE-CHECK: jogador em partida fica de fora (o sweep corrige o estado)
+                PlayerState state = states.get(candidate.summonerName());
+                if (state != null && state.isInMatch()) {
+                    log.warn("⚠️ {} já não está mais disponível, ignorando neste ciclo", qp.getSummonerName());
+                    continue;
+                }
+                lobby.add(qp);
             }
 
-            // ✅ CRÍTICO: MARCAR JOGADORES COMO "EM PROCESSAMENTO" IMEDIATAMENTE
-            // Isso previne outra instância de pegar os mesmos jogadores
-            // AINDA DENTRO DO LOCK!
-            log.info("🔒 [FIFO] Marcando {} jogadores como EM PROCESSAMENTO (ainda dentro do lock)",
-                    selectedPlayers.size());
-            for (QueuePlayer player : selectedPlayers) {
-                player.setAcceptanceStatus(-1); // -1 = em processamento
-                queuePlayerRepository.save(player);
+            // Lobby incompleto: os demais continuam no pool para o próximo ciclo
+            if (lobby.size() != MATCH_SIZE) {
+                log.warn("⚠️ [Pool] Lobby perdeu {} jogador(es) na validação, descartado neste ciclo",
+                        MATCH_SIZE - lobby.size());
+                continue;
+            }
+
+            List<String> names = lobby.stream()
+                    .map(QueuePlayer::getSummonerName)
+                    .collect(Collectors.toList());
+            if (!matchmakingPool.claim(names)) {
+                log.warn("⚠️ [Pool] Candidatos mudaram durante a seleção, lobby descartado neste ciclo");
+                continue;
             }
+            lobbies.add(lobby);
+            claimedPlayers.addAll(lobby);
+        }
+
+        if (lobbies.isEmpty()) {
+            return List.of();
+        }
+
+        // ✅ CRÍTICO: MARCAR JOGADORES COMO "EM PROCESSAMENTO" IMEDIATAMENTE
+        // Isso previne outra instância de pegar os mesmos jogadores
+        // AINDA DENTRO DO LOCK!
+        log.info("🔒 [FIFO] Marcando {} jogadores ({} lobbies) como EM PROCESSAMENTO (ainda dentro do lock)",
+                claimedPlayers.size(), lobbies.size());
+        // ✅ NOVO: Um único UPDATE ... WHERE summoner_name IN (...) para todos os lobbies,
+        // já commitado ao retornar (seguro para liberar o lock)
+        List<String> claimedNames = new ArrayList<>(claimedPlayers.size());
+        for (QueuePlayer player : claimedPlayers) {
+            player.setAcceptanceStatus(-1); // -1 = em processamento
+            claimedNames.add(player.getSummonerName());
+        }
+        int marked = queuePlayerRepository.updateAcceptanceStatus(claimedNames, -1);
+        log.info("✅ [FIFO] {} jogadores marcados em um UPDATE - seguro para liberar lock", marked);
+
+        lobbiesFormedCounter.increment(lobbies.size());
+        return lobbies;
+    }
 
-            // ✅ FLUSH para garantir que SQL foi atualizado ANTES de liberar lock
-            queuePlayerRepository.flush();
-            log.info("✅ [FIFO] Jogadores marcados e flush realizado - seguro para liberar lock");
+    /**
+     * ✅ NOVO: Balanceia e cria as partidas dos lobbies reservados em paralelo
+     *
+     * Cada lobby já tem seus jogadores reservados (acceptance_status = -1),
+     * então não há disputa entre lobbies nem necessidade do lock global.
+     */
+    private void createLobbiesConcurrently(List<List<QueuePlayer>> lobbies) {
+        if (lobbies.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> futures = lobbies.stream()
+                .map(lobby -> CompletableFuture.supplyAsync(() -> balanceAndCreateMatch(lobby), matchmakingExecutor))
+                .collect(Collectors.toList());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            long created = futures.stream().filter(f -> Boolean.TRUE.equals(f.getNow(false))).count();
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("🏁 [Matchmaking] {}/{} partidas criadas em {} ms ({} partidas/s)",
+                    created, lobbies.size(), Math.round(elapsedSeconds * 1000),
+                    String.format("%.1f", elapsedSeconds > 0 ? created / elapsedSeconds : 0));
+        });
+    }
+
+    /**
+     * ✅ NOVO: Balanceamento + criação de um lobby reservado
+     */
+    private boolean balanceAndCreateMatch(List<QueuePlayer> lobby) {
+        List<String> names = lobby.stream()
+                .map(QueuePlayer::getSummonerName)
+                .collect(Collectors.toList());
+        try {
+            // ✅ NOVO: MMR de todos os selecionados em UMA query (nada de SQL no sort)
+            PlayerRatingSnapshot ratings = PlayerRatingSnapshot.load(playerRepository, lobby);
 
             // Balancear equipes por MMR e lanes
-            List<QueuePlayer> balancedTeams = balanceTeamsByMMRAndLanes(selectedPlayers);
+            List<QueuePlayer> balancedTeams = balanceTeamsByMMRAndLanes(lobby, ratings);
 
-            if (balancedTeams.size() == MATCH_SIZE) {
-                // ✅ Criar partida (com locks e state management)
-                createMatch(balancedTeams);
-            } else {
+            if (balancedTeams.size() != MATCH_SIZE) {
                 // ❌ Balanceamento falhou - reverter status
                 log.error("❌ [FIFO] Balanceamento falhou, revertendo status dos jogadores");
-                for (QueuePlayer player : selectedPlayers) {
-                    player.setAcceptanceStatus(0);
-                    queuePlayerRepository.save(player);
-                }
-                queuePlayerRepository.flush();
+                rollbackAcceptanceStatus(names);
+                return false;
             }
 
+            // ✅ Criar partida (com locks e state management)
+            return createMatch(balancedTeams, ratings);
         } catch (Exception e) {
-            log.error("❌ Erro ao processar fila", e);
-        } finally {
-            // ✅ SEMPRE LIBERAR LOCK
-            matchmakingLockService.releaseProcessLock();
+            log.error("❌ Erro ao balancear lobby {}, revertendo status dos jogadores", names, e);
+            rollbackAcceptanceStatus(names);
+            return false;
         }
     }
 
     /**
-     * Normaliza nomes de lanes para um formato padrão (minúsculo)
+     * ✅ NOVO: Devolve jogadores ao matchmaking (acceptance_status = 0 no MySQL e
+     * disponíveis no pool em memória)
      */
-    private String normalizeLane(String lane) {
-        if (lane == null)
-            return "fill";
-
-        String normalized = lane.toLowerCase().trim();
+    private void rollbackAcceptanceStatus(List<String> playerNames) {
+        // ✅ Um único UPDATE (jogadores que já saíram da fila simplesmente não casam)
+        queuePlayerRepository.updateAcceptanceStatus(playerNames, 0); // Voltar para disponível
+        matchmakingPool.release(playerNames);
+    }
 
-        // Normalizar variações
-        if (normalized.equals("adc") || normalized.equals("bot") || normalized.equals("bottom")) {
-            return "bot";
-        }
-        if (normalized.equals("middle") || normalized.equals("mid")) {
-            return "mid";
-        }
-        if (normalized.equals("top")) {
-            return "top";
-        }
-        if (normalized.equals("jungle") || normalized.equals("jg")) {
-            return "jungle";
-        }
-        if (normalized.equals("support") || normalized.equals("sup") || normalized.equals("supp")) {
-            return "support";
+    /**
+     * ✅ NOVO: Jogadores que voltaram para a fila após uma partida recusada
+     *
+     * Chamado pelo MatchFoundService depois de resetar acceptance_status no
+     * MySQL. Libera a reserva no pool e dispara nova tentativa imediatamente.
+     */
+    public void onPlayersReturnedToQueue(Collection<String> playerNames) {
+        matchmakingPool.release(playerNames);
+        if (matchmakingPool.canFormMatch(MATCH_SIZE)) {
+            triggerMatchAttemptAfterCommit();
         }
+    }
+
+    /**
+     * ✅ NOVO: Jogadores que saíram da fila sem passar por removeFromQueue()
+     * (ex.: aceitaram a partida e foram para o draft)
+     */
+    public void onPlayersLeftQueue(Collection<String> playerNames) {
+        matchmakingPool.removeAll(playerNames);
+        List<String> names = new ArrayList<>(playerNames);
+        publishQueueDeltaAfterCommit(() -> queueSnapshotService.playersLeft(names));
+    }
 
-        return "fill";
+    /**
+     * Normaliza nomes de lanes para um formato padrão (minúsculo)
+     */
+    private String normalizeLane(String lane) {
+        return MatchmakingPool.normalizeLane(lane);
     }
 
     /**
      * Balanceia equipes por MMR e preferências de lane
      */
-    private List<QueuePlayer> balanceTeamsByMMRAndLanes(List<QueuePlayer> players) {
+    private List<QueuePlayer> balanceTeamsByMMRAndLanes(List<QueuePlayer> players, PlayerRatingSnapshot ratings) {
         if (players.size() != MATCH_SIZE) {
             return new ArrayList<>();
         }
@@ -690,171 +1019,67 @@ public class QueueManagementService {
         // ✅ CORREÇÃO: Ordenar por custom_mmr da tabela players (current_mmr +
         // custom_lp)
         // Para jogadores sem entrada na tabela (bots), usar customLp do QueuePlayer
-        players.sort((a, b) -> {
-            int mmrA = a.getCustomLp() != null ? a.getCustomLp() : 0;
-            int mmrB = b.getCustomLp() != null ? b.getCustomLp() : 0;
-
-            // ✅ NOVO: Buscar custom_mmr real da tabela players se existir
-            Optional<Player> playerA = playerRepository.findBySummonerNameIgnoreCase(a.getSummonerName());
-            if (playerA.isPresent() && playerA.get().getCustomMmr() != null) {
-                mmrA = playerA.get().getCustomMmr();
-            }
-
-            Optional<Player> playerB = playerRepository.findBySummonerNameIgnoreCase(b.getSummonerName());
-            if (playerB.isPresent() && playerB.get().getCustomMmr() != null) {
-                mmrB = playerB.get().getCustomMmr();
-            }
-
-            return Integer.compare(mmrB, mmrA); // Maior MMR primeiro
-        });
+        // ✅ NOVO: MMR vem do snapshot carregado em lote (zero queries no comparator)
+        players.sort((a, b) -> Integer.compare(ratings.mmrOf(b), ratings.mmrOf(a))); // Maior MMR primeiro
 
         // ✅ Log da ordem de prioridade por MMR
         log.info("📊 [Balanceamento] Ordem por MMR (maior para menor):");
         for (int i = 0; i < players.size(); i++) {
             QueuePlayer p = players.get(i);
-            int mmr = p.getCustomLp() != null ? p.getCustomLp() : 0;
-            Optional<Player> playerEntity = playerRepository.findBySummonerNameIgnoreCase(p.getSummonerName());
-            if (playerEntity.isPresent() && playerEntity.get().getCustomMmr() != null) {
-                mmr = playerEntity.get().getCustomMmr();
-            }
+            int mmr = ratings.mmrOf(p);
             log.info("  {}. {} - MMR: {} - Primária: {} - Secundária: {}",
                     i + 1, p.getSummonerName(), mmr,
                     normalizeLane(p.getPrimaryLane()),
                     normalizeLane(p.getSecondaryLane()));
         }
 
-        // Mapeamento de lanes para posições no time (usando minúsculo)
-        Map<String, Map<String, Integer>> laneToTeamIndex = Map.of(
-                "top", Map.of("team1", 0, "team2", 5),
-                "jungle", Map.of("team1", 1, "team2", 6),
-                "mid", Map.of("team1", 2, "team2", 7),
-                "bot", Map.of("team1", 3, "team2", 8),
-                "support", Map.of("team1", 4, "team2", 9));
-
-        // Controle de lanes ocupadas (Maps mutáveis)
-        Map<String, Map<String, Boolean>> laneAssignments = new HashMap<>();
-        for (String lane : Arrays.asList("top", "jungle", "mid", "bot", "support")) {
-            Map<String, Boolean> teamAssignments = new HashMap<>();
-            teamAssignments.put("team1", false);
-            teamAssignments.put("team2", false);
-            laneAssignments.put(lane, teamAssignments);
-        }
-
-        List<QueuePlayer> balancedTeams = new ArrayList<>(Collections.nCopies(MATCH_SIZE, null));
-
-        // ✅ Atribuir lanes por prioridade de MMR
-        for (int i = 0; i < players.size(); i++) {
-            QueuePlayer player = players.get(i);
-            String primaryLane = normalizeLane(player.getPrimaryLane());
-            String secondaryLane = normalizeLane(player.getSecondaryLane());
-
-            boolean assigned = false;
-            String assignedLane = null;
-            String assignedTeam = null;
-
-            // Tentar lane primária
-            if (!primaryLane.equals("fill") && laneAssignments.containsKey(primaryLane)) {
-                if (!laneAssignments.get(primaryLane).get("team1")) {
-                    int teamIndex = laneToTeamIndex.get(primaryLane).get("team1");
-                    balancedTeams.set(teamIndex, player);
-                    laneAssignments.get(primaryLane).put("team1", true);
-                    assigned = true;
-                    assignedLane = primaryLane;
-                    assignedTeam = "team1";
-                } else if (!laneAssignments.get(primaryLane).get("team2")) {
-                    int teamIndex = laneToTeamIndex.get(primaryLane).get("team2");
-                    balancedTeams.set(teamIndex, player);
-                    laneAssignments.get(primaryLane).put("team2", true);
-                    assigned = true;
-                    assignedLane = primaryLane;
-                    assignedTeam = "team2";
-                }
-            }
-
-            // Tentar lane secundária se primária não disponível
-            if (!assigned && !secondaryLane.equals("fill") && laneAssignments.containsKey(secondaryLane)) {
-                if (!laneAssignments.get(secondaryLane).get("team1")) {
-                    int teamIndex = laneToTeamIndex.get(secondaryLane).get("team1");
-                    balancedTeams.set(teamIndex, player);
-                    laneAssignments.get(secondaryLane).put("team1", true);
-                    assigned = true;
-                    assignedLane = secondaryLane;
-                    assignedTeam = "team1";
-                } else if (!laneAssignments.get(secondaryLane).get("team2")) {
-                    int teamIndex = laneToTeamIndex.get(secondaryLane).get("team2");
-                    balancedTeams.set(teamIndex, player);
-                    laneAssignments.get(secondaryLane).put("team2", true);
-                    assigned = true;
-                    assignedLane = secondaryLane;
-                    assignedTeam = "team2";
-                }
-            }
-
-            // Autofill se necessário
-            if (!assigned) {
-                for (String lane : Arrays.asList("top", "jungle", "mid", "bot", "support")) {
-                    if (!laneAssignments.get(lane).get("team1")) {
-                        int teamIndex = laneToTeamIndex.get(lane).get("team1");
-                        balancedTeams.set(teamIndex, player);
-                        laneAssignments.get(lane).put("team1", true);
-                        assigned = true;
-                        assignedLane = lane;
-                        assignedTeam = "team1";
-                        break;
-                    } else if (!laneAssignments.get(lane).get("team2")) {
-                        int teamIndex = laneToTeamIndex.get(lane).get("team2");
-                        balancedTeams.set(teamIndex, player);
-                        laneAssignments.get(lane).put("team2", true);
-                        assigned = true;
-                        assignedLane = lane;
-                        assignedTeam = "team2";
-                        break;
-                    }
-                }
-            }
-
-            // ✅ Log da atribuição
-            String status = assignedLane != null && assignedLane.equals(primaryLane) ? "1ª LANE"
-                    : assignedLane != null && assignedLane.equals(secondaryLane) ? "2ª LANE" : "AUTO-FILL";
-            log.info("  ✅ {} → {} / {} → {}", player.getSummonerName(), assignedTeam, assignedLane, status);
-        }
-
-        // ✅ CRÍTICO: Verificar se todos os 10 slots foram preenchidos
-        List<QueuePlayer> result = balancedTeams.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        // ✅ NOVO: Atribuição de lanes/times delegada à estratégia configurada
+        List<QueuePlayer> result = teamBalancer.balance(players, ratings);
 
         if (result.size() != MATCH_SIZE) {
-            log.error("❌ [CRÍTICO] Balanceamento FALHOU! Apenas {} jogadores de {} foram atribuídos!",
-                    result.size(), MATCH_SIZE);
-            log.error("❌ Posições vazias detectadas no balanceamento!");
-
-            // Log quais posições ficaram vazias
-            for (int i = 0; i < balancedTeams.size(); i++) {
-                if (balancedTeams.get(i) == null) {
-                    String lane = i == 0 || i == 5 ? "top"
-                            : i == 1 || i == 6 ? "jungle"
-                                    : i == 2 || i == 7 ? "mid"
-                                            : i == 3 || i == 8 ? "bot"
-                                                    : "support";
-                    String team = i < 5 ? "team1" : "team2";
-                    log.error("  ❌ Posição {} vazia: {} / {}", i, team, lane);
-                }
-            }
-
-            // ⛔ NÃO retornar lista incompleta - retornar vazio para cancelar criação
+            log.error("❌ [CRÍTICO] Balanceamento FALHOU ({})! Cancelando criação da partida",
+                    teamBalancer.getClass().getSimpleName());
             return new ArrayList<>();
         }
 
+        logTeamAssignment(result, ratings);
+
         log.info("✅ [Balanceamento] Sucesso! {} jogadores balanceados corretamente", result.size());
         return result;
     }
 
+    /**
+     * ✅ Log da atribuição final (lane obtida vs. preferências e MMR por time)
+     */
+    private void logTeamAssignment(List<QueuePlayer> slots, PlayerRatingSnapshot ratings) {
+        for (int i = 0; i < slots.size(); i++) {
+            QueuePlayer player = slots.get(i);
+            String lane = MatchmakingPool.LANES.get(i % 5);
+            String primaryLane = normalizeLane(player.getPrimaryLane());
+            String secondaryLane = normalizeLane(player.getSecondaryLane());
+            String status = lane.equals(primaryLane) ? "1ª LANE"
+                    : lane.equals(secondaryLane) ? "2ª LANE" : "AUTO-FILL";
+            log.info("  ✅ {} → {} / {} → {}", player.getSummonerName(), i < 5 ? "team1" : "team2", lane, status);
+        }
+        log.info("📊 [Balanceamento] MMR médio: team1={} | team2={}",
+                ratings.averageMmr(slots.subList(0, 5)), ratings.averageMmr(slots.subList(5, 10)));
+    }
+
     /**
      * Cria uma nova partida
      */
     @Transactional
     public void createMatch(List<QueuePlayer> players) {
+        createMatch(players, PlayerRatingSnapshot.load(playerRepository, players));
+    }
+
+    /**
+     * Cria uma nova partida usando o snapshot de MMR já carregado pelo
+     * balanceamento (evita novas consultas por jogador)
+     *
+     * @return true se a partida foi criada e enviada para aceitação
+     */
+    private boolean createMatch(List<QueuePlayer> players, PlayerRatingSnapshot ratings) {
         try {
             log.info("╔════════════════════════════════════════════════════════════════╗");
             log.info("║  🎯 [CRIAÇÃO DE PARTIDA] INICIANDO                            ║");
@@ -865,7 +1090,7 @@ public class QueueManagementService {
                 log.error("❌ [CRÍTICO] Número INCORRETO de jogadores: {} (esperado: {})",
                         players.size(), MATCH_SIZE);
                 log.error("❌ [CRÍTICO] PARTIDA NÃO CRIADA - ABORTANDO!");
-                return;
+                return false;
             }
 
             log.info("✅ [Validação] {} jogadores confirmados", players.size());
@@ -877,37 +1102,33 @@ public class QueueManagementService {
 
             // ✅ PROTEÇÃO 0: VERIFICAR SE TODOS AINDA ESTÃO NA FILA (MySQL)
             // CRÍTICO: Jogador pode ter saído DURANTE o processamento!
+            // ✅ NOVO: Uma única query IN (...) para os 10 jogadores
+            Map<String, QueuePlayer> stillInQueueByName = queuePlayerRepository.findBySummonerNameIn(playerNames)
+                    .stream()
+                    .collect(Collectors.toMap(QueuePlayer::getSummonerName, qp -> qp, (a, b) -> a));
             for (String playerName : playerNames) {
-                Optional<QueuePlayer> stillInQueue = queuePlayerRepository.findBySummonerName(playerName);
-                if (stillInQueue.isEmpty() || !stillInQueue.get().getActive()) {
+                QueuePlayer stillInQueue = stillInQueueByName.get(playerName);
+                if (stillInQueue == null || !Boolean.TRUE.equals(stillInQueue.getActive())) {
                     log.error(
                             "❌ [CRÍTICO] Jogador {} NÃO está mais na fila! Saiu durante processamento. ABORTANDO criação",
                             playerName);
                     // Reverter acceptance_status dos que ainda estão na fila
-                    for (String pn : playerNames) {
-                        queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                            qp.setAcceptanceStatus(0); // Voltar para normal
-                            queuePlayerRepository.save(qp);
-                        });
-                    }
-                    return;
+                    matchmakingPool.remove(playerName);
+                    rollbackAcceptanceStatus(playerNames);
+                    return false;
                 }
             }
 
             log.info("✅ [Validação] Todos os {} jogadores AINDA estão na fila", playerNames.size());
 
-            // ✅ PROTEÇÃO 1: Verificar PlayerState
+            // ✅ PROTEÇÃO 1: Verificar PlayerState (✅ NOVO: um único MGET)
+            Map<String, PlayerState> currentStates = playerStateService.getPlayerStates(playerNames);
             for (String playerName : playerNames) {
-                if (playerStateService.isInMatch(playerName)) {
+                if (currentStates.get(playerName).isInMatch()) {
                     log.error("❌ [CRÍTICO] Jogador {} já está em partida! ABORTANDO criação", playerName);
                     // Reverter acceptance_status
-                    for (String pn : playerNames) {
-                        queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                            qp.setAcceptanceStatus(0);
-                            queuePlayerRepository.save(qp);
-                        });
-                    }
-                    return;
+                    rollbackAcceptanceStatus(playerNames);
+                    return false;
                 }
             }
 
@@ -956,12 +1177,9 @@ public class QueueManagementService {
                         // Reverter estados E acceptance_status
                         for (String pn : playerNames) {
                             playerStateService.forceSetPlayerState(pn, PlayerState.IN_QUEUE);
-                            queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                                qp.setAcceptanceStatus(0);
-                                queuePlayerRepository.save(qp);
-                            });
                         }
-                        return;
+                        rollbackAcceptanceStatus(playerNames);
+                        return false;
                     }
                 }
             }
@@ -979,7 +1197,7 @@ public class QueueManagementService {
                                                 : "SUPPORT";
                 String team = i < 5 ? "TEAM1" : "TEAM2";
                 log.info("  [{}] {} - {} / {} - MMR: {}",
-                        i, p.getSummonerName(), team, lane, p.getCustomLp());
+                        i, p.getSummonerName(), team, lane, ratings.mmrOf(p));
             }
 
             // Separar em dois times
@@ -989,7 +1207,7 @@ public class QueueManagementService {
             // ✅ VALIDAÇÃO: Garantir que ambos os times têm 5 jogadores
             if (team1.size() != 5 || team2.size() != 5) {
                 log.error("❌ [CRÍTICO] Times mal formados! team1={}, team2={}", team1.size(), team2.size());
-                return;
+                return false;
             }
 
             // ✅ CRÍTICO: VALIDAR SESSÕES WEBSOCKET ANTES DE CRIAR MATCH
@@ -1030,54 +1248,22 @@ public class QueueManagementService {
                 log.error("  ⚠️ MySQL não será poluído com match que falharia no broadcast!");
 
                 // Reverter acceptance_status para permitir novo matchmaking
-                for (String pn : playerNames) {
-                    queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                        qp.setAcceptanceStatus(0); // Voltar para disponível
-                        queuePlayerRepository.save(qp);
-                    });
-                }
-                queuePlayerRepository.flush();
+                rollbackAcceptanceStatus(playerNames);
 
                 log.info("✅ Jogadores revertidos para disponíveis - aguardando reconexão");
-                return; // ABORTAR
+                return false; // ABORTAR
             }
 
             log.info("✅ [Validação] Todos os jogadores HUMANOS têm sessão WebSocket ativa - PROSSEGUINDO");
 
-            // ✅ CORREÇÃO: Garantir que todos estão em IN_QUEUE primeiro (fluxo correto)
-            for (String playerName : playerNames) {
-                PlayerState currentState = playerStateService.getPlayerState(playerName);
-                if (currentState != PlayerState.IN_QUEUE) {
-                    log.info("🔄 [PlayerState] Colocando {} em IN_QUEUE (estava em {})", playerName, currentState);
-                    if (!playerStateService.setPlayerState(playerName, PlayerState.IN_QUEUE)) {
-                        log.error("❌ [CRÍTICO] Falha ao colocar {} em IN_QUEUE, ABORTANDO criação", playerName);
-                        // Rollback: Voltar acceptance_status
-                        for (String pn : playerNames) {
-                            queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                                qp.setAcceptanceStatus(0);
-                                queuePlayerRepository.save(qp);
-                            });
-                        }
-                        return;
-                    }
-                }
-            }
-
-            // ✅ NOVO: ATUALIZAR ESTADO DE TODOS PARA IN_MATCH_FOUND (agora válido: IN_QUEUE
-            // → IN_MATCH_FOUND)
-            for (String playerName : playerNames) {
-                if (!playerStateService.setPlayerState(playerName, PlayerState.IN_MATCH_FOUND)) {
-                    log.error("❌ [CRÍTICO] Falha ao atualizar estado de {}, ABORTANDO criação", playerName);
-                    // Rollback: Voltar estados E acceptance_status
-                    for (String pn : playerNames) {
-                        playerStateService.forceSetPlayerState(pn, PlayerState.IN_QUEUE);
-                        queuePlayerRepository.findBySummonerName(pn).ifPresent(qp -> {
-                            qp.setAcceptanceStatus(0);
-                            queuePlayerRepository.save(qp);
-                        });
-                    }
-                    return;
-                }
+            // ✅ NOVO: ATUALIZAR ESTADO DE TODOS PARA IN_MATCH_FOUND em um único script Lua
+            // (AVAILABLE/IN_QUEUE → IN_MATCH_FOUND, tudo ou nada). Se falhar, nenhum
+            // estado foi alterado: basta reverter acceptance_status
+            if (!playerStateService.transitionAll(playerNames,
+                    EnumSet.of(PlayerState.AVAILABLE, PlayerState.IN_QUEUE), PlayerState.IN_MATCH_FOUND)) {
+                log.error("❌ [CRÍTICO] Falha ao atualizar estado dos jogadores para IN_MATCH_FOUND, ABORTANDO criação");
+                rollbackAcceptanceStatus(playerNames);
+                return false;
             }
 
             log.info("✅ [Estado] Todos os jogadores marcados como IN_MATCH_FOUND");
@@ -1093,8 +1279,8 @@ public class QueueManagementService {
                     .status("match_found")
                     .createdBy("system")
                     .gameMode("5v5")
-                    .averageMmrTeam1(calculateAverageMMR(team1))
-                    .averageMmrTeam2(calculateAverageMMR(team2))
+                    .averageMmrTeam1(ratings.averageMmr(team1))
+                    .averageMmrTeam2(ratings.averageMmr(team2))
                     .createdAt(Instant.now())
                     .build();
 
@@ -1137,6 +1323,8 @@ public class QueueManagementService {
             matchFoundService.createMatchForAcceptance(match, team1, team2);
 
             log.info("✅ Partida criada: ID {} - aguardando aceitação (jogadores em IN_MATCH_FOUND)", match.getId());
+            matchesCreatedCounter.increment();
+            return true;
 
         } catch (Exception e) {
             log.error("❌ Erro ao criar partida", e);
@@ -1148,6 +1336,7 @@ public class QueueManagementService {
             for (String pn : playerNames) {
                 playerStateService.forceSetPlayerState(pn, PlayerState.IN_QUEUE);
             }
+            return false;
         }
     }
 
@@ -1217,50 +1406,47 @@ public class QueueManagementService {
         return (int) queueSize + 1;
     }
 
-    private void updateQueuePositions() {
-        // ✅ SQL ONLY: Buscar fila do banco e atualizar posições
-        List<QueuePlayer> sortedPlayers = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
-
+    /**
+     * ✅ REFATORADO: Corrige posições a partir de uma leitura já feita (fila em
+     * ordem de joinTime). Entradas/saídas mantêm as posições incrementalmente;
+     * aqui só sobram os buracos de partidas formadas e de estados inconsistentes.
+     */
+    private void updateQueuePositions(List<QueuePlayer> sortedPlayers) {
+        List<QueuePlayer> changed = new ArrayList<>();
         for (int i = 0; i < sortedPlayers.size(); i++) {
             QueuePlayer player = sortedPlayers.get(i);
-            player.setQueuePosition(i + 1);
-            queuePlayerRepository.save(player);
+            if (player.getQueuePosition() == null || player.getQueuePosition() != i + 1) {
+                player.setQueuePosition(i + 1);
+                changed.add(player);
+            }
+        }
+        if (!changed.isEmpty()) {
+            // ✅ saveAll: UPDATEs enviados em lote (hibernate.jdbc.batch_size)
+            queuePlayerRepository.saveAll(changed);
         }
     }
 
-    private long calculateAverageWaitTime(List<QueuePlayer> players) {
-        if (players.isEmpty())
-            return 0;
-
-        return players.stream()
-                .mapToLong(p -> ChronoUnit.SECONDS.between(p.getJoinTime(), Instant.now()))
-                .sum() / players.size();
-    }
-
+    /**
+     * ✅ NOVO: Estimativa pela ocupação real dos buckets de MMR do pool (janela
+     * do jogador que espera há mais tempo). Sem jogadores suficientes no pool,
+     * mantém a estimativa antiga por jogadores faltantes.
+     */
     private long calculateEstimatedMatchTime(int queueSize) {
+        long estimate = matchmakingPool.estimatedNextMatchSeconds(MATCH_SIZE, Instant.now());
+        if (estimate >= 0)
+            return estimate;
         if (queueSize >= MATCH_SIZE)
             return 0;
         return (MATCH_SIZE - queueSize) * 30; // 30 segundos por jogador faltante
     }
 
     /**
-     * Calcula a média de MMR de uma lista de jogadores
-     * ✅ Usa custom_mmr da tabela players (current_mmr + custom_lp) quando
-     * disponível
+     * ✅ NOVO: Espera estimada do jogador (segundos) pela ocupação da sua janela
+     * de MMR; null quando ainda não há jogadores suficientes no pool
      */
-    private int calculateAverageMMR(List<QueuePlayer> players) {
-        return (int) players.stream()
-                .mapToInt(p -> {
-                    // ✅ Buscar custom_mmr real da tabela players
-                    Optional<Player> playerOpt = playerRepository.findBySummonerNameIgnoreCase(p.getSummonerName());
-                    if (playerOpt.isPresent() && playerOpt.get().getCustomMmr() != null) {
-                        return playerOpt.get().getCustomMmr();
-                    }
-                    // ✅ Fallback: usar customLp do QueuePlayer (para bots)
-                    return p.getCustomLp() != null ? p.getCustomLp() : 0;
-                })
-                .average()
-                .orElse(0);
+    private Long estimatedWaitTime(String summonerName) {
+        long estimate = matchmakingPool.estimatedWaitSeconds(summonerName, MATCH_SIZE, Instant.now());
+        return estimate >= 0 ? estimate : null;
     }
 
     private String convertPlayersToJson(List<QueuePlayer> players) {
@@ -1280,20 +1466,6 @@ public class QueueManagementService {
         return Arrays.asList(playersJson.split(",\\s*"));
     }
 
-    private QueuePlayerInfoDTO convertToQueuePlayerInfoDTO(QueuePlayer player) {
-        return QueuePlayerInfoDTO.builder()
-                .id(player.getId())
-                .summonerName(player.getSummonerName())
-                .region(player.getRegion())
-                .mmr(player.getCustomLp() != null ? player.getCustomLp() : 0)
-                .primaryLane(player.getPrimaryLane())
-                .secondaryLane(player.getSecondaryLane())
-                .queuePosition(player.getQueuePosition())
-                .joinTime(player.getJoinTime())
-                .isCurrentPlayer(false)
-                .build();
-    }
-
     private void startQueueMonitoring() {
         // O monitoramento é feito via @Scheduled no método processQueue()
         log.info("🔄 Monitoramento da fila iniciado");
@@ -1379,9 +1551,11 @@ public class QueueManagementService {
 
     /**
      * Adiciona um bot à fila para testes
+     *
+     * @return nome do bot criado (usado pelo harness de simulação)
      */
     @Transactional
-    public void addBotToQueue() {
+    public String addBotToQueue() {
         try {
             botCounter++;
             String botName = "Bot" + botCounter;
@@ -1430,14 +1604,17 @@ public class QueueManagementService {
             }
             log.info("✅ [addBotToQueue] PlayerState do bot {} setado para IN_QUEUE", botName);
 
-            // Atualizar posições
-            updateQueuePositions();
+            // ✅ NOVO: Delta da fila (bot entrou) após o commit
+            final QueuePlayer joinedBot = botPlayer;
+            publishQueueDeltaAfterCommit(() -> queueSnapshotService.playerJoined(joinedBot));
 
-            // Broadcast atualização
-            broadcastQueueUpdate();
+            // ✅ NOVO: Atualizar pool em memória após o commit (bot entrou por
+            // último: posições dos demais não mudam)
+            addToPoolAfterCommit(botPlayer);
 
             log.info("✅ Bot {} adicionado à fila (posição: {}, MMR: {}, Lane: {})",
                     botName, botPlayer.getQueuePosition(), randomMMR, primaryLane);
+            return botName;
 
         } catch (Exception e) {
             log.error("❌ Erro ao adicionar bot à fila", e);
@@ -0,0 +1,425 @@
+package br.com.lolmatchmaking.backend.service;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import br.com.lolmatchmaking.backend.domain.repository.QueuePlayerRepository;
+import br.com.lolmatchmaking.backend.dto.QueuePlayerInfoDTO;
+import br.com.lolmatchmaking.backend.dto.events.QueueDeltaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ✅ Snapshot versionado da fila mantido incrementalmente
+ *
+ * PROBLEMA RESOLVIDO:
+ * - getQueueStatus() convertia a fila inteira do MySQL em DTOs a cada cache
+ * miss
+ * - O broadcast de 3s publicava o QueueStatusDTO completo mesmo sem mudanças
+ *
+ * SOLUÇÃO:
+ * - Lista de jogadores (ordem de entrada + posição) mantida em memória
+ * - Entrada/saída aplicam a mudança e geram um QueueDeltaEvent compacto
+ * - Versão monotônica global via Redis INCR (queue:snapshot:version)
+ * - Deltas de outras instâncias são aplicados de forma idempotente (por nome)
+ * - Delta com baseVersion à frente da versão local = evento perdido → snapshot
+ * marcado como desatualizado e recarregado do MySQL na próxima leitura
+ *
+ * ⚠️ Mudanças devem ser aplicadas APÓS o commit: a versão lida antes da query
+ * SQL garante que o snapshot contém tudo até aquela versão.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueueSnapshotService {
+
+    public static final String VERSION_KEY = "queue:snapshot:version";
+
+    private static final int APPLIED_VERSIONS_LIMIT = 1024;
+
+    private static final Comparator<QueuePlayerInfoDTO> BY_JOIN_TIME = Comparator
+            .comparing(QueuePlayerInfoDTO::getJoinTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(QueuePlayerInfoDTO::getSummonerName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final QueuePlayerRepository queuePlayerRepository;
+
+    /**
+     * Snapshot imutável: versão + jogadores ordenados por posição
+     *
+     * ✅ NOVO: Índice por nome normalizado (nome completo e gameName antes do
+     * '#') → posição na lista, montado uma vez por versão. Busca do jogador
+     * atual em O(1) por requisição.
+     */
+    public record Snapshot(long version, List<QueuePlayerInfoDTO> players, Map<String, Integer> indexByName) {
+
+        static Snapshot of(long version, List<QueuePlayerInfoDTO> players) {
+            Map<String, Integer> index = new HashMap<>(players.size() * 4);
+            for (int i = 0; i < players.size(); i++) {
+                index.put(normalizeName(players.get(i).getSummonerName()), i);
+            }
+            // gameName sem tag só resolve se for único na fila (nome completo tem prioridade)
+            Map<String, Integer> byGameName = new HashMap<>();
+            Set<String> ambiguous = new HashSet<>();
+            for (int i = 0; i < players.size(); i++) {
+                String key = normalizeName(players.get(i).getSummonerName());
+                int tag = key.indexOf('#');
+                if (tag > 0 && byGameName.putIfAbsent(key.substring(0, tag), i) != null) {
+                    ambiguous.add(key.substring(0, tag));
+                }
+            }
+            byGameName.forEach((gameName, i) -> {
+                if (!ambiguous.contains(gameName)) {
+                    index.putIfAbsent(gameName, i);
+                }
+            });
+            return new Snapshot(version, Collections.unmodifiableList(players), Collections.unmodifiableMap(index));
+        }
+
+        /**
+         * @return posição na lista (0-based) ou -1 se o jogador não está na fila
+         */
+        public int indexOf(String summonerName) {
+            if (summonerName == null) {
+                return -1;
+            }
+            Integer index = indexByName.get(normalizeName(summonerName));
+            return index != null ? index : -1;
+        }
+    }
+
+    private volatile Snapshot current;
+    private volatile boolean stale = true;
+
+    // Chave: nome normalizado → nanoTime da última mudança local (para o reconcile)
+    private final Map<String, Long> changedAtNanos = new HashMap<>();
+
+    // Versões já aplicadas (deltas próprios e remotos) e versão do último reload
+    private final Set<Long> appliedVersions = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > APPLIED_VERSIONS_LIMIT;
+        }
+    });
+    private long floorVersion = 0;
+
+    /**
+     * ✅ Snapshot atual (recarrega do MySQL se nunca carregado ou desatualizado)
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null || stale) {
+            return reload();
+        }
+        return snapshot;
+    }
+
+    public long currentVersion() {
+        return snapshot().version();
+    }
+
+    /**
+     * ✅ Força recarga do MySQL na próxima leitura (ex.: fila recarregada)
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * ✅ Recarrega o snapshot do MySQL sem publicar delta
+     */
+    public synchronized Snapshot reload() {
+        // Versão lida ANTES da query: o SQL contém todas as mudanças até ela
+        long version = readGlobalVersion();
+        List<QueuePlayer> players = queuePlayerRepository.findByActiveTrueOrderByJoinTimeAsc();
+
+        List<QueuePlayerInfoDTO> infos = new ArrayList<>(players.size());
+        for (QueuePlayer player : players) {
+            if (player.getSummonerName() != null) {
+                infos.add(toInfo(player));
+            }
+        }
+        infos.sort(BY_JOIN_TIME);
+        assignPositions(infos);
+
+        long localVersion = current != null ? current.version() : 0;
+        current = Snapshot.of(Math.max(version, localVersion), infos);
+        floorVersion = version;
+        stale = false;
+
+        log.info("🔄 [QueueSnapshot] Snapshot recarregado do SQL: {} jogadores (versão {})",
+                infos.size(), current.version());
+        return current;
+    }
+
+    /**
+     * ✅ Jogador entrou na fila
+     *
+     * @return delta a publicar (null se nada mudou)
+     */
+    public QueueDeltaEvent playerJoined(QueuePlayer player) {
+        if (player == null || player.getSummonerName() == null) {
+            return null;
+        }
+        return applyLocal(List.of(toInfo(player)), List.of());
+    }
+
+    /**
+     * ✅ Jogadores saíram da fila (removeFromQueue, draft, cancelamento...)
+     *
+     * @return delta a publicar (null se nada mudou)
+     */
+    public QueueDeltaEvent playersLeft(Collection<String> summonerNames) {
+        if (summonerNames == null || summonerNames.isEmpty()) {
+            return null;
+        }
+        return applyLocal(List.of(), summonerNames);
+    }
+
+    /**
+     * ✅ Reconcilia o snapshot com a leitura do MySQL (fonte da verdade)
+     *
+     * Jogadores alterados em memória após snapshotStartNanos são ignorados
+     * (a memória é mais recente que a leitura).
+     *
+     * @return delta a publicar (null se snapshot já estava correto)
+     */
+    public QueueDeltaEvent reconcile(List<QueuePlayer> activePlayers, long snapshotStartNanos) {
+        List<QueuePlayerInfoDTO> joined = new ArrayList<>();
+        List<String> left = new ArrayList<>();
+
+        synchronized (this) {
+            Snapshot base = snapshot();
+            Map<String, QueuePlayerInfoDTO> byName = indexByName(base.players());
+            Set<String> seen = new HashSet<>();
+
+            for (QueuePlayer player : activePlayers) {
+                if (player.getSummonerName() == null) {
+                    continue;
+                }
+                String key = normalizeName(player.getSummonerName());
+                seen.add(key);
+                if (!byName.containsKey(key) && !changedAfter(key, snapshotStartNanos)) {
+                    joined.add(toInfo(player));
+                }
+            }
+            for (Map.Entry<String, QueuePlayerInfoDTO> entry : byName.entrySet()) {
+                if (!seen.contains(entry.getKey()) && !changedAfter(entry.getKey(), snapshotStartNanos)) {
+                    left.add(entry.getValue().getSummonerName());
+                }
+            }
+
+            // Limpar marcas antigas (anteriores a esta leitura do SQL)
+            changedAtNanos.values().removeIf(changedAt -> changedAt - snapshotStartNanos <= 0);
+        }
+
+        if (joined.isEmpty() && left.isEmpty()) {
+            return null;
+        }
+        log.warn("🧹 [QueueSnapshot] Snapshot divergente do SQL: +{} -{} (corrigindo)", joined.size(), left.size());
+        return applyLocal(joined, left);
+    }
+
+    /**
+     * ✅ Aplica delta recebido via Pub/Sub (idempotente, não publica)
+     *
+     * @return false se o delta não pôde ser aplicado em ordem (snapshot
+     *         desatualizado, será recarregado)
+     */
+    public synchronized boolean applyRemote(QueueDeltaEvent delta) {
+        Snapshot base = current;
+        if (base == null || stale) {
+            return false; // Próxima leitura recarrega do SQL
+        }
+        // Já contido no snapshot: delta próprio, duplicado ou anterior ao reload
+        if (delta.getVersion() <= floorVersion || !appliedVersions.add(delta.getVersion())) {
+            return true;
+        }
+        if (delta.getBaseVersion() > base.version()) {
+            log.warn("⚠️ [QueueSnapshot] Delta fora de ordem (base {} > local {}), recarregando snapshot",
+                    delta.getBaseVersion(), base.version());
+            stale = true;
+            return false;
+        }
+
+        // Delta concorrente (versão <= local mas ainda não aplicado) também entra:
+        // operações por nome são idempotentes
+        long now = System.nanoTime();
+        if (delta.getJoined() != null) {
+            delta.getJoined().forEach(info -> changedAtNanos.put(normalizeName(info.getSummonerName()), now));
+        }
+        if (delta.getLeft() != null) {
+            delta.getLeft().forEach(name -> changedAtNanos.put(normalizeName(name), now));
+        }
+        current = apply(base, delta.getJoined(), delta.getLeft(), Math.max(base.version(), delta.getVersion()));
+        return true;
+    }
+
+    private QueueDeltaEvent applyLocal(List<QueuePlayerInfoDTO> joined, Collection<String> left) {
+        synchronized (this) {
+            Snapshot base = snapshot();
+            Map<String, QueuePlayerInfoDTO> byName = indexByName(base.players());
+
+            // Filtrar operações que não mudam nada (idempotência)
+            List<QueuePlayerInfoDTO> effectiveJoined = new ArrayList<>();
+            for (QueuePlayerInfoDTO info : joined) {
+                QueuePlayerInfoDTO existing = byName.get(normalizeName(info.getSummonerName()));
+                if (existing == null || !Objects.equals(existing.getJoinTime(), info.getJoinTime())) {
+                    effectiveJoined.add(info);
+                }
+            }
+            List<String> effectiveLeft = new ArrayList<>();
+            for (String name : left) {
+                if (byName.containsKey(normalizeName(name))) {
+                    effectiveLeft.add(name);
+                }
+            }
+
+            long now = System.nanoTime();
+            effectiveJoined.forEach(info -> changedAtNanos.put(normalizeName(info.getSummonerName()), now));
+            left.forEach(name -> changedAtNanos.put(normalizeName(name), now));
+
+            if (effectiveJoined.isEmpty() && effectiveLeft.isEmpty()) {
+                return null;
+            }
+
+            long version = nextVersion(base.version());
+            appliedVersions.add(version);
+            Snapshot updated = apply(base, effectiveJoined, effectiveLeft, version);
+            current = updated;
+
+            // Posições que mudaram (jogadores que já estavam na fila)
+            Map<String, Integer> positions = new LinkedHashMap<>();
+            Set<String> joinedKeys = new HashSet<>();
+            effectiveJoined.forEach(info -> joinedKeys.add(normalizeName(info.getSummonerName())));
+            for (QueuePlayerInfoDTO info : updated.players()) {
+                String key = normalizeName(info.getSummonerName());
+                QueuePlayerInfoDTO before = byName.get(key);
+                if (before != null && !joinedKeys.contains(key)
+                        && !Objects.equals(before.getQueuePosition(), info.getQueuePosition())) {
+                    positions.put(info.getSummonerName(), info.getQueuePosition());
+                }
+            }
+
+            // Jogadores que entraram com a posição final no snapshot
+            List<QueuePlayerInfoDTO> joinedWithPosition = new ArrayList<>();
+            for (QueuePlayerInfoDTO info : updated.players()) {
+                if (joinedKeys.contains(normalizeName(info.getSummonerName()))) {
+                    joinedWithPosition.add(info);
+                }
+            }
+
+            log.debug("📊 [QueueSnapshot] v{}: +{} -{} ~{} ({} jogadores)", version,
+                    joinedWithPosition.size(), effectiveLeft.size(), positions.size(), updated.players().size());
+
+            return new QueueDeltaEvent(version, base.version(), joinedWithPosition, effectiveLeft, positions,
+                    updated.players().size(), Instant.now());
+        }
+    }
+
+    /**
+     * Aplica entradas/saídas por nome e recalcula as posições (ordem de entrada)
+     */
+    private Snapshot apply(Snapshot base, List<QueuePlayerInfoDTO> joined, List<String> left, long version) {
+        Map<String, QueuePlayerInfoDTO> byName = indexByName(base.players());
+        if (left != null) {
+            for (String name : left) {
+                byName.remove(normalizeName(name));
+            }
+        }
+        if (joined != null) {
+            for (QueuePlayerInfoDTO info : joined) {
+                byName.put(normalizeName(info.getSummonerName()), copy(info));
+            }
+        }
+
+        List<QueuePlayerInfoDTO> players = new ArrayList<>(byName.values());
+        players.sort(BY_JOIN_TIME);
+        assignPositions(players);
+        return Snapshot.of(version, players);
+    }
+
+    /**
+     * Posições 1..n; DTOs com posição diferente são copiados (snapshot anterior
+     * permanece intacto para leitores concorrentes)
+     */
+    private static void assignPositions(List<QueuePlayerInfoDTO> players) {
+        for (int i = 0; i < players.size(); i++) {
+            QueuePlayerInfoDTO info = players.get(i);
+            if (!Objects.equals(info.getQueuePosition(), i + 1)) {
+                QueuePlayerInfoDTO moved = copy(info);
+                moved.setQueuePosition(i + 1);
+                players.set(i, moved);
+            }
+        }
+    }
+
+    private boolean changedAfter(String key, long snapshotStartNanos) {
+        Long changedAt = changedAtNanos.get(key);
+        return changedAt != null && changedAt - snapshotStartNanos > 0;
+    }
+
+    private long nextVersion(long localVersion) {
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+            if (version != null) {
+                return Math.max(version, localVersion + 1);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [QueueSnapshot] Erro ao incrementar versão no Redis: {}", e.getMessage());
+        }
+        return localVersion + 1;
+    }
+
+    private long readGlobalVersion() {
+        try {
+            Object version = redisTemplate.opsForValue().get(VERSION_KEY);
+            return version != null ? Long.parseLong(version.toString()) : 0;
+        } catch (Exception e) {
+            log.warn("⚠️ [QueueSnapshot] Erro ao ler versão do Redis: {}", e.getMessage());
+            return current != null ? current.version() : 0;
+        }
+    }
+
+    private static Map<String, QueuePlayerInfoDTO> indexByName(List<QueuePlayerInfoDTO> players) {
+        Map<String, QueuePlayerInfoDTO> byName = new LinkedHashMap<>();
+        for (QueuePlayerInfoDTO info : players) {
+            byName.put(normalizeName(info.getSummonerName()), info);
+        }
+        return byName;
+    }
+
+    private static QueuePlayerInfoDTO toInfo(QueuePlayer player) {
+        return QueuePlayerInfoDTO.builder()
+                .id(player.getId())
+                .playerId(player.getPlayerId())
+                .summonerName(player.getSummonerName())
+                .region(player.getRegion())
+                .customLp(player.getCustomLp())
+                .mmr(player.getCustomLp() != null ? player.getCustomLp() : 0)
+                .primaryLane(player.getPrimaryLane())
+                .secondaryLane(player.getSecondaryLane())
+                .queuePosition(player.getQueuePosition())
+                .joinTime(player.getJoinTime())
+                .isCurrentPlayer(false)
+                .build();
+    }
+
+    static QueuePlayerInfoDTO copy(QueuePlayerInfoDTO info) {
+        return new QueuePlayerInfoDTO(info.getId(), info.getPlayerId(), info.getSummonerName(), info.getTagLine(),
+                info.getRegion(), info.getCustomLp(), info.getMmr(), info.getPrimaryLane(),
+                info.getSecondaryLane(), info.getAssignedLane(), info.getIsAutofill(), info.getTeamIndex(),
+                info.getJoinTime(), info.getEstimatedWaitTime(), info.getQueuePosition(), info.getIsActive(),
+                info.getAcceptanceStatus(), info.getIsCurrentPlayer(), info.getProfileIconId());
+    }
+
+    private static String normalizeName(String summonerName) {
+        if (summonerName == null) {
+            return "";
+        }
+        return summonerName.trim().toLowerCase();
+    }
+}
@@ -36,6 +36,7 @@ import java.util.concurrent.TimeUnit;
  * - draft_flow:{matchId}:final_confirmations → Set<summonerName>
  * - draft_flow:{matchId}:timer → Integer (30 → 0)
  * - draft_flow:{matchId}:state → Hash (JSON serializado do DraftState)
+ * - draft_flow:{matchId}:hot → Hash por ação (estado quente, ver DraftStateStore)
  * 
  * TTL: 1 hora (tempo suficiente para completar qualquer draft)
  */
@@ -51,14 +52,6 @@ public class RedisDraftFlowService {
     private static final long TTL_SECONDS = 3600; // 1 hora (para estado e confirmações)
     private static final long TIMER_TTL_SECONDS = 60; // 60 segundos (timer máximo + margem)
 
-    /**
-     * ✅ NOVO: Retorna um distributed lock para operações atômicas
-     * Usado por DraftFlowService.processAction() para prevenir ações simultâneas
-     */
-    public RLock getLock(String lockKey) {
-        return redissonClient.getLock(lockKey);
-    }
-
     // ========================================
     // CONFIRMAÇÕES FINAIS (Modal de confirmação)
     // ========================================
@@ -451,6 +444,7 @@ public class RedisDraftFlowService {
                     KEY_PREFIX + matchId + ":final_confirmations",
                     KEY_PREFIX + matchId + ":timer",
                     KEY_PREFIX + matchId + ":state",
+                    DraftStateStore.hotKey(matchId), // ✅ NOVO: estado quente (HASH por ação)
                     "draft_retry:" + matchId); // ✅ CORREÇÃO: Limpar chave de retry também
 
             Long deleted = redisTemplate.delete(keys);
@@ -1,6 +1,7 @@
 package br.com.lolmatchmaking.backend.service.lock;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,9 @@ import java.time.Duration;
  * 
  * CHAVES REDIS:
  * - lock:matchmaking:process → Lock de processamento de fila
+ *
+ * MÉTRICAS:
+ * - matchmaking.lock.acquire{result=acquired|contended} → contenção do lock
  * 
  * REFERÊNCIA:
  * - ARQUITETURA-CORRETA-SINCRONIZACAO.md#1-lock-de-processamento-de-fila
@@ -29,10 +33,23 @@ import java.time.Duration;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MatchmakingLockService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final Counter lockAcquiredCounter;
+    private final Counter lockContendedCounter;
+
+    public MatchmakingLockService(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.lockAcquiredCounter = Counter.builder("matchmaking.lock.acquire")
+                .description("Tentativas de adquirir o lock de processamento da fila")
+                .tag("result", "acquired")
+                .register(meterRegistry);
+        this.lockContendedCounter = Counter.builder("matchmaking.lock.acquire")
+                .description("Tentativas de adquirir o lock de processamento da fila")
+                .tag("result", "contended")
+                .register(meterRegistry);
+    }
 
     // Chaves Redis
     private static final String PROCESS_LOCK_KEY = "lock:matchmaking:process";
@@ -70,9 +87,11 @@ public class MatchmakingLockService {
                     .setIfAbsent(PROCESS_LOCK_KEY, "locked", LOCK_TTL);
 
             if (Boolean.TRUE.equals(acquired)) {
+                lockAcquiredCounter.increment();
                 log.info("🔒 [MatchmakingLock] Lock adquirido para processamento de fila");
                 return true;
             } else {
+                lockContendedCounter.increment();
                 log.debug("⏭️ [MatchmakingLock] Lock já ocupado por outra instância");
                 return false;
             }
@@ -1,11 +1,19 @@
 package br.com.lolmatchmaking.backend.service.lock;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.*;
 
 /**
  * ✅ Service de Gerenciamento de Estado do Jogador
@@ -30,6 +38,11 @@ import java.time.Duration;
  * - state:player:{summonerName} → PlayerState atual
  * - lock:state:{summonerName} → Lock temporário para mudança de estado
  * 
+ * ✅ API EM LOTE (matchmaking):
+ * - getPlayerStates: um único MGET para N jogadores
+ * - transitionAll: script Lua atômico (tudo ou nada) para N jogadores
+ * - Latência em player.state.bulk{op=mget|transition}
+ * 
  * REFERÊNCIA:
  * -
  * ARQUITETURA-CORRETA-SINCRONIZACAO.md#3-lock-de-estado-do-jogador-player-state-lock
@@ -41,6 +54,7 @@ import java.time.Duration;
 public class PlayerStateService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
 
     // Prefixos de chave
     private static final String STATE_PREFIX = "state:player:";
@@ -56,6 +70,30 @@ public class PlayerStateService {
     // TTL do lock de mudança de estado: 5 segundos (tempo para processar mudança)
     private static final Duration STATE_LOCK_TTL = Duration.ofSeconds(5);
 
+    /**
+     * Transição em lote: KEYS = N chaves de estado seguidas das N chaves de lock;
+     * ARGV = novo estado, TTL (s), aceita ausente (1/0), estados de origem.
+     * Retorna N se aplicou, ou -i (1-based) do primeiro jogador que impediu.
+     */
+    private static final RedisScript<Long> TRANSITION_ALL_SCRIPT = new DefaultRedisScript<>(
+            "local n = #KEYS / 2\n" +
+                    "for i = 1, n do\n" +
+                    "  if redis.call('EXISTS', KEYS[n + i]) == 1 then return -i end\n" +
+                    "  local current = redis.call('GET', KEYS[i])\n" +
+                    "  local allowed = (not current) and ARGV[3] == '1'\n" +
+                    "  if current then\n" +
+                    "    for j = 4, #ARGV do\n" +
+                    "      if current == ARGV[j] then allowed = true break end\n" +
+                    "    end\n" +
+                    "  end\n" +
+                    "  if not allowed then return -i end\n" +
+                    "end\n" +
+                    "for i = 1, n do\n" +
+                    "  redis.call('SET', KEYS[i], ARGV[1], 'EX', ARGV[2])\n" +
+                    "end\n" +
+                    "return n",
+            Long.class);
+
     /**
      * ✅ Atualiza estado do jogador (thread-safe com lock)
      * 
@@ -150,6 +188,105 @@ public class PlayerStateService {
         }
     }
 
+    /**
+     * ✅ Obtém o estado de vários jogadores em um único MGET
+     * 
+     * @param summonerNames Nomes dos jogadores
+     * @return Estado por nome (como recebido); AVAILABLE se não há estado
+     */
+    public Map<String, PlayerState> getPlayerStates(Collection<String> summonerNames) {
+        Map<String, PlayerState> states = new LinkedHashMap<>();
+        if (summonerNames.isEmpty()) {
+            return states;
+        }
+
+        List<String> names = new ArrayList<>(summonerNames);
+        List<String> keys = new ArrayList<>(names.size());
+        for (String name : names) {
+            keys.add(STATE_PREFIX + normalizePlayerName(name));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < names.size(); i++) {
+                Object value = values != null ? values.get(i) : null;
+                states.put(names.get(i), parseState(names.get(i), value));
+            }
+        } catch (Exception e) {
+            log.error("❌ [PlayerState] Erro no MGET de {} estados", names.size(), e);
+            for (String name : names) {
+                states.put(name, PlayerState.AVAILABLE);
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("player.state.bulk", "op", "mget"));
+        }
+        return states;
+    }
+
+    /**
+     * ✅ Transição atômica de vários jogadores (tudo ou nada)
+     * 
+     * Executa em um único script Lua: valida o estado atual de TODOS e que
+     * nenhum tem lock:state ativo; só então grava o novo estado. Se algum
+     * jogador impedir, nenhum estado é alterado.
+     * 
+     * @param summonerNames Nomes dos jogadores
+     * @param allowedFrom   Estados de origem aceitos (AVAILABLE inclui sem
+     *                      estado)
+     * @param newState      Novo estado
+     * @return true se todos foram atualizados
+     */
+    public boolean transitionAll(Collection<String> summonerNames, Set<PlayerState> allowedFrom,
+            PlayerState newState) {
+        if (summonerNames.isEmpty()) {
+            return true;
+        }
+
+        List<String> names = new ArrayList<>(summonerNames);
+        List<String> keys = new ArrayList<>(names.size() * 2);
+        for (String name : names) {
+            keys.add(STATE_PREFIX + normalizePlayerName(name));
+        }
+        for (String name : names) {
+            keys.add(STATE_LOCK_PREFIX + normalizePlayerName(name));
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(serializedState(newState));
+        args.add(String.valueOf(STATE_TTL.getSeconds()));
+        args.add(allowedFrom.contains(PlayerState.AVAILABLE) ? "1" : "0");
+        for (PlayerState state : allowedFrom) {
+            args.add(serializedState(state));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Long result = redisTemplate.execute(TRANSITION_ALL_SCRIPT, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class), keys, args.toArray());
+
+            if (result != null && result == names.size()) {
+                log.info("✅ [PlayerState] {} jogadores → {} (lote atômico)", names.size(), newState);
+                return true;
+            }
+
+            if (result != null && result < 0) {
+                String blocker = names.get((int) (-result) - 1);
+                log.warn("⚠️ [PlayerState] Transição em lote para {} recusada: {} está em {} ou com lock ativo",
+                        newState, blocker, getPlayerState(blocker));
+            }
+            return false;
+
+        } catch (Exception e) {
+            log.error("❌ [PlayerState] Erro na transição em lote de {} jogadores para {}",
+                    names.size(), newState, e);
+            return false;
+
+        } finally {
+            sample.stop(meterRegistry.timer("player.state.bulk", "op", "transition"));
+        }
+    }
+
     /**
      * ✅ Verifica se jogador pode entrar na fila
      * 
@@ -359,6 +496,28 @@ public class PlayerStateService {
         return false;
     }
 
+    private PlayerState parseState(String summonerName, Object stateObj) {
+        if (stateObj == null) {
+            return PlayerState.AVAILABLE;
+        }
+        try {
+            return PlayerState.valueOf((String) stateObj);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            log.warn("⚠️ [PlayerState] Estado inválido para {}, retornando AVAILABLE", summonerName);
+            return PlayerState.AVAILABLE;
+        }
+    }
+
+    /**
+     * Valor do estado exatamente como o RedisTemplate grava (serializer JSON),
+     * para comparação e escrita dentro do script Lua
+     */
+    @SuppressWarnings("unchecked")
+    private String serializedState(PlayerState state) {
+        byte[] bytes = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(state.name());
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     /**
      * ✅ Normaliza nome do jogador (lowercase + trim)
      * 
@@ -0,0 +1,164 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Balanceamento guloso (algoritmo original do QueueManagementService)
+ *
+ * Em ordem de MMR, cada jogador recebe a lane primária, depois a secundária,
+ * depois o primeiro slot livre (autofill), sempre preenchendo team1 antes de
+ * team2. Não minimiza a diferença de MMR entre os times.
+ *
+ * Ativar com app.matchmaking.team-balancer=greedy
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.matchmaking.team-balancer", havingValue = "greedy")
+public class GreedyTeamBalancer implements TeamBalancer {
+
+    @Override
+    public List<QueuePlayer> balance(List<QueuePlayer> players, PlayerRatingSnapshot ratings) {
+        if (players.size() != MATCH_SIZE) {
+            return new ArrayList<>();
+        }
+
+        // Maior MMR primeiro (cópia para não alterar a lista do chamador)
+        players = new ArrayList<>(players);
+        players.sort((a, b) -> Integer.compare(ratings.mmrOf(b), ratings.mmrOf(a)));
+
+        // Mapeamento de lanes para posições no time (usando minúsculo)
+        Map<String, Map<String, Integer>> laneToTeamIndex = Map.of(
+                "top", Map.of("team1", 0, "team2", 5),
+                "jungle", Map.of("team1", 1, "team2", 6),
+                "mid", Map.of("team1", 2, "team2", 7),
+                "bot", Map.of("team1", 3, "team2", 8),
+                "support", Map.of("team1", 4, "team2", 9));
+
+        // Controle de lanes ocupadas (Maps mutáveis)
+        Map<String, Map<String, Boolean>> laneAssignments = new HashMap<>();
+        for (String lane : Arrays.asList("top", "jungle", "mid", "bot", "support")) {
+            Map<String, Boolean> teamAssignments = new HashMap<>();
+            teamAssignments.put("team1", false);
+            teamAssignments.put("team2", false);
+            laneAssignments.put(lane, teamAssignments);
+        }
+
+        List<QueuePlayer> balancedTeams = new ArrayList<>(Collections.nCopies(MATCH_SIZE, null));
+
+        // ✅ Atribuir lanes por prioridade de MMR
+        for (int i = 0; i < players.size(); i++) {
+            QueuePlayer player = players.get(i);
+            String primaryLane = normalizeLane(player.getPrimaryLane());
+            String secondaryLane = normalizeLane(player.getSecondaryLane());
+
+            boolean assigned = false;
+            String assignedLane = null;
+            String assignedTeam = null;
+
+            // Tentar lane primária
+            if (!primaryLane.equals("fill") && laneAssignments.containsKey(primaryLane)) {
+                if (!laneAssignments.get(primaryLane).get("team1")) {
+                    int teamIndex = laneToTeamIndex.get(primaryLane).get("team1");
+                    balancedTeams.set(teamIndex, player);
+                    laneAssignments.get(primaryLane).put("team1", true);
+                    assigned = true;
+                    assignedLane = primaryLane;
+                    assignedTeam = "team1";
+                } else if (!laneAssignments.get(primaryLane).get("team2")) {
+                    int teamIndex = laneToTeamIndex.get(primaryLane).get("team2");
+                    balancedTeams.set(teamIndex, player);
+                    laneAssignments.get(primaryLane).put("team2", true);
+                    assigned = true;
+                    assignedLane = primaryLane;
+                    assignedTeam = "team2";
+                }
+            }
+
+            // Tentar lane secundária se primária não disponível
+            if (!assigned && !secondaryLane.equals("fill") && laneAssignments.containsKey(secondaryLane)) {
+                if (!laneAssignments.get(secondaryLane).get("team1")) {
+                    int teamIndex = laneToTeamIndex.get(secondaryLane).get("team1");
+                    balancedTeams.set(teamIndex, player);
+                    laneAssignments.get(secondaryLane).put("team1", true);
+                    assigned = true;
+                    assignedLane = secondaryLane;
+                    assignedTeam = "team1";
+                } else if (!laneAssignments.get(secondaryLane).get("team2")) {
+                    int teamIndex = laneToTeamIndex.get(secondaryLane).get("team2");
+                    balancedTeams.set(teamIndex, player);
+                    laneAssignments.get(secondaryLane).put("team2", true);
+                    assigned = true;
+                    assignedLane = secondaryLane;
+                    assignedTeam = "team2";
+                }
+            }
+
+            // Autofill se necessário
+            if (!assigned) {
+                for (String lane : Arrays.asList("top", "jungle", "mid", "bot", "support")) {
+                    if (!laneAssignments.get(lane).get("team1")) {
+                        int teamIndex = laneToTeamIndex.get(lane).get("team1");
+                        balancedTeams.set(teamIndex, player);
+                        laneAssignments.get(lane).put("team1", true);
+                        assigned = true;
+                        assignedLane = lane;
+                        assignedTeam = "team1";
+                        break;
+                    } else if (!laneAssignments.get(lane).get("team2")) {
+                        int teamIndex = laneToTeamIndex.get(lane).get("team2");
+                        balancedTeams.set(teamIndex, player);
+                        laneAssignments.get(lane).put("team2", true);
+                        assigned = true;
+                        assignedLane = lane;
+                        assignedTeam = "team2";
+                        break;
+                    }
+                }
+            }
+
+            // ✅ Log da atribuição
+            String status = assignedLane != null && assignedLane.equals(primaryLane) ? "1ª LANE"
+                    : assignedLane != null && assignedLane.equals(secondaryLane) ? "2ª LANE" : "AUTO-FILL";
+            log.debug("  ✅ {} → {} / {} → {}", player.getSummonerName(), assignedTeam, assignedLane, status);
+        }
+
+        // ✅ CRÍTICO: Verificar se todos os 10 slots foram preenchidos
+        List<QueuePlayer> result = balancedTeams.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (result.size() != MATCH_SIZE) {
+            log.error("❌ [CRÍTICO] Balanceamento FALHOU! Apenas {} jogadores de {} foram atribuídos!",
+                    result.size(), MATCH_SIZE);
+            log.error("❌ Posições vazias detectadas no balanceamento!");
+
+            // Log quais posições ficaram vazias
+            for (int i = 0; i < balancedTeams.size(); i++) {
+                if (balancedTeams.get(i) == null) {
+                    String lane = i == 0 || i == 5 ? "top"
+                            : i == 1 || i == 6 ? "jungle"
+                                    : i == 2 || i == 7 ? "mid"
+                                            : i == 3 || i == 8 ? "bot"
+                                                    : "support";
+                    String team = i < 5 ? "team1" : "team2";
+                    log.error("  ❌ Posição {} vazia: {} / {}", i, team, lane);
+                }
+            }
+
+            // ⛔ NÃO retornar lista incompleta - retornar vazio para cancelar criação
+            return new ArrayList<>();
+        }
+
+        return result;
+    }
+
+    private static String normalizeLane(String lane) {
+        return MatchmakingPool.normalizeLane(lane);
+    }
+}
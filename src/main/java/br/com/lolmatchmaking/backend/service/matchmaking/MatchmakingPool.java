@@ -0,0 +1,505 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ✅ Pool de candidatos em memória para o matchmaking
+ *
+ * PROBLEMA RESOLVIDO:
+ * - processQueue() recarregava a fila inteira do MySQL a cada 5 segundos
+ * - O 10º jogador podia esperar até 5 segundos para a partida ser formada
+ * - Uma consulta extra ao banco a cada entrada só para contar a fila
+ *
+ * SOLUÇÃO:
+ * - Candidatos mantidos em memória, indexados por ordem de entrada, MMR e lane
+ * - Entrada/saída da fila atualizam o pool incrementalmente
+ * - Jogadores "reservados" (acceptanceStatus != 0) ficam fora da seleção
+ * - O sweep de 5s vira apenas reconciliação com o MySQL (fonte da verdade)
+ *
+ * ✅ BUSCA POR MMR COM JANELA PROGRESSIVA:
+ * - Cada lobby nasce em volta do jogador que espera há mais tempo (âncora)
+ * - Janela aceitável de MMR cresce com o tempo de fila e fica ilimitada após
+ * SEARCH_WINDOW_UNBOUNDED_AFTER_SECONDS (limita o p95 de espera)
+ * - Candidatos vêm do índice ordenado por MMR (O(log n) + vizinhos), não de
+ * varredura da fila
+ * - Ocupação por bucket de MMR alimenta a estimativa de espera
+ * - Pool com exatamente uma partida de jogadores forma na hora, sem janela:
+ * esperar não traz pareamento melhor entre esses mesmos jogadores
+ *
+ * ⚠️ O pool é local da instância. Entradas feitas em outra instância do Cloud
+ * Run aparecem aqui no próximo sweep de reconciliação.
+ */
+@Slf4j
+@Component
+public class MatchmakingPool {
+
+    public static final List<String> LANES = List.of("top", "jungle", "mid", "bot", "support");
+
+    // Janela de MMR: ±BASE ao entrar, +STEP a cada STEP_SECONDS na fila
+    static final int MMR_BUCKET_WIDTH = 100;
+    static final int SEARCH_WINDOW_BASE = 150;
+    static final int SEARCH_WINDOW_STEP = 50;
+    static final int SEARCH_WINDOW_STEP_SECONDS = 10;
+    static final int SEARCH_WINDOW_UNBOUNDED_AFTER_SECONDS = 180;
+    private static final int UNBOUNDED_WINDOW = Integer.MAX_VALUE / 2;
+
+    // Vizinhos de MMR avaliados por âncora e âncoras sem lobby por ciclo
+    private static final int NEIGHBOURS_PER_ANCHOR = 40;
+    private static final int MAX_FAILED_ANCHORS = 50;
+
+    /**
+     * Candidato imutável do pool (snapshot do QueuePlayer)
+     */
+    public record Candidate(Long queuePlayerId, String summonerName, int mmr,
+            String primaryLane, String secondaryLane, Instant joinTime, long sequence) {
+    }
+
+    private static final Comparator<Candidate> BY_JOIN_TIME = Comparator
+            .comparing(Candidate::joinTime)
+            .thenComparingLong(Candidate::sequence);
+
+    private static final Comparator<Candidate> BY_MMR = Comparator
+            .comparingInt(Candidate::mmr)
+            .thenComparingLong(Candidate::sequence);
+
+    // Chave: nome normalizado (lowercase + trim), alinhado com PlayerStateService
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final Set<String> claimed = new HashSet<>();
+    private final Map<String, Long> changedAtNanos = new HashMap<>();
+
+    // Índices (apenas candidatos disponíveis)
+    private final NavigableSet<Candidate> availableByJoinTime = new TreeSet<>(BY_JOIN_TIME);
+    private final NavigableSet<Candidate> availableByMmr = new TreeSet<>(BY_MMR);
+    private final Map<String, NavigableSet<Candidate>> availableByPrimaryLane = new HashMap<>();
+    // Ocupação: bucket de MMR (mmr / MMR_BUCKET_WIDTH) → candidatos disponíveis
+    private final TreeMap<Integer, Integer> availableByMmrBucket = new TreeMap<>();
+
+    private long sequenceCounter = 0;
+
+    public MatchmakingPool() {
+        for (String lane : LANES) {
+            availableByPrimaryLane.put(lane, new TreeSet<>(BY_JOIN_TIME));
+        }
+        availableByPrimaryLane.put("fill", new TreeSet<>(BY_JOIN_TIME));
+    }
+
+    /**
+     * ✅ Adiciona ou atualiza um jogador no pool a partir do QueuePlayer
+     */
+    public synchronized void upsert(QueuePlayer player) {
+        if (player == null || player.getSummonerName() == null) {
+            return;
+        }
+        String key = normalizeName(player.getSummonerName());
+        removeFromIndexes(key);
+
+        Candidate candidate = new Candidate(
+                player.getId(),
+                player.getSummonerName(),
+                player.getCustomLp() != null ? player.getCustomLp() : 0,
+                normalizeLane(player.getPrimaryLane()),
+                normalizeLane(player.getSecondaryLane()),
+                player.getJoinTime() != null ? player.getJoinTime() : Instant.now(),
+                ++sequenceCounter);
+
+        candidates.put(key, candidate);
+        changedAtNanos.put(key, System.nanoTime());
+
+        Integer status = player.getAcceptanceStatus();
+        if (status != null && status != 0) {
+            claimed.add(key);
+        } else {
+            claimed.remove(key);
+            addToIndexes(candidate);
+        }
+    }
+
+    /**
+     * ✅ Remove jogador do pool (saiu da fila ou foi para o draft)
+     */
+    public synchronized void remove(String summonerName) {
+        String key = normalizeName(summonerName);
+        removeFromIndexes(key);
+        candidates.remove(key);
+        claimed.remove(key);
+        // Mantém o timestamp como "tombstone" para o reconcile não ressuscitar o jogador
+        changedAtNanos.put(key, System.nanoTime());
+    }
+
+    public synchronized void removeAll(Collection<String> summonerNames) {
+        for (String name : summonerNames) {
+            remove(name);
+        }
+    }
+
+    /**
+     * ✅ Reserva jogadores para uma tentativa de partida (tudo ou nada)
+     *
+     * @return false se algum jogador não está mais disponível no pool
+     */
+    public synchronized boolean claim(Collection<String> summonerNames) {
+        for (String name : summonerNames) {
+            String key = normalizeName(name);
+            if (!candidates.containsKey(key) || claimed.contains(key)) {
+                return false;
+            }
+        }
+        for (String name : summonerNames) {
+            String key = normalizeName(name);
+            removeFromIndexes(key);
+            claimed.add(key);
+            changedAtNanos.put(key, System.nanoTime());
+        }
+        return true;
+    }
+
+    /**
+     * ✅ Devolve jogadores reservados ao pool (tentativa abortada ou partida
+     * recusada por outro jogador)
+     */
+    public synchronized void release(Collection<String> summonerNames) {
+        for (String name : summonerNames) {
+            String key = normalizeName(name);
+            Candidate candidate = candidates.get(key);
+            if (candidate != null && claimed.remove(key)) {
+                addToIndexes(candidate);
+                changedAtNanos.put(key, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * ✅ Reconcilia o pool com o snapshot do MySQL (fonte da verdade)
+     *
+     * Jogadores alterados em memória (entrada, saída, reserva) DEPOIS do início da
+     * leitura do snapshot são preservados, evitando que um join/leave concorrente
+     * seja desfeito por dados antigos.
+     *
+     * @param activePlayers      Jogadores ativos lidos do MySQL
+     * @param snapshotStartNanos System.nanoTime() capturado antes da leitura
+     * @return número de divergências corrigidas
+     */
+    public synchronized int reconcile(List<QueuePlayer> activePlayers, long snapshotStartNanos) {
+        int corrections = 0;
+        Set<String> seen = new HashSet<>();
+
+        for (QueuePlayer player : activePlayers) {
+            if (player.getSummonerName() == null) {
+                continue;
+            }
+            String key = normalizeName(player.getSummonerName());
+            seen.add(key);
+
+            Long changedAt = changedAtNanos.get(key);
+            if (changedAt != null && changedAt - snapshotStartNanos > 0) {
+                continue; // Alterado em memória após o snapshot: memória é mais recente
+            }
+
+            Candidate existing = candidates.get(key);
+            boolean shouldBeClaimed = player.getAcceptanceStatus() != null && player.getAcceptanceStatus() != 0;
+            if (existing == null || claimed.contains(key) != shouldBeClaimed
+                    || !Objects.equals(existing.queuePlayerId(), player.getId())) {
+                upsert(player);
+                corrections++;
+            }
+        }
+
+        for (String key : new ArrayList<>(candidates.keySet())) {
+            if (seen.contains(key)) {
+                continue;
+            }
+            Long changedAt = changedAtNanos.get(key);
+            if (changedAt != null && changedAt - snapshotStartNanos > 0) {
+                continue;
+            }
+            removeFromIndexes(key);
+            candidates.remove(key);
+            claimed.remove(key);
+            changedAtNanos.remove(key);
+            corrections++;
+        }
+
+        // Limpar tombstones antigos (jogadores removidos antes deste snapshot)
+        changedAtNanos.entrySet().removeIf(entry -> !candidates.containsKey(entry.getKey())
+                && entry.getValue() - snapshotStartNanos <= 0);
+
+        if (corrections > 0) {
+            log.info("🔄 [MatchmakingPool] Reconciliação com MySQL corrigiu {} divergências ({} no pool)",
+                    corrections, candidates.size());
+        }
+        return corrections;
+    }
+
+    /**
+     * ✅ Candidatos disponíveis com MMR em [minMmr, maxMmr], em ordem de MMR
+     */
+    public synchronized List<Candidate> availableInMmrRange(int minMmr, int maxMmr) {
+        Candidate from = new Candidate(null, "", minMmr, "fill", "fill", Instant.EPOCH, Long.MIN_VALUE);
+        Candidate to = new Candidate(null, "", maxMmr, "fill", "fill", Instant.EPOCH, Long.MAX_VALUE);
+        return new ArrayList<>(availableByMmr.subSet(from, true, to, true));
+    }
+
+    /**
+     * ✅ Monta até maxLobbies lobbies disjuntos, sem reservá-los
+     *
+     * Âncoras em ordem de entrada (quem espera mais tem prioridade). Os demais
+     * jogadores são os vizinhos de MMR mais próximos da âncora que aceitam a
+     * âncora na própria janela (aceitação mútua), preenchendo primeiro as lanes
+     * primárias ainda livres (2 por lane) e depois as secundárias.
+     *
+     * Com exatamente matchSize disponíveis o único lobby possível é o pool
+     * inteiro: forma imediatamente, ignorando as janelas (como o FIFO antigo).
+     */
+    public synchronized List<List<Candidate>> selectLobbies(int matchSize, int maxLobbies, Instant now) {
+        List<List<Candidate>> lobbies = new ArrayList<>();
+        Set<Candidate> taken = new HashSet<>();
+        int failedAnchors = 0;
+
+        for (Candidate anchor : availableByJoinTime) {
+            if (lobbies.size() >= maxLobbies || failedAnchors >= MAX_FAILED_ANCHORS
+                    || availableByJoinTime.size() - taken.size() < matchSize) {
+                break;
+            }
+            if (taken.contains(anchor)) {
+                continue;
+            }
+            boolean onlyPossibleLobby = availableByJoinTime.size() == matchSize;
+            List<Candidate> lobby = lobbyAround(anchor, matchSize, now, taken, onlyPossibleLobby);
+            if (lobby.isEmpty()) {
+                failedAnchors++;
+                continue;
+            }
+            lobbies.add(lobby);
+            taken.addAll(lobby);
+        }
+        return lobbies;
+    }
+
+    /**
+     * ✅ Tempo estimado (segundos) até o jogador ter matchSize candidatos na sua
+     * janela de MMR, pela ocupação atual dos buckets
+     *
+     * @return 0 se já reservado/formável, -1 se a fila não tem jogadores
+     *         suficientes nem com a janela ilimitada
+     */
+    public synchronized long estimatedWaitSeconds(String summonerName, int matchSize, Instant now) {
+        String key = normalizeName(summonerName);
+        Candidate candidate = candidates.get(key);
+        if (candidate == null) {
+            return -1;
+        }
+        if (claimed.contains(key)) {
+            return 0;
+        }
+        if (availableByJoinTime.size() < matchSize) {
+            return -1;
+        }
+        if (availableByJoinTime.size() == matchSize) {
+            return 0; // único lobby possível: forma sem janela
+        }
+
+        long waited = waitSeconds(candidate, now);
+        for (long t = waited; t < SEARCH_WINDOW_UNBOUNDED_AFTER_SECONDS; t += SEARCH_WINDOW_STEP_SECONDS) {
+            int window = searchWindow(t);
+            if (occupancy(candidate.mmr() - window, candidate.mmr() + window) >= matchSize) {
+                return t - waited;
+            }
+        }
+        return Math.max(0, SEARCH_WINDOW_UNBOUNDED_AFTER_SECONDS - waited);
+    }
+
+    /**
+     * ✅ Tempo estimado até a próxima partida (jogador que espera há mais tempo)
+     */
+    public synchronized long estimatedNextMatchSeconds(int matchSize, Instant now) {
+        if (availableByJoinTime.isEmpty()) {
+            return -1;
+        }
+        return estimatedWaitSeconds(availableByJoinTime.first().summonerName(), matchSize, now);
+    }
+
+    /**
+     * Janela aceitável de MMR (±) para quem está há waitSeconds na fila
+     */
+    static int searchWindow(long waitSeconds) {
+        if (waitSeconds >= SEARCH_WINDOW_UNBOUNDED_AFTER_SECONDS) {
+            return UNBOUNDED_WINDOW;
+        }
+        return SEARCH_WINDOW_BASE + (int) (waitSeconds / SEARCH_WINDOW_STEP_SECONDS) * SEARCH_WINDOW_STEP;
+    }
+
+    /**
+     * ✅ Quantidade de candidatos disponíveis com a lane como primária
+     */
+    public synchronized int availableCountForLane(String lane) {
+        NavigableSet<Candidate> set = availableByPrimaryLane.get(normalizeLane(lane));
+        return set != null ? set.size() : 0;
+    }
+
+    /**
+     * ✅ Verifica se uma partida é formável agora (usado pelo gatilho por evento)
+     *
+     * O balanceamento faz autofill, então basta haver jogadores suficientes.
+     */
+    public synchronized boolean canFormMatch(int matchSize) {
+        return availableByJoinTime.size() >= matchSize;
+    }
+
+    public synchronized int availableCount() {
+        return availableByJoinTime.size();
+    }
+
+    public synchronized int size() {
+        return candidates.size();
+    }
+
+    public synchronized boolean contains(String summonerName) {
+        return candidates.containsKey(normalizeName(summonerName));
+    }
+
+    public synchronized boolean isClaimed(String summonerName) {
+        return claimed.contains(normalizeName(summonerName));
+    }
+
+    /**
+     * Normaliza nomes de lanes para um formato padrão (minúsculo)
+     */
+    public static String normalizeLane(String lane) {
+        if (lane == null)
+            return "fill";
+
+        String normalized = lane.toLowerCase().trim();
+
+        // Normalizar variações
+        if (normalized.equals("adc") || normalized.equals("bot") || normalized.equals("bottom")) {
+            return "bot";
+        }
+        if (normalized.equals("middle") || normalized.equals("mid")) {
+            return "mid";
+        }
+        if (normalized.equals("top")) {
+            return "top";
+        }
+        if (normalized.equals("jungle") || normalized.equals("jg")) {
+            return "jungle";
+        }
+        if (normalized.equals("support") || normalized.equals("sup") || normalized.equals("supp")) {
+            return "support";
+        }
+
+        return "fill";
+    }
+
+    private List<Candidate> lobbyAround(Candidate anchor, int matchSize, Instant now, Set<Candidate> taken,
+            boolean ignoreWindows) {
+        int anchorWindow = ignoreWindows ? UNBOUNDED_WINDOW : searchWindow(waitSeconds(anchor, now));
+
+        // Vizinhos em ordem de distância de MMR, expandindo para baixo e para cima
+        Iterator<Candidate> below = availableByMmr.headSet(anchor, false).descendingIterator();
+        Iterator<Candidate> above = availableByMmr.tailSet(anchor, false).iterator();
+        Candidate nextBelow = below.hasNext() ? below.next() : null;
+        Candidate nextAbove = above.hasNext() ? above.next() : null;
+
+        List<Candidate> neighbours = new ArrayList<>(NEIGHBOURS_PER_ANCHOR);
+        while (neighbours.size() < NEIGHBOURS_PER_ANCHOR && (nextBelow != null || nextAbove != null)) {
+            Candidate next;
+            if (nextAbove == null || (nextBelow != null
+                    && anchor.mmr() - nextBelow.mmr() <= nextAbove.mmr() - anchor.mmr())) {
+                next = nextBelow;
+                nextBelow = below.hasNext() ? below.next() : null;
+            } else {
+                next = nextAbove;
+                nextAbove = above.hasNext() ? above.next() : null;
+            }
+
+            int distance = Math.abs(next.mmr() - anchor.mmr());
+            if (distance > anchorWindow) {
+                break; // Ordem por distância: ninguém adiante cabe na janela da âncora
+            }
+            if (!taken.contains(next) && (ignoreWindows || distance <= searchWindow(waitSeconds(next, now)))) {
+                neighbours.add(next);
+            }
+        }
+
+        if (neighbours.size() < matchSize - 1) {
+            return List.of();
+        }
+
+        int lanesQuota = Math.max(1, matchSize / LANES.size());
+        Map<String, Integer> laneCount = new HashMap<>();
+        List<Candidate> lobby = new ArrayList<>(matchSize);
+        lobby.add(anchor);
+        laneCount.merge(anchor.primaryLane(), 1, Integer::sum);
+
+        // 1) lanes primárias livres, 2) secundárias livres, 3) mais próximos em MMR
+        for (int pass = 0; pass < 3 && lobby.size() < matchSize; pass++) {
+            for (Candidate neighbour : neighbours) {
+                if (lobby.size() >= matchSize) {
+                    break;
+                }
+                if (lobby.contains(neighbour)) {
+                    continue;
+                }
+                String lane = pass == 0 ? neighbour.primaryLane() : neighbour.secondaryLane();
+                if (pass < 2 && ("fill".equals(lane) || laneCount.getOrDefault(lane, 0) >= lanesQuota)) {
+                    continue;
+                }
+                lobby.add(neighbour);
+                laneCount.merge(pass < 2 ? lane : "fill", 1, Integer::sum);
+            }
+        }
+        return lobby;
+    }
+
+    private static long waitSeconds(Candidate candidate, Instant now) {
+        return Math.max(0, now.getEpochSecond() - candidate.joinTime().getEpochSecond());
+    }
+
+    /**
+     * Candidatos disponíveis nos buckets que cobrem [minMmr, maxMmr]
+     */
+    private int occupancy(int minMmr, int maxMmr) {
+        int total = 0;
+        for (int count : availableByMmrBucket
+                .subMap(bucketOf(minMmr), true, bucketOf(maxMmr), true).values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static int bucketOf(int mmr) {
+        return Math.floorDiv(mmr, MMR_BUCKET_WIDTH);
+    }
+
+    private void addToIndexes(Candidate candidate) {
+        availableByJoinTime.add(candidate);
+        availableByMmr.add(candidate);
+        availableByPrimaryLane.get(candidate.primaryLane()).add(candidate);
+        availableByMmrBucket.merge(bucketOf(candidate.mmr()), 1, Integer::sum);
+    }
+
+    private void removeFromIndexes(String key) {
+        Candidate existing = candidates.get(key);
+        if (existing == null) {
+            return;
+        }
+        if (!availableByJoinTime.remove(existing)) {
+            return; // Reservado: já fora dos índices
+        }
+        availableByMmr.remove(existing);
+        availableByPrimaryLane.get(existing.primaryLane()).remove(existing);
+        availableByMmrBucket.computeIfPresent(bucketOf(existing.mmr()), (bucket, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static String normalizeName(String summonerName) {
+        if (summonerName == null) {
+            return "";
+        }
+        return summonerName.trim().toLowerCase();
+    }
+}
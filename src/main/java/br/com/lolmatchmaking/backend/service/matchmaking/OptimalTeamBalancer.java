@@ -0,0 +1,259 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Balanceamento ótimo de lanes + MMR (branch-and-bound)
+ *
+ * PROBLEMA RESOLVIDO:
+ * - O algoritmo guloso preenchia team1 antes de team2 e nunca minimizava a
+ * diferença de MMR entre os times
+ *
+ * SOLUÇÃO:
+ * - Busca sobre os 10 slots (lane-major: top azul, top vermelho, jungle azul...)
+ * - Score = custo de lanes × LANE_COST_WEIGHT + |soma MMR team1 - soma team2|
+ * - Custo de lane: primária 0, secundária 1, "fill" declarado 1, autofill 4
+ * - Poda com limite inferior de lanes (menor custo restante por jogador) e de
+ * MMR (maior correção possível com os jogadores restantes)
+ * - Simetria azul/vermelho quebrada no top (espelhar os times não muda o score)
+ * - Apenas arrays primitivos; nenhum objeto alocado por nó da busca
+ * - Orçamento de nós garante latência limitada (retorna o melhor encontrado)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.matchmaking.team-balancer", havingValue = "optimal", matchIfMissing = true)
+public class OptimalTeamBalancer implements TeamBalancer {
+
+    static final int LANE_COUNT = 5;
+
+    static final int COST_PRIMARY = 0;
+    static final int COST_SECONDARY = 1;
+    static final int COST_DECLARED_FILL = 1;
+    static final int COST_AUTOFILL = 4;
+
+    // 1 unidade de custo de lane equivale a 50 de MMR médio (250 na soma do time)
+    static final int LANE_COST_WEIGHT = 250;
+
+    static final int NODE_BUDGET = 50_000;
+
+    @Override
+    public List<QueuePlayer> balance(List<QueuePlayer> players, PlayerRatingSnapshot ratings) {
+        if (players.size() != MATCH_SIZE) {
+            return new ArrayList<>();
+        }
+
+        // Ordenar índices por MMR (maior primeiro) - usado pelo limite de MMR
+        int[] mmr = new int[MATCH_SIZE];
+        int[] order = new int[MATCH_SIZE];
+        for (int i = 0; i < MATCH_SIZE; i++) {
+            order[i] = i;
+            mmr[i] = ratings.mmrOf(players.get(i));
+        }
+        for (int i = 1; i < MATCH_SIZE; i++) {
+            int idx = order[i];
+            int j = i - 1;
+            while (j >= 0 && mmr[order[j]] < mmr[idx]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = idx;
+        }
+
+        int[] sortedMmr = new int[MATCH_SIZE];
+        int[] laneMasks = new int[MATCH_SIZE * 2];
+        for (int i = 0; i < MATCH_SIZE; i++) {
+            QueuePlayer player = players.get(order[i]);
+            sortedMmr[i] = mmr[order[i]];
+            laneMasks[i * 2] = laneBit(player.getPrimaryLane());
+            laneMasks[i * 2 + 1] = laneBit(player.getSecondaryLane());
+        }
+
+        Search search = new Search(sortedMmr, laneMasks);
+        search.run();
+
+        List<QueuePlayer> result = new ArrayList<>(MATCH_SIZE);
+        for (int slot = 0; slot < MATCH_SIZE; slot++) {
+            result.add(players.get(order[search.bestPlayerForSlot(slot)]));
+        }
+
+        log.debug("🎯 [OptimalTeamBalancer] score={} (lanes={}, diffMMR={}) em {} nós{}",
+                search.bestScore, search.bestLaneCost, search.bestDiff, search.nodes,
+                search.nodes >= NODE_BUDGET ? " (orçamento esgotado)" : "");
+        return result;
+    }
+
+    /**
+     * Bitmask da lane (bit 0 = top ... bit 4 = support, 0 = fill/sem preferência)
+     */
+    static int laneBit(String lane) {
+        int index = MatchmakingPool.LANES.indexOf(MatchmakingPool.normalizeLane(lane));
+        return index >= 0 ? 1 << index : 0;
+    }
+
+    /**
+     * Custo de colocar um jogador na lane, dado o bitmask de preferências
+     */
+    static int laneCost(int primaryMask, int secondaryMask, int lane) {
+        int bit = 1 << lane;
+        if ((primaryMask & bit) != 0) {
+            return COST_PRIMARY;
+        }
+        if ((secondaryMask & bit) != 0) {
+            return COST_SECONDARY;
+        }
+        if (primaryMask == 0 || secondaryMask == 0) {
+            return COST_DECLARED_FILL;
+        }
+        return COST_AUTOFILL;
+    }
+
+    /**
+     * Estado da busca (tudo em arrays primitivos, alocado uma vez por chamada)
+     */
+    static final class Search {
+        // Jogadores em ordem decrescente de MMR
+        private final int[] mmr;
+        // cost[player * LANE_COUNT + lane]
+        private final int[] cost;
+        // minCostFrom[player * LANE_COUNT + lane] = menor custo nas lanes >= lane
+        private final int[] minCostFrom;
+
+        // Slot s: lane = s / 2, time = s % 2 (0 = team1, 1 = team2)
+        private final int[] slotPlayer = new int[MATCH_SIZE];
+        private final int[] bestSlotPlayer = new int[MATCH_SIZE];
+        // candidatos por lane ordenados por custo (tenta primária primeiro)
+        private final int[] candidatesByLane = new int[LANE_COUNT * MATCH_SIZE];
+
+        int bestScore = Integer.MAX_VALUE;
+        int bestLaneCost;
+        int bestDiff;
+        int nodes;
+
+        Search(int[] mmr, int[] laneMasks) {
+            this.mmr = mmr;
+            this.cost = new int[MATCH_SIZE * LANE_COUNT];
+            this.minCostFrom = new int[MATCH_SIZE * LANE_COUNT];
+
+            for (int p = 0; p < MATCH_SIZE; p++) {
+                for (int lane = 0; lane < LANE_COUNT; lane++) {
+                    cost[p * LANE_COUNT + lane] = laneCost(laneMasks[p * 2], laneMasks[p * 2 + 1], lane);
+                }
+                int min = Integer.MAX_VALUE;
+                for (int lane = LANE_COUNT - 1; lane >= 0; lane--) {
+                    min = Math.min(min, cost[p * LANE_COUNT + lane]);
+                    minCostFrom[p * LANE_COUNT + lane] = min;
+                }
+            }
+
+            for (int lane = 0; lane < LANE_COUNT; lane++) {
+                int base = lane * MATCH_SIZE;
+                for (int p = 0; p < MATCH_SIZE; p++) {
+                    int c = cost[p * LANE_COUNT + lane];
+                    int j = p - 1;
+                    while (j >= 0 && cost[candidatesByLane[base + j] * LANE_COUNT + lane] > c) {
+                        candidatesByLane[base + j + 1] = candidatesByLane[base + j];
+                        j--;
+                    }
+                    candidatesByLane[base + j + 1] = p;
+                }
+            }
+        }
+
+        void run() {
+            dfs(0, 0, 0, 0);
+        }
+
+        int bestPlayerForSlot(int outputSlot) {
+            // Saída: 0-4 team1 (lanes), 5-9 team2 → slot da busca = lane * 2 + time
+            int lane = outputSlot % LANE_COUNT;
+            int team = outputSlot / LANE_COUNT;
+            return bestSlotPlayer[lane * 2 + team];
+        }
+
+        private void dfs(int slot, int usedMask, int laneCost, int diff) {
+            nodes++;
+
+            if (slot == MATCH_SIZE) {
+                int score = laneCost * LANE_COST_WEIGHT + Math.abs(diff);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestLaneCost = laneCost;
+                    bestDiff = Math.abs(diff);
+                    System.arraycopy(slotPlayer, 0, bestSlotPlayer, 0, MATCH_SIZE);
+                }
+                return;
+            }
+
+            if (lowerBound(slot, usedMask, laneCost, diff) >= bestScore) {
+                return;
+            }
+
+            int lane = slot >> 1;
+            int team = slot & 1;
+            int base = lane * MATCH_SIZE;
+
+            for (int k = 0; k < MATCH_SIZE; k++) {
+                if (nodes >= NODE_BUDGET && bestScore != Integer.MAX_VALUE) {
+                    return;
+                }
+                int p = candidatesByLane[base + k];
+                if ((usedMask & (1 << p)) != 0) {
+                    continue;
+                }
+                // Simetria: espelhar os times dá o mesmo score → top team1 < top team2
+                if (slot == 1 && p < slotPlayer[0]) {
+                    continue;
+                }
+                slotPlayer[slot] = p;
+                dfs(slot + 1, usedMask | (1 << p), laneCost + cost[p * LANE_COUNT + lane],
+                        team == 0 ? diff + mmr[p] : diff - mmr[p]);
+            }
+        }
+
+        /**
+         * Limite inferior do score a partir do estado parcial
+         */
+        private int lowerBound(int slot, int usedMask, int laneCost, int diff) {
+            int lane = slot >> 1;
+            int laneBound = laneCost;
+            int remaining = 0;
+            for (int p = 0; p < MATCH_SIZE; p++) {
+                if ((usedMask & (1 << p)) == 0) {
+                    laneBound += minCostFrom[p * LANE_COUNT + lane];
+                    remaining++;
+                }
+            }
+
+            // Slots restantes por time: se o slot atual é do team2, team1 já tem um a mais
+            int team1Left = (MATCH_SIZE - slot) / 2;
+            int team2Left = remaining - team1Left;
+
+            // Maior correção possível do diff: o time "atrás" fica com os maiores MMRs
+            int behindLeft = diff >= 0 ? team2Left : team1Left;
+            int high = 0;
+            int low = 0;
+            int taken = 0;
+            for (int p = 0; p < MATCH_SIZE; p++) {
+                if ((usedMask & (1 << p)) != 0) {
+                    continue;
+                }
+                if (taken < behindLeft) {
+                    high += mmr[p];
+                } else {
+                    low += mmr[p];
+                }
+                taken++;
+            }
+            int maxCorrection = high - low;
+            int mmrBound = Math.max(0, Math.abs(diff) - maxCorrection);
+
+            return laneBound * LANE_COST_WEIGHT + mmrBound;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.Player;
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import br.com.lolmatchmaking.backend.domain.repository.PlayerRepository;
+
+import java.util.*;
+
+/**
+ * ✅ Snapshot de MMR dos jogadores selecionados para uma partida
+ *
+ * PROBLEMA RESOLVIDO:
+ * - O comparator do balanceamento chamava findBySummonerNameIgnoreCase duas
+ * vezes por comparação (50+ round-trips SQL por partida)
+ * - Tudo isso com lock:matchmaking:process adquirido
+ *
+ * SOLUÇÃO:
+ * - custom_mmr de todos os jogadores carregado em UMA query IN (...)
+ * - Ordenação, atribuição e médias dos times leem apenas este snapshot
+ * - Fallback: customLp do QueuePlayer (bots não têm linha em players)
+ */
+public final class PlayerRatingSnapshot {
+
+    private final Map<String, Integer> mmrByName;
+
+    private PlayerRatingSnapshot(Map<String, Integer> mmrByName) {
+        this.mmrByName = mmrByName;
+    }
+
+    /**
+     * ✅ Carrega o MMR de todos os jogadores em uma única query
+     */
+    public static PlayerRatingSnapshot load(PlayerRepository playerRepository, Collection<QueuePlayer> players) {
+        Map<String, Integer> mmrByName = new HashMap<>(players.size() * 2);
+        List<String> names = new ArrayList<>(players.size());
+
+        for (QueuePlayer player : players) {
+            String key = normalizeName(player.getSummonerName());
+            mmrByName.put(key, player.getCustomLp() != null ? player.getCustomLp() : 0);
+            names.add(key);
+        }
+
+        if (!names.isEmpty()) {
+            for (Player player : playerRepository.findBySummonerNameLowerIn(names)) {
+                if (player.getCustomMmr() != null) {
+                    mmrByName.put(normalizeName(player.getSummonerName()), player.getCustomMmr());
+                }
+            }
+        }
+
+        return new PlayerRatingSnapshot(mmrByName);
+    }
+
+    /**
+     * ✅ MMR do jogador (custom_mmr da tabela players ou customLp da fila)
+     */
+    public int mmrOf(QueuePlayer player) {
+        Integer mmr = mmrByName.get(normalizeName(player.getSummonerName()));
+        if (mmr != null) {
+            return mmr;
+        }
+        return player.getCustomLp() != null ? player.getCustomLp() : 0;
+    }
+
+    /**
+     * ✅ Média de MMR de um time
+     */
+    public int averageMmr(List<QueuePlayer> players) {
+        return (int) players.stream()
+                .mapToInt(this::mmrOf)
+                .average()
+                .orElse(0);
+    }
+
+    private static String normalizeName(String summonerName) {
+        if (summonerName == null) {
+            return "";
+        }
+        return summonerName.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+
+import java.util.List;
+
+/**
+ * ✅ Estratégia de formação dos times (lanes + MMR)
+ *
+ * CONTRATO:
+ * - Recebe exatamente 10 jogadores
+ * - Retorna os 10 jogadores na ordem dos slots:
+ * 0-4 = team1 (top, jungle, mid, bot, support)
+ * 5-9 = team2 (top, jungle, mid, bot, support)
+ * - Retorna lista vazia se não conseguir preencher todos os slots
+ *
+ * IMPLEMENTAÇÕES:
+ * - optimal (padrão): OptimalTeamBalancer - branch-and-bound lanes + MMR
+ * - greedy: GreedyTeamBalancer - algoritmo first-fit original
+ *
+ * Selecionada via app.matchmaking.team-balancer
+ */
+public interface TeamBalancer {
+
+    int MATCH_SIZE = 10;
+
+    List<QueuePlayer> balance(List<QueuePlayer> players, PlayerRatingSnapshot ratings);
+}
@@ -1,13 +1,16 @@
 package br.com.lolmatchmaking.backend.service.redis;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RList;
 import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RStream;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -15,34 +18,45 @@ import java.time.Instant;
 import java.util.*;
 
 /**
- * 🚀 SERVIÇO REDIS - EVENTOS WEBSOCKET PENDENTES
+ * 🚀 SERVIÇO REDIS - LOG DE EVENTOS WEBSOCKET POR JOGADOR
  * 
- * Gerencia eventos pendentes e requisições LCU em Redis para garantir entrega
- * após reconexão.
+ * Gerencia o log de eventos (Redis Streams) e requisições LCU em Redis para
+ * garantir entrega após reconexão.
  * 
  * PROBLEMA RESOLVIDO:
  * - Backend envia "match_found" mas Electron está desconectado → Evento perdido
- * - Electron reconecta 5s depois → Não recebe evento
- * - Usuário fica aguardando indefinidamente
+ * - Lista ws:pending:{sessionId} só recebia o evento se a falha fosse
+ * detectada; na reconexão tudo era reenviado e apagado, sem saber o que o
+ * cliente já tinha visto
+ * - Para compensar, match_found e draft_updated eram reenviados em loop
+ * (a cada 5s / 3s) para todos os pendentes
  * 
- * SOLUÇÃO:
- * - Eventos enfileirados em Redis se entrega falhar
- * - Ao reconectar, backend envia todos os eventos pendentes
- * - Zero eventos perdidos, experiência perfeita para usuário
+ * ✅ SOLUÇÃO: Log por jogador com número de sequência
+ * - Todo evento direcionado recebe um seq monotônico (INCR) e é gravado com
+ * XADD (MAXLEN ~) ANTES da entrega; o frame leva "seq"
+ * - Na reconexão o cliente informa o último seq visto e recebe só a lacuna
+ * (XRANGE a partir de lastSeq+1)
+ * - O cliente confirma com event_ack; o log é podado até o seq confirmado
+ * - Clientes antigos (sem lastSeq) usam o cursor de entrega do servidor
+ * - Se a lacuna já foi podada, o cliente recebe event_resync e pede um
+ * snapshot
  * 
- * CHAVES REDIS:
- * - ws:pending:{sessionId} → List de PendingEvent (FIFO queue)
+ * CHAVES REDIS (hash tag {jogador} mantém as três no mesmo slot):
+ * - ws:events:{jogador} → Stream (id = seq-0, campos t=tipo, d=data JSON)
+ * - ws:events:{jogador}:seq → último seq emitido
+ * - ws:events:{jogador}:cursor → último seq entregue/confirmado
  * - ws:lcu_request:{requestId} → LCURequest (Hash: sessionId, request,
  * response, status)
  * 
  * TTL:
- * - Eventos pendentes: 1 hora (eventos antigos > 1h são irrelevantes)
+ * - Log de eventos: 1 hora desde o último evento (eventos antigos > 1h são
+ * irrelevantes)
  * - LCU requests: 30 segundos (timeout rápido para requisições LCU)
  * 
  * OPERAÇÕES:
- * - queueEvent: Enfileira evento para envio posterior
- * - getPendingEvents: Busca todos os eventos pendentes de uma sessão
- * - clearPendingEvents: Limpa eventos após envio bem-sucedido
+ * - appendEvent: Grava evento no log e devolve o seq
+ * - replayEvents / replayUndelivered: Eventos após um seq (ou após o cursor)
+ * - markDelivered / markUndelivered / ackEvents: Movem o cursor
  * - registerLcuRequest: Registra requisição LCU pendente
  * - updateLcuResponse: Atualiza com resposta do LCU
  * - getLcuRequest: Busca requisição LCU por ID
@@ -56,28 +70,74 @@ import java.util.*;
 public class RedisWebSocketEventService {
 
     private final RedissonClient redisson;
-    private final ObjectMapper objectMapper;
 
     // TTLs
-    private static final Duration PENDING_EVENT_TTL = Duration.ofHours(1); // 1 hora
+    private static final Duration EVENT_LOG_TTL = Duration.ofHours(1); // 1 hora
     private static final Duration LCU_REQUEST_TTL = Duration.ofSeconds(30); // 30 segundos
 
     // Prefixos de chaves
-    private static final String PENDING_KEY_PREFIX = "ws:pending:"; // sessionId → List<PendingEvent>
+    private static final String EVENT_LOG_KEY_PREFIX = "ws:events:"; // jogador → Stream de eventos
     private static final String LCU_REQUEST_KEY_PREFIX = "ws:lcu_request:"; // requestId → LCURequest
 
+    // Campos de cada entrada do stream
+    private static final String FIELD_TYPE = "t";
+    private static final String FIELD_DATA = "d";
+
     /**
-     * Evento pendente aguardando envio
+     * Grava o evento: KEYS = stream, seq, cursor; ARGV = tipo, data, maxlen,
+     * TTL (s), entregue ao vivo (1/0). O cursor só avança se não houver lacuna
+     * anterior não entregue. Retorna o seq.
      */
-    @Data
-    @Builder
-    @lombok.NoArgsConstructor
-    @lombok.AllArgsConstructor
-    public static class PendingEvent {
-        private String eventType; // Ex: "match_found", "draft_started"
-        private Map<String, Object> payload; // Dados do evento
-        private Instant queuedAt; // Quando foi enfileirado
-        private int retryCount; // Tentativas de envio
+    private static final String APPEND_SCRIPT = "local seq = redis.call('INCR', KEYS[2])\n" +
+            "redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[3], seq .. '-0', '" + FIELD_TYPE + "', ARGV[1], '"
+            + FIELD_DATA + "', ARGV[2])\n" +
+            "if ARGV[5] == '1' and tonumber(redis.call('GET', KEYS[3]) or '0') == seq - 1 then\n" +
+            "  redis.call('SET', KEYS[3], seq, 'EX', ARGV[4])\n" +
+            "end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[4])\n" +
+            "redis.call('EXPIRE', KEYS[2], ARGV[4])\n" +
+            "return seq";
+
+    /**
+     * Move o cursor: KEYS = cursor, stream; ARGV = seq, TTL (s), modo.
+     * max → avança (nunca recua); ack → avança e poda o stream até seq;
+     * rewind → recua para seq - 1 se o cursor já passou de seq.
+     */
+    private static final String CURSOR_SCRIPT = "local cur = tonumber(redis.call('GET', KEYS[1]) or '0')\n" +
+            "local seq = tonumber(ARGV[1])\n" +
+            "if ARGV[3] == 'rewind' then\n" +
+            "  if cur >= seq then redis.call('SET', KEYS[1], seq - 1, 'EX', ARGV[2]) end\n" +
+            "  return cur\n" +
+            "end\n" +
+            "if seq > cur then redis.call('SET', KEYS[1], seq, 'EX', ARGV[2]) end\n" +
+            "if ARGV[3] == 'ack' then redis.call('XTRIM', KEYS[2], 'MINID', (seq + 1) .. '-0') end\n" +
+            "return math.max(cur, seq)";
+
+    // Máximo de entradas por jogador (XADD MAXLEN ~)
+    @Value("${app.websocket.event-log.max-len:500}")
+    private int maxLen = 500;
+
+    // Eventos transitórios (timers, posição na fila): não recebem seq nem vão
+    // para o log, o próximo frame já substitui o anterior
+    @Value("${app.websocket.event-log.excluded-types:acceptance_timer,queue_update,queue_version,draft_update}")
+    private Set<String> excludedTypes = Set.of("acceptance_timer", "queue_update", "queue_version", "draft_update");
+
+    /**
+     * Evento gravado no log de um jogador
+     */
+    public record LoggedEvent(long seq, String eventType, String dataJson) {
+    }
+
+    /**
+     * Resultado de um replay
+     * 
+     * @param events   eventos após o seq pedido (ordem crescente)
+     * @param latestSeq último seq emitido para o jogador
+     * @param gap      true se parte da lacuna já foi podada (cliente precisa de
+     *                 snapshot)
+     */
+    public record EventReplay(List<LoggedEvent> events, long latestSeq, boolean gap) {
+        static final EventReplay EMPTY = new EventReplay(List.of(), 0, false);
     }
 
     /**
@@ -100,162 +160,167 @@ public class RedisWebSocketEventService {
     }
 
     /**
-     * Enfileira evento para envio posterior.
-     * Usado quando envio via WebSocket falha (desconectado, erro de rede).
+     * Indica se o tipo de evento recebe seq e vai para o log
+     */
+    public boolean isLogged(String eventType) {
+        return eventType != null && !excludedTypes.contains(eventType);
+    }
+
+    /**
+     * Grava evento no log do jogador ANTES da entrega.
      * 
      * Exemplo de uso:
-     * - Backend tenta enviar "match_found" mas WebSocket está fechado
-     * - queueEvent("sessionId123", "match_found", {matchId: 456})
-     * - Electron reconecta → Backend envia todos os pendentes
+     * - Backend vai enviar "match_found" para Player5
+     * - appendEvent("Player5", "match_found", "{...}", true) → seq 42
+     * - Frame sai com "seq":42; se Player5 estiver offline, o evento fica no log
+     * e é reenviado quando ele se identificar
      * 
-     * @param sessionId ID da sessão WebSocket
-     * @param eventType Tipo do evento (match_found, draft_started, etc)
-     * @param payload   Dados do evento
-     * @return true se enfileirou com sucesso, false em caso de erro
+     * @param summonerName  Jogador destinatário
+     * @param eventType     Tipo do evento (match_found, draft_updated, etc)
+     * @param dataJson      Payload já serializado (objeto JSON)
+     * @param deliveredLive true se o frame vai direto para uma sessão aberta
+     * @return seq atribuído, ou 0 se o tipo não é registrado ou houve erro
+     *         (evento segue sem seq, como antes)
      */
-    public boolean queueEvent(String sessionId, String eventType, Map<String, Object> payload) {
+    public long appendEvent(String summonerName, String eventType, String dataJson, boolean deliveredLive) {
+        if (summonerName == null || summonerName.isBlank() || !isLogged(eventType)) {
+            return 0;
+        }
         try {
-            if (sessionId == null || sessionId.isBlank() || eventType == null || eventType.isBlank()) {
-                log.warn(
-                        "⚠️ [RedisWSEvent] Tentativa de enfileirar evento com dados inválidos: sessionId={}, eventType={}",
-                        sessionId, eventType);
-                return false;
-            }
-
-            PendingEvent event = PendingEvent.builder()
-                    .eventType(eventType)
-                    .payload(payload != null ? payload : Collections.emptyMap())
-                    .queuedAt(Instant.now())
-                    .retryCount(0)
-                    .build();
-
-            // Serializar para JSON
-            String eventJson = objectMapper.writeValueAsString(event);
+            String key = eventLogKey(summonerName);
+            Long seq = redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, APPEND_SCRIPT,
+                    RScript.ReturnType.INTEGER, List.<Object>of(key, key + ":seq", key + ":cursor"),
+                    eventType, dataJson != null ? dataJson : "{}", String.valueOf(maxLen),
+                    String.valueOf(EVENT_LOG_TTL.getSeconds()), deliveredLive ? "1" : "0");
 
-            // Adicionar à lista Redis
-            RList<String> pendingList = redisson.getList(PENDING_KEY_PREFIX + sessionId);
-            pendingList.add(eventJson);
-            pendingList.expire(PENDING_EVENT_TTL);
-
-            log.info("📨 [RedisWSEvent] Evento enfileirado: sessionId={}, eventType={}, payload={}",
-                    sessionId, eventType, payload);
-
-            return true;
+            log.debug("📨 [RedisWSEvent] Evento registrado: {} #{} → {} (ao vivo: {})",
+                    eventType, seq, summonerName, deliveredLive);
+            return seq != null ? seq : 0;
 
         } catch (Exception e) {
-            log.error("❌ [RedisWSEvent] Erro ao enfileirar evento: sessionId={}, eventType={}",
-                    sessionId, eventType, e);
-            return false;
+            log.error("❌ [RedisWSEvent] Erro ao registrar evento: summonerName={}, eventType={}",
+                    summonerName, eventType, e);
+            return 0;
         }
     }
 
     /**
-     * Busca todos os eventos pendentes de uma sessão.
-     * Chamado quando Electron reconecta para enviar eventos perdidos.
+     * Eventos com seq > lastSeq (o cliente informou o último que viu).
+     * 
+     * Se o cliente está à frente do servidor (log expirou e o seq recomeçou),
+     * devolve o log inteiro marcando gap para o cliente reiniciar o contador.
      * 
-     * @param sessionId ID da sessão WebSocket
-     * @return Lista de eventos pendentes (FIFO - ordem cronológica)
+     * @param summonerName Jogador
+     * @param lastSeq      Último seq recebido pelo cliente (0 = nenhum)
+     * @return Eventos da lacuna (FIFO - ordem de seq)
      */
-    public List<PendingEvent> getPendingEvents(String sessionId) {
+    public EventReplay replayEvents(String summonerName, long lastSeq) {
+        if (summonerName == null || summonerName.isBlank()) {
+            return EventReplay.EMPTY;
+        }
         try {
-            if (sessionId == null || sessionId.isBlank()) {
-                return Collections.emptyList();
+            String key = eventLogKey(summonerName);
+            long latestSeq = redisson.getAtomicLong(key + ":seq").get();
+
+            boolean reset = lastSeq > latestSeq;
+            long fromSeq = reset ? 1 : lastSeq + 1;
+            if (!reset && fromSeq > latestSeq) {
+                return new EventReplay(List.of(), latestSeq, false);
             }
 
-            RList<String> pendingList = redisson.getList(PENDING_KEY_PREFIX + sessionId);
+            RStream<String, String> stream = redisson.getStream(key, StringCodec.INSTANCE);
+            Map<StreamMessageId, Map<String, String>> entries = stream.range(maxLen,
+                    new StreamMessageId(fromSeq, 0), StreamMessageId.MAX);
 
-            if (pendingList.isEmpty()) {
-                log.debug("📭 [RedisWSEvent] Nenhum evento pendente para sessão: {}", sessionId);
-                return Collections.emptyList();
+            List<LoggedEvent> events = new ArrayList<>(entries.size());
+            for (Map.Entry<StreamMessageId, Map<String, String>> entry : entries.entrySet()) {
+                Map<String, String> fields = entry.getValue();
+                events.add(new LoggedEvent(entry.getKey().getId0(), fields.get(FIELD_TYPE), fields.get(FIELD_DATA)));
             }
 
-            List<PendingEvent> events = new ArrayList<>();
-            for (String eventJson : pendingList) {
-                try {
-                    PendingEvent event = objectMapper.readValue(eventJson, PendingEvent.class);
-                    events.add(event);
-                } catch (Exception e) {
-                    log.warn("⚠️ [RedisWSEvent] Erro ao desserializar evento pendente: {}", eventJson, e);
-                }
-            }
+            // Lacuna podada (MAXLEN ou ack de outra sessão) → cliente precisa de snapshot
+            boolean gap = reset || events.isEmpty() || events.get(0).seq() > fromSeq;
 
-            log.info("📬 [RedisWSEvent] {} eventos pendentes encontrados para sessão: {}", events.size(), sessionId);
-            return events;
+            log.info("📬 [RedisWSEvent] Replay para {}: {} eventos após #{} (último #{}, lacuna perdida: {})",
+                    summonerName, events.size(), lastSeq, latestSeq, gap);
+            return new EventReplay(events, latestSeq, gap);
 
         } catch (Exception e) {
-            log.error("❌ [RedisWSEvent] Erro ao buscar eventos pendentes: sessionId={}", sessionId, e);
-            return Collections.emptyList();
+            log.error("❌ [RedisWSEvent] Erro ao buscar eventos: summonerName={}, lastSeq={}",
+                    summonerName, lastSeq, e);
+            return EventReplay.EMPTY;
         }
     }
 
     /**
-     * Limpa eventos pendentes após envio bem-sucedido.
+     * Eventos após o cursor de entrega do servidor (clientes que não informam
+     * lastSeq).
      * 
-     * @param sessionId ID da sessão WebSocket
-     * @return true se limpou com sucesso, false em caso de erro
+     * @param summonerName Jogador
+     * @return Eventos ainda não entregues (FIFO - ordem de seq)
      */
-    public boolean clearPendingEvents(String sessionId) {
+    public EventReplay replayUndelivered(String summonerName) {
+        if (summonerName == null || summonerName.isBlank()) {
+            return EventReplay.EMPTY;
+        }
         try {
-            if (sessionId == null || sessionId.isBlank()) {
-                return false;
-            }
-
-            RList<String> pendingList = redisson.getList(PENDING_KEY_PREFIX + sessionId);
-            int size = pendingList.size();
-
-            pendingList.delete();
-
-            log.info("🗑️ [RedisWSEvent] {} eventos pendentes limpos para sessão: {}", size, sessionId);
-            return true;
-
+            String cursor = redisson.<String>getBucket(eventLogKey(summonerName) + ":cursor", StringCodec.INSTANCE)
+                    .get();
+            return replayEvents(summonerName, cursor != null ? Long.parseLong(cursor) : 0);
         } catch (Exception e) {
-            log.error("❌ [RedisWSEvent] Erro ao limpar eventos pendentes: sessionId={}", sessionId, e);
-            return false;
+            log.error("❌ [RedisWSEvent] Erro ao ler cursor de eventos: summonerName={}", summonerName, e);
+            return EventReplay.EMPTY;
         }
     }
 
     /**
-     * Incrementa contador de retry de um evento.
-     * Útil para rastrear eventos problemáticos.
-     * 
-     * @param sessionId  ID da sessão WebSocket
-     * @param eventIndex Índice do evento na lista (0-based)
-     * @return true se incrementou com sucesso, false em caso de erro
+     * Avança o cursor de entrega até seq (replay enfileirado na sessão).
      */
-    public boolean incrementRetryCount(String sessionId, int eventIndex) {
-        try {
-            if (sessionId == null || sessionId.isBlank() || eventIndex < 0) {
-                return false;
-            }
-
-            RList<String> pendingList = redisson.getList(PENDING_KEY_PREFIX + sessionId);
-
-            if (eventIndex >= pendingList.size()) {
-                log.warn("⚠️ [RedisWSEvent] Índice de evento inválido: sessionId={}, index={}, size={}",
-                        sessionId, eventIndex, pendingList.size());
-                return false;
-            }
-
-            String eventJson = pendingList.get(eventIndex);
-            PendingEvent event = objectMapper.readValue(eventJson, PendingEvent.class);
+    public void markDelivered(String summonerName, long seq) {
+        moveCursor(summonerName, seq, "max");
+    }
 
-            event.setRetryCount(event.getRetryCount() + 1);
+    /**
+     * Recua o cursor para antes de seq (frame não entregue: fila cheia,
+     * sessão caiu). O evento continua no log e volta no próximo replay.
+     */
+    public void markUndelivered(String summonerName, long seq) {
+        moveCursor(summonerName, seq, "rewind");
+    }
 
-            String updatedJson = objectMapper.writeValueAsString(event);
-            pendingList.set(eventIndex, updatedJson);
+    /**
+     * Confirmação explícita do cliente (event_ack): avança o cursor e poda o
+     * log até seq.
+     */
+    public void ackEvents(String summonerName, long seq) {
+        moveCursor(summonerName, seq, "ack");
+    }
 
-            log.debug("🔄 [RedisWSEvent] Retry count incrementado: sessionId={}, eventType={}, retryCount={}",
-                    sessionId, event.getEventType(), event.getRetryCount());
+    private void moveCursor(String summonerName, long seq, String mode) {
+        if (summonerName == null || summonerName.isBlank() || seq <= 0) {
+            return;
+        }
+        try {
+            String key = eventLogKey(summonerName);
+            redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, CURSOR_SCRIPT,
+                    RScript.ReturnType.INTEGER, List.<Object>of(key + ":cursor", key),
+                    String.valueOf(seq), String.valueOf(EVENT_LOG_TTL.getSeconds()), mode);
 
-            return true;
+            log.debug("🔖 [RedisWSEvent] Cursor de eventos ({}): {} #{}", mode, summonerName, seq);
 
         } catch (Exception e) {
-            log.error("❌ [RedisWSEvent] Erro ao incrementar retry count: sessionId={}, index={}",
-                    sessionId, eventIndex, e);
-            return false;
+            log.error("❌ [RedisWSEvent] Erro ao mover cursor de eventos: summonerName={}, seq={}, mode={}",
+                    summonerName, seq, mode, e);
         }
     }
 
+    /**
+     * Chave do log: nome normalizado entre chaves (hash tag)
+     */
+    private static String eventLogKey(String summonerName) {
+        return EVENT_LOG_KEY_PREFIX + "{" + summonerName.trim().toLowerCase(Locale.ROOT) + "}";
+    }
+
     /**
      * Registra requisição LCU pendente (Backend → Electron → LCU).
      * 
@@ -8,15 +8,22 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
 import org.redisson.api.RBucket;
 import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RBatch;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * 🚀 SERVIÇO REDIS - SESSÕES WEBSOCKET
@@ -41,6 +48,8 @@ import java.util.concurrent.TimeUnit;
  * - ws:player:{summonerName} → sessionId (String) [lookup reverso]
  * - ws:client:{sessionId} → ClientInfo (Hash: ip, connectedAt, lastActivity,
  * userAgent)
+ * - ws:session_index → ZSET sessionId (score = último heartbeat em ms)
+ * - ws:session_owner → HASH sessionId → summoner normalizado
  * 
  * TTL: 6 horas (conexões WebSocket normalmente < 2h)
  * 
@@ -62,6 +71,7 @@ public class RedisWebSocketSessionService {
 
     private final RedissonClient redisson;
     private final ObjectMapper objectMapper;
+    private final SessionRouteCache sessionRoutes;
 
     // ✅ CORRIGIDO: TTL de 1h30min (duração típica de sessão)
     // CRÍTICO: Sessão não deve persistir além da necessidade real
@@ -83,6 +93,18 @@ public class RedisWebSocketSessionService {
     private static final String CUSTOM_SESSION_MAPPING_PREFIX = "ws:custom_session_mapping:"; // customSessionId →
                                                                                               // randomSessionId
 
+    // ✅ NOVO: Índice mantido de sessões (substitui KEYS ws:client_info:* em
+    // contagem, listagem e lookup por sessionId)
+    // - Contagem: ZCARD (O(1))
+    // - Listagem: ZREVRANGE paginado + MGET dos ClientInfo da página
+    // - Expiração: por score (último heartbeat), sem varrer o keyspace
+    private static final String SESSION_INDEX_KEY = "ws:session_index"; // ZSET sessionId → último heartbeat (ms)
+    private static final String SESSION_OWNER_KEY = "ws:session_owner"; // HASH sessionId → summoner normalizado
+    private static final int SESSION_INDEX_PAGE_SIZE = 200;
+    // Monitor de heartbeat fecha sessões inativas em 120s; 5min sem heartbeat =
+    // entrada órfã (instância caiu sem afterConnectionClosed)
+    private static final long SESSION_INDEX_STALE_MS = 300_000;
+
     /**
      * ✅ NOVO: Informações completas do cliente WebSocket (unificado)
      * Agora inclui TODOS os dados do jogador em uma única estrutura
@@ -112,6 +134,9 @@ public class RedisWebSocketSessionService {
 
         // ✅ NOVO: CustomSessionId (imutável, baseado no jogador)
         private String customSessionId;
+
+        // ✅ NOVO: Versão da rota summoner → sessionId (ver SessionRouteCache)
+        private Long routeVersion;
     }
 
     /**
@@ -206,11 +231,15 @@ public class RedisWebSocketSessionService {
                                                                                                                      // ATUALIZAR
                                                                                                                      // se
                                                                                                                      // fornecido
+                        .routeVersion(sessionRoutes.nextVersion())
                         .build();
 
                 // Salvar ClientInfo atualizado
                 RBucket<ClientInfo> clientInfoBucket = redisson.getBucket(clientInfoKey);
                 clientInfoBucket.set(updatedClientInfo, Duration.ofHours(1));
+                unindexSession(oldSessionId);
+                indexSession(sessionId, normalizedSummoner);
+                publishRoute(normalizedSummoner, updatedClientInfo);
 
                 log.info("✅ [RedisWS] ClientInfo ATUALIZADO: {} → novo sessionId={}, dados do jogador PRESERVADOS",
                         normalizedSummoner, sessionId);
@@ -234,6 +263,7 @@ public class RedisWebSocketSessionService {
                     .lastActivity(Instant.now())
                     .userAgent(userAgent)
                     .customSessionId(customSessionId)
+                    .routeVersion(sessionRoutes.nextVersion())
                     // Nota: puuid, summonerId, etc. serão atualizados depois via updatePlayerData()
                     .build();
 
@@ -241,6 +271,8 @@ public class RedisWebSocketSessionService {
             // ClientInfo
             RBucket<ClientInfo> clientInfoBucket = redisson.getBucket(clientInfoKey);
             clientInfoBucket.set(clientInfo, Duration.ofHours(1));
+            indexSession(sessionId, normalizedSummoner);
+            publishRoute(normalizedSummoner, clientInfo);
 
             log.info("✅ [RedisWS] Sessão registrada: {} → {} (IP: {}) [chave: {}]",
                     sessionId, summonerName, ipAddress, normalizedSummoner);
@@ -301,6 +333,7 @@ public class RedisWebSocketSessionService {
                     .tagLine(tagLine)
                     .customSessionId(
                             customSessionId != null ? customSessionId : existingClientInfo.getCustomSessionId())
+                    .routeVersion(existingClientInfo.getRouteVersion())
                     .build();
 
             clientInfoBucket.set(updatedClientInfo, Duration.ofHours(1));
@@ -335,6 +368,12 @@ public class RedisWebSocketSessionService {
 
             String normalizedSummoner = normalizeSummonerName(summonerName);
 
+            // ✅ NOVO: Near-cache (sessões desta instância e rotas remotas recentes)
+            Optional<String> cached = sessionRoutes.sessionFor(normalizedSummoner);
+            if (cached.isPresent()) {
+                return cached;
+            }
+
             // ✅ CORREÇÃO: Usar apenas chave unificada ws:client_info:{summonerName}
             String clientInfoKey = "ws:client_info:" + normalizedSummoner;
 
@@ -346,6 +385,8 @@ public class RedisWebSocketSessionService {
                 // customSessionId é usado apenas para lock/identificação, NÃO para envio
                 // WebSocket
                 String randomSessionId = clientInfo.getSessionId();
+                sessionRoutes.remember(normalizedSummoner, clientInfo.getSummonerName(), randomSessionId,
+                        clientInfo.getRouteVersion());
 
                 // Log detalhado incluindo customSessionId se disponível
                 String customSessionIdForLog = clientInfo.getCustomSessionId();
@@ -383,25 +424,35 @@ public class RedisWebSocketSessionService {
                 return Optional.empty();
             }
 
+            // ✅ NOVO: Sessão desta instância → índice local autoritativo (sem Redis)
+            Optional<String> local = sessionRoutes.localSummonerFor(sessionId);
+            if (local.isPresent()) {
+                return local;
+            }
+
             // ✅ CORREÇÃO: Verificar se Redisson está ativo (evita erro durante shutdown)
             if (redisson.isShutdown() || redisson.isShuttingDown()) {
                 log.debug("⚠️ [RedisWS] Redisson está desligado - retornando empty para sessionId: {}", sessionId);
                 return Optional.empty();
             }
 
-            // ✅ CORREÇÃO: Buscar em todas as chaves ws:client_info:* para encontrar o
-            // sessionId
-            Iterable<String> clientInfoKeys = redisson.getKeys().getKeysByPattern("ws:client_info:*");
-
-            for (String clientInfoKey : clientInfoKeys) {
-                RBucket<ClientInfo> clientInfoBucket = redisson.getBucket(clientInfoKey);
+            // ✅ NOVO: Índice ws:session_owner (sessionId → summoner) em vez de varrer
+            // todas as chaves ws:client_info:*
+            String normalizedSummoner = sessionOwners().get(sessionId);
+            if (normalizedSummoner != null) {
+                RBucket<ClientInfo> clientInfoBucket = redisson
+                        .getBucket(CLIENT_INFO_UNIFIED_PREFIX + normalizedSummoner);
                 ClientInfo clientInfo = clientInfoBucket.get();
 
                 if (clientInfo != null && sessionId.equals(clientInfo.getSessionId())) {
                     String summonerName = clientInfo.getSummonerName();
+                    sessionRoutes.remember(normalizedSummoner, summonerName, sessionId, clientInfo.getRouteVersion());
                     log.debug("🔍 [RedisWS] Summoner encontrado: {} → {}", sessionId, summonerName);
                     return Optional.of(summonerName);
                 }
+
+                // Jogador reconectou com outra sessão (ou client_info expirou)
+                unindexSession(sessionId);
             }
 
             log.debug("❌ [RedisWS] Summoner NÃO encontrado para sessão: {}", sessionId);
@@ -535,6 +586,7 @@ public class RedisWebSocketSessionService {
             // Atualizar lastActivity
             clientInfo.setLastActivity(Instant.now());
             clientInfoBucket.set(clientInfo, Duration.ofHours(1));
+            sessionIndex().add(System.currentTimeMillis(), sessionId);
 
             log.debug("💓 [RedisWS] Heartbeat atualizado: {} (summoner: {})", sessionId, summonerName);
             return true;
@@ -545,6 +597,48 @@ public class RedisWebSocketSessionService {
         }
     }
 
+    /**
+     * ✅ NOVO: Heartbeats em lote (HeartbeatScheduler, um flush por tick)
+     * 
+     * Um HMGET dos donos + um pipeline com ZADD (score = agora) e EXPIRE do
+     * client_info de cada sessão identificada. lastActivity passa a ser o score
+     * do índice (sem GET/SET do ClientInfo por heartbeat).
+     * 
+     * @param sessionIds Sessões com atividade desde o último flush
+     * @return Quantas sessões identificadas foram atualizadas
+     */
+    public int refreshHeartbeats(Collection<String> sessionIds) {
+        try {
+            if (sessionIds == null || sessionIds.isEmpty()
+                    || redisson.isShutdown() || redisson.isShuttingDown()) {
+                return 0;
+            }
+
+            Map<String, String> owners = sessionOwners().getAll(new HashSet<>(sessionIds));
+            if (owners.isEmpty()) {
+                return 0;
+            }
+
+            double now = System.currentTimeMillis();
+            Map<String, Double> scores = new HashMap<>();
+            owners.keySet().forEach(sessionId -> scores.put(sessionId, now));
+
+            RBatch batch = redisson.createBatch();
+            batch.getScoredSortedSet(SESSION_INDEX_KEY, StringCodec.INSTANCE).addAllAsync(scores);
+            owners.values().stream().distinct().forEach(summoner -> batch
+                    .getBucket(CLIENT_INFO_UNIFIED_PREFIX + summoner)
+                    .expireAsync(Duration.ofHours(1)));
+            batch.execute();
+
+            log.debug("💓 [RedisWS] {} heartbeats atualizados em lote", owners.size());
+            return owners.size();
+
+        } catch (Exception e) {
+            log.error("❌ [RedisWS] Erro ao atualizar heartbeats em lote", e);
+            return 0;
+        }
+    }
+
     /**
      * Remove sessão WebSocket (disconnect).
      * Remove todas as 3 chaves Redis associadas.
@@ -560,13 +654,27 @@ public class RedisWebSocketSessionService {
 
             // Buscar summonerName antes de deletar
             Optional<String> summonerOpt = getSummonerBySession(sessionId);
+            sessionRoutes.sessionClosed(sessionId);
+            unindexSession(sessionId);
 
             // ✅ CORREÇÃO: Deletar apenas chave unificada
             if (summonerOpt.isPresent()) {
                 String summonerName = summonerOpt.get();
-                // Deletar apenas client_info usando summonerName
-                redisson.getBucket("ws:client_info:" + summonerName).delete();
-                log.info("🗑️ [RedisWS] Sessão removida: {} ({})", sessionId, summonerName);
+                String normalizedSummoner = normalizeSummonerName(summonerName);
+                RBucket<ClientInfo> clientInfoBucket = redisson
+                        .getBucket(CLIENT_INFO_UNIFIED_PREFIX + normalizedSummoner);
+                ClientInfo current = clientInfoBucket.get();
+
+                // ✅ CRÍTICO: Só deletar se a chave ainda aponta para ESTA sessão
+                // (jogador pode ter reconectado em outra instância nesse meio tempo)
+                if (current != null && sessionId.equals(current.getSessionId())
+                        && clientInfoBucket.compareAndSet(current, null)) {
+                    sessionRoutes.publishInvalidation(normalizedSummoner, null, sessionRoutes.nextVersion());
+                    log.info("🗑️ [RedisWS] Sessão removida: {} ({})", sessionId, summonerName);
+                } else {
+                    log.info("🗑️ [RedisWS] Sessão {} já substituída para {} - client_info mantido", sessionId,
+                            summonerName);
+                }
             } else {
                 log.info("🗑️ [RedisWS] Sessão removida: {} (summoner desconhecido)", sessionId);
             }
@@ -589,25 +697,18 @@ public class RedisWebSocketSessionService {
         try {
             Map<String, Object> allClients = new HashMap<>();
 
-            // ✅ CORREÇÃO: Buscar todas as chaves ws:client_info:*
-            Iterable<String> keys = redisson.getKeys().getKeysByPattern("ws:client_info:*");
+            // ✅ NOVO: Paginar o índice ws:session_index (sem KEYS)
+            forEachIndexedClient(clientInfo -> {
+                // Criar Map com informações do cliente
+                Map<String, Object> clientData = new HashMap<>();
+                clientData.put("summonerName", clientInfo.getSummonerName());
+                clientData.put("ip", clientInfo.getIpAddress());
+                clientData.put("connectedAt", clientInfo.getConnectedAt());
+                clientData.put("lastActivity", clientInfo.getLastActivity());
+                clientData.put("userAgent", clientInfo.getUserAgent());
 
-            for (String key : keys) {
-                RBucket<ClientInfo> clientInfoBucket = redisson.getBucket(key);
-                ClientInfo clientInfo = clientInfoBucket.get();
-
-                if (clientInfo != null && clientInfo.getSessionId() != null) {
-                    // Criar Map com informações do cliente
-                    Map<String, Object> clientData = new HashMap<>();
-                    clientData.put("summonerName", clientInfo.getSummonerName());
-                    clientData.put("ip", clientInfo.getIpAddress());
-                    clientData.put("connectedAt", clientInfo.getConnectedAt());
-                    clientData.put("lastActivity", clientInfo.getLastActivity());
-                    clientData.put("userAgent", clientInfo.getUserAgent());
-
-                    allClients.put(clientInfo.getSessionId(), clientData);
-                }
-            }
+                allClients.put(clientInfo.getSessionId(), clientData);
+            });
 
             log.debug("✅ [RedisWSSession] {} clientes ativos listados", allClients.size());
             return allClients;
@@ -628,24 +729,168 @@ public class RedisWebSocketSessionService {
         try {
             Map<String, String> sessions = new HashMap<>();
 
-            // ✅ CORREÇÃO: Buscar todas as chaves ws:client_info:*
-            Iterable<String> keys = redisson.getKeys().getKeysByPattern("ws:client_info:*");
+            // ✅ NOVO: Paginar o índice ws:session_index (sem KEYS)
+            forEachIndexedClient(
+                    clientInfo -> sessions.put(clientInfo.getSessionId(), clientInfo.getSummonerName()));
+
+            log.debug("📊 [RedisWS] Sessões ativas: {}", sessions.size());
+            return sessions;
+
+        } catch (Exception e) {
+            log.error("❌ [RedisWS] Erro ao listar sessões ativas", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * ✅ NOVO: Número de sessões ativas (ZCARD do índice, O(1))
+     */
+    public int countActiveSessions() {
+        try {
+            return sessionIndex().size();
+        } catch (Exception e) {
+            log.error("❌ [RedisWS] Erro ao contar sessões ativas", e);
+            return 0;
+        }
+    }
+
+    /**
+     * ✅ NOVO: Página de sessionIds ativos, mais recentes (heartbeat) primeiro
+     * 
+     * @param offset Posição inicial
+     * @param limit  Tamanho da página
+     */
+    public List<String> getActiveSessionIds(int offset, int limit) {
+        try {
+            if (limit <= 0) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(sessionIndex().valueRangeReversed(offset, offset + limit - 1));
+        } catch (Exception e) {
+            log.error("❌ [RedisWS] Erro ao paginar sessões ativas", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Percorre o índice em páginas: ZREVRANGE → HMGET (ws:session_owner) → MGET
+     * (ws:client_info) da página. lastActivity vem do score (último heartbeat).
+     */
+    private void forEachIndexedClient(Consumer<ClientInfo> consumer) {
+        int offset = 0;
+        while (true) {
+            Map<String, Double> page = new LinkedHashMap<>();
+            for (ScoredEntry<String> entry : sessionIndex().entryRangeReversed(offset,
+                    offset + SESSION_INDEX_PAGE_SIZE - 1)) {
+                page.put(entry.getValue(), entry.getScore());
+            }
+            if (page.isEmpty()) {
+                return;
+            }
+
+            Map<String, String> owners = sessionOwners().getAll(page.keySet());
+            if (!owners.isEmpty()) {
+                String[] keys = owners.values().stream()
+                        .distinct()
+                        .map(summoner -> CLIENT_INFO_UNIFIED_PREFIX + summoner)
+                        .toArray(String[]::new);
+                Map<String, ClientInfo> clientInfos = redisson.getBuckets().get(keys);
+
+                for (Map.Entry<String, Double> indexed : page.entrySet()) {
+                    String sessionId = indexed.getKey();
+                    String summoner = owners.get(sessionId);
+                    ClientInfo clientInfo = summoner != null ? clientInfos.get(CLIENT_INFO_UNIFIED_PREFIX + summoner)
+                            : null;
+                    // Só conta se o client_info ainda aponta para esta sessão
+                    if (clientInfo != null && sessionId.equals(clientInfo.getSessionId())) {
+                        clientInfo.setLastActivity(Instant.ofEpochMilli(indexed.getValue().longValue()));
+                        consumer.accept(clientInfo);
+                    }
+                }
+            }
+
+            if (page.size() < SESSION_INDEX_PAGE_SIZE) {
+                return;
+            }
+            offset += SESSION_INDEX_PAGE_SIZE;
+        }
+    }
+
+    private RScoredSortedSet<String> sessionIndex() {
+        return redisson.getScoredSortedSet(SESSION_INDEX_KEY, StringCodec.INSTANCE);
+    }
+
+    private RMap<String, String> sessionOwners() {
+        return redisson.getMap(SESSION_OWNER_KEY, StringCodec.INSTANCE);
+    }
+
+    private void indexSession(String sessionId, String normalizedSummoner) {
+        sessionIndex().add(System.currentTimeMillis(), sessionId);
+        sessionOwners().fastPut(sessionId, normalizedSummoner);
+    }
+
+    private void unindexSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        sessionIndex().remove(sessionId);
+        sessionOwners().fastRemove(sessionId);
+    }
 
-            for (String key : keys) {
+    /**
+     * ✅ NOVO: Expira entradas do índice pelo score (último heartbeat), sem
+     * varrer o keyspace
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeStaleSessionIndex() {
+        try {
+            if (redisson.isShutdown() || redisson.isShuttingDown()) {
+                return;
+            }
+
+            double cutoff = System.currentTimeMillis() - SESSION_INDEX_STALE_MS;
+            RScoredSortedSet<String> index = sessionIndex();
+            Collection<String> stale = index.valueRange(Double.NEGATIVE_INFINITY, true, cutoff, true);
+            if (stale.isEmpty()) {
+                return;
+            }
+
+            index.removeRangeByScore(Double.NEGATIVE_INFINITY, true, cutoff, true);
+            sessionOwners().fastRemove(stale.toArray(new String[0]));
+            log.info("🧹 [RedisWS] {} sessões sem heartbeat removidas do índice", stale.size());
+
+        } catch (Exception e) {
+            log.error("❌ [RedisWS] Erro ao expirar índice de sessões", e);
+        }
+    }
+
+    /**
+     * ✅ NOVO: Migração - monta o índice a partir das chaves ws:client_info:*
+     * existentes (única varredura, só se o índice ainda não existe)
+     */
+    @PostConstruct
+    public void backfillSessionIndex() {
+        try {
+            if (sessionIndex().isExists()) {
+                return;
+            }
+
+            int indexed = 0;
+            for (String key : redisson.getKeys().getKeysByPattern(CLIENT_INFO_UNIFIED_PREFIX + "*")) {
                 RBucket<ClientInfo> bucket = redisson.getBucket(key);
                 ClientInfo clientInfo = bucket.get();
-
                 if (clientInfo != null && clientInfo.getSessionId() != null) {
-                    sessions.put(clientInfo.getSessionId(), clientInfo.getSummonerName());
+                    indexSession(clientInfo.getSessionId(), key.substring(CLIENT_INFO_UNIFIED_PREFIX.length()));
+                    indexed++;
                 }
             }
 
-            log.debug("📊 [RedisWS] Sessões ativas: {}", sessions.size());
-            return sessions;
+            if (indexed > 0) {
+                log.info("✅ [RedisWS] Índice de sessões reconstruído: {} sessões", indexed);
+            }
 
         } catch (Exception e) {
-            log.error("❌ [RedisWS] Erro ao listar sessões ativas", e);
-            return Collections.emptyMap();
+            log.warn("⚠️ [RedisWS] Não foi possível reconstruir índice de sessões: {}", e.getMessage());
         }
     }
 
@@ -708,6 +953,17 @@ public class RedisWebSocketSessionService {
      * pelo removeSession
      */
 
+    /**
+     * ✅ NOVO: Propaga a nova rota summoner → sessionId (near-cache local +
+     * invalidação das outras instâncias)
+     */
+    private void publishRoute(String normalizedSummoner, ClientInfo clientInfo) {
+        sessionRoutes.publishInvalidation(normalizedSummoner, clientInfo.getSessionId(),
+                clientInfo.getRouteVersion());
+        sessionRoutes.remember(normalizedSummoner, clientInfo.getSummonerName(), clientInfo.getSessionId(),
+                clientInfo.getRouteVersion());
+    }
+
     /**
      * Normaliza nome do invocador (lowercase, trim).
      * Garante consistência nos lookups.
@@ -715,7 +971,7 @@ public class RedisWebSocketSessionService {
      * @param summonerName Nome do invocador
      * @return Nome normalizado
      */
-    private String normalizeSummonerName(String summonerName) {
+    public static String normalizeSummonerName(String summonerName) {
         if (summonerName == null) {
             return "";
         }
@@ -751,6 +1007,7 @@ public class RedisWebSocketSessionService {
                         .connectedAt(clientInfo.getConnectedAt())
                         .lastActivity(Instant.now()) // lastActivity atualizado
                         .userAgent(clientInfo.getUserAgent())
+                        .routeVersion(clientInfo.getRouteVersion())
                         .build();
 
                 clientBucket.set(updatedClientInfo, SESSION_TTL_SECONDS, TimeUnit.SECONDS);
@@ -827,7 +1084,7 @@ public class RedisWebSocketSessionService {
      * Remove mappings bidirecionais anteriores quando o jogador reconecta
      * 
      * Limpa:
-     * 1. ws:session_mapping:* → customSessionId (mapeamento direto)
+     * 1. ws:session_mapping:{randomSessionId antigo} → customSessionId
      * 2. ws:custom_session_mapping:{customSessionId} → randomSessionId antigo
      * (mapeamento reverso)
      * 
@@ -843,27 +1100,25 @@ public class RedisWebSocketSessionService {
 
             int removedCount = 0;
 
-            // 1. Limpar forward mappings (randomSessionId → customSessionId)
-            Iterable<String> forwardKeys = redisson.getKeys().getKeysByPattern(SESSION_MAPPING_PREFIX + "*");
-            for (String forwardKey : forwardKeys) {
-                try {
-                    RBucket<String> bucket = redisson.getBucket(forwardKey);
-                    String storedCustomSessionId = bucket.get();
-                    if (customSessionId.equals(storedCustomSessionId)) {
-                        bucket.delete();
-                        removedCount++;
-                        log.debug("🗑️ [RedisWS] Forward mapping antigo removido: {}", forwardKey);
-                    }
-                } catch (Exception e) {
-                    log.debug("⚠️ [RedisWS] Erro ao processar forward key: {}", forwardKey);
+            // ✅ NOVO: O reverse mapping aponta para o único forward mapping vigente
+            // (storeSessionMapping grava os dois juntos) → sem varrer
+            // ws:session_mapping:*
+            String reverseKey = CUSTOM_SESSION_MAPPING_PREFIX + customSessionId;
+            RBucket<String> reverseBucket = redisson.getBucket(reverseKey);
+            String oldRandomSessionId = reverseBucket.get();
+
+            // 1. Limpar forward mapping antigo (randomSessionId → customSessionId)
+            if (oldRandomSessionId != null) {
+                String forwardKey = SESSION_MAPPING_PREFIX + oldRandomSessionId;
+                RBucket<String> forwardBucket = redisson.getBucket(forwardKey);
+                if (customSessionId.equals(forwardBucket.get()) && forwardBucket.delete()) {
+                    removedCount++;
+                    log.debug("🗑️ [RedisWS] Forward mapping antigo removido: {}", forwardKey);
                 }
             }
 
             // 2. Limpar reverse mapping antigo (customSessionId → randomSessionId antigo)
-            String reverseKey = CUSTOM_SESSION_MAPPING_PREFIX + customSessionId;
-            RBucket<String> reverseBucket = redisson.getBucket(reverseKey);
-            if (reverseBucket.isExists()) {
-                reverseBucket.delete();
+            if (oldRandomSessionId != null && reverseBucket.delete()) {
                 removedCount++;
                 log.debug("🗑️ [RedisWS] Reverse mapping antigo removido: {}", reverseKey);
             }
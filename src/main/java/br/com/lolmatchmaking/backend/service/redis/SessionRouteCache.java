@@ -0,0 +1,439 @@
+package br.com.lolmatchmaking.backend.service.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ NOVO: Near-cache de roteamento summoner → sessão WebSocket
+ *
+ * PROBLEMA RESOLVIDO:
+ * - getSessionBySummoner fazia um GET em ws:client_info:* a cada lookup
+ * (sendToPlayers, getByPlayers: 10x por evento de partida)
+ * - validateSessionOwnership/getSummonerBySession varria TODAS as chaves
+ * ws:client_info:* por envio
+ * - Mapas locais antigos foram removidos por causa de sessões fantasmas
+ *
+ * SOLUÇÃO:
+ * - Índice LOCAL autoritativo para sessões conectadas NESTA instância
+ * (summoner ↔ sessionId), mantido no registro e no fechamento da conexão.
+ * Envios dirigidos a sessões locais não tocam no Redis.
+ * - Entradas REMOTAS (sessões de outras instâncias) cacheadas por
+ * {@link #REMOTE_TTL_MS}, invalidadas via Pub/Sub (canal ws:route)
+ * - Entradas versionadas (contador global ws:route_version, gravado no
+ * ClientInfo): cada invalidação eleva o "piso" de versão do summoner, e
+ * leituras do Redis com versão menor (em voo durante a troca) não entram no
+ * cache → fantasmas não voltam
+ * - Reconexão em outra instância (versão maior, outra sessão) derruba a
+ * entrada local antiga
+ * - Contador por instância (ws:session_count:{nodeId}, com TTL) para
+ * monitoramento: instâncias que caem expiram sozinhas
+ *
+ * ✅ NOVO: Roteamento por instância dona da sessão
+ * - Cada instância registra os jogadores conectados NELA em ws:session_node
+ * (summoner normalizado → nodeId) e escuta só o próprio canal ws:node:{nodeId}
+ * - Eventos dirigidos são particionados por dono ({@link #partitionByOwner})
+ * e publicados apenas no canal da instância dona: cada instância decodifica
+ * só eventos dos seus clientes, e o custo de Pub/Sub por instância não cresce
+ * com o número de instâncias
+ * - Dono desconhecido ou instância morta (sem ws:session_count:{nodeId}) →
+ * a própria instância trata (grava no log de eventos do jogador)
+ */
+@Slf4j
+@Component
+public class SessionRouteCache {
+
+    public static final String ROUTE_CHANNEL = "ws:route";
+    public static final String ROUTE_VERSION_KEY = "ws:route_version";
+    public static final String NODE_COUNT_PREFIX = "ws:session_count:";
+    public static final String NODE_CHANNEL_PREFIX = "ws:node:";
+    public static final String DIRECTED_CHANNEL = "ws:directed"; // canal lógico de sendToPlayers encaminhado
+    public static final String SESSION_NODE_KEY = "ws:session_node"; // HASH summoner normalizado → nodeId
+
+    private static final long REMOTE_TTL_MS = 30_000;
+    // Leituras em voo duram no máximo o timeout do Redis; pisos mais velhos que
+    // isso não protegem mais nada
+    private static final long FLOOR_RETENTION_MS = 60_000;
+    private static final long NODE_COUNT_INTERVAL_MS = 30_000;
+
+    private record Route(String summoner, String summonerName, String sessionId, long version, long expiresAt) {
+    }
+
+    private record Floor(long version, long createdAt) {
+    }
+
+    /**
+     * Dono de cada summoner (ARGV[2..]), separados por vírgula na mesma ordem;
+     * ARGV[1] = prefixo do contador por instância. Instância sem contador
+     * (caiu) conta como sem dono ("").
+     */
+    private static final RedisScript<String> OWNERS_SCRIPT = new DefaultRedisScript<>(
+            "local out = {}\n" +
+                    "for i = 2, #ARGV do\n" +
+                    "  local node = redis.call('HGET', KEYS[1], ARGV[i])\n" +
+                    "  if node and redis.call('EXISTS', ARGV[1] .. node) == 1 then\n" +
+                    "    out[i - 1] = node\n" +
+                    "  else\n" +
+                    "    out[i - 1] = ''\n" +
+                    "  end\n" +
+                    "end\n" +
+                    "return table.concat(out, ',')",
+            String.class);
+
+    /**
+     * Libera o summoner só se ainda pertence a esta instância (ARGV = summoner,
+     * nodeId)
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then\n" +
+                    "  return redis.call('HDEL', KEYS[1], ARGV[1])\n" +
+                    "end\n" +
+                    "return 0",
+            Long.class);
+
+    private static final GenericToStringSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "return redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])",
+            Long.class);
+
+    /**
+     * Envelope publicado em ws:node:{nodeId}: canal lógico (match:found,
+     * ws:directed, ...) + payload original
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NodeEnvelope {
+        private String channel;
+        private String payload;
+    }
+
+    /**
+     * Mensagem de invalidação publicada em {@link #ROUTE_CHANNEL}
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RouteInvalidation {
+        private String summoner;
+        private String sessionId;
+        private long version;
+    }
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Sessões WebSocket abertas nesta instância
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
+    // Índice local autoritativo (summoner normalizado / sessionId → rota)
+    private final Map<String, Route> localBySummoner = new ConcurrentHashMap<>();
+    private final Map<String, Route> localBySession = new ConcurrentHashMap<>();
+    // Rotas de outras instâncias (TTL + invalidação)
+    private final Map<String, Route> remote = new ConcurrentHashMap<>();
+    private final Map<String, Floor> floors = new ConcurrentHashMap<>();
+
+    public SessionRouteCache(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // ========================================
+    // CICLO DE VIDA DA CONEXÃO (MatchmakingWebSocketService)
+    // ========================================
+
+    public void sessionOpened(String sessionId) {
+        if (sessionId != null) {
+            connectedSessions.add(sessionId);
+        }
+    }
+
+    public void sessionClosed(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        connectedSessions.remove(sessionId);
+        Route route = localBySession.remove(sessionId);
+        if (route != null && localBySummoner.remove(route.summoner(), route)) {
+            releaseOwnership(route.summoner());
+        }
+    }
+
+    // ========================================
+    // LEITURA
+    // ========================================
+
+    /**
+     * sessionId do summoner (normalizado) sem ir ao Redis, se conhecido
+     */
+    public Optional<String> sessionFor(String summoner) {
+        Route route = localBySummoner.get(summoner);
+        if (route != null) {
+            return Optional.of(route.sessionId());
+        }
+        route = remote.get(summoner);
+        if (route != null) {
+            if (route.expiresAt() > System.currentTimeMillis()) {
+                return Optional.of(route.sessionId());
+            }
+            remote.remove(summoner, route);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * summonerName de uma sessão conectada nesta instância (autoritativo)
+     */
+    public Optional<String> localSummonerFor(String sessionId) {
+        Route route = localBySession.get(sessionId);
+        return route != null ? Optional.of(route.summonerName()) : Optional.empty();
+    }
+
+    // ========================================
+    // ESCRITA
+    // ========================================
+
+    /**
+     * Próxima versão de rota (chamado por quem escreve ws:client_info)
+     */
+    public long nextVersion() {
+        Long version = redisTemplate.opsForValue().increment(ROUTE_VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Registra a rota lida/escrita no Redis: local se a sessão está conectada
+     * aqui, remota (com TTL) caso contrário
+     *
+     * @param version versão do ClientInfo; null (entradas antigas) não é
+     *                cacheada
+     */
+    public void remember(String summoner, String summonerName, String sessionId, Long version) {
+        if (summoner == null || sessionId == null || version == null) {
+            return;
+        }
+        Floor floor = floors.get(summoner);
+        if (floor != null && version < floor.version()) {
+            // Leitura anterior a uma invalidação: obsoleta
+            return;
+        }
+
+        if (connectedSessions.contains(sessionId)) {
+            Route route = new Route(summoner, summonerName, sessionId, version, Long.MAX_VALUE);
+            Route previous = localBySummoner.put(summoner, route);
+            if (previous != null && !previous.sessionId().equals(sessionId)) {
+                localBySession.remove(previous.sessionId(), previous);
+            }
+            localBySession.put(sessionId, route);
+            remote.remove(summoner);
+            if (previous == null || !previous.sessionId().equals(sessionId)) {
+                claimOwnership(summoner);
+            }
+        } else {
+            Route route = new Route(summoner, summonerName, sessionId, version,
+                    System.currentTimeMillis() + REMOTE_TTL_MS);
+            remote.merge(summoner, route, (current, candidate) -> candidate.version() >= current.version()
+                    ? candidate
+                    : current);
+        }
+    }
+
+    /**
+     * Aplica localmente e publica a mudança de rota para as outras instâncias
+     *
+     * @param sessionId nova sessão do summoner (null = removida)
+     */
+    public void publishInvalidation(String summoner, String sessionId, long version) {
+        RouteInvalidation invalidation = new RouteInvalidation(summoner, sessionId, version);
+        applyInvalidation(invalidation);
+        try {
+            redisTemplate.convertAndSend(ROUTE_CHANNEL, objectMapper.writeValueAsString(invalidation));
+        } catch (Exception e) {
+            log.warn("⚠️ [SessionRoute] Falha ao publicar invalidação de {}: {}", summoner, e.getMessage());
+        }
+    }
+
+    /**
+     * Listener Pub/Sub (ws:route) - ver RedisPubSubConfig
+     */
+    public void handleRouteInvalidation(String message, String channel) {
+        try {
+            applyInvalidation(objectMapper.readValue(message, RouteInvalidation.class));
+        } catch (Exception e) {
+            log.warn("⚠️ [SessionRoute] Invalidação inválida em {}: {}", channel, e.getMessage());
+        }
+    }
+
+    private void applyInvalidation(RouteInvalidation invalidation) {
+        String summoner = invalidation.getSummoner();
+        long version = invalidation.getVersion();
+        if (summoner == null) {
+            return;
+        }
+
+        floors.merge(summoner, new Floor(version, System.currentTimeMillis()),
+                (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+
+        remote.computeIfPresent(summoner, (key, route) -> route.version() < version ? null : route);
+
+        // Entrada local só cai se outra sessão (ou remoção) tem versão mais nova
+        Route local = localBySummoner.get(summoner);
+        if (local != null && local.version() < version && !local.sessionId().equals(invalidation.getSessionId())) {
+            if (localBySummoner.remove(summoner, local)) {
+                localBySession.remove(local.sessionId(), local);
+                log.debug("🔄 [SessionRoute] Rota local de {} substituída (v{} → v{})", summoner,
+                        local.version(), version);
+            }
+        }
+    }
+
+    // ========================================
+    // ROTEAMENTO POR INSTÂNCIA DONA
+    // ========================================
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Canal Pub/Sub exclusivo desta instância (ver RedisPubSubConfig)
+     */
+    public String nodeChannel() {
+        return NODE_CHANNEL_PREFIX + nodeId;
+    }
+
+    /**
+     * Agrupa os jogadores pela instância dona da sessão (ordem preservada).
+     * Sessões locais não vão ao Redis; jogadores sem dono vivo ficam com esta
+     * instância.
+     *
+     * @return nodeId → jogadores (nomes como recebidos)
+     */
+    public Map<String, List<String>> partitionByOwner(Collection<String> summonerNames) {
+        Map<String, List<String>> byNode = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        List<String> unresolvedKeys = new ArrayList<>();
+
+        for (String name : summonerNames) {
+            String summoner = RedisWebSocketSessionService.normalizeSummonerName(name);
+            if (localBySummoner.containsKey(summoner)) {
+                byNode.computeIfAbsent(nodeId, node -> new ArrayList<>()).add(name);
+            } else {
+                unresolved.add(name);
+                unresolvedKeys.add(summoner);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return byNode;
+        }
+
+        String[] owners = null;
+        try {
+            List<Object> args = new ArrayList<>(unresolvedKeys.size() + 1);
+            args.add(NODE_COUNT_PREFIX);
+            args.addAll(unresolvedKeys);
+            String joined = redisTemplate.execute(OWNERS_SCRIPT, RedisSerializer.string(),
+                    RedisSerializer.string(), List.of(SESSION_NODE_KEY), args.toArray());
+            owners = joined != null ? joined.split(",", -1) : null;
+        } catch (Exception e) {
+            log.warn("⚠️ [SessionRoute] Falha ao buscar donos de sessão: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < unresolved.size(); i++) {
+            String owner = owners != null && i < owners.length ? owners[i] : "";
+            String node = owner.isEmpty() ? nodeId : owner;
+            byNode.computeIfAbsent(node, key -> new ArrayList<>()).add(unresolved.get(i));
+        }
+        return byNode;
+    }
+
+    /**
+     * Publica no canal da instância dona (payload já serializado)
+     */
+    public boolean publishToNode(String targetNodeId, String channel, String payload) {
+        try {
+            redisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + targetNodeId,
+                    objectMapper.writeValueAsString(new NodeEnvelope(channel, payload)));
+            return true;
+        } catch (Exception e) {
+            log.warn("⚠️ [SessionRoute] Falha ao publicar {} para instância {}: {}", channel, targetNodeId,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private void claimOwnership(String summoner) {
+        try {
+            redisTemplate.execute(CLAIM_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(SESSION_NODE_KEY), summoner, nodeId);
+        } catch (Exception e) {
+            log.warn("⚠️ [SessionRoute] Falha ao registrar dono de {}: {}", summoner, e.getMessage());
+        }
+    }
+
+    private void releaseOwnership(String summoner) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(SESSION_NODE_KEY), summoner, nodeId);
+        } catch (Exception e) {
+            log.debug("⚠️ [SessionRoute] Falha ao liberar dono de {}: {}", summoner, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove pisos de versão antigos e rotas remotas expiradas
+     */
+    @Scheduled(fixedDelay = FLOOR_RETENTION_MS)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        floors.values().removeIf(floor -> now - floor.createdAt() > FLOOR_RETENTION_MS);
+        remote.values().removeIf(route -> route.expiresAt() <= now);
+    }
+
+    /**
+     * Publica o contador de sessões desta instância
+     */
+    @Scheduled(fixedDelay = NODE_COUNT_INTERVAL_MS)
+    public void publishNodeCount() {
+        try {
+            redisTemplate.opsForValue().set(NODE_COUNT_PREFIX + nodeId, connectedSessions.size(),
+                    Duration.ofMillis(NODE_COUNT_INTERVAL_MS * 3));
+        } catch (Exception e) {
+            log.debug("⚠️ [SessionRoute] Falha ao publicar contador da instância: {}", e.getMessage());
+        }
+    }
+
+    public int localSessionCount() {
+        return connectedSessions.size();
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "nodeId", nodeId,
+                "connectedSessions", connectedSessions.size(),
+                "localRoutes", localBySummoner.size(),
+                "remoteRoutes", remote.size(),
+                "versionFloors", floors.size());
+    }
+}
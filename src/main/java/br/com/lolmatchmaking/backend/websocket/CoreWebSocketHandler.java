@@ -9,9 +9,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
@@ -25,6 +27,7 @@ import br.com.lolmatchmaking.backend.service.QueueService;
 // import br.com.lolmatchmaking.backend.service.AcceptanceService;
 // import br.com.lolmatchmaking.backend.service.MatchmakingOrchestrator;
 import br.com.lolmatchmaking.backend.service.DraftFlowService;
+import br.com.lolmatchmaking.backend.service.DraftStateStore;
 import br.com.lolmatchmaking.backend.service.LCUConnectionRegistry;
 import br.com.lolmatchmaking.backend.service.RedisLCUConnectionService;
 import br.com.lolmatchmaking.backend.service.redis.RedisWebSocketSessionService;
@@ -61,7 +64,6 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     private static final String FIELD_SUMMONER_NAME = "summonerName";
     private static final String FIELD_STATUS = "status";
     private static final String FIELD_PLAYER_ID = "playerId";
-    private static final String FIELD_MATCH_ID = "matchId";
 
     private final QueueService queueService;
     // ✅ REMOVIDO: AcceptanceService e MatchmakingOrchestrator deprecated
@@ -87,6 +89,13 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     // ✅ NOVO: RedisTemplate para acknowledgments
     private final RedisTemplate<String, Object> redisTemplate;
 
+    // ✅ NOVO: Codificação compacta negociada (CBOR) por sessão
+    private final WebSocketFrameEncoder frameEncoder;
+    private final OutboundQueueService outboundQueues;
+
+    // ✅ NOVO: Despacho tipado das mensagens recebidas
+    private final InboundMessageDispatcher inbound;
+
     // ✅ DEPRECIADO: Migrado para Redis (backward compatibility)
     // ✅ REMOVIDO: identifiedPlayers e lastLcuStatus - Redis é fonte única da
     // verdade
@@ -129,44 +138,78 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
         webSocketService.addSession(sessionId, session, ipAddress, userAgent);
     }
 
+    /**
+     * ✅ NOVO: Tabela de despacho (type → DTO tipado + handler), no lugar do
+     * switch sobre JsonNode. Handlers rodam fora da thread do container, em
+     * ordem por sessão - ver {@link InboundMessageDispatcher}
+     */
+    @PostConstruct
+    void registerHandlers() {
+        inbound.register("identify_player", JsonNode.class, this::handleIdentify);
+        inbound.register("electron_identify", JsonNode.class, this::handleElectronIdentify);
+        inbound.register("identity_confirmed", JsonNode.class,
+                (session, root) -> webSocketService.handleIdentityConfirmed(session.getId(), root));
+        inbound.register("identity_confirmation_failed", JsonNode.class,
+                (session, root) -> webSocketService.handleIdentityConfirmationFailed(session.getId(), root));
+        inbound.register("identity_confirmed_critical", JsonNode.class,
+                (session, root) -> webSocketService.handleCriticalIdentityConfirmed(session.getId(), root));
+        inbound.register("request_critical_identity_confirmation", JsonNode.class,
+                this::handleRequestCriticalIdentityConfirmation);
+        inbound.register("get_active_sessions", JsonNode.class, this::handleGetActiveSessions);
+        inbound.register("enable_unified_logs", JsonNode.class, this::handleEnableUnifiedLogs);
+        inbound.registerInline("ping", JsonNode.class,
+                (session, root) -> session.sendMessage(new TextMessage("{\"type\":\"pong\"}")));
+        inbound.register("join_queue", JsonNode.class, this::handleJoinQueue);
+        inbound.register("leave_queue", InboundMessages.SummonerRequest.class, this::handleLeaveQueue);
+        inbound.register("accept_match", InboundMessages.AcceptDecline.class,
+                (session, request) -> handleAcceptDecline(session, request, true));
+        inbound.register("decline_match", InboundMessages.AcceptDecline.class,
+                (session, request) -> handleAcceptDecline(session, request, false));
+        inbound.register("acceptance_status", InboundMessages.AcceptanceStatus.class, this::handleAcceptanceStatus);
+        inbound.register("get_queue_status", InboundMessages.SummonerRequest.class, this::handleGetQueueStatus);
+        inbound.register("draft_action", InboundMessages.DraftAction.class, this::handleDraftAction);
+        inbound.register("draft_confirm", InboundMessages.DraftPlayer.class, this::handleDraftConfirm);
+        inbound.register("draft_snapshot", InboundMessages.DraftPlayer.class, this::handleDraftSnapshot);
+        inbound.register("draft_resync", InboundMessages.DraftResync.class, this::handleDraftResync);
+        inbound.register("lcu_status", JsonNode.class, this::handleLcuStatus);
+        inbound.register("register_lcu_connection", InboundMessages.RegisterLcuConnection.class,
+                this::handleRegisterLcuConnection);
+        // Completa RPCs pendentes: não pode esperar atrás de um handler da mesma
+        // sessão que aguarda justamente essa resposta
+        inbound.registerInline("lcu_response", JsonNode.class, this::handleLcuResponse);
+        inbound.register("match_found_acknowledged", InboundMessages.Acknowledgement.class,
+                this::handleMatchFoundAcknowledged);
+        inbound.register("draft_acknowledged", InboundMessages.Acknowledgement.class,
+                this::handleDraftAcknowledged);
+        inbound.register("game_acknowledged", InboundMessages.Acknowledgement.class, this::handleGameAcknowledged);
+        inbound.register("reconnect_check_response", JsonNode.class, this::handleReconnectCheckResponse);
+        inbound.register("match_vote_progress", JsonNode.class, this::handleMatchVoteProgress);
+        inbound.register("match_vote_update", JsonNode.class, this::handleMatchVoteUpdate);
+        inbound.register("verify_session_sync", InboundMessages.VerifySessionSync.class,
+                this::handleVerifySessionSync);
+        inbound.register("electron_heartbeat", InboundMessages.ElectronHeartbeat.class,
+                this::handleElectronHeartbeat);
+        inbound.register("event_resume", InboundMessages.EventResume.class, this::handleEventResume);
+        inbound.register("event_ack", InboundMessages.EventAck.class,
+                (session, ack) -> webSocketService.ackEvents(session.getId(), ack.seqOrZero()));
+    }
+
     @Override
-    protected void handleTextMessage(@NonNull WebSocketSession session, @NonNull TextMessage message) throws Exception {
-        JsonNode root = objectMapper.readTree(message.getPayload());
-        String type = root.path("type").asText();
-        switch (type) {
-            case "identify_player" -> handleIdentify(session, root);
-            case "electron_identify" -> handleElectronIdentify(session, root);
-            case "identity_confirmed" -> webSocketService.handleIdentityConfirmed(session.getId(), root);
-            case "identity_confirmation_failed" ->
-                webSocketService.handleIdentityConfirmationFailed(session.getId(), root);
-            case "identity_confirmed_critical" ->
-                webSocketService.handleCriticalIdentityConfirmed(session.getId(), root);
-            case "request_critical_identity_confirmation" -> handleRequestCriticalIdentityConfirmation(session, root);
-            case "get_active_sessions" -> handleGetActiveSessions(session, root);
-            case "enable_unified_logs" -> handleEnableUnifiedLogs(session, root); // ✅ NOVO
-            case "ping" -> session.sendMessage(new TextMessage("{\"type\":\"pong\"}"));
-            case "join_queue" -> handleJoinQueue(session, root);
-            case "leave_queue" -> handleLeaveQueue(session, root);
-            case "accept_match" -> handleAcceptDecline(session, root, true);
-            case "decline_match" -> handleAcceptDecline(session, root, false);
-            case "acceptance_status" -> handleAcceptanceStatus(session, root);
-            case "get_queue_status" -> handleGetQueueStatus(session, root);
-            case "draft_action" -> handleDraftAction(session, root);
-            case "draft_confirm" -> handleDraftConfirm(session, root);
-            case "draft_snapshot" -> handleDraftSnapshot(session, root);
-            case "lcu_status" -> handleLcuStatus(session, root);
-            case "register_lcu_connection" -> handleRegisterLcuConnection(session, root);
-            case "lcu_response" -> handleLcuResponse(session, root);
-            case "match_found_acknowledged" -> handleMatchFoundAcknowledged(session, root);
-            case "draft_acknowledged" -> handleDraftAcknowledged(session, root);
-            case "game_acknowledged" -> handleGameAcknowledged(session, root);
-            case "reconnect_check_response" -> handleReconnectCheckResponse(session, root);
-            case "match_vote_progress" -> handleMatchVoteProgress(session, root);
-            case "match_vote_update" -> handleMatchVoteUpdate(session, root);
-            case "verify_session_sync" -> handleVerifySessionSync(session, root);
-            case "electron_heartbeat" -> handleElectronHeartbeat(session, root);
-            default -> session.sendMessage(new TextMessage("{\"error\":\"unknown_type\"}"));
-        }
+    protected void handleTextMessage(@NonNull WebSocketSession rawSession, @NonNull TextMessage message) {
+        // ✅ Respostas passam pela fila de saída da sessão (escritor único, não
+        // bloqueia a thread do container)
+        WebSocketSession session = webSocketService.outboundSession(rawSession);
+        inbound.dispatch(session, message.getPayload());
+    }
+
+    /**
+     * ✅ NOVO: Frames binários (CBOR) de clientes que negociaram codificação
+     * compacta; mesma rota/tratamento do JSON
+     */
+    @Override
+    protected void handleBinaryMessage(@NonNull WebSocketSession rawSession, @NonNull BinaryMessage message) {
+        WebSocketSession session = webSocketService.outboundSession(rawSession);
+        inbound.dispatch(session, message);
     }
 
     /**
@@ -181,23 +224,18 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
      * "authToken": "base64token"
      * }
      */
-    private void handleRegisterLcuConnection(WebSocketSession session, JsonNode root) throws IOException {
-        String summonerName = root.path(FIELD_SUMMONER_NAME).asText(null);
-        String host = root.path("host").asText("127.0.0.1");
-        int port = root.path("port").asInt(0);
-        String authToken = root.path("authToken").asText(null);
+    private void handleRegisterLcuConnection(WebSocketSession session,
+            InboundMessages.RegisterLcuConnection request) throws IOException {
+        String summonerName = request.summonerName();
+        String host = request.hostOrLocal();
+        int port = request.portOrZero();
+        String authToken = request.authToken();
 
         // ✅ NOVO: Extrair profileIconId, puuid e summonerId do payload
         // Nota: gameName e tagLine virão em electron_identify
-        Integer profileIconId = root.has("profileIconId") && !root.get("profileIconId").isNull()
-                ? root.get("profileIconId").asInt()
-                : null;
-        String puuid = root.has("puuid") && !root.get("puuid").isNull()
-                ? root.get("puuid").asText()
-                : null;
-        String summonerId = root.has("summonerId") && !root.get("summonerId").isNull()
-                ? root.get("summonerId").asText()
-                : null;
+        Integer profileIconId = request.profileIconId();
+        String puuid = request.puuid();
+        String summonerId = request.summonerId();
 
         log.info("📦 [WS] register_lcu_connection recebido: summonerName={}, profileIconId={}, puuid={}, summonerId={}",
                 summonerName, profileIconId, puuid != null ? "present" : "null",
@@ -809,10 +847,6 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
 
                 log.info("🔗 [CoreWS] Mapeamento ARMazenado: {} → {} (Redis + cache local, mappings antigos limpos)",
                         session.getId(), customSessionId);
-
-                // ✅ CRÍTICO: Enviar eventos pendentes AGORA que customSessionId está
-                // registrado!
-                webSocketService.sendPendingEventsForSession(customSessionId, session.getId());
             }
 
             // ✅ CRÍTICO: SEMPRE registrar usando randomSessionId (session.getId())
@@ -866,43 +900,23 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
                         summonerName);
             }
 
-            // Responder
-            session.sendMessage(new TextMessage("{\"type\":\"electron_identified\",\"success\":true}"));
-
-            // ✅ CRÍTICO: Verificar e enviar eventos pendentes APÓS identificação
-            // bem-sucedida
-            // Agora temos o customSessionId correto, podemos buscar eventos pendentes
-            try {
-                String randomSessionId = session.getId();
-                List<br.com.lolmatchmaking.backend.service.redis.RedisWebSocketEventService.PendingEvent> pendingEvents = webSocketService
-                        .getPendingEventsByCustomSessionId(customSessionId);
-
-                if (!pendingEvents.isEmpty()) {
-                    log.info("📬 [CoreWS] ╔═══════════════════════════════════════════════════════════════╗");
-                    log.info("📬 [CoreWS] ║ {} eventos pendentes encontrados", pendingEvents.size());
-                    log.info("📬 [CoreWS] ║ CustomSessionId: {}", customSessionId);
-                    log.info("📬 [CoreWS] ║ RandomSessionId: {}", randomSessionId);
-                    log.info("📬 [CoreWS] ╚═══════════════════════════════════════════════════════════════╝");
-
-                    for (var event : pendingEvents) {
-                        try {
-                            webSocketService.sendMessage(randomSessionId, event.getEventType(), event.getPayload());
-                            log.info("✅ [CoreWS] Evento pendente enviado: {} → {}", event.getEventType(),
-                                    customSessionId);
-                        } catch (Exception e) {
-                            log.error("❌ [CoreWS] Erro ao enviar evento pendente: {}", event.getEventType(), e);
-                        }
-                    }
+            // Responder (no formato atual; o negociado vale a partir do próximo frame)
+            WebSocketFrameEncoder.WireFormat wireFormat = frameEncoder.negotiate(root.path("wireFormats"));
+            session.sendMessage(new TextMessage("{\"type\":\"electron_identified\",\"success\":true,\"wireFormat\":\""
+                    + wireFormat.wireName() + "\"}"));
+            outboundQueues.setWireFormat(session.getId(), wireFormat);
+            if (wireFormat != WebSocketFrameEncoder.WireFormat.JSON) {
+                log.info("📦 [CoreWS] Sessão {} usando codificação {}", session.getId(), wireFormat);
+            }
 
-                    // Limpar eventos após envio
-                    webSocketService.clearPendingEventsByCustomSessionId(customSessionId);
-                    log.info("🗑️ [CoreWS] {} eventos pendentes limpos para customSessionId: {}", pendingEvents.size(),
-                            customSessionId);
-                } else {
-                    log.debug("📭 [CoreWS] Nenhum evento pendente para customSessionId: {}", customSessionId);
-                }
-            } catch (Exception e) {
-                log.error("❌ [CoreWS] Erro ao verificar eventos pendentes: {}", e.getMessage());
+            // ✅ CRÍTICO: Reenviar eventos perdidos APÓS identificação bem-sucedida
+            // O log é por jogador; o cliente informa o último seq visto (lastEventSeq),
+            // clientes antigos recebem o que o servidor não conseguiu entregar
+            Long lastEventSeq = root.hasNonNull("lastEventSeq") ? root.get("lastEventSeq").asLong() : null;
+            int replayed = webSocketService.resumeEvents(session.getId(), summonerName, lastEventSeq);
+            if (replayed > 0) {
+                log.info("📬 [CoreWS] {} eventos reenviados para {} (lastEventSeq: {})", replayed, summonerName,
+                        lastEventSeq);
             }
 
             // ✅ NOVO: Enviar confirmação de sincronização de sessão para Electron
@@ -1060,6 +1074,7 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
 
         sessionRegistry.remove(sessionId);
         webSocketService.removeSession(sessionId);
+        inbound.release(sessionId);
 
         // 🗑️ Remover conexão LCU do registry
         lcuConnectionRegistry.unregisterBySession(sessionId);
@@ -1071,10 +1086,10 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     /**
      * ✅ NOVO: Handler para acknowledgment de match_found (jogador VIU o modal)
      */
-    private void handleMatchFoundAcknowledged(WebSocketSession session, JsonNode root) {
+    private void handleMatchFoundAcknowledged(WebSocketSession session, InboundMessages.Acknowledgement ack) {
         try {
-            long matchId = root.path("matchId").asLong();
-            String playerName = root.path("playerName").asText();
+            long matchId = ack.matchIdOrZero();
+            String playerName = ack.playerNameOrEmpty();
 
             // Salvar no Redis que este jogador JÁ recebeu o match_found
             String ackKey = "match_found_ack:" + matchId + ":" + playerName.toLowerCase();
@@ -1089,10 +1104,10 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     /**
      * ✅ NOVO: Handler para acknowledgment de draft (jogador VIU o draft)
      */
-    private void handleDraftAcknowledged(WebSocketSession session, JsonNode root) {
+    private void handleDraftAcknowledged(WebSocketSession session, InboundMessages.Acknowledgement ack) {
         try {
-            long matchId = root.path("matchId").asLong();
-            String playerName = root.path("playerName").asText();
+            long matchId = ack.matchIdOrZero();
+            String playerName = ack.playerNameOrEmpty();
 
             // Salvar no Redis que este jogador JÁ recebeu o draft
             String ackKey = "draft_ack:" + matchId + ":" + playerName.toLowerCase();
@@ -1107,10 +1122,10 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     /**
      * ✅ NOVO: Handler para acknowledgment de game (jogador VIU o game)
      */
-    private void handleGameAcknowledged(WebSocketSession session, JsonNode root) {
+    private void handleGameAcknowledged(WebSocketSession session, InboundMessages.Acknowledgement ack) {
         try {
-            long matchId = root.path("matchId").asLong();
-            String playerName = root.path("playerName").asText();
+            long matchId = ack.matchIdOrZero();
+            String playerName = ack.playerNameOrEmpty();
 
             // Salvar no Redis que este jogador JÁ recebeu o game
             String ackKey = "game_ack:" + matchId + ":" + playerName.toLowerCase();
@@ -1228,8 +1243,9 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
         broadcastQueueUpdate();
     }
 
-    private void handleLeaveQueue(WebSocketSession session, JsonNode root) throws IOException {
-        String summonerName = root.path("data").path(FIELD_SUMMONER_NAME).asText(null);
+    private void handleLeaveQueue(WebSocketSession session, InboundMessages.SummonerRequest request)
+            throws IOException {
+        String summonerName = request.summonerName();
         if (summonerName == null) {
             session.sendMessage(new TextMessage(
                     "{\"type\":\"leave_queue_result\",\"success\":false,\"error\":\"summonerName required\"}"));
@@ -1313,10 +1329,12 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void handleAcceptDecline(WebSocketSession session, JsonNode root, boolean accept) throws IOException {
-        long queuePlayerId = root.path("data").path("queuePlayerId").asLong(-1);
-        long matchId = root.path("data").path("matchId").asLong(-1);
-        String summonerName = root.path("data").path("summonerName").asText(null);
+    private void handleAcceptDecline(WebSocketSession session, InboundMessages.AcceptDecline request,
+            boolean accept) throws IOException {
+        InboundMessages.AcceptDeclineData data = request.payload();
+        long queuePlayerId = data.queuePlayerIdOrInvalid();
+        long matchId = data.matchIdOrInvalid();
+        String summonerName = data.summonerName();
 
         if (queuePlayerId <= 0) {
             session.sendMessage(new TextMessage(
@@ -1357,8 +1375,9 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
                 new TextMessage("{\"type\":\"accept_match_result\",\"success\":true,\"accepted\":" + accept + "}"));
     }
 
-    private void handleAcceptanceStatus(WebSocketSession session, JsonNode root) throws IOException {
-        long matchTempId = root.path("data").path("matchTempId").asLong(-1);
+    private void handleAcceptanceStatus(WebSocketSession session, InboundMessages.AcceptanceStatus request)
+            throws IOException {
+        long matchTempId = request.matchTempIdOrInvalid();
         if (matchTempId <= 0) {
             session.sendMessage(new TextMessage(
                     "{\"type\":\"acceptance_status\",\"success\":false,\"error\":\"matchTempId invalid\"}"));
@@ -1391,24 +1410,22 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void handleGetQueueStatus(WebSocketSession session, JsonNode root) throws IOException {
-        String currentSummoner = null;
-        JsonNode dataNode = root.path("data");
-        if (!dataNode.isMissingNode()) {
-            currentSummoner = dataNode.path(FIELD_SUMMONER_NAME).asText(null);
-        }
+    private void handleGetQueueStatus(WebSocketSession session, InboundMessages.SummonerRequest request)
+            throws IOException {
+        String currentSummoner = request.summonerName();
         var status = queueService.queueStatus(currentSummoner);
         session.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of(
                 "type", "queue_status",
                 FIELD_STATUS, status))));
     }
 
-    private void handleDraftAction(WebSocketSession session, JsonNode root) throws IOException {
-        JsonNode data = root.path("data");
-        long matchId = data.path(FIELD_MATCH_ID).asLong(-1);
-        int actionIndex = data.path("actionIndex").asInt(-1);
-        String championId = data.path("championId").asText(null);
-        String byPlayer = data.path(FIELD_PLAYER_ID).asText(null);
+    private void handleDraftAction(WebSocketSession session, InboundMessages.DraftAction request)
+            throws IOException {
+        InboundMessages.DraftActionData data = request.payload();
+        long matchId = data.matchIdOrInvalid();
+        int actionIndex = data.actionIndexOrInvalid();
+        String championId = data.championId();
+        String byPlayer = data.playerId();
         if (matchId <= 0 || actionIndex < 0 || championId == null || byPlayer == null) {
             session.sendMessage(new TextMessage("{\"type\":\"draft_action_result\",\"success\":false}"));
             return;
@@ -1431,14 +1448,17 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        boolean ok = draftFlowService.processAction(matchId, actionIndex, championId, byPlayer);
-        session.sendMessage(new TextMessage("{\"type\":\"draft_action_result\",\"success\":" + ok + "}"));
+        // ✅ result: applied | stale | not_your_turn | rejected | failed
+        DraftStateStore.ActionResult result = draftFlowService.submitAction(matchId, actionIndex, championId,
+                byPlayer);
+        session.sendMessage(new TextMessage("{\"type\":\"draft_action_result\",\"success\":"
+                + (result == DraftStateStore.ActionResult.APPLIED) + ",\"result\":\"" + result.wireName() + "\"}"));
     }
 
-    private void handleDraftConfirm(WebSocketSession session, JsonNode root) throws IOException {
-        JsonNode data = root.path("data");
-        long matchId = data.path(FIELD_MATCH_ID).asLong(-1);
-        String playerId = data.path(FIELD_PLAYER_ID).asText(null);
+    private void handleDraftConfirm(WebSocketSession session, InboundMessages.DraftPlayer request)
+            throws IOException {
+        long matchId = request.matchIdOrInvalid();
+        String playerId = request.playerId();
         if (matchId <= 0 || playerId == null) {
             session.sendMessage(new TextMessage("{\"type\":\"draft_confirm_result\",\"success\":false}"));
             return;
@@ -1464,9 +1484,10 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
         session.sendMessage(new TextMessage("{\"type\":\"draft_confirm_result\",\"success\":true}"));
     }
 
-    private void handleDraftSnapshot(WebSocketSession session, JsonNode root) throws IOException {
-        long matchId = root.path("data").path(FIELD_MATCH_ID).asLong(-1);
-        String playerId = root.path("data").path(FIELD_PLAYER_ID).asText(null);
+    private void handleDraftSnapshot(WebSocketSession session, InboundMessages.DraftPlayer request)
+            throws IOException {
+        long matchId = request.matchIdOrInvalid();
+        String playerId = request.playerId();
 
         if (matchId <= 0) {
             session.sendMessage(new TextMessage("{\"type\":\"draft_snapshot\",\"success\":false}"));
@@ -1502,6 +1523,38 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
                 "snapshot", snap))));
     }
 
+    /**
+     * ✅ NOVO: Lacuna de versão nos eventos delta do draft → snapshot completo
+     * (draft_updated) enviado só para este jogador
+     */
+    private void handleDraftResync(WebSocketSession session, InboundMessages.DraftResync request)
+            throws IOException {
+        long matchId = request.matchIdOrInvalid();
+        String playerId = request.playerId();
+        if (matchId <= 0 || playerId == null) {
+            session.sendMessage(new TextMessage("{\"type\":\"draft_resync_result\",\"success\":false}"));
+            return;
+        }
+
+        if (!validatePlayerSession(session, playerId)) {
+            log.warn("🚫 [Security] Sessão tentou pedir resync do draft como outro player");
+            session.sendMessage(new TextMessage(
+                    "{\"type\":\"draft_resync_result\",\"success\":false,\"error\":\"session_mismatch\"}"));
+            return;
+        }
+
+        if (!redisPlayerMatch.validateOwnership(playerId, matchId)) {
+            log.warn("🚫 [SEGURANÇA] Jogador {} pediu resync de match {} sem ownership!", playerId, matchId);
+            session.sendMessage(new TextMessage(
+                    "{\"type\":\"draft_resync_result\",\"success\":false,\"error\":\"not_in_match\"}"));
+            return;
+        }
+
+        boolean sent = draftFlowService.resyncIfStale(matchId, playerId, request.versionOrZero());
+        session.sendMessage(new TextMessage(
+                "{\"type\":\"draft_resync_result\",\"success\":true,\"snapshotSent\":" + sent + "}"));
+    }
+
     /**
      * ✅ NOVO: Handler para resposta do Electron ao evento de reconexão
      * O Electron envia dados da partida ativa se tiver uma
@@ -1566,11 +1619,12 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
      * ✅ NOVO: Handler para verificar sincronização de sessão
      * Permite ao Electron verificar se seu session ID está sincronizado
      */
-    private void handleVerifySessionSync(WebSocketSession session, JsonNode root) throws IOException {
+    private void handleVerifySessionSync(WebSocketSession session, InboundMessages.VerifySessionSync request)
+            throws IOException {
         try {
             String randomSessionId = session.getId();
-            String requestedCustomSessionId = root.path("customSessionId").asText(null);
-            String requestedSummonerName = root.path("summonerName").asText(null);
+            String requestedCustomSessionId = request.customSessionId();
+            String requestedSummonerName = request.summonerName();
 
             log.debug("🔍 [Session Sync] Verificação solicitada: randomSID={}, customSID={}, summoner={}",
                     randomSessionId, requestedCustomSessionId, requestedSummonerName);
@@ -1642,17 +1696,13 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
     /**
      * ✅ NOVO: Handler para heartbeat do Electron com dados atualizados
      */
-    private void handleElectronHeartbeat(WebSocketSession session, JsonNode root) {
+    private void handleElectronHeartbeat(WebSocketSession session, InboundMessages.ElectronHeartbeat heartbeat) {
         try {
-            String customSessionId = root.path("customSessionId").asText(null);
-            String summonerName = root.path("summonerName").asText(null);
-            String puuid = root.path("puuid").asText(null);
-            Integer profileIconId = root.has("profileIconId") && !root.get("profileIconId").isNull()
-                    ? root.get("profileIconId").asInt()
-                    : null;
-            Integer summonerLevel = root.has("summonerLevel") && !root.get("summonerLevel").isNull()
-                    ? root.get("summonerLevel").asInt()
-                    : null;
+            String customSessionId = heartbeat.customSessionId();
+            String summonerName = heartbeat.summonerName();
+            String puuid = heartbeat.puuid();
+            Integer profileIconId = heartbeat.profileIconId();
+            Integer summonerLevel = heartbeat.summonerLevel();
 
             if (customSessionId == null || summonerName == null) {
                 log.debug("⚠️ [Heartbeat] Heartbeat incompleto recebido");
@@ -1720,4 +1770,20 @@ public class CoreWebSocketHandler extends TextWebSocketHandler {
             log.debug("❌ [Heartbeat] Erro ao processar heartbeat: {}", e.getMessage());
         }
     }
+
+    /**
+     * ✅ NOVO: Cliente informa o último seq visto (reconexão sem novo
+     * electron_identify) e recebe só a lacuna do log de eventos
+     */
+    private void handleEventResume(WebSocketSession session, InboundMessages.EventResume request)
+            throws IOException {
+        Optional<String> summonerOpt = redisWSSession.getSummonerBySession(session.getId());
+        if (summonerOpt.isEmpty()) {
+            log.warn("⚠️ [EventLog] event_resume de sessão não identificada: {}", session.getId());
+            session.sendMessage(
+                    new TextMessage("{\"type\":\"event_resume_failed\",\"reason\":\"not_identified\"}"));
+            return;
+        }
+        webSocketService.resumeEvents(session.getId(), summonerOpt.get(), request.lastSeqOrZero());
+    }
 }
@@ -0,0 +1,201 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import br.com.lolmatchmaking.backend.service.redis.RedisWebSocketSessionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * ✅ NOVO: Monitor de heartbeat compartilhado (timing wheel)
+ *
+ * PROBLEMA RESOLVIDO:
+ * - startHeartbeatMonitoring criava Executors.newScheduledThreadPool(1) POR
+ * sessão e nunca o desligava: cada cliente vazava uma thread
+ * - Cada tick fazia getClientInfo no Redis (varredura + GET) por sessão
+ *
+ * SOLUÇÃO:
+ * - UMA thread para todas as sessões: roda de {@link #SLOTS} slots, um slot por
+ * tick; cada sessão é visitada uma vez por {@link #HEARTBEAT_INTERVAL_MS}
+ * (carga espalhada, não tudo no mesmo segundo)
+ * - Último sinal de vida em memória (long por sessão, sem Instant/Redis):
+ * {@link #touch(String)} é uma escrita volátil
+ * - TTL no Redis renovado em lote: sessões tocadas desde o último tick → um
+ * {@link RedisWebSocketSessionService#refreshHeartbeats} por tick
+ * - Pings em lote: as sessões do slot recebem o mesmo frame (serializado uma
+ * vez) via {@link #bind}
+ *
+ * Número de threads é constante, independente do número de conexões.
+ */
+@Slf4j
+@Component
+public class HeartbeatScheduler {
+
+    static final long HEARTBEAT_INTERVAL_MS = 60_000; // ping a cada 60s
+    static final long HEARTBEAT_TIMEOUT_MS = 120_000; // sem sinal por 120s → fecha
+    static final long TICK_MS = 1_000;
+    static final int SLOTS = (int) (HEARTBEAT_INTERVAL_MS / TICK_MS);
+
+    private static final class Entry {
+        private final String sessionId;
+        private final int slot;
+        private volatile long lastSeenMillis;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Entry(String sessionId, int slot, long now) {
+            this.sessionId = sessionId;
+            this.slot = slot;
+            this.lastSeenMillis = now;
+        }
+    }
+
+    private final RedisWebSocketSessionService redisWSSession;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Set<Entry>> wheel = new ArrayList<>(SLOTS);
+    private final ConcurrentLinkedQueue<Entry> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+
+    private volatile long cursor;
+    private volatile Consumer<List<String>> pingSink = ids -> {
+    };
+    private volatile Consumer<String> timeoutSink = id -> {
+    };
+
+    public HeartbeatScheduler(RedisWebSocketSessionService redisWSSession) {
+        this.redisWSSession = redisWSSession;
+        for (int i = 0; i < SLOTS; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ws-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::safeTick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Destinos dos pings em lote e dos timeouts (MatchmakingWebSocketService)
+     */
+    public void bind(Consumer<List<String>> pingSink, Consumer<String> timeoutSink) {
+        this.pingSink = pingSink;
+        this.timeoutSink = timeoutSink;
+    }
+
+    /**
+     * Começa a monitorar a sessão; primeira visita após um intervalo completo
+     */
+    public void register(String sessionId) {
+        long now = System.currentTimeMillis();
+        int slot = (int) Math.floorMod(cursor - 1, (long) SLOTS);
+        Entry entry = new Entry(sessionId, slot, now);
+        Entry previous = entries.put(sessionId, entry);
+        if (previous != null) {
+            wheel.get(previous.slot).remove(previous);
+        }
+        wheel.get(slot).add(entry);
+        markDirty(entry);
+    }
+
+    public void unregister(String sessionId) {
+        Entry entry = entries.remove(sessionId);
+        if (entry != null) {
+            wheel.get(entry.slot).remove(entry);
+        }
+    }
+
+    /**
+     * Sinal de vida (heartbeat, pong ou qualquer mensagem do cliente)
+     */
+    public void touch(String sessionId) {
+        Entry entry = entries.get(sessionId);
+        if (entry != null) {
+            entry.lastSeenMillis = System.currentTimeMillis();
+            markDirty(entry);
+        }
+    }
+
+    public boolean isMonitored(String sessionId) {
+        return entries.containsKey(sessionId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void markDirty(Entry entry) {
+        if (entry.dirty.compareAndSet(false, true)) {
+            dirtyQueue.add(entry);
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("❌ [Heartbeat] Erro no tick do monitor de heartbeat", e);
+        }
+    }
+
+    /**
+     * Um tick da roda: flush dos heartbeats pendentes, depois visita do slot
+     * atual (timeout ou ping)
+     */
+    void tick(long now) {
+        List<String> touched = new ArrayList<>();
+        Entry dirtyEntry;
+        while ((dirtyEntry = dirtyQueue.poll()) != null) {
+            dirtyEntry.dirty.set(false);
+            if (entries.get(dirtyEntry.sessionId) == dirtyEntry) {
+                touched.add(dirtyEntry.sessionId);
+            }
+        }
+        if (!touched.isEmpty()) {
+            redisWSSession.refreshHeartbeats(touched);
+        }
+
+        int slot = (int) (cursor % SLOTS);
+        cursor++;
+
+        List<String> toPing = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+        for (Entry entry : wheel.get(slot)) {
+            if (now - entry.lastSeenMillis > HEARTBEAT_TIMEOUT_MS) {
+                expired.add(entry.sessionId);
+            } else {
+                toPing.add(entry.sessionId);
+            }
+        }
+
+        for (String sessionId : expired) {
+            log.warn("💔 Heartbeat timeout para cliente: {}", sessionId);
+            unregister(sessionId);
+            timeoutSink.accept(sessionId);
+        }
+        if (!toPing.isEmpty()) {
+            pingSink.accept(toPing);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
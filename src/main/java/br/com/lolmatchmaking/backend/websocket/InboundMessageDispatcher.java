@@ -0,0 +1,373 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ NOVO: Tabela de despacho das mensagens recebidas (CoreWebSocketHandler)
+ *
+ * PROBLEMA RESOLVIDO:
+ * - Todo frame virava árvore (readTree) e caía num switch gigante por "type";
+ * cada handler navegava JsonNode na mão
+ * - Handlers lentos (electron_identify faz dezenas de chamadas Redis) rodavam
+ * na thread do container WebSocket
+ *
+ * SOLUÇÃO:
+ * - Registro type → rota, com ObjectReader pré-vinculado ao DTO do tipo
+ * ({@link InboundMessages}); o "type" é lido por streaming (para no primeiro
+ * campo) e o payload é decodificado direto no DTO
+ * - Handlers rodam em virtual threads, com limite global de concorrência
+ * (app.websocket.inbound.max-concurrency); a thread do container só lê o
+ * "type" e enfileira
+ * - Ordem preservada POR SESSÃO: mensagens de uma sessão executam em série
+ * (register_lcu_connection antes de electron_identify, etc.), com backlog
+ * limitado (app.websocket.inbound.session-backlog)
+ * - Rotas "inline" (ping, lcu_response) rodam na própria thread do container:
+ * são baratas e não podem esperar atrás de um handler que aguarda o LCU
+ *
+ * Exceção no handler fecha a sessão com SERVER_ERROR, como o decorator padrão
+ * do Spring fazia quando a exceção subia de handleTextMessage.
+ *
+ * MÉTRICAS:
+ * - websocket.inbound.handler.latency{type}: tempo de execução do handler
+ * - websocket.inbound.queue.wait: espera entre o frame chegar e o handler rodar
+ * - websocket.inbound.errors{type,stage=decode|handler}: falhas por tipo
+ * - websocket.inbound.rejected: frames descartados por backlog cheio
+ * - websocket.inbound.unknown: frames com type desconhecido
+ */
+@Slf4j
+@Component
+public class InboundMessageDispatcher {
+
+    @FunctionalInterface
+    public interface MessageHandler<T> {
+        void handle(WebSocketSession session, T message) throws Exception;
+    }
+
+    private static final class Route<T> {
+        private final String type;
+        private final ObjectReader reader;
+        private final MessageHandler<T> handler;
+        private final boolean inline;
+        private final Timer latency;
+        private final Counter decodeErrors;
+        private final Counter handlerErrors;
+
+        private Route(String type, ObjectReader reader, MessageHandler<T> handler, boolean inline,
+                MeterRegistry meterRegistry) {
+            this.type = type;
+            this.reader = reader;
+            this.handler = handler;
+            this.inline = inline;
+            this.latency = Timer.builder("websocket.inbound.handler.latency")
+                    .tag("type", type)
+                    .register(meterRegistry);
+            this.decodeErrors = Counter.builder("websocket.inbound.errors")
+                    .tag("type", type)
+                    .tag("stage", "decode")
+                    .register(meterRegistry);
+            this.handlerErrors = Counter.builder("websocket.inbound.errors")
+                    .tag("type", type)
+                    .tag("stage", "handler")
+                    .register(meterRegistry);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void invoke(WebSocketSession session, Object message) throws Exception {
+            handler.handle(session, (T) message);
+        }
+    }
+
+    /**
+     * Fila serial de uma sessão (cauda da cadeia + frames pendentes)
+     */
+    private static final class Lane {
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private int pending;
+    }
+
+    private static final String UNKNOWN_TYPE_REPLY = "{\"error\":\"unknown_type\"}";
+
+    private final ObjectMapper objectMapper;
+    private final WebSocketFrameEncoder frameEncoder;
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrency;
+    private final int sessionBacklog;
+
+    private final Map<String, Route<?>> routes = new ConcurrentHashMap<>();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Counter unknown;
+
+    public InboundMessageDispatcher(ObjectMapper objectMapper, WebSocketFrameEncoder frameEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.websocket.inbound.max-concurrency:256}") int maxConcurrency,
+            @Value("${app.websocket.inbound.session-backlog:64}") int sessionBacklog) {
+        this.objectMapper = objectMapper;
+        this.frameEncoder = frameEncoder;
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = maxConcurrency;
+        this.sessionBacklog = sessionBacklog;
+        this.permits = new Semaphore(maxConcurrency);
+        this.queueWait = Timer.builder("websocket.inbound.queue.wait")
+                .description("Espera entre receber um frame e executar seu handler")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("websocket.inbound.rejected")
+                .description("Frames descartados por backlog da sessão cheio")
+                .register(meterRegistry);
+        this.unknown = Counter.builder("websocket.inbound.unknown")
+                .register(meterRegistry);
+        Gauge.builder("websocket.inbound.in_flight", permits, p -> maxConcurrency - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    // ========================================
+    // REGISTRO
+    // ========================================
+
+    /**
+     * Registra um handler executado em virtual thread, em ordem por sessão
+     */
+    public <T> void register(String type, Class<T> payloadType, MessageHandler<T> handler) {
+        addRoute(type, payloadType, handler, false);
+    }
+
+    /**
+     * Registra um handler barato e não bloqueante, executado na thread do
+     * container (fora da fila serial da sessão)
+     */
+    public <T> void registerInline(String type, Class<T> payloadType, MessageHandler<T> handler) {
+        addRoute(type, payloadType, handler, true);
+    }
+
+    private <T> void addRoute(String type, Class<T> payloadType, MessageHandler<T> handler, boolean inline) {
+        Route<T> route = new Route<>(type, objectMapper.readerFor(payloadType), handler, inline, meterRegistry);
+        if (routes.putIfAbsent(type, route) != null) {
+            throw new IllegalStateException("Tipo de mensagem já registrado: " + type);
+        }
+    }
+
+    public boolean isRegistered(String type) {
+        return routes.containsKey(type);
+    }
+
+    // ========================================
+    // DESPACHO
+    // ========================================
+
+    /**
+     * Frame de texto (JSON): lê só o "type" aqui; o DTO é decodificado na
+     * thread do handler
+     */
+    public void dispatch(WebSocketSession session, String payload) {
+        String type;
+        try {
+            type = peekType(payload);
+        } catch (IOException e) {
+            log.warn("⚠️ [InboundWS] Frame inválido de {}: {}", session.getId(), e.getMessage());
+            unknown.increment();
+            return;
+        }
+        Route<?> route = type != null ? routes.get(type) : null;
+        if (route == null) {
+            replyUnknown(session, type);
+            return;
+        }
+        submit(session, route, () -> route.reader.readValue(payload));
+    }
+
+    /**
+     * Frame binário (CBOR negociado): mesma rota, decodificado via árvore
+     */
+    public void dispatch(WebSocketSession session, BinaryMessage message) {
+        JsonNode root;
+        try {
+            root = frameEncoder.decode(message);
+        } catch (IOException e) {
+            log.warn("⚠️ [InboundWS] Frame binário inválido de {}: {}", session.getId(), e.getMessage());
+            unknown.increment();
+            return;
+        }
+        String type = root.path("type").asText(null);
+        Route<?> route = type != null ? routes.get(type) : null;
+        if (route == null) {
+            replyUnknown(session, type);
+            return;
+        }
+        submit(session, route, () -> route.reader.readValue(root));
+    }
+
+    /**
+     * Descarta a fila serial da sessão (frames já enfileirados ainda executam)
+     */
+    public void release(String sessionId) {
+        if (sessionId != null) {
+            lanes.remove(sessionId);
+        }
+    }
+
+    private void submit(WebSocketSession session, Route<?> route, Callable<Object> decoder) {
+        long receivedAt = System.nanoTime();
+        if (route.inline) {
+            execute(session, route, decoder);
+            return;
+        }
+
+        Lane lane = lanes.computeIfAbsent(session.getId(), id -> new Lane());
+        synchronized (lane) {
+            if (lane.pending >= sessionBacklog) {
+                rejected.increment();
+                log.warn("🚫 [InboundWS] Backlog cheio para sessão {} ({} pendentes) - descartando {}",
+                        session.getId(), lane.pending, route.type);
+                return;
+            }
+            lane.pending++;
+            // ✅ A cauda nunca fica excepcional: um frame que estoura (ex.: Error)
+            // não impede os próximos da sessão de executar
+            lane.tail = lane.tail.thenRunAsync(() -> {
+                try {
+                    queueWait.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+                    runBounded(session, route, decoder);
+                } finally {
+                    synchronized (lane) {
+                        lane.pending--;
+                    }
+                }
+            }, handlers).exceptionally(ex -> {
+                log.error("❌ [InboundWS] Falha inesperada no frame {} da sessão {}", route.type, session.getId(),
+                        ex);
+                return null;
+            });
+        }
+    }
+
+    private void runBounded(WebSocketSession session, Route<?> route, Callable<Object> decoder) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            execute(session, route, decoder);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void execute(WebSocketSession session, Route<?> route, Callable<Object> decoder) {
+        Object message;
+        try {
+            message = decoder.call();
+        } catch (Exception e) {
+            route.decodeErrors.increment();
+            log.warn("⚠️ [InboundWS] Payload inválido para {} de {}: {}", route.type, session.getId(),
+                    e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            route.invoke(session, message);
+        } catch (Exception e) {
+            route.handlerErrors.increment();
+            log.error("❌ [InboundWS] Erro no handler {} da sessão {}", route.type, session.getId(), e);
+            closeQuietly(session);
+        } finally {
+            route.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Lê apenas os campos de topo até encontrar "type" (normalmente o primeiro)
+     */
+    private String peekType(String payload) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("type".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private void replyUnknown(WebSocketSession session, String type) {
+        unknown.increment();
+        log.debug("⚠️ [InboundWS] Tipo desconhecido '{}' de {}", type, session.getId());
+        try {
+            session.sendMessage(new TextMessage(UNKNOWN_TYPE_REPLY));
+        } catch (Exception e) {
+            log.debug("Falha ao responder unknown_type para {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void closeQuietly(WebSocketSession session) {
+        try {
+            if (session.isOpen()) {
+                session.close(CloseStatus.SERVER_ERROR);
+            }
+        } catch (Exception e) {
+            log.debug("Falha ao fechar sessão {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("routes", routes.size());
+        stats.put("sessions", lanes.size());
+        stats.put("inFlight", maxConcurrency - permits.availablePermits());
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("sessionBacklog", sessionBacklog);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        handlers.shutdown();
+        try {
+            if (!handlers.awaitTermination(5, TimeUnit.SECONDS)) {
+                handlers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handlers.shutdownNow();
+        }
+    }
+}
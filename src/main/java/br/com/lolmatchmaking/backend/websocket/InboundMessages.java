@@ -0,0 +1,195 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * ✅ NOVO: Payloads tipados das mensagens recebidas em /ws e /api/ws
+ *
+ * Decodificados direto do frame pelo {@link InboundMessageDispatcher} (um
+ * ObjectReader pré-vinculado por tipo), sem montar um JsonNode intermediário.
+ * Campos ausentes chegam como null; os acessores "orDefault" reproduzem os
+ * defaults de JsonNode.asLong(-1)/asText(null) usados antes pelos handlers.
+ */
+public final class InboundMessages {
+
+    private InboundMessages() {
+    }
+
+    private static long orDefault(Long value, long fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * match_found_acknowledged / draft_acknowledged / game_acknowledged
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Acknowledgement(Long matchId, String playerName) {
+        public long matchIdOrZero() {
+            return orDefault(matchId, 0);
+        }
+
+        public String playerNameOrEmpty() {
+            return playerName != null ? playerName : "";
+        }
+    }
+
+    /**
+     * leave_queue / get_queue_status: {"data":{"summonerName":...}}
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SummonerRequest(SummonerData data) {
+        public String summonerName() {
+            return data != null ? data.summonerName() : null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SummonerData(String summonerName) {
+    }
+
+    /**
+     * accept_match / decline_match
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record AcceptDecline(AcceptDeclineData data) {
+        public AcceptDeclineData payload() {
+            return data != null ? data : new AcceptDeclineData(null, null, null);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record AcceptDeclineData(Long queuePlayerId, Long matchId, String summonerName) {
+        public long queuePlayerIdOrInvalid() {
+            return orDefault(queuePlayerId, -1);
+        }
+
+        public long matchIdOrInvalid() {
+            return orDefault(matchId, -1);
+        }
+    }
+
+    /**
+     * acceptance_status
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record AcceptanceStatus(AcceptanceStatusData data) {
+        public long matchTempIdOrInvalid() {
+            return data != null ? orDefault(data.matchTempId(), -1) : -1;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record AcceptanceStatusData(Long matchTempId) {
+    }
+
+    /**
+     * draft_action
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftAction(DraftActionData data) {
+        public DraftActionData payload() {
+            return data != null ? data : new DraftActionData(null, null, null, null);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftActionData(Long matchId, Integer actionIndex, String championId, String playerId) {
+        public long matchIdOrInvalid() {
+            return orDefault(matchId, -1);
+        }
+
+        public int actionIndexOrInvalid() {
+            return actionIndex != null ? actionIndex : -1;
+        }
+    }
+
+    /**
+     * draft_confirm / draft_snapshot
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftPlayer(DraftPlayerData data) {
+        public long matchIdOrInvalid() {
+            return data != null ? orDefault(data.matchId(), -1) : -1;
+        }
+
+        public String playerId() {
+            return data != null ? data.playerId() : null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftPlayerData(Long matchId, String playerId) {
+    }
+
+    /**
+     * draft_resync: última versão do draft aplicada pelo cliente
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftResync(DraftResyncData data) {
+        public long matchIdOrInvalid() {
+            return data != null ? orDefault(data.matchId(), -1) : -1;
+        }
+
+        public String playerId() {
+            return data != null ? data.playerId() : null;
+        }
+
+        public long versionOrZero() {
+            return data != null ? orDefault(data.version(), 0) : 0;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DraftResyncData(Long matchId, String playerId, Long version) {
+    }
+
+    /**
+     * register_lcu_connection
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record RegisterLcuConnection(String summonerName, String host, Integer port, String authToken,
+            Integer profileIconId, String puuid, String summonerId) {
+        public String hostOrLocal() {
+            return host != null ? host : "127.0.0.1";
+        }
+
+        public int portOrZero() {
+            return port != null ? port : 0;
+        }
+    }
+
+    /**
+     * electron_heartbeat
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ElectronHeartbeat(String customSessionId, String summonerName, String puuid,
+            Integer profileIconId, Integer summonerLevel) {
+    }
+
+    /**
+     * verify_session_sync
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record VerifySessionSync(String customSessionId, String summonerName) {
+    }
+
+    /**
+     * event_resume: último seq recebido do log de eventos
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record EventResume(Long lastSeq) {
+        public long lastSeqOrZero() {
+            return orDefault(lastSeq, 0);
+        }
+    }
+
+    /**
+     * event_ack: seq até o qual o cliente processou os eventos
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record EventAck(Long seq) {
+        public long seqOrZero() {
+            return orDefault(seq, 0);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * ✅ NOVO: Gateway RPC assíncrono para o LCU via WebSocket do Electron
+ *
+ * PROBLEMA RESOLVIDO:
+ * - requestLcu enviava lcu_request e estacionava a thread chamadora (servlet,
+ * scheduler) em fut.get(timeout) até o PC do jogador responder
+ * - GETs idênticos concorrentes (ex.: vários chamadores lendo
+ * /lol-gameflow/v1/session do mesmo cliente) faziam uma ida e volta cada
+ * - Nenhum limite de requisições simultâneas por cliente
+ *
+ * SOLUÇÃO:
+ * - {@link #request} devolve CompletableFuture; o timeout é aplicado no
+ * próprio future (sem thread bloqueada)
+ * - Coalescência: GETs sem corpo em voo para a mesma (sessão, método, path)
+ * compartilham um único future/lcu_request
+ * - Cache opcional de respostas 200 de GET por poucos ms
+ * (app.lcu.gateway.cache-ttl-ms; 0 = desligado)
+ * - Limite de requisições em voo por cliente
+ * (app.lcu.gateway.max-in-flight-per-client); excedentes aguardam numa fila
+ * curta por cliente (app.lcu.gateway.max-queued-per-client) e são rejeitados
+ * quando ela enche
+ * - Sessão fechada → requisições pendentes dela falham na hora (sem esperar o
+ * timeout)
+ *
+ * Respostas compartilhadas (coalescidas/cacheadas) são o mesmo JsonNode:
+ * tratar como somente leitura.
+ */
+@Slf4j
+@Component
+public class LcuRpcGateway {
+
+    static final long DEFAULT_TIMEOUT_MS = 5000;
+    private static final int MAX_CACHED_RESPONSES = 1024;
+
+    private record CachedResponse(JsonNode response, long expiresAt) {
+    }
+
+    /**
+     * lcu_request aguardando vaga ou resposta
+     */
+    private static final class Call {
+        private final String id = UUID.randomUUID().toString();
+        private final String sessionId;
+        private final String coalesceKey;
+        private final ObjectNode frame;
+        private final CompletableFuture<JsonNode> future = new CompletableFuture<>();
+        private volatile long sentAt;
+        // Ocupa uma vaga do cliente (alterado sob o lock da ClientLane)
+        private boolean admitted;
+
+        private Call(String sessionId, String coalesceKey, ObjectNode frame) {
+            this.sessionId = sessionId;
+            this.coalesceKey = coalesceKey;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Vagas e fila de espera de um cliente (Electron)
+     */
+    private static final class ClientLane {
+        private int inFlight;
+        private final Deque<Call> waiting = new ArrayDeque<>();
+    }
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.lcu.gateway.cache-ttl-ms:0}")
+    private long cacheTtlMs;
+
+    @Value("${app.lcu.gateway.max-in-flight-per-client:4}")
+    private int maxInFlightPerClient = 4;
+
+    @Value("${app.lcu.gateway.max-queued-per-client:32}")
+    private int maxQueuedPerClient = 32;
+
+    private final Map<String, Call> pending = new ConcurrentHashMap<>();
+    private final Map<String, Call> inFlightByKey = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+    private final Map<String, ClientLane> lanes = new ConcurrentHashMap<>();
+
+    private final Timer roundTrip;
+    private final Counter coalesced;
+    private final Counter cacheHits;
+    private final Counter rejected;
+    private final Counter timeouts;
+
+    private volatile Function<String, WebSocketSession> sessionLookup = id -> null;
+
+    public LcuRpcGateway(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.roundTrip = Timer.builder("lcu.gateway.round_trip")
+                .description("Tempo entre enviar lcu_request e receber lcu_response")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("lcu.gateway.coalesced")
+                .description("Requisições atendidas por um lcu_request já em voo")
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("lcu.gateway.cache.hits")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("lcu.gateway.rejected")
+                .description("Requisições rejeitadas por fila do cliente cheia")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("lcu.gateway.timeouts")
+                .register(meterRegistry);
+        Gauge.builder("lcu.gateway.pending", pending, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolve sessionId → sessão WebSocket (MatchmakingWebSocketService)
+     */
+    public void bind(Function<String, WebSocketSession> sessionLookup) {
+        this.sessionLookup = sessionLookup;
+    }
+
+    /**
+     * Envia uma requisição LCU ao cliente; a resposta (status + body) completa o
+     * future
+     */
+    public CompletableFuture<JsonNode> request(String sessionId, String method, String path, JsonNode body,
+            long timeoutMs) {
+        String httpMethod = method == null ? "GET" : method;
+        String lcuPath = path == null ? "/" : path;
+        WebSocketSession session = sessionLookup.apply(sessionId);
+        if (session == null || !session.isOpen()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Sessão WebSocket não disponível: " + sessionId));
+        }
+
+        // Só GETs sem corpo são idempotentes o bastante para coalescer/cachear
+        String key = "GET".equalsIgnoreCase(httpMethod) && body == null
+                ? sessionId + '|' + lcuPath
+                : null;
+
+        if (key != null && cacheTtlMs > 0) {
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    cacheHits.increment();
+                    return CompletableFuture.completedFuture(cached.response());
+                }
+                cache.remove(key, cached);
+            }
+        }
+
+        ObjectNode frame = objectMapper.createObjectNode();
+        frame.put("type", "lcu_request");
+        frame.put("method", httpMethod);
+        frame.put("path", lcuPath);
+        if (body != null) {
+            frame.set("body", body);
+        }
+
+        Call call = new Call(sessionId, key, frame);
+        if (key != null) {
+            Call existing = inFlightByKey.putIfAbsent(key, call);
+            if (existing != null) {
+                coalesced.increment();
+                log.debug("🔗 [LCU-Gateway] {} {} coalescido com id={} (session={})", httpMethod, lcuPath,
+                        existing.id, sessionId);
+                return withTimeout(existing.future.thenApply(response -> response), timeoutMs);
+            }
+        }
+
+        pending.put(call.id, call);
+        call.future.whenComplete((response, error) -> {
+            pending.remove(call.id);
+            if (call.coalesceKey != null) {
+                inFlightByKey.remove(call.coalesceKey, call);
+            }
+            releaseSlot(call);
+        });
+        // Timeout do dono também libera a vaga/coalescência
+        call.future.orTimeout(effectiveTimeout(timeoutMs), TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    if (error instanceof TimeoutException) {
+                        timeouts.increment();
+                    }
+                    return null;
+                });
+
+        admit(call);
+        return withTimeout(call.future.thenApply(response -> response), timeoutMs);
+    }
+
+    /**
+     * lcu_response do Electron: { type, id, status, body }
+     */
+    public void handleResponse(JsonNode message) {
+        String id = message.path("id").asText(null);
+        if (id == null) {
+            log.warn("LCU response sem id");
+            return;
+        }
+        Call call = pending.get(id);
+        if (call == null) {
+            log.warn("Sem request pendente para LCU id={}", id);
+            return;
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        JsonNode status = message.get("status");
+        JsonNode body = message.get("body");
+        if (status != null) {
+            response.set("status", status);
+        }
+        if (body != null) {
+            response.set("body", body);
+        }
+        if (call.sentAt > 0) {
+            roundTrip.record(System.nanoTime() - call.sentAt, TimeUnit.NANOSECONDS);
+        }
+        if (call.coalesceKey != null && cacheTtlMs > 0 && status != null && status.asInt() == 200) {
+            long now = System.currentTimeMillis();
+            if (cache.size() >= MAX_CACHED_RESPONSES) {
+                cache.values().removeIf(cached -> cached.expiresAt() <= now);
+            }
+            cache.put(call.coalesceKey, new CachedResponse(response, now + cacheTtlMs));
+        }
+        call.future.complete(response);
+    }
+
+    /**
+     * Sessão encerrada: falha as requisições dela e descarta o cache
+     */
+    public void release(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        ClientLane lane = lanes.remove(sessionId);
+        if (lane != null) {
+            synchronized (lane) {
+                lane.waiting.clear();
+            }
+        }
+        IllegalStateException closed = new IllegalStateException("Sessão WebSocket encerrada: " + sessionId);
+        pending.values().stream()
+                .filter(call -> call.sessionId.equals(sessionId))
+                .forEach(call -> call.future.completeExceptionally(closed));
+        cache.keySet().removeIf(key -> key.startsWith(sessionId + '|'));
+    }
+
+    /**
+     * Espera síncrona para chamadores legados (mesmas exceções do requestLcu
+     * antigo)
+     */
+    public static JsonNode await(CompletableFuture<JsonNode> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new RuntimeException("Timeout aguardando resposta LCU do cliente", cause);
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    // ========================================
+    // LIMITE POR CLIENTE
+    // ========================================
+
+    private void admit(Call call) {
+        ClientLane lane = lanes.computeIfAbsent(call.sessionId, id -> new ClientLane());
+        synchronized (lane) {
+            if (call.future.isDone()) {
+                return;
+            }
+            if (lane.inFlight >= maxInFlightPerClient) {
+                if (lane.waiting.size() >= maxQueuedPerClient) {
+                    rejected.increment();
+                    call.future.completeExceptionally(new IllegalStateException(
+                            "Muitas requisições LCU pendentes para a sessão " + call.sessionId));
+                    return;
+                }
+                lane.waiting.add(call);
+                return;
+            }
+            lane.inFlight++;
+            call.admitted = true;
+        }
+        send(call);
+    }
+
+    /**
+     * Requisição concluída: devolve a vaga (se ocupava uma) e envia a próxima
+     * da fila que ainda não expirou
+     */
+    private void releaseSlot(Call call) {
+        ClientLane lane = lanes.get(call.sessionId);
+        if (lane == null) {
+            return;
+        }
+        Call next;
+        synchronized (lane) {
+            if (!call.admitted) {
+                lane.waiting.remove(call);
+                return;
+            }
+            lane.inFlight--;
+            next = lane.waiting.poll();
+            while (next != null && next.future.isDone()) {
+                next = lane.waiting.poll();
+            }
+            if (next == null) {
+                return;
+            }
+            lane.inFlight++;
+            next.admitted = true;
+        }
+        send(next);
+    }
+
+    private void send(Call call) {
+        WebSocketSession session = sessionLookup.apply(call.sessionId);
+        if (session == null || !session.isOpen()) {
+            call.future.completeExceptionally(
+                    new IllegalStateException("Sessão WebSocket não disponível: " + call.sessionId));
+            return;
+        }
+        try {
+            call.frame.put("id", call.id);
+            log.info("Sending lcu_request id={} method={} path={} -> session={}", call.id,
+                    call.frame.path("method").asText(), call.frame.path("path").asText(), call.sessionId);
+            call.sentAt = System.nanoTime();
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(call.frame)));
+        } catch (Exception e) {
+            log.error("Failed to send lcu_request id={} to session={}: {}", call.id, call.sessionId, e.getMessage());
+            call.future.completeExceptionally(e);
+        }
+    }
+
+    private static long effectiveTimeout(long timeoutMs) {
+        return timeoutMs <= 0 ? DEFAULT_TIMEOUT_MS : timeoutMs;
+    }
+
+    /**
+     * Cada chamador recebe seu próprio future (timeout próprio, cancelamento não
+     * afeta os demais)
+     */
+    private static CompletableFuture<JsonNode> withTimeout(CompletableFuture<JsonNode> future, long timeoutMs) {
+        return future.orTimeout(effectiveTimeout(timeoutMs), TimeUnit.MILLISECONDS);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("coalescing", inFlightByKey.size());
+        stats.put("cached", cache.size());
+        stats.put("clients", lanes.size());
+        stats.put("maxInFlightPerClient", maxInFlightPerClient);
+        stats.put("cacheTtlMs", cacheTtlMs);
+        return stats;
+    }
+}
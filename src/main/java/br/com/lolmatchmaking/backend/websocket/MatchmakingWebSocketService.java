@@ -2,14 +2,17 @@ package br.com.lolmatchmaking.backend.websocket;
 
 import br.com.lolmatchmaking.backend.dto.MatchInfoDTO;
 import br.com.lolmatchmaking.backend.dto.QueuePlayerInfoDTO;
+import br.com.lolmatchmaking.backend.dto.events.DirectedPlayerEvent;
+import br.com.lolmatchmaking.backend.dto.events.QueueDeltaEvent;
 import br.com.lolmatchmaking.backend.service.redis.RedisWebSocketEventService;
 import br.com.lolmatchmaking.backend.service.redis.RedisWebSocketSessionService;
 import br.com.lolmatchmaking.backend.service.redis.RedisPlayerMatchService;
+import br.com.lolmatchmaking.backend.service.redis.SessionRouteCache;
 import br.com.lolmatchmaking.backend.service.lock.PlayerState;
 import br.com.lolmatchmaking.backend.service.lock.PlayerStateService;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -19,7 +22,6 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 import br.com.lolmatchmaking.backend.service.LCUService;
 import org.springframework.context.ApplicationContext;
 
-import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -32,16 +34,19 @@ import java.util.stream.Collectors;
  * ANTES: 7 ConcurrentHashMaps perdiam dados em reinícios
  * DEPOIS: Redis + MySQL + 4 HashMaps legítimos (objetos não-serializáveis)
  * 
- * ✅ CACHE LOCAL LEGÍTIMO (4 HashMaps):
+ * ✅ CACHE LOCAL LEGÍTIMO (3 HashMaps):
  * - sessions → WebSocketSession (não serializável)
- * - heartbeatTasks → ScheduledFuture (não serializável)
- * - pendingLcuRequests → CompletableFuture (não serializável)
- * - lcuRequestSession → String mapping (temporário)
+ * - heartbeat → HeartbeatScheduler (uma thread para todas as sessões)
+ * - RPC LCU → LcuRpcGateway (futures, coalescência, limite por cliente)
+ * 
+ * ✅ ENVIO: sessões ficam envolvidas por {@link OutboundSessionQueue}; nenhum
+ * envio bloqueia a thread chamadora (ver OutboundQueueService)
  * 
  * ✅ MIGRADOS PARA REDIS:
  * - clientInfo → RedisWebSocketSessionService
  * - lastHeartbeat → RedisWebSocketSessionService
- * - pendingEvents → RedisWebSocketEventService
+ * - pendingEvents → RedisWebSocketEventService (log de eventos por jogador,
+ * Redis Streams com seq)
  * - playerStates → PlayerStateService
  * - matchOwnership → RedisPlayerMatchService
  */
@@ -62,13 +67,25 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     private final PlayerStateService playerStateService;
     private final br.com.lolmatchmaking.backend.service.UnifiedLogService unifiedLogService;
 
+    // ✅ NOVO: Fila de saída por sessão (envio não bloqueante, um escritor por
+    // conexão)
+    private final OutboundQueueService outboundQueues;
+    private final WebSocketFrameEncoder frameEncoder;
+
+    // ✅ NOVO: Near-cache summoner ↔ sessão (sessões locais sem ir ao Redis)
+    private final SessionRouteCache sessionRoutes;
+
+    // ✅ NOVO: Monitor de heartbeat compartilhado (substitui um thread pool por
+    // sessão)
+    private final HeartbeatScheduler heartbeats;
+
+    // ✅ NOVO: RPC LCU assíncrono (coalescência + limite por cliente)
+    private final LcuRpcGateway lcuGateway;
+
     // ✅ CACHE LOCAL LEGÍTIMO: Apenas para objetos não-serializáveis
-    // WebSocketSession, ScheduledFuture e CompletableFuture não podem ser salvos no
+    // WebSocketSession e CompletableFuture não podem ser salvos no
     // Redis
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
-    private final Map<String, ScheduledFuture<?>> heartbeatTasks = new ConcurrentHashMap<>();
-    private final Map<String, CompletableFuture<JsonNode>> pendingLcuRequests = new ConcurrentHashMap<>();
-    private final Map<String, String> lcuRequestSession = new ConcurrentHashMap<>();
 
     // ✅ NOVO: Mapeamento customSessionId → randomSessionId (para encontrar a sessão
     // real do WebSocket)
@@ -76,8 +93,8 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
 
     // ✅ MIGRADOS PARA REDIS: Todos os outros dados agora estão no Redis
     // - clientInfo → RedisWebSocketSessionService.getSummonerBySession()
-    // - lastHeartbeat → RedisWebSocketSessionService.updateHeartbeat()
-    // - pendingEvents → RedisWebSocketEventService.getPendingEvents()
+    // - lastHeartbeat → HeartbeatScheduler (memória) + refreshHeartbeats() em lote
+    // - pendingEvents → RedisWebSocketEventService (replayEvents a partir do seq)
 
     /**
      * Obtém o LCUService quando necessário para evitar dependência circular
@@ -118,73 +135,23 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     }
 
     // Configurações
-    private static final long HEARTBEAT_INTERVAL = 60000; // 60 segundos - menos agressivo
-    private static final long HEARTBEAT_TIMEOUT = 120000; // 120 segundos - mais tolerante
     private static final int MAX_PENDING_EVENTS = 100;
-    private static final long LCU_RPC_TIMEOUT_MS = 5000; // timeout padrão para RPC LCU
 
     /**
      * ✅ MIGRADO PARA REDIS: Conexão WebSocket estabelecida
      * 
-     * CRÍTICO: Envia eventos pendentes do Redis após reconexão.
-     * Garante que eventos como "match_found" não sejam perdidos.
+     * Eventos perdidos são reenviados após a identificação (electron_identify /
+     * event_resume), quando o jogador da sessão é conhecido: ver
+     * {@link #resumeEvents(String, String, Long)}.
      */
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String randomSessionId = session.getId();
-        sessions.put(randomSessionId, session);
-
-        // ✅ REDIS ONLY: Inicializar heartbeat no Redis (sem HashMap local!)
-        redisWSSession.updateHeartbeat(randomSessionId);
+        sessions.put(randomSessionId, outboundQueues.wrap(session));
+        sessionRoutes.sessionOpened(randomSessionId);
 
         log.info("🔌 Cliente conectado: randomSessionId={} (Total: {})", randomSessionId, sessions.size());
 
-        // ✅ CRÍTICO: Buscar customSessionId para enviar eventos pendentes
-        // Events pendentes são armazenados por customSessionId (imutável)
-        String customSessionIdForKey = null;
-        try {
-            Optional<String> customOpt = redisWSSession.getCustomSessionId(randomSessionId);
-            if (customOpt.isPresent()) {
-                customSessionIdForKey = customOpt.get();
-                log.debug("🔍 [Reconnect] CustomSessionId encontrado: {} → {}", randomSessionId, customSessionIdForKey);
-            } else {
-                log.debug("⚠️ [Reconnect] CustomSessionId ainda não registrado para: {}", randomSessionId);
-            }
-        } catch (Exception e) {
-            log.warn("⚠️ [Reconnect] Erro ao buscar customSessionId: {}", e);
-        }
-
-        // ✅ REDIS: Enviar eventos pendentes usando customSessionId
-        if (customSessionIdForKey != null) {
-            List<RedisWebSocketEventService.PendingEvent> pendingFromRedis = redisWSEvent
-                    .getPendingEvents(customSessionIdForKey);
-
-            if (!pendingFromRedis.isEmpty()) {
-                log.info(
-                        "📬 [Reconnect] {} eventos pendentes encontrados para customSessionId: {} (randomSessionId: {})",
-                        pendingFromRedis.size(), customSessionIdForKey, randomSessionId);
-
-                for (RedisWebSocketEventService.PendingEvent event : pendingFromRedis) {
-                    try {
-                        sendMessage(randomSessionId, event.getEventType(), event.getPayload());
-                        log.info("✅ [Reconnect] Evento pendente enviado: {} → {}", customSessionIdForKey,
-                                event.getEventType());
-                    } catch (Exception e) {
-                        log.error("❌ [Reconnect] Erro ao enviar evento pendente: {}", event.getEventType(), e);
-                    }
-                }
-
-                // Limpar eventos após envio bem-sucedido usando customSessionId
-                redisWSEvent.clearPendingEvents(customSessionIdForKey);
-                log.info("🗑️ [Reconnect] {} eventos pendentes limpos para customSessionId: {}",
-                        pendingFromRedis.size(), customSessionIdForKey);
-            } else {
-                log.debug("📭 [Reconnect] Nenhum evento pendente para customSessionId: {}", customSessionIdForKey);
-            }
-        } else {
-            log.debug("⏳ [Reconnect] Aguardando identificação para buscar eventos pendentes");
-        }
-
         // Iniciar monitoramento de heartbeat
         startHeartbeatMonitoring(randomSessionId);
 
@@ -196,16 +163,12 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String sessionId = session.getId();
         sessions.remove(sessionId);
+        outboundQueues.release(sessionId);
+        sessionRoutes.sessionClosed(sessionId);
+        lcuGateway.release(sessionId);
 
         // ✅ REDIS: Limpeza automática por TTL (não precisa remover manualmente)
-        // Cancel heartbeat monitoring task if present
-        try {
-            ScheduledFuture<?> f = heartbeatTasks.remove(sessionId);
-            if (f != null)
-                f.cancel(true);
-        } catch (Exception e) {
-            log.warn("⚠️ Falha ao cancelar heartbeat task para {}", sessionId, e);
-        }
+        heartbeats.unregister(sessionId);
         log.info("🔌 Cliente desconectado: {} (Status: {})", sessionId, status);
     }
 
@@ -221,6 +184,9 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         String payload = message.getPayload();
 
         try {
+            // ✅ Qualquer mensagem do cliente é sinal de vida
+            heartbeats.touch(sessionId);
+
             JsonNode jsonMessage = objectMapper.readTree(payload);
             String messageType = jsonMessage.get("type").asText();
 
@@ -237,8 +203,7 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
                     break;
                 case "pong":
                     // Client acknowledges a server ping; treat as heartbeat
-                    // ✅ Atualizar heartbeat no Redis
-                    redisWSSession.updateHeartbeat(sessionId);
+                    // (já contabilizado pelo touch acima)
                     break;
                 case "identify":
                     handleIdentify(sessionId, jsonMessage);
@@ -332,48 +297,7 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         // Expected shape: { type: 'lcu_response', id: 'uuid', status: 200, body: {...}
         // }
         try {
-            String id = jsonMessage.has("id") ? jsonMessage.get("id").asText() : null;
-            if (id == null) {
-                log.warn("LCU response sem id");
-                return;
-            }
-            CompletableFuture<JsonNode> fut = pendingLcuRequests.remove(id);
-            if (fut == null) {
-                log.warn("Sem request pendente para LCU id={}", id);
-                return;
-            }
-            JsonNode status = jsonMessage.has("status") ? jsonMessage.get("status") : null;
-            JsonNode body = jsonMessage.has("body") ? jsonMessage.get("body") : null;
-            // Build a response node combining status and body
-            ObjectNode resp = objectMapper.createObjectNode();
-            if (status != null)
-                resp.set("status", status);
-            if (body != null)
-                resp.set("body", body);
-            fut.complete(resp);
-
-            // ✅ LCU response completed successfully
-            try {
-                int code = -1;
-                if (status != null && status.isInt())
-                    code = status.asInt();
-                if (code == 200) {
-                    String sess = lcuRequestSession.remove(id);
-                    if (sess != null) {
-                        String summonerId = null;
-                        try {
-                            summonerId = extractSummonerId(body);
-                        } catch (Exception ignored) {
-                        }
-                        if (summonerId != null) {
-                            log.info("✅ LCU response from session={} id={} summonerId={}", sess, id, summonerId);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.debug("Erro processando LCU response: {}", e.getMessage());
-            }
-
+            lcuGateway.handleResponse(jsonMessage);
         } catch (Exception e) {
             log.error("Erro ao processar lcu_response", e);
         }
@@ -432,45 +356,21 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
 
     /**
      * Envia uma request LCU para o cliente especificado e espera pela resposta
-     * (RPC)
+     * (RPC). Chamadores que podem responder de forma assíncrona devem preferir
+     * {@link #requestLcuAsync}.
      */
     public JsonNode requestLcu(String sessionId, String method, String path, JsonNode body, long timeoutMs)
             throws Exception {
-        WebSocketSession session = sessions.get(sessionId);
-        if (session == null || !session.isOpen()) {
-            throw new IllegalStateException("Sessão WebSocket não disponível: " + sessionId);
-        }
-        String id = UUID.randomUUID().toString();
-        ObjectNode req = objectMapper.createObjectNode();
-        req.put("type", "lcu_request");
-        req.put("id", id);
-        req.put("method", method == null ? "GET" : method);
-        req.put("path", path == null ? "/" : path);
-        if (body != null)
-            req.set("body", body);
-
-        CompletableFuture<JsonNode> fut = new CompletableFuture<>();
-        pendingLcuRequests.put(id, fut);
-
-        // Log outgoing RPC to help diagnostics
-        try {
-            log.info("Sending lcu_request id={} method={} path={} -> session={}", id, method, path, sessionId);
-            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(req)));
-        } catch (Exception e) {
-            pendingLcuRequests.remove(id);
-            log.error("Failed to send lcu_request id={} to session={}: {}", id, sessionId, e.getMessage());
-            throw e;
-        }
+        return LcuRpcGateway.await(requestLcuAsync(sessionId, method, path, body, timeoutMs));
+    }
 
-        try {
-            JsonNode resp = fut.get(timeoutMs <= 0 ? LCU_RPC_TIMEOUT_MS : timeoutMs, TimeUnit.MILLISECONDS);
-            return resp;
-        } catch (TimeoutException te) {
-            pendingLcuRequests.remove(id);
-            throw new RuntimeException("Timeout aguardando resposta LCU do cliente", te);
-        } finally {
-            pendingLcuRequests.remove(id);
-        }
+    /**
+     * ✅ NOVO: RPC LCU sem bloquear a thread chamadora; GETs idênticos em voo
+     * para o mesmo cliente compartilham a mesma ida e volta
+     */
+    public CompletableFuture<JsonNode> requestLcuAsync(String sessionId, String method, String path, JsonNode body,
+            long timeoutMs) {
+        return lcuGateway.request(sessionId, method, path, body, timeoutMs);
     }
 
     /**
@@ -585,8 +485,9 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
      * Atualiza timestamp no Redis e extende TTL da sessão.
      */
     private void handleHeartbeat(String sessionId) {
-        // ✅ REDIS ONLY: Atualizar heartbeat e extender TTL (sem HashMap!)
-        redisWSSession.updateHeartbeat(sessionId);
+        // ✅ NOVO: Último sinal de vida em memória; TTL no Redis renovado em lote
+        // pelo HeartbeatScheduler
+        heartbeats.touch(sessionId);
 
         sendMessage(sessionId, "heartbeat_ack", Map.of("timestamp", System.currentTimeMillis()));
     }
@@ -723,8 +624,10 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         try {
             String playerId = data.get("playerId").asText();
 
-            // Enviar eventos perdidos
-            sendPendingEvents(sessionId);
+            // Enviar eventos perdidos (a partir do último seq visto, se informado)
+            Long lastSeq = data.hasNonNull("lastSeq") ? data.get("lastSeq").asLong() : null;
+            redisWSSession.getSummonerBySession(sessionId)
+                    .ifPresent(summonerName -> resumeEvents(sessionId, summonerName, lastSeq));
 
             log.info("🔄 Cliente {} reconectado", playerId);
             sendMessage(sessionId, "reconnected", Map.of("success", true));
@@ -738,106 +641,100 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
      * Inicia monitoramento de heartbeat
      */
     private void startHeartbeatMonitoring(String sessionId) {
-        ScheduledFuture<?> future = Executors.newScheduledThreadPool(1).scheduleAtFixedRate(() -> {
-            try {
-                // ✅ Buscar último heartbeat no Redis
-                Optional<RedisWebSocketSessionService.ClientInfo> clientInfoOpt = redisWSSession
-                        .getClientInfo(sessionId);
-                if (clientInfoOpt.isPresent()) {
-                    Instant lastActivity = clientInfoOpt.get().getLastActivity();
-                    if (Instant.now().minusMillis(HEARTBEAT_TIMEOUT).isAfter(lastActivity)) {
-                        log.warn("💔 Heartbeat timeout para cliente: {}", sessionId);
-                        closeSession(sessionId);
-                        return;
-                    }
-                }
-
-                // Probe client with a ping to elicit a pong/heartbeat response
-                try {
-                    sendMessage(sessionId, "ping", Map.of("ts", System.currentTimeMillis()));
-                } catch (Exception e) {
-                    log.debug("⚠️ Falha ao enviar ping para {}: {}", sessionId, e.getMessage());
-                }
-            } catch (Exception e) {
-                log.error("❌ Erro no monitoramento de heartbeat", e);
-            }
-        }, HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
-
-        // Keep reference so we can cancel on close
-        heartbeatTasks.put(sessionId, future);
+        heartbeats.register(sessionId);
     }
 
     /**
-     * Envia eventos pendentes para um cliente
+     * ✅ NOVO: Liga o HeartbeatScheduler a esta instância (pings em lote e
+     * fechamento por timeout)
      */
-    private void sendPendingEvents(String sessionId) {
-        // ✅ Buscar eventos pendentes no Redis
-        List<br.com.lolmatchmaking.backend.service.redis.RedisWebSocketEventService.PendingEvent> events = redisWSEvent
-                .getPendingEvents(sessionId);
-        if (events != null && !events.isEmpty()) {
-            for (br.com.lolmatchmaking.backend.service.redis.RedisWebSocketEventService.PendingEvent event : events) {
-                // Processar cada evento pendente
-                try {
-                    String eventType = event.getEventType();
-                    Map<String, Object> payload = event.getPayload();
+    @PostConstruct
+    void bindHeartbeats() {
+        heartbeats.bind(this::sendPings, this::closeSession);
+        lcuGateway.bind(sessions::get);
+    }
 
-                    sendMessage(sessionId, eventType, payload);
-                } catch (Exception e) {
-                    log.warn("❌ Erro ao processar evento pendente: {}", e.getMessage());
-                }
+    /**
+     * Probe clients with a ping to elicit a pong/heartbeat response (um frame
+     * para todo o lote)
+     */
+    private void sendPings(List<String> sessionIds) {
+        TextMessage ping;
+        try {
+            ping = frameEncoder.envelope("ping", Map.of("ts", System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.error("❌ Erro ao serializar ping", e);
+            return;
+        }
+        for (String sessionId : sessionIds) {
+            WebSocketSession session = sessions.get(sessionId);
+            if (session != null && session.isOpen()) {
+                deliver(session, "ping", ping, null);
             }
-            // ✅ Limpar eventos após enviar
-            redisWSEvent.clearPendingEvents(sessionId);
         }
     }
 
     /**
-     * ✅ PÚBLICO: Envia eventos pendentes após identificação do Electron
-     * Chamado pelo CoreWebSocketHandler após registrar customSessionId
+     * ✅ NOVO: Reenvia os eventos do log do jogador que o cliente não viu
+     * 
+     * Chamado após electron_identify, event_resume e reconnect. Cada frame sai
+     * com o seq original; se parte da lacuna já foi podada, o cliente recebe
+     * antes um event_resync para pedir snapshot (draft_snapshot etc.).
+     *
+     * @param lastSeq último seq recebido pelo cliente; null = cliente antigo,
+     *                usa o cursor de entrega do servidor
+     * @return quantidade de eventos reenviados
      */
-    public void sendPendingEventsForSession(String customSessionId, String randomSessionId) {
-        try {
-            List<RedisWebSocketEventService.PendingEvent> pendingFromRedis = redisWSEvent
-                    .getPendingEvents(customSessionId);
+    public int resumeEvents(String sessionId, String summonerName, Long lastSeq) {
+        WebSocketSession session = sessions.get(getRandomSessionId(sessionId));
+        if (session == null || !session.isOpen() || summonerName == null || summonerName.isBlank()) {
+            return 0;
+        }
 
-            if (!pendingFromRedis.isEmpty()) {
-                log.info(
-                        "📬 [PendingEvents] {} eventos pendentes encontrados para customSessionId: {} (randomSessionId: {})",
-                        pendingFromRedis.size(), customSessionId, randomSessionId);
+        RedisWebSocketEventService.EventReplay replay = lastSeq != null
+                ? redisWSEvent.replayEvents(summonerName, lastSeq)
+                : redisWSEvent.replayUndelivered(summonerName);
 
-                for (RedisWebSocketEventService.PendingEvent event : pendingFromRedis) {
-                    try {
-                        sendMessage(randomSessionId, event.getEventType(), event.getPayload());
-                        log.info("✅ [PendingEvents] Evento pendente enviado: {} → {}", customSessionId,
-                                event.getEventType());
-                    } catch (Exception e) {
-                        log.error("❌ [PendingEvents] Erro ao enviar evento pendente: {}", event.getEventType(), e);
-                    }
+        try {
+            if (replay.gap()) {
+                log.warn("⚠️ [EventLog] Lacuna de eventos podada para {} (lastSeq={}) - enviando event_resync",
+                        summonerName, lastSeq);
+                deliver(session, "event_resync", frameEncoder.envelope("event_resync", Map.of(
+                        "lastSeq", lastSeq != null ? lastSeq : -1,
+                        "latestSeq", replay.latestSeq())), null);
+            }
+
+            long lastReplayed = 0;
+            for (RedisWebSocketEventService.LoggedEvent event : replay.events()) {
+                long seq = event.seq();
+                TextMessage frame = frameEncoder.personalizeSerialized(event.eventType(), event.dataJson())
+                        .forRecipient(summonerName, seq);
+                if (!deliver(session, event.eventType(), frame,
+                        () -> redisWSEvent.markUndelivered(summonerName, seq))) {
+                    break; // Fila cheia: o restante fica para o próximo replay
                 }
+                lastReplayed = seq;
+            }
 
-                // Limpar eventos após envio bem-sucedido usando customSessionId
-                redisWSEvent.clearPendingEvents(customSessionId);
-                log.info("🗑️ [PendingEvents] {} eventos pendentes limpos para customSessionId: {}",
-                        pendingFromRedis.size(), customSessionId);
-            } else {
-                log.debug("📭 [PendingEvents] Nenhum evento pendente para customSessionId: {}", customSessionId);
+            if (lastReplayed > 0) {
+                redisWSEvent.markDelivered(summonerName, lastReplayed);
+                log.info("📬 [EventLog] {} eventos reenviados para {} (até #{})", replay.events().size(),
+                        summonerName, lastReplayed);
             }
+            return replay.events().size();
+
         } catch (Exception e) {
-            log.error("❌ [PendingEvents] Erro ao processar eventos pendentes para {}: {}", customSessionId,
-                    e.getMessage(), e);
+            log.error("❌ [EventLog] Erro ao reenviar eventos para {}: {}", summonerName, e.getMessage(), e);
+            return 0;
         }
     }
 
     /**
-     * Adiciona evento pendente
+     * ✅ NOVO: Confirmação do cliente (event_ack): poda o log até seq
      */
-    private void addPendingEvent(String sessionId, String eventType) {
-        // ✅ Adicionar evento pendente no Redis
-        try {
-            redisWSEvent.queueEvent(sessionId, eventType, Collections.emptyMap());
-        } catch (Exception e) {
-            log.warn("❌ Erro ao adicionar evento pendente ao Redis: {}", e.getMessage());
-        }
+    public void ackEvents(String sessionId, long seq) {
+        redisWSSession.getSummonerBySession(getRandomSessionId(sessionId))
+                .ifPresent(summonerName -> redisWSEvent.ackEvents(summonerName, seq));
     }
 
     /**
@@ -852,21 +749,15 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
                 log.error("❌ Erro ao fechar sessão", e);
             }
         }
-        // Also cancel heartbeat task if present
-        try {
-            ScheduledFuture<?> f = heartbeatTasks.remove(sessionId);
-            if (f != null)
-                f.cancel(true);
-        } catch (Exception e) {
-            log.warn("⚠️ Erro ao cancelar heartbeat task no closeSession para {}", sessionId, e);
-        }
+        // Also stop heartbeat monitoring
+        heartbeats.unregister(sessionId);
     }
 
     /**
      * ✅ MIGRADO PARA REDIS: Envia mensagem para um cliente específico
      * 
-     * CRÍTICO: Se envio falhar (desconectado), enfileira evento no Redis.
-     * Garante que eventos não sejam perdidos durante desconexões.
+     * CRÍTICO: Se envio falhar (desconectado), grava o evento no log do jogador
+     * da sessão. Garante que eventos não sejam perdidos durante desconexões.
      */
     public void sendMessage(String sessionId, String type, Object data) {
         // ✅ CORRIGIR: Buscar randomSessionId se for customSessionId
@@ -876,58 +767,74 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
 
         if (session != null && session.isOpen()) {
             try {
-                Map<String, Object> message = new HashMap<>();
-                message.put("type", type);
-                message.put("timestamp", System.currentTimeMillis());
-                if (data != null) {
-                    message.put("data", data);
-                }
-
-                String jsonMessage = objectMapper.writeValueAsString(message);
+                TextMessage textMessage = frameEncoder.envelope(type, data);
 
-                // ✅ CRÍTICO: SINCRONIZAR envio de mensagem WebSocket!
-                // Previne IllegalStateException: TEXT_PARTIAL_WRITING
-                synchronized (session) {
-                    if (session.isOpen()) { // Re-check após adquirir lock
-                        session.sendMessage(new TextMessage(jsonMessage));
-                    }
-                }
+                // ✅ Fila de saída da sessão: não bloqueia; se o frame não for entregue
+                // (fila cheia, sessão caiu), vai para o log de eventos do jogador
+                deliver(session, type, textMessage, () -> logUndeliveredEvent(actualSessionId, type, data));
 
                 log.debug("📤 Evento enviado: {} → {}", sessionId, type);
 
             } catch (Exception e) {
-                log.error("❌ Erro ao enviar mensagem para {}. Enfileirando no Redis...", sessionId, e);
-
-                // ✅ CRÍTICO: Buscar customSessionId para enfileirar com chave imutável
-                String customSessionIdForKey = getCustomSessionIdForPendingEvent(actualSessionId, sessionId);
-
-                // ✅ REDIS: Enfileirar evento para envio posterior usando customSessionId
-                Map<String, Object> payload = new HashMap<>();
-                if (data != null) {
-                    payload.put("data", data);
-                }
-                redisWSEvent.queueEvent(customSessionIdForKey, type, payload);
-                log.info("📨 [PendingEvent] Evento enfileirado usando customSessionId: {}", customSessionIdForKey);
+                log.error("❌ Erro ao enviar mensagem para {}. Gravando no log de eventos...", sessionId, e);
+                logUndeliveredEvent(actualSessionId, type, data);
             }
         } else {
             // Sessão fechada ou inexistente
-            log.warn("⚠️ Sessão WebSocket fechada ou inexistente: {}. Enfileirando evento no Redis: {}",
+            log.warn("⚠️ Sessão WebSocket fechada ou inexistente: {}. Gravando evento no log: {}",
                     sessionId, type);
+            logUndeliveredEvent(actualSessionId, type, data);
+        }
+    }
 
-            // ✅ CRÍTICO: Buscar customSessionId para enfileirar com chave imutável
-            String customSessionIdForKey = getCustomSessionIdForPendingEvent(actualSessionId, sessionId);
-
-            // ✅ REDIS: Enfileirar evento para envio quando reconectar usando
-            // customSessionId
-            Map<String, Object> payload = new HashMap<>();
-            if (data != null) {
-                payload.put("data", data);
+    /**
+     * ✅ CRÍTICO: Grava no log do jogador da sessão um evento que não foi
+     * entregue, para reenvio na reconexão
+     */
+    private void logUndeliveredEvent(String actualSessionId, String type, Object data) {
+        if (!redisWSEvent.isLogged(type)) {
+            return;
+        }
+        Optional<String> summonerOpt = redisWSSession.getSummonerBySession(actualSessionId);
+        if (summonerOpt.isEmpty()) {
+            log.warn("⚠️ [EventLog] Sessão {} sem jogador registrado - evento {} descartado", actualSessionId, type);
+            return;
+        }
+        try {
+            String dataJson = objectMapper.writeValueAsString(data != null ? data : Map.of());
+            if (!dataJson.startsWith("{")) {
+                log.warn("⚠️ [EventLog] Payload de {} não é objeto JSON - evento descartado", type);
+                return;
             }
-            redisWSEvent.queueEvent(customSessionIdForKey, type, payload);
-            log.info("📨 [PendingEvent] Evento enfileirado usando customSessionId: {}", customSessionIdForKey);
+            long seq = redisWSEvent.appendEvent(summonerOpt.get(), type, dataJson, false);
+            log.info("📨 [EventLog] Evento não entregue registrado: {} #{} → {}", type, seq, summonerOpt.get());
+        } catch (Exception e) {
+            log.warn("⚠️ [EventLog] Falha ao registrar evento {}: {}", type, e.getMessage());
         }
     }
 
+    /**
+     * ✅ NOVO: Enfileira o frame na fila de saída da sessão (não bloqueia)
+     *
+     * @param type      tipo do evento (queue_update etc. são descartáveis se
+     *                  obsoletos)
+     * @param onFailure executado se o frame não for entregue; pode ser null
+     * @return false se o frame foi rejeitado
+     */
+    private boolean deliver(WebSocketSession session, String type, TextMessage message, Runnable onFailure) {
+        return outboundQueues.wrap(session).enqueue(message, type, onFailure);
+    }
+
+    /**
+     * ✅ NOVO: Sessão com fila de saída para o sessionId (ou a própria sessão se
+     * não registrada). Handlers devem responder por ela para manter a ordem dos
+     * frames e o escritor único.
+     */
+    public WebSocketSession outboundSession(WebSocketSession session) {
+        OutboundSessionQueue queue = outboundQueues.find(session.getId());
+        return queue != null ? queue : session;
+    }
+
     /**
      * Envia erro para um cliente
      */
@@ -946,16 +853,15 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
             log.info("🔍 [broadcastToAll] Iniciando broadcast: eventType={}, data={}", eventType,
                     data != null ? "NÃO_NULL" : "NULL");
 
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", eventType);
-            message.put("data", data);
-            message.put("timestamp", System.currentTimeMillis());
-
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            log.info("🔍 [broadcastToAll] JSON criado: {}",
-                    jsonMessage.length() > 200 ? jsonMessage.substring(0, 200) + "..." : jsonMessage);
+            // ✅ Serializado uma vez; o mesmo frame vai para todas as sessões
+            TextMessage textMessage = frameEncoder.envelope(eventType, data);
+            if (log.isDebugEnabled()) {
+                String jsonMessage = textMessage.getPayload();
+                log.debug("🔍 [broadcastToAll] JSON criado: {}",
+                        jsonMessage.length() > 200 ? jsonMessage.substring(0, 200) + "..." : jsonMessage);
+            }
 
-            broadcastToAll(jsonMessage);
+            broadcastFrame(eventType, textMessage);
             log.info("✅ [broadcastToAll] Broadcast concluído para eventType={}", eventType);
         } catch (Exception e) {
             log.error("❌ [broadcastToAll] Erro ao fazer broadcast para eventType={}: {}", eventType, e.getMessage(), e);
@@ -1093,12 +999,8 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
 
     public void broadcastQueueUpdate(List<QueuePlayerInfoDTO> queueStatus) {
         try {
-            Map<String, Object> message = Map.of(
-                    "type", "queue_update",
-                    "data", queueStatus != null ? queueStatus : List.of(),
-                    "timestamp", System.currentTimeMillis());
-
-            String jsonMessage = objectMapper.writeValueAsString(message);
+            TextMessage textMessage = frameEncoder.envelope("queue_update",
+                    queueStatus != null ? queueStatus : List.of());
 
             // ✅ CORREÇÃO: Enviar para TODAS as sessões conectadas (não apenas quem está na
             // fila)
@@ -1113,8 +1015,9 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
                                 .collect(Collectors.joining(", ")));
             }
 
-            // Enviar para TODOS os clientes conectados
-            broadcastToAll(jsonMessage);
+            // Enviar para TODOS os clientes conectados (queue_update obsoleto é
+            // substituído na fila de saída de clientes lentos)
+            broadcastFrame("queue_update", textMessage);
 
         } catch (Exception e) {
             log.error("❌ Erro ao fazer broadcast da fila", e);
@@ -1122,17 +1025,56 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     }
 
     /**
-     * Broadcast de partida encontrada
+     * ✅ NOVO: Broadcast incremental da fila (queue_delta)
+     *
+     * Cliente aplica o delta se baseVersion == sua versão; caso contrário
+     * pede o snapshot completo (get_queue_status).
      */
-    public void broadcastMatchFound(MatchInfoDTO matchInfo) {
+    public void broadcastQueueDelta(QueueDeltaEvent delta) {
+        try {
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "queue_delta");
+            message.put("version", delta.getVersion());
+            message.put("baseVersion", delta.getBaseVersion());
+            message.put("joined", delta.getJoined() != null ? delta.getJoined() : List.of());
+            message.put("left", delta.getLeft() != null ? delta.getLeft() : List.of());
+            message.put("positions", delta.getPositions() != null ? delta.getPositions() : Map.of());
+            message.put("playersInQueue", delta.getPlayersInQueue());
+            message.put("timestamp", System.currentTimeMillis());
+
+            broadcastFrame("queue_delta", frameEncoder.frame(objectMapper.writeValueAsString(message)));
+
+            log.debug("📤 [Queue Delta] v{} enviado para {} sessões", delta.getVersion(), sessions.size());
+        } catch (Exception e) {
+            log.error("❌ Erro ao fazer broadcast do delta da fila", e);
+        }
+    }
+
+    /**
+     * ✅ NOVO: Heartbeat compacto com a versão atual da fila (queue_version)
+     *
+     * Clientes atrás desta versão (delta perdido) pedem o snapshot completo.
+     */
+    public void broadcastQueueVersion(long version, int playersInQueue) {
         try {
             Map<String, Object> message = Map.of(
-                    "type", "match_found",
-                    "data", matchInfo,
+                    "type", "queue_version",
+                    "version", version,
+                    "playersInQueue", playersInQueue,
                     "timestamp", System.currentTimeMillis());
 
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            broadcastToAll(jsonMessage);
+            broadcastFrame("queue_version", frameEncoder.frame(objectMapper.writeValueAsString(message)));
+        } catch (Exception e) {
+            log.error("❌ Erro ao fazer broadcast da versão da fila", e);
+        }
+    }
+
+    /**
+     * Broadcast de partida encontrada
+     */
+    public void broadcastMatchFound(MatchInfoDTO matchInfo) {
+        try {
+            broadcastFrame("match_found", frameEncoder.envelope("match_found", matchInfo));
 
         } catch (Exception e) {
             log.error("❌ Erro ao fazer broadcast de partida encontrada", e);
@@ -1140,84 +1082,54 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     }
 
     /**
-     * Broadcast para todos os clientes conectados EM PARALELO
-     * 
-     * ✅ ENVIO SIMULTÂNEO: Todas as sessões recebem ao mesmo tempo
+     * Broadcast para todos os clientes conectados
      */
     public void broadcastToAll(String message) {
-        List<WebSocketSession> activeSessions = new ArrayList<>(sessions.values());
+        broadcastFrame(null, frameEncoder.frame(message));
+    }
 
-        log.info("🔍 [broadcastToAll] Sessões ativas encontradas: {}", activeSessions.size());
+    /**
+     * ✅ NÃO BLOQUEANTE: enfileira o mesmo frame na fila de saída de cada sessão
+     * 
+     * Cada sessão tem seu próprio escritor; um cliente lento não atrasa os demais
+     * nem segura a thread chamadora.
+     */
+    private void broadcastFrame(String type, TextMessage textMessage) {
+        log.info("🔍 [broadcastToAll] Sessões ativas encontradas: {}", sessions.size());
 
-        if (activeSessions.isEmpty()) {
+        if (sessions.isEmpty()) {
             log.warn("⚠️ [broadcastToAll] Nenhuma sessão ativa - não enviando mensagem");
             return;
         }
 
-        // ✅ ENVIO PARALELO: Criar uma CompletableFuture para cada sessão
-        List<CompletableFuture<Boolean>> sendFutures = new ArrayList<>();
-
-        for (WebSocketSession session : activeSessions) {
-            CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    if (session.isOpen()) {
-                        // ✅ CRÍTICO: SINCRONIZAR envio de mensagem WebSocket!
-                        // Previne IllegalStateException: TEXT_PARTIAL_WRITING
-                        synchronized (session) {
-                            if (session.isOpen()) { // Re-check após adquirir lock
-                                session.sendMessage(new TextMessage(message));
-                                return false; // Não remover
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("❌ Erro ao enviar mensagem para sessão {}", session.getId(), e);
-                    return true; // Marcar para remoção
-                }
-                return true; // Remover sessões fechadas
-            });
-
-            sendFutures.add(future);
-        }
-
-        // ✅ AGUARDAR TODOS OS ENVIOS E REMOVER SESSÕES COM ERRO
-        try {
-            CompletableFuture.allOf(sendFutures.toArray(new CompletableFuture[0]))
-                    .get(5, TimeUnit.SECONDS);
+        int queued = 0;
 
-            // Remover sessões marcadas para remoção
-            for (int i = 0; i < activeSessions.size(); i++) {
-                if (sendFutures.get(i).join()) { // true = remover
-                    sessions.remove(activeSessions.get(i).getId());
-                }
+        for (Map.Entry<String, WebSocketSession> entry : sessions.entrySet()) {
+            WebSocketSession session = entry.getValue();
+            if (!session.isOpen()) {
+                // Remover sessões fechadas
+                sessions.remove(entry.getKey(), session);
+                continue;
+            }
+            if (deliver(session, type, textMessage, null)) {
+                queued++;
             }
-
-            log.debug("✅ [Broadcast] {} mensagens enviadas em paralelo", activeSessions.size());
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("⚠️ Thread interrompida ao fazer broadcast", e);
-        } catch (TimeoutException e) {
-            log.error("⏱️ Timeout ao fazer broadcast (5s)", e);
-        } catch (Exception e) {
-            log.error("❌ Erro ao aguardar broadcast paralelo", e);
         }
+
+        log.debug("✅ [Broadcast] {} mensagens enfileiradas", queued);
     }
 
     /**
      * ✅ NOVO: Envia mensagem apenas para jogadores específicos COM FALLBACK
      * Sistema direcionado - apenas jogadores da partida recebem eventos
      * Se falhar, faz broadcast global como fallback
+     * ✅ Jogadores conectados em outra instância: encaminhado só para a
+     * instância dona (ver SessionRouteCache#partitionByOwner)
      */
     public void sendToPlayers(String eventType, Map<String, Object> data, List<String> playerNames) {
         try {
-            Map<String, Object> message = new HashMap<>();
-            message.put("type", eventType);
-            message.put("data", data);
-            message.put("timestamp", System.currentTimeMillis());
-
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            TextMessage textMessage = new TextMessage(jsonMessage);
+            // ✅ SERIALIZA UMA VEZ: por destinatário só o targetSummoner é emendado
+            WebSocketFrameEncoder.Personalized personalized = frameEncoder.personalize(eventType, data);
 
             int sentCount = 0;
             // ✅ CORREÇÃO: Excluir bots da contagem (eles não têm WebSocket)
@@ -1227,167 +1139,26 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
             log.info("🎯 [Directed Broadcast] Enviando {} para {} jogadores específicos (bots excluídos)", eventType,
                     totalPlayers);
 
-            // ✅ ENVIO PARALELO para jogadores específicos
-            List<CompletableFuture<Boolean>> sendFutures = new ArrayList<>();
+            // ✅ CRÍTICO: SKIP bots - eles não têm sessão WebSocket/Electron
+            List<String> humanPlayers = playerNames.stream().filter(name -> !isBotPlayer(name)).toList();
 
-            for (String playerName : playerNames) {
-                // ✅ CRÍTICO: SKIP bots - eles não têm sessão WebSocket/Electron
-                if (isBotPlayer(playerName)) {
-                    log.trace("🤖 [Directed] Bot {} pulado (sem WebSocket)", playerName);
-                    continue; // Pular bots completamente - SEM logar warnings
+            // ✅ ROTEAMENTO: jogadores de outras instâncias vão só para a instância dona
+            for (Map.Entry<String, List<String>> owner : sessionRoutes.partitionByOwner(humanPlayers).entrySet()) {
+                if (!owner.getKey().equals(sessionRoutes.nodeId())
+                        && forwardToNode(owner.getKey(), eventType, personalized, owner.getValue())) {
+                    sentCount += owner.getValue().size();
+                    continue;
                 }
 
-                CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        // ✅ Buscar sessionId do jogador via Redis
-                        Optional<String> sessionIdOpt = redisWSSession.getSessionBySummoner(playerName);
-
-                        if (sessionIdOpt.isPresent()) {
-                            String sessionId = sessionIdOpt.get();
-                            // ✅ CRÍTICO: Converter customSessionId → randomSessionId se necessário
-                            String actualSessionId = getRandomSessionId(sessionId);
-
-                            WebSocketSession session = sessions.get(actualSessionId);
-
-                            if (session != null && session.isOpen()) {
-                                // ✅ CRÍTICO: VALIDAR que a sessão pertence ao jogador correto
-                                if (!validateSessionOwnership(session, playerName)) {
-                                    log.warn("⚠️ [Security] Sessão {} não pertence ao jogador {} - evento NÃO enviado",
-                                            actualSessionId, playerName);
-                                    // Enfileirar evento pendente para quando o jogador reconectar
-                                    String customSessionIdForKey = getCustomSessionIdForPendingEvent(actualSessionId,
-                                            sessionId);
-                                    redisWSEvent.queueEvent(customSessionIdForKey, eventType, data);
-                                    return false;
-                                }
-
-                                // ✅ CRÍTICO: Criar mensagem customizada COM targetSummoner para Electron
-                                // validar
-                                Map<String, Object> personalizedData = new HashMap<>(data);
-                                personalizedData.put("targetSummoner", playerName); // ✅ Electron valida isto
-
-                                Map<String, Object> personalizedMessage = new HashMap<>();
-                                personalizedMessage.put("type", eventType);
-                                personalizedMessage.put("data", personalizedData);
-                                personalizedMessage.put("timestamp", System.currentTimeMillis());
-                                personalizedMessage.put("targetSummoner", playerName); // ✅ Na raiz também
-
-                                String personalizedJson = objectMapper.writeValueAsString(personalizedMessage);
-                                TextMessage personalizedTextMessage = new TextMessage(personalizedJson);
-
-                                // ✅ SINCRONIZAR envio de mensagem WebSocket
-                                synchronized (session) {
-                                    if (session.isOpen()) {
-                                        session.sendMessage(personalizedTextMessage);
-
-                                        // ✅ MELHORIA: LOG ESTRUTURADO COM VALIDAÇÃO
-                                        if (log.isDebugEnabled()) {
-                                            try {
-                                                Optional<String> customOpt = redisWSSession
-                                                        .getCustomSessionId(actualSessionId);
-                                                String customSessionId = customOpt.orElse("N/A");
-
-                                                log.debug(
-                                                        "📤 [BACKEND→ELECTRON] Evento: {} → {} | RandomSID: {} | CustomSID: {}",
-                                                        eventType, playerName,
-                                                        actualSessionId.substring(0,
-                                                                Math.min(8, actualSessionId.length())),
-                                                        customSessionId.substring(0,
-                                                                Math.min(20, customSessionId.length())));
-
-                                                // ✅ VALIDAÇÃO: Verificar se customSessionId corresponde ao summonerName
-                                                if (!customSessionId.equals("N/A")) {
-                                                    String expectedCustomId = generateCustomSessionIdForSummoner(
-                                                            playerName);
-                                                    if (expectedCustomId != null
-                                                            && !customSessionId.equals(expectedCustomId)) {
-                                                        log.warn("⚠️ [BACKEND→ELECTRON] INCONSISTÊNCIA DE SESSION ID!");
-                                                        log.warn("   Player: {}, Expected: {}, Got: {}", playerName,
-                                                                expectedCustomId, customSessionId);
-                                                    }
-                                                }
-                                            } catch (Exception e) {
-                                                log.trace("Debug log error: {}", e.getMessage());
-                                            }
-                                        }
-
-                                        return false; // Não remover
-                                    }
-                                }
-                                return true; // Remover sessão fechada
-                            } else {
-                                log.warn("⚠️ [Directed] Sessão não encontrada ou fechada para {}", playerName);
-                                // ✅ CRÍTICO: Enfileirar evento pendente usando customSessionId
-                                try {
-                                    String customSessionIdForKey = getCustomSessionIdForPendingEvent(actualSessionId,
-                                            sessionId);
-                                    redisWSEvent.queueEvent(customSessionIdForKey, eventType, data);
-                                    log.info("📨 [PendingEvent] Evento enfileirado (sessão fechada): {} → {}",
-                                            customSessionIdForKey, eventType);
-                                } catch (Exception ex) {
-                                    log.warn("⚠️ [Directed] Falha ao enfileirar evento pendente: {}", ex.getMessage());
-                                }
-                                return false; // Não remover
-                            }
-                        } else {
-                            log.warn("⚠️ [Directed] Jogador {} não tem sessão ativa", playerName);
-                            // ✅ CRÍTICO: Enfileirar evento pendente usando summonerName
-                            try {
-                                // Usar método helper para gerar customSessionId de forma consistente
-                                String customSessionIdForKey = generateCustomSessionIdForSummoner(playerName);
-                                if (customSessionIdForKey != null) {
-                                    redisWSEvent.queueEvent(customSessionIdForKey, eventType, data);
-                                    log.info("📨 [PendingEvent] Evento enfileirado (sessão inexistente): {} → {}",
-                                            customSessionIdForKey, eventType);
-                                }
-                            } catch (Exception ex) {
-                                log.warn("⚠️ [Directed] Falha ao enfileirar evento pendente: {}", ex.getMessage());
-                            }
-                            return false; // Não remover
-                        }
-                    } catch (Exception e) {
-                        log.warn("⚠️ [Directed] Falha ao enviar {} para {}", eventType, playerName, e);
-                        // ✅ CRÍTICO: Tentar enfileirar evento pendente mesmo com erro
-                        try {
-                            // Usar método helper para gerar customSessionId de forma consistente
-                            String customSessionIdForKey = generateCustomSessionIdForSummoner(playerName);
-                            if (customSessionIdForKey != null) {
-                                redisWSEvent.queueEvent(customSessionIdForKey, eventType, data);
-                                log.info("📨 [PendingEvent] Evento enfileirado (exceção): {} → {}",
-                                        customSessionIdForKey,
-                                        eventType);
-                            }
-                        } catch (Exception ex) {
-                            log.warn("⚠️ [Directed] Falha ao enfileirar evento pendente: {}", ex.getMessage());
-                        }
-                        return true; // Marcar para remoção
+                // ✅ NÃO BLOQUEANTE: cada frame vai para a fila de saída da sessão do jogador
+                for (String playerName : owner.getValue()) {
+                    if (!sendToPlayerSession(eventType, playerName, personalized)) {
+                        sentCount++; // false = enviado (ou gravado no log do jogador)
                     }
-                });
-                sendFutures.add(future);
+                }
             }
 
-            // ✅ AGUARDAR TODOS OS ENVIOS
-            try {
-                CompletableFuture.allOf(sendFutures.toArray(new CompletableFuture[0]))
-                        .get(5, TimeUnit.SECONDS);
-
-                sentCount = (int) sendFutures.stream().mapToInt(f -> {
-                    try {
-                        return f.get() ? 0 : 1; // false = enviado com sucesso
-                    } catch (Exception e) {
-                        return 0;
-                    }
-                }).sum();
-
-                failedPlayers = totalPlayers - sentCount;
-
-            } catch (TimeoutException e) {
-                log.warn("⚠️ [Directed] Timeout ao aguardar envio para jogadores");
-                failedPlayers = totalPlayers; // Todos falharam por timeout
-            } catch (Exception e) {
-                log.error("❌ [Directed] Erro ao aguardar envio", e);
-                failedPlayers = totalPlayers; // Todos falharam por erro
-            }
+            failedPlayers = totalPlayers - sentCount;
 
             // ✅ FALLBACK: Se muitos jogadores falharam, fazer broadcast global
             if (failedPlayers > 0) {
@@ -1423,6 +1194,125 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * ✅ NOVO: Encaminha o evento (payload já serializado) para a instância dona
+     * das sessões dos jogadores
+     *
+     * @return false se a publicação falhou (chamador entrega localmente)
+     */
+    private boolean forwardToNode(String nodeId, String eventType, WebSocketFrameEncoder.Personalized personalized,
+            List<String> players) {
+        try {
+            String payload = objectMapper.writeValueAsString(
+                    new DirectedPlayerEvent(eventType, personalized.dataJson(), players));
+            if (sessionRoutes.publishToNode(nodeId, SessionRouteCache.DIRECTED_CHANNEL, payload)) {
+                log.debug("📡 [Directed] {} encaminhado para instância {} ({} jogadores)", eventType, nodeId,
+                        players.size());
+                return true;
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [Directed] Falha ao encaminhar {} para instância {}: {}", eventType, nodeId,
+                    e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * ✅ NOVO: Entrega um evento encaminhado por outra instância (canal
+     * ws:node:{nodeId}) para os jogadores conectados aqui; não reencaminha
+     */
+    public void deliverRoutedEvent(DirectedPlayerEvent event) {
+        WebSocketFrameEncoder.Personalized personalized = frameEncoder.personalizeSerialized(event.getEventType(),
+                event.getDataJson());
+        for (String playerName : event.getPlayerNames()) {
+            sendToPlayerSession(event.getEventType(), playerName, personalized);
+        }
+        log.debug("📥 [Directed] {} recebido de outra instância para {} jogadores", event.getEventType(),
+                event.getPlayerNames().size());
+    }
+
+    /**
+     * Envia o evento (com targetSummoner e seq) para a sessão de um jogador
+     * 
+     * ✅ O evento é gravado no log do jogador ANTES da entrega: se ele estiver
+     * offline ou o frame se perder, o replay da reconexão cobre a lacuna (sem
+     * reenvios periódicos)
+     * 
+     * @return false se enviado ou gravado no log; true se falhou
+     */
+    private boolean sendToPlayerSession(String eventType, String playerName,
+            WebSocketFrameEncoder.Personalized personalized) {
+        try {
+            // ✅ Buscar sessionId do jogador via Redis
+            Optional<String> sessionIdOpt = redisWSSession.getSessionBySummoner(playerName);
+
+            WebSocketSession session = null;
+            String actualSessionId = null;
+            if (sessionIdOpt.isPresent()) {
+                // ✅ CRÍTICO: Converter customSessionId → randomSessionId se necessário
+                actualSessionId = getRandomSessionId(sessionIdOpt.get());
+                session = sessions.get(actualSessionId);
+
+                if (session == null || !session.isOpen()) {
+                    log.warn("⚠️ [Directed] Sessão não encontrada ou fechada para {}", playerName);
+                    session = null;
+                } else if (!validateSessionOwnership(session, playerName)) {
+                    // ✅ CRÍTICO: VALIDAR que a sessão pertence ao jogador correto
+                    log.warn("⚠️ [Security] Sessão {} não pertence ao jogador {} - evento NÃO enviado",
+                            actualSessionId, playerName);
+                    session = null;
+                }
+            } else {
+                log.warn("⚠️ [Directed] Jogador {} não tem sessão ativa", playerName);
+            }
+
+            // ✅ Log do jogador primeiro: o seq vai no frame; sem sessão o evento espera
+            // no log até a reconexão
+            long seq = redisWSEvent.appendEvent(playerName, eventType, personalized.dataJson(), session != null);
+            if (session == null) {
+                return false; // Não remover
+            }
+
+            // ✅ CRÍTICO: Mensagem COM targetSummoner (em data e na raiz) para o
+            // Electron validar
+            TextMessage personalizedMessage = personalized.forRecipient(playerName, seq);
+
+            // ✅ Fila de saída da sessão; frame não entregue recua o cursor do log
+            boolean queued = deliver(session, eventType, personalizedMessage,
+                    seq > 0 ? () -> redisWSEvent.markUndelivered(playerName, seq) : null);
+
+            // ✅ MELHORIA: LOG ESTRUTURADO COM VALIDAÇÃO
+            if (queued && log.isDebugEnabled()) {
+                try {
+                    Optional<String> customOpt = redisWSSession.getCustomSessionId(actualSessionId);
+                    String customSessionId = customOpt.orElse("N/A");
+
+                    log.debug("📤 [BACKEND→ELECTRON] Evento: {} #{} → {} | RandomSID: {} | CustomSID: {}",
+                            eventType, seq, playerName,
+                            actualSessionId.substring(0, Math.min(8, actualSessionId.length())),
+                            customSessionId.substring(0, Math.min(20, customSessionId.length())));
+
+                    // ✅ VALIDAÇÃO: Verificar se customSessionId corresponde ao summonerName
+                    if (!customSessionId.equals("N/A")) {
+                        String expectedCustomId = generateCustomSessionIdForSummoner(playerName);
+                        if (expectedCustomId != null && !customSessionId.equals(expectedCustomId)) {
+                            log.warn("⚠️ [BACKEND→ELECTRON] INCONSISTÊNCIA DE SESSION ID!");
+                            log.warn("   Player: {}, Expected: {}, Got: {}", playerName,
+                                    expectedCustomId, customSessionId);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.trace("Debug log error: {}", e.getMessage());
+                }
+            }
+
+            return !queued;
+        } catch (Exception e) {
+            log.warn("⚠️ [Directed] Falha ao enviar {} para {}", eventType, playerName, e);
+            return true; // Marcar para remoção
+        }
+    }
+
     /**
      * ✅ NOVO: Envia mensagem para um jogador específico
      */
@@ -1442,10 +1332,10 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
                 sessions.put(newSessionId, session);
                 sessions.remove(oldSessionId);
 
-                // Migrar heartbeat task se existir
-                ScheduledFuture<?> heartbeatTask = heartbeatTasks.remove(oldSessionId);
-                if (heartbeatTask != null) {
-                    heartbeatTasks.put(newSessionId, heartbeatTask);
+                // Migrar monitoramento de heartbeat se existir
+                if (heartbeats.isMonitored(oldSessionId)) {
+                    heartbeats.unregister(oldSessionId);
+                    heartbeats.register(newSessionId);
                 }
 
                 log.info("✅ [Session Migration] Sessão migrada: {} → {}", oldSessionId, newSessionId);
@@ -1458,9 +1348,10 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
     }
 
     /**
-     * Envia mensagem para múltiplas sessões específicas EM PARALELO
+     * Envia mensagem para múltiplas sessões específicas
      * 
-     * ✅ BROADCAST SIMULTÂNEO: Todos os jogadores recebem AO MESMO TEMPO
+     * ✅ NÃO BLOQUEANTE: enfileira na fila de saída de cada sessão; todos os
+     * escritores drenam em paralelo
      * Usado para match_found, draft_started, etc.
      */
     private void sendToMultipleSessions(Collection<WebSocketSession> targetSessions, String message) {
@@ -1468,49 +1359,14 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
             return;
         }
 
-        // ✅ ENVIO PARALELO: Criar uma CompletableFuture para cada sessão
-        List<CompletableFuture<Void>> sendFutures = new ArrayList<>();
-
+        TextMessage textMessage = frameEncoder.frame(message);
         for (WebSocketSession session : targetSessions) {
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                try {
-                    if (session != null && session.isOpen()) {
-                        // ✅ CRÍTICO: SINCRONIZAR envio de mensagem WebSocket!
-                        // Previne IllegalStateException: TEXT_PARTIAL_WRITING
-                        synchronized (session) {
-                            if (session.isOpen()) { // Re-check após adquirir lock
-                                session.sendMessage(new TextMessage(message));
-                                log.debug("✅ Mensagem enviada para sessão {}", session.getId());
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    log.error("❌ Erro ao enviar mensagem para sessão {}", session.getId(), e);
-                } catch (IllegalStateException e) {
-                    log.warn("⚠️ Sessão {} em estado inválido: {}", session.getId(), e.getMessage());
-                }
-            });
-
-            sendFutures.add(future);
+            if (session != null && session.isOpen()) {
+                deliver(session, null, textMessage, null);
+            }
         }
 
-        // ✅ AGUARDAR TODOS OS ENVIOS COMPLETAREM (com timeout de 5 segundos)
-        try {
-            CompletableFuture<Void> allOf = CompletableFuture.allOf(
-                    sendFutures.toArray(new CompletableFuture[0]));
-
-            allOf.get(5, TimeUnit.SECONDS);
-
-            log.debug("✅ [Broadcast Paralelo] {} mensagens enviadas simultaneamente", targetSessions.size());
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("⚠️ Thread interrompida ao enviar mensagens em paralelo", e);
-        } catch (TimeoutException e) {
-            log.error("⏱️ Timeout ao enviar mensagens em paralelo (5s)", e);
-        } catch (Exception e) {
-            log.error("❌ Erro ao aguardar envios paralelos", e);
-        }
+        log.debug("✅ [Broadcast Paralelo] {} mensagens enfileiradas", targetSessions.size());
     }
 
     /**
@@ -1525,6 +1381,10 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         stats.put("identifiedClients", activeSessions.size());
         stats.put("activeSessionsInRedis", activeSessions);
 
+        // ✅ NOVO: Filas de saída por sessão (profundidade, descartes, latência)
+        stats.put("outbound", outboundQueues.stats());
+        stats.put("routes", sessionRoutes.stats());
+
         return stats;
     }
 
@@ -1532,7 +1392,8 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
      * Adiciona sessão (compatibilidade)
      */
     public void addSession(String sessionId, WebSocketSession session) {
-        sessions.put(sessionId, session);
+        sessions.put(sessionId, outboundQueues.wrap(session));
+        sessionRoutes.sessionOpened(sessionId);
         log.debug("Sessão WebSocket adicionada: {}", sessionId);
     }
 
@@ -1540,7 +1401,8 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
      * ✅ NOVO: Adiciona sessão WebSocket com IP e UserAgent capturados
      */
     public void addSession(String sessionId, WebSocketSession session, String ipAddress, String userAgent) {
-        sessions.put(sessionId, session);
+        sessions.put(sessionId, outboundQueues.wrap(session));
+        sessionRoutes.sessionOpened(sessionId);
 
         // ✅ CORREÇÃO: Não armazenar IP/UserAgent separadamente - será feito via
         // registerSession()
@@ -1554,6 +1416,9 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
      */
     public void removeSession(String sessionId) {
         sessions.remove(sessionId);
+        outboundQueues.release(sessionId);
+        sessionRoutes.sessionClosed(sessionId);
+        lcuGateway.release(sessionId);
         log.debug("Sessão WebSocket removida: {}", sessionId);
     }
 
@@ -2389,36 +2254,6 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         return sessionId; // Se não for custom ou não houver mapeamento, retornar o ID original
     }
 
-    /**
-     * ✅ NOVO: Obtém customSessionId correto para enfileirar eventos pendentes
-     * 
-     * Usa customSessionId (imutável) como chave para eventos pendentes
-     * ao invés de randomSessionId (que muda a cada reconexão)
-     * 
-     * Suporta bots e jogadores reais de forma consistente.
-     */
-    private String getCustomSessionIdForPendingEvent(String randomSessionId, String inputSessionId) {
-        // Se o input já é customSessionId, usar diretamente
-        if (inputSessionId.startsWith("player_")) {
-            return inputSessionId;
-        }
-
-        // Buscar customSessionId pelo randomSessionId no Redis
-        try {
-            Optional<String> customOpt = redisWSSession.getCustomSessionId(randomSessionId);
-            if (customOpt.isPresent()) {
-                log.debug("🔍 [PendingEvent] CustomSessionId encontrado: {} → {}", randomSessionId, customOpt.get());
-                return customOpt.get();
-            }
-        } catch (Exception e) {
-            log.warn("⚠️ [PendingEvent] Erro ao buscar customSessionId: {}", randomSessionId, e);
-        }
-
-        // Fallback: usar o sessionId recebido (provavelmente será randomSessionId)
-        log.warn("⚠️ [PendingEvent] CustomSessionId não encontrado, usando fallback: {}", inputSessionId);
-        return inputSessionId;
-    }
-
     /**
      * ✅ NOVO: Gera customSessionId a partir de summonerName (para bots e jogadores)
      * 
@@ -2484,27 +2319,6 @@ public class MatchmakingWebSocketService extends TextWebSocketHandler {
         }
     }
 
-    /**
-     * ✅ NOVO: Busca eventos pendentes usando customSessionId (público para uso
-     * externo)
-     *
-     * @param customSessionId CustomSessionId do jogador (ex: player_fzd_ratoso_fzd)
-     * @return Lista de eventos pendentes
-     */
-    public List<RedisWebSocketEventService.PendingEvent> getPendingEventsByCustomSessionId(String customSessionId) {
-        return redisWSEvent.getPendingEvents(customSessionId);
-    }
-
-    /**
-     * ✅ NOVO: Limpa eventos pendentes usando customSessionId (público para uso
-     * externo)
-     * 
-     * @param customSessionId CustomSessionId do jogador (ex: player_fzd_ratoso_fzd)
-     */
-    public void clearPendingEventsByCustomSessionId(String customSessionId) {
-        redisWSEvent.clearPendingEvents(customSessionId);
-    }
-
     /**
      * ✅ NOVO: Obtém todos os jogadores de uma partida
      */
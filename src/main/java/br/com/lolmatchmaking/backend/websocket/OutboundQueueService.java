@@ -0,0 +1,220 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ NOVO: Registro das filas de saída por sessão ({@link OutboundSessionQueue})
+ *
+ * - Escritores rodam em virtual threads: um cliente lento bloqueia apenas a
+ * própria virtual thread, nunca threads de request/pool compartilhadas
+ * - Configuração (app.websocket.outbound.*): capacidade da fila, política de
+ * overflow e tipos de evento descartáveis
+ *
+ * MÉTRICAS:
+ * - websocket.outbound.send.latency: tempo entre enfileirar e escrever
+ * - websocket.outbound.dropped{reason=stale|overflow}: frames descartados
+ * - websocket.outbound.disconnected: sessões derrubadas por ficarem para trás
+ * - websocket.outbound.queue.depth / .depth.max: profundidade total e da pior
+ * sessão
+ * - websocket.outbound.frame.bytes{format=json|cbor,outcome=encoded|fallback}:
+ * tamanho dos frames pelo formato negociado da sessão; fallback = frame que
+ * não pôde ser transcodificado e seguiu como texto
+ * - Por sessão (profundidade, enviados, descartados, latência): {@link #stats()}
+ */
+@Slf4j
+@Component
+public class OutboundQueueService {
+
+    @Getter
+    @Value("${app.websocket.outbound.capacity:256}")
+    private int capacity;
+
+    @Getter
+    @Value("${app.websocket.outbound.overflow-policy:DROP_STALE}")
+    private OutboundSessionQueue.OverflowPolicy overflowPolicy;
+
+    @Value("${app.websocket.outbound.droppable-types:queue_update,queue_version,draft_update}")
+    private Set<String> droppableTypes;
+
+    private final Map<String, OutboundSessionQueue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer sendLatency;
+    private final Counter droppedStale;
+    private final Counter droppedOverflow;
+    private final Counter disconnected;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> frameBytes = new ConcurrentHashMap<>();
+
+    private final WebSocketFrameEncoder frameEncoder;
+
+    public OutboundQueueService(MeterRegistry meterRegistry, WebSocketFrameEncoder frameEncoder) {
+        this.frameEncoder = frameEncoder;
+        this.meterRegistry = meterRegistry;
+        this.sendLatency = Timer.builder("websocket.outbound.send.latency")
+                .description("Tempo entre enfileirar e escrever um frame WebSocket")
+                .register(meterRegistry);
+        this.droppedStale = Counter.builder("websocket.outbound.dropped")
+                .tag("reason", "stale")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("websocket.outbound.dropped")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("websocket.outbound.disconnected")
+                .description("Sessões desconectadas por fila de saída cheia")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth", queues,
+                q -> q.values().stream().mapToInt(OutboundSessionQueue::getDepth).sum())
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth.max", queues,
+                q -> q.values().stream().mapToInt(OutboundSessionQueue::getDepth).max().orElse(0))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envolve a sessão com sua fila de saída (idempotente)
+     */
+    public OutboundSessionQueue wrap(WebSocketSession session) {
+        if (session instanceof OutboundSessionQueue queue) {
+            return queue;
+        }
+        return queues.computeIfAbsent(session.getId(), id -> new OutboundSessionQueue(session, this));
+    }
+
+    public OutboundSessionQueue find(String sessionId) {
+        return sessionId != null ? queues.get(sessionId) : null;
+    }
+
+    public void release(String sessionId) {
+        if (sessionId != null) {
+            queues.remove(sessionId);
+        }
+    }
+
+    /**
+     * Estatísticas por sessão (profundidade, enviados, descartados, latência)
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> perSession = new LinkedHashMap<>();
+        queues.forEach((sessionId, queue) -> {
+            Map<String, Object> s = new HashMap<>();
+            s.put("depth", queue.getDepth());
+            s.put("sent", queue.getSentCount());
+            s.put("dropped", queue.getDroppedCount());
+            s.put("lastSendLatencyMs", queue.getLastSendLatencyMillis());
+            s.put("wireFormat", queue.getWireFormat().wireName());
+            perSession.put(sessionId, s);
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("sessions", perSession);
+        return stats;
+    }
+
+    /**
+     * Formato de fio da sessão (negociado no electron_identify)
+     */
+    public void setWireFormat(String sessionId, WebSocketFrameEncoder.WireFormat format) {
+        OutboundSessionQueue queue = find(sessionId);
+        if (queue != null) {
+            queue.setWireFormat(format);
+        }
+    }
+
+    WebSocketMessage<?> encode(WebSocketMessage<?> message, WebSocketFrameEncoder.WireFormat format) {
+        WebSocketMessage<?> wire = message;
+        String outcome = "encoded";
+        try {
+            wire = frameEncoder.encode(message, format);
+        } catch (RuntimeException e) {
+            // Texto que não é JSON válido: segue como texto (fallback)
+            log.debug("⚠️ [Outbound] Frame não transcodificado para {}: {}", format, e.getMessage());
+            outcome = "fallback";
+        }
+        frameBytes(format, outcome).record(payloadBytes(wire));
+        return wire;
+    }
+
+    /**
+     * Tamanho do frame sem recodificar o texto por sessão: frames de broadcast
+     * guardam o tamanho; binários já têm o buffer pronto
+     */
+    private static int payloadBytes(WebSocketMessage<?> wire) {
+        if (wire instanceof WebSocketFrameEncoder.EncodedFrame frame) {
+            return frame.payloadBytes();
+        }
+        if (wire instanceof TextMessage text) {
+            return WebSocketFrameEncoder.utf8Length(text.getPayload());
+        }
+        return wire.getPayloadLength();
+    }
+
+    private DistributionSummary frameBytes(WebSocketFrameEncoder.WireFormat format, String outcome) {
+        return frameBytes.computeIfAbsent(format.wireName() + ':' + outcome,
+                key -> DistributionSummary.builder("websocket.outbound.frame.bytes")
+                        .tag("format", format.wireName())
+                        .tag("outcome", outcome)
+                        .baseUnit("bytes")
+                        .register(meterRegistry));
+    }
+
+    boolean isDroppable(String type) {
+        return type != null && droppableTypes.contains(type);
+    }
+
+    void execute(Runnable task) {
+        writers.execute(task);
+    }
+
+    void recordSend(long latencyNanos) {
+        sendLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordDropped(String reason) {
+        if ("stale".equals(reason)) {
+            droppedStale.increment();
+        } else {
+            droppedOverflow.increment();
+        }
+    }
+
+    void recordDisconnect() {
+        disconnected.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writers.shutdownNow();
+        }
+    }
+}
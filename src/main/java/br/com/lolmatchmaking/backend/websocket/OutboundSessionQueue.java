@@ -0,0 +1,263 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ NOVO: Fila de saída limitada por sessão WebSocket (um escritor por conexão)
+ *
+ * PROBLEMA RESOLVIDO:
+ * - Todo envio fazia synchronized(session) { session.sendMessage(...) } em
+ * threads de request ou no ForkJoinPool comum
+ * - Um cliente Electron lento segurava uma thread compartilhada e o
+ * broadcastToAll esperava até 5s no allOf(...).get
+ *
+ * SOLUÇÃO:
+ * - sendMessage/enqueue apenas enfileiram (nunca bloqueiam quem chama)
+ * - Um único escritor por sessão (virtual thread) drena a fila em ordem, então
+ * não há escrita concorrente (TEXT_PARTIAL_WRITING) nem lock na sessão
+ * - Frames "descartáveis" (snapshots como queue_update) são substituídos pelo
+ * mais recente: o antigo ainda na fila já está obsoleto
+ * - Fila cheia → {@link OverflowPolicy}
+ *
+ * Frames de texto são convertidos para o formato negociado da sessão
+ * ({@link WebSocketFrameEncoder.WireFormat}) no momento em que são
+ * enfileirados: a troca de formato vale a partir do próximo frame, sem afetar
+ * os que já estão na fila.
+ *
+ * Frames que não puderam ser entregues (rejeitados, sessão fechada ou erro de
+ * escrita) executam o callback onFailure do chamador (ex: enfileirar no Redis
+ * como evento pendente para a reconexão).
+ */
+@Slf4j
+public class OutboundSessionQueue extends WebSocketSessionDecorator {
+
+    public enum OverflowPolicy {
+        /**
+         * Descarta o frame descartável mais antigo; sem nenhum, rejeita o novo
+         */
+        DROP_STALE,
+        /**
+         * Cliente que não acompanha é desconectado (SESSION_NOT_RELIABLE)
+         */
+        DISCONNECT
+    }
+
+    private record Frame(WebSocketMessage<?> message, String type, long enqueuedNanos, Runnable onFailure) {
+    }
+
+    private final OutboundQueueService owner;
+    private final ConcurrentLinkedDeque<Frame> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastSendLatencyNanos;
+    private volatile boolean disconnecting;
+    private volatile WebSocketFrameEncoder.WireFormat wireFormat = WebSocketFrameEncoder.WireFormat.JSON;
+
+    OutboundSessionQueue(WebSocketSession delegate, OutboundQueueService owner) {
+        super(delegate);
+        this.owner = owner;
+    }
+
+    /**
+     * Compatibilidade: quem ainda chama session.sendMessage também passa pela
+     * fila (frame não descartável, sem callback de falha)
+     */
+    @Override
+    public void sendMessage(@NonNull WebSocketMessage<?> message) {
+        enqueue(message, null, null);
+    }
+
+    /**
+     * Enfileira um frame para envio assíncrono
+     *
+     * @param type      tipo do evento (define se é descartável); pode ser null
+     * @param onFailure executado se o frame não for entregue; pode ser null
+     * @return false se o frame foi rejeitado (onFailure já executado)
+     */
+    public boolean enqueue(WebSocketMessage<?> message, String type, Runnable onFailure) {
+        Frame frame = new Frame(owner.encode(message, wireFormat), type, System.nanoTime(), onFailure);
+        if (disconnecting || !isOpen()) {
+            fail(frame);
+            return false;
+        }
+
+        boolean droppable = owner.isDroppable(type);
+        if (droppable) {
+            dropQueued(type);
+        }
+        if (depth.get() >= owner.getCapacity() && !makeRoom()) {
+            dropped.incrementAndGet();
+            owner.recordDropped("overflow");
+            fail(frame);
+            return false;
+        }
+
+        depth.incrementAndGet();
+        queue.offerLast(frame);
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Remove da fila frames do mesmo tipo descartável (substituídos pelo novo)
+     */
+    private void dropQueued(String type) {
+        for (Frame queued : queue) {
+            if (type.equals(queued.type()) && remove(queued)) {
+                dropped.incrementAndGet();
+                owner.recordDropped("stale");
+            }
+        }
+    }
+
+    /**
+     * Fila cheia: aplica a política de overflow
+     *
+     * @return true se abriu espaço para o novo frame
+     */
+    private boolean makeRoom() {
+        if (owner.getOverflowPolicy() == OverflowPolicy.DISCONNECT) {
+            disconnect();
+            return false;
+        }
+        for (Frame queued : queue) {
+            if (owner.isDroppable(queued.type()) && remove(queued)) {
+                dropped.incrementAndGet();
+                owner.recordDropped("overflow");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean remove(Frame frame) {
+        if (queue.removeFirstOccurrence(frame)) {
+            depth.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                owner.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Aplicação encerrando
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Escritor único da sessão: drena a fila em ordem
+     */
+    private void drain() {
+        try {
+            Frame frame;
+            while ((frame = queue.pollFirst()) != null) {
+                depth.decrementAndGet();
+                write(frame);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // Frame enfileirado entre o último poll e a liberação do flag
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void write(Frame frame) {
+        WebSocketSession delegate = getDelegate();
+        if (!delegate.isOpen()) {
+            fail(frame);
+            return;
+        }
+        try {
+            delegate.sendMessage(frame.message());
+            long latency = System.nanoTime() - frame.enqueuedNanos();
+            lastSendLatencyNanos = latency;
+            sent.incrementAndGet();
+            owner.recordSend(latency);
+        } catch (Exception e) {
+            log.warn("⚠️ [Outbound] Falha ao enviar {} para sessão {}: {}",
+                    frame.type() != null ? frame.type() : "frame", getId(), e.getMessage());
+            fail(frame);
+        }
+    }
+
+    private void fail(Frame frame) {
+        if (frame.onFailure() == null) {
+            return;
+        }
+        try {
+            frame.onFailure().run();
+        } catch (Exception e) {
+            log.warn("⚠️ [Outbound] Erro no callback de falha da sessão {}: {}", getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Política DISCONNECT: fecha a conexão; frames ainda na fila falham no
+     * escritor (callbacks executados)
+     */
+    private void disconnect() {
+        if (disconnecting) {
+            return;
+        }
+        disconnecting = true;
+        owner.recordDisconnect();
+        log.warn("🐢 [Outbound] Sessão {} não acompanha ({} frames na fila) - desconectando", getId(), depth.get());
+        try {
+            owner.execute(() -> {
+                try {
+                    getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException e) {
+                    log.debug("Falha ao fechar sessão lenta {}: {}", getId(), e.getMessage());
+                }
+                scheduleDrain();
+            });
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando
+        }
+    }
+
+    public WebSocketFrameEncoder.WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    public void setWireFormat(WebSocketFrameEncoder.WireFormat wireFormat) {
+        this.wireFormat = wireFormat != null ? wireFormat : WebSocketFrameEncoder.WireFormat.JSON;
+    }
+
+    public int getDepth() {
+        return Math.max(0, depth.get());
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getLastSendLatencyMillis() {
+        return lastSendLatencyNanos / 1_000_000;
+    }
+}
@@ -10,7 +10,6 @@ import org.springframework.web.socket.WebSocketSession;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -322,8 +321,8 @@ public class SessionRegistry {
     public int getActiveSessionCount() {
         try {
             // ✅ REDIS ONLY: Contar apenas sessões identificadas no Redis
-            Map<String, Object> allClientInfo = redisWSSession.getAllClientInfo();
-            int identifiedSessions = allClientInfo.size();
+            // ✅ NOVO: ZCARD do índice ws:session_index (antes: KEYS + GET por chave)
+            int identifiedSessions = redisWSSession.countActiveSessions();
 
             log.debug("📊 [SessionRegistry] Sessões ativas: {} (Redis: {})",
                     identifiedSessions, identifiedSessions);
@@ -0,0 +1,300 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ✅ NOVO: Codificação "serializa uma vez" dos frames WebSocket
+ *
+ * PROBLEMA RESOLVIDO:
+ * - sendToPlayers copiava o payload (personalizedData) e chamava
+ * writeValueAsString para cada destinatário só para injetar targetSummoner
+ * - broadcastToAll montava um HashMap de envelope a cada chamada
+ *
+ * SOLUÇÃO:
+ * - O payload compartilhado é serializado UMA vez
+ * - O envelope ({"type","timestamp","data"}) é escrito direto no buffer, sem
+ * Map intermediário
+ * - Por destinatário, apenas o nome (escapado) é emendado em volta do payload
+ * já serializado ({@link Personalized#forRecipient(String)})
+ * - Eventos gravados no log do jogador levam também o "seq" na raiz
+ * ({@link Personalized#forRecipient(String, long)})
+ *
+ * O JSON resultante é equivalente ao do caminho antigo (mesmas chaves e
+ * valores; ordem das chaves não é significativa para os clientes).
+ *
+ * ✅ NOVO: Codificação compacta negociada ({@link WireFormat})
+ * - Cliente oferece "wireFormats": ["cbor", "json"] no electron_identify
+ * - Sessões CBOR recebem frames binários com a MESMA estrutura do JSON
+ * (transcodificação em streaming, sem árvore intermediária)
+ * - Frames deste encoder ({@link EncodedFrame}) são transcodificados uma vez
+ * e reaproveitados por todas as sessões CBOR do broadcast
+ * - JSON continua sendo o padrão e o fallback
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketFrameEncoder {
+
+    private static final String TARGET_SUMMONER = "targetSummoner";
+
+    /**
+     * Formato de fio de uma sessão
+     */
+    public enum WireFormat {
+        JSON,
+        CBOR;
+
+        public String wireName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Value("${app.websocket.compact-encoding:true}")
+    private boolean compactEncodingEnabled = true;
+
+    /**
+     * Frame {"type":..,"timestamp":..,"data":..} (data omitido se null),
+     * reutilizável por todas as sessões
+     */
+    public TextMessage envelope(String type, Object data) throws JsonProcessingException {
+        String dataJson = data != null ? objectMapper.writeValueAsString(data) : null;
+        StringBuilder frame = new StringBuilder(64 + (dataJson != null ? dataJson.length() : 0));
+        appendHead(frame, type);
+        if (dataJson != null) {
+            frame.append(",\"data\":").append(dataJson);
+        }
+        frame.append('}');
+        return new EncodedFrame(frame.toString());
+    }
+
+    /**
+     * ✅ NOVO: Frame já serializado para várias sessões (broadcast): tamanho e
+     * versão CBOR calculados uma vez, não por sessão
+     */
+    public TextMessage frame(String json) {
+        return new EncodedFrame(json);
+    }
+
+    /**
+     * Serializa o payload uma vez para envio personalizado (targetSummoner em
+     * data e na raiz, validado pelo Electron)
+     */
+    public Personalized personalize(String type, Map<String, Object> data) throws JsonProcessingException {
+        Map<String, Object> payload = data != null ? data : Map.of();
+        if (payload.containsKey(TARGET_SUMMONER)) {
+            // Raro: o targetSummoner do destinatário sobrescreve o do payload
+            payload = new HashMap<>(payload);
+            payload.remove(TARGET_SUMMONER);
+        }
+        return personalizeSerialized(type, objectMapper.writeValueAsString(payload));
+    }
+
+    /**
+     * ✅ NOVO: Mesmo frame a partir de um payload já serializado (objeto JSON sem
+     * targetSummoner), ex.: evento relido do log para replay
+     */
+    public Personalized personalizeSerialized(String type, String dataJson) {
+        // dataJson = {...}: o '}' final é reposto após o targetSummoner
+        StringBuilder head = new StringBuilder(dataJson.length() + 64);
+        appendHead(head, type);
+        head.append(",\"data\":").append(dataJson, 0, dataJson.length() - 1);
+        if (dataJson.length() > 2) {
+            head.append(',');
+        }
+        head.append('"').append(TARGET_SUMMONER).append("\":");
+        return new Personalized(head.toString(), dataJson);
+    }
+
+    /**
+     * Payload já serializado; cada destinatário custa só a emenda do nome
+     */
+    public static final class Personalized {
+
+        private static final String TAIL = "},\"" + TARGET_SUMMONER + "\":";
+        private static final String SEQ = ",\"seq\":";
+
+        private final String head;
+        private final String dataJson;
+
+        private Personalized(String head, String dataJson) {
+            this.head = head;
+            this.dataJson = dataJson;
+        }
+
+        /**
+         * Payload serializado (sem targetSummoner), como vai para o log de eventos
+         */
+        public String dataJson() {
+            return dataJson;
+        }
+
+        public TextMessage forRecipient(String summonerName) {
+            return forRecipient(summonerName, 0);
+        }
+
+        /**
+         * @param seq número de sequência do log do destinatário; 0 omite o campo
+         */
+        public TextMessage forRecipient(String summonerName, long seq) {
+            StringBuilder quoted = new StringBuilder(summonerName.length() + 2);
+            appendQuoted(quoted, summonerName);
+            StringBuilder frame = new StringBuilder(head.length() + TAIL.length() + 2 * quoted.length() + 32);
+            frame.append(head).append(quoted).append(TAIL).append(quoted);
+            if (seq > 0) {
+                frame.append(SEQ).append(seq);
+            }
+            frame.append('}');
+            return new EncodedFrame(frame.toString());
+        }
+    }
+
+    /**
+     * Frame JSON com a versão CBOR calculada sob demanda (uma vez por frame)
+     */
+    public static final class EncodedFrame extends TextMessage {
+
+        private volatile BinaryMessage compact;
+        private volatile int payloadBytes = -1;
+
+        private EncodedFrame(String payload) {
+            super(payload);
+        }
+
+        /**
+         * Tamanho em UTF-8 (calculado uma vez por frame, sem alocar)
+         */
+        int payloadBytes() {
+            int result = payloadBytes;
+            if (result < 0) {
+                result = utf8Length(getPayload());
+                payloadBytes = result;
+            }
+            return result;
+        }
+
+        BinaryMessage compact(WebSocketFrameEncoder encoder) {
+            BinaryMessage result = compact;
+            if (result == null) {
+                result = new BinaryMessage(encoder.toCbor(getPayload()));
+                compact = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Escolhe o formato a partir da oferta do cliente (ordem de preferência do
+     * cliente); sem oferta suportada → JSON
+     */
+    public WireFormat negotiate(JsonNode offered) {
+        if (compactEncodingEnabled && offered != null && offered.isArray()) {
+            for (JsonNode option : offered) {
+                if (WireFormat.CBOR.wireName().equalsIgnoreCase(option.asText())) {
+                    return WireFormat.CBOR;
+                }
+                if (WireFormat.JSON.wireName().equalsIgnoreCase(option.asText())) {
+                    return WireFormat.JSON;
+                }
+            }
+        }
+        return WireFormat.JSON;
+    }
+
+    /**
+     * Converte um frame de texto para o formato da sessão (demais mensagens
+     * passam intactas)
+     */
+    public WebSocketMessage<?> encode(WebSocketMessage<?> message, WireFormat format) {
+        if (format != WireFormat.CBOR || !(message instanceof TextMessage text)) {
+            return message;
+        }
+        if (text instanceof EncodedFrame frame) {
+            return frame.compact(this);
+        }
+        return new BinaryMessage(toCbor(text.getPayload()));
+    }
+
+    /**
+     * Frame binário (CBOR) recebido do cliente → mesma árvore que o JSON
+     * equivalente produziria
+     */
+    public JsonNode decode(BinaryMessage message) throws IOException {
+        ByteBuffer payload = message.getPayload().duplicate();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return cborMapper.readTree(bytes);
+    }
+
+    /**
+     * Bytes de um texto em UTF-8, sem o getBytes() de
+     * {@link TextMessage#getPayloadLength()}
+     */
+    static int utf8Length(CharSequence text) {
+        int length = text.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    bytes += 2; // par substituto: 4 bytes para 2 chars
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * JSON → CBOR token a token (sem JsonNode intermediário)
+     */
+    private byte[] toCbor(String json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length());
+        try (JsonParser parser = objectMapper.getFactory().createParser(json);
+                JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+            generator.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao transcodificar frame para CBOR", e);
+        }
+    }
+
+    private static void appendHead(StringBuilder frame, String type) {
+        frame.append("{\"type\":");
+        appendQuoted(frame, type);
+        frame.append(",\"timestamp\":").append(System.currentTimeMillis());
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, out);
+        out.append('"');
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.lolmatchmaking.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChampionAvailabilityTest {
+
+        // 150 campeões: máscara com 3 palavras de 64 bits
+        private static final List<String> KEYS = IntStream.rangeClosed(1, 150).mapToObj(String::valueOf).toList();
+
+        private static DraftFlowService.DraftAction action(int index, String championId) {
+                return new DraftFlowService.DraftAction(index, index < 6 ? "ban" : "pick", 1 + index % 2, championId,
+                                null, "P" + index);
+        }
+
+        @Test
+        void actionsMarkChampionsTakenAndRandomPickSkipsThem() {
+                DataDragonService.ChampionOrdinals ordinals = DataDragonService.ChampionOrdinals.of(KEYS);
+                List<DraftFlowService.DraftAction> actions = new ArrayList<>();
+                actions.add(action(0, "103"));
+                actions.add(action(1, "64"));
+                actions.add(action(2, "SKIPPED"));
+                actions.add(action(3, null));
+
+                ChampionAvailability availability = ChampionAvailability.of(ordinals, actions);
+
+                assertThat(availability.isTaken("103")).isTrue();
+                assertThat(availability.isTaken("64")).isTrue();
+                assertThat(availability.isTaken("65")).isFalse();
+                assertThat(availability.isKnown("SKIPPED")).isFalse();
+                assertThat(availability.availableCount()).isEqualTo(148);
+
+                availability.release("103");
+                availability.take("150");
+                assertThat(availability.isTaken("103")).isFalse();
+                assertThat(availability.isTaken("150")).isTrue();
+
+                for (int i = 0; i < 1_000; i++) {
+                        String champion = availability.randomAvailable();
+                        assertThat(champion).isNotIn("64", "150");
+                        assertThat(KEYS).contains(champion);
+                }
+        }
+
+        @Test
+        void fullMaskOrEmptyCatalogHasNoRandomChampion() {
+                ChampionAvailability availability = ChampionAvailability.of(DataDragonService.ChampionOrdinals.of(KEYS),
+                                List.of());
+                KEYS.forEach(availability::take);
+                availability.release("77");
+                assertThat(availability.randomAvailable()).isEqualTo("77");
+
+                availability.take("77");
+                assertThat(availability.randomAvailable()).isNull();
+                assertThat(ChampionAvailability.of(null, List.of()).randomAvailable()).isNull();
+        }
+}
@@ -0,0 +1,149 @@
+package br.com.lolmatchmaking.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DraftDeadlineSchedulerTest {
+
+        private static final List<String> PLAYERS = List.of("A1", "B1");
+
+        // ZSET draft:deadlines simulado (matchId → prazo)
+        private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+        private final List<String> fired = new ArrayList<>();
+        private final List<Integer> ticks = new ArrayList<>();
+        private DraftDeadlineScheduler scheduler;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        void setup() {
+                RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+                when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class),
+                                any(RedisSerializer.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+                                        String script = invocation.<RedisScript<?>>getArgument(0).getScriptAsString();
+                                        Object[] all = invocation.getArguments();
+                                        return zset(script, Arrays.copyOfRange(all, 4, all.length));
+                                });
+
+                scheduler = new DraftDeadlineScheduler(redisTemplate);
+                scheduler.shutdown(); // prazos processados manualmente via runDue
+                scheduler.bind((matchId, actionIndex) -> fired.add(matchId + ":" + actionIndex),
+                                (matchId, players, seconds) -> ticks.add(seconds));
+        }
+
+        @AfterEach
+        void tearDown() {
+                scheduler.shutdown();
+        }
+
+        private Object zset(String script, Object[] args) {
+                if (script.contains("ZRANGEBYSCORE")) {
+                        long max = Long.parseLong((String) args[0]);
+                        return new TreeMap<>(deadlines).entrySet().stream()
+                                        .filter(e -> e.getValue() <= max)
+                                        .map(e -> e.getKey() + "=" + e.getValue())
+                                        .collect(Collectors.joining(","));
+                }
+                String member = (String) args[0];
+                if (script.contains("ZADD")) {
+                        if ("nx".equals(args[2]) && deadlines.containsKey(member)) {
+                                return deadlines.get(member);
+                        }
+                        deadlines.put(member, Long.parseLong((String) args[1]));
+                        return Long.parseLong((String) args[1]);
+                }
+                if (script.contains("ZREM") && script.contains("ZSCORE")) {
+                        return deadlines.remove(member, Long.parseLong((String) args[1])) ? 1L : 0L;
+                }
+                if (script.contains("ZSCORE")) {
+                        return deadlines.getOrDefault(member, -1L);
+                }
+                return deadlines.remove(member) != null ? 1L : 0L;
+        }
+
+        private void runUntil(long until) {
+                for (long now = System.currentTimeMillis(); now <= until; now += DraftDeadlineScheduler.TICK_MS) {
+                        scheduler.runDue(now);
+                }
+                scheduler.runDue(until);
+        }
+
+        @Test
+        void deadlineFiresOnceWithTicksAndRearmSupersedesPrevious() {
+                long now = System.currentTimeMillis();
+                scheduler.arm(1L, 0, now + 30_000, PLAYERS);
+                scheduler.arm(1L, 1, now + 5_000, PLAYERS); // jogador agiu: nova ação
+                assertThat(scheduler.armedCount()).isEqualTo(1);
+
+                runUntil(now + 4_000);
+                assertThat(fired).isEmpty();
+                assertThat(ticks).isNotEmpty().allMatch(seconds -> seconds > 0 && seconds <= 5);
+
+                runUntil(now + 31_000);
+                assertThat(fired).containsExactly("1:1");
+                assertThat(scheduler.isArmed(1L)).isFalse();
+                assertThat(deadlines).isEmpty();
+        }
+
+        @Test
+        void deadlineClaimedElsewhereOrCancelledDoesNotFire() {
+                long now = System.currentTimeMillis();
+                scheduler.arm(1L, 0, now + 2_000, PLAYERS);
+                scheduler.arm(2L, 0, now + 2_000, PLAYERS);
+
+                deadlines.remove("1"); // outra instância reivindicou o prazo
+                scheduler.cancel(2L); // partida cancelada
+
+                runUntil(now + 3_000);
+                assertThat(fired).isEmpty();
+                assertThat(scheduler.armedCount()).isZero();
+        }
+
+        @Test
+        void ticksStopWhenAnotherInstanceRearmsTheDraft() {
+                long now = System.currentTimeMillis();
+                scheduler.arm(1L, 0, now + 10_000, PLAYERS);
+                runUntil(now + 1_000);
+                int ticksBefore = ticks.size();
+
+                deadlines.put("1", now + 40_000); // jogador agiu via outra instância
+
+                runUntil(now + 11_000);
+                assertThat(ticks).hasSize(ticksBefore);
+                assertThat(scheduler.isArmed(1L)).isFalse();
+                assertThat(fired).isEmpty();
+                assertThat(deadlines).containsEntry("1", now + 40_000);
+        }
+
+        @Test
+        void orphanDeadlineFromDeadInstanceIsSweptAndRestoreKeepsExistingDeadline() {
+                long now = System.currentTimeMillis();
+                deadlines.put("7", now - 10_000); // armado por instância que caiu
+
+                runUntil(now + DraftDeadlineScheduler.ORPHAN_SWEEP_MS);
+                assertThat(fired).containsExactly("7:-1");
+
+                // Restart: restauração não estende o prazo já registrado
+                deadlines.put("8", now + 1_000);
+                scheduler.armIfAbsent(8L, 3, now + 30_000, PLAYERS);
+                runUntil(now + DraftDeadlineScheduler.ORPHAN_SWEEP_MS + 1_000);
+                assertThat(fired).containsExactly("7:-1", "8:3");
+        }
+}
@@ -2,17 +2,30 @@ package br.com.lolmatchmaking.backend.service;
 
 import br.com.lolmatchmaking.backend.domain.entity.CustomMatch;
 import br.com.lolmatchmaking.backend.domain.repository.CustomMatchRepository;
+import br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService;
 import br.com.lolmatchmaking.backend.websocket.SessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DraftFlowServiceTest {
@@ -23,6 +36,10 @@ class DraftFlowServiceTest {
         private GameInProgressService gameInProgressService;
         private DiscordService discordService;
         private RedisDraftFlowService redisDraftFlowService;
+        private DraftDeadlineScheduler draftDeadlines;
+        private DraftStateStore draftStateStore;
+        private MatchmakingWebSocketService webSocketService;
+        private RedisTemplate<String, Object> redisTemplate;
         private DraftFlowService draftFlowService;
 
         @BeforeEach
@@ -62,6 +79,9 @@ class DraftFlowServiceTest {
                 // ✅ NOVO: Adicionar PlayerStateService mock ao construtor
                 br.com.lolmatchmaking.backend.service.lock.PlayerStateService playerStateService = mock(
                                 br.com.lolmatchmaking.backend.service.lock.PlayerStateService.class);
+                // Jogadores dos testes estão no draft (processAction valida o PlayerState)
+                when(playerStateService.getPlayerState(anyString()))
+                                .thenReturn(br.com.lolmatchmaking.backend.service.lock.PlayerState.IN_DRAFT);
 
                 // ✅ NOVO: Adicionar RedisPlayerMatchService mock ao construtor
                 br.com.lolmatchmaking.backend.service.redis.RedisPlayerMatchService redisPlayerMatchService = mock(
@@ -69,12 +89,11 @@ class DraftFlowServiceTest {
 
                 // ✅ NOVO: Adicionar RedisTemplate mock ao construtor
                 @SuppressWarnings("unchecked")
-                org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate = mock(
-                                org.springframework.data.redis.core.RedisTemplate.class);
+                RedisTemplate<String, Object> template = mock(RedisTemplate.class);
+                redisTemplate = template;
 
                 // ✅ NOVO: Adicionar MatchmakingWebSocketService mock ao construtor
-                br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService webSocketService = mock(
-                                br.com.lolmatchmaking.backend.websocket.MatchmakingWebSocketService.class);
+                webSocketService = mock(MatchmakingWebSocketService.class);
 
                 // ✅ NOVO: Adicionar RedisWebSocketSessionService mock ao construtor
                 br.com.lolmatchmaking.backend.service.redis.RedisWebSocketSessionService redisWSSession = mock(
@@ -98,12 +117,18 @@ class DraftFlowServiceTest {
                                 br.com.lolmatchmaking.backend.mapper.UnifiedMatchDataMapper.class);
                 com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
 
+                draftDeadlines = mock(DraftDeadlineScheduler.class);
+                // Redis mockado: estado quente ausente → fallback do flush usa o último estado local
+                draftStateStore = new DraftStateStore(redisTemplate, objectMapper, new SimpleMeterRegistry());
+
                 draftFlowService = new DraftFlowService(customMatchRepository, queuePlayerRepository, sessionRegistry,
                                 dataDragonService, matchDataMapper, objectMapper,
                                 gameInProgressService, discordService, redisDraftFlowService, webSocketService,
                                 playerStateService, redisPlayerMatchService, redisTemplate, redisWSSession,
                                 playerLockService,
-                                matchOpsLockService);
+                                matchOpsLockService, draftDeadlines, draftStateStore);
+
+                draftStateStore.bind(draftFlowService::flushToMySQL);
         }
 
         @Test
@@ -140,7 +165,95 @@ class DraftFlowServiceTest {
         }
 
         @Test
-        void testSkipOnTimeout() throws Exception {
+        void testDeltaEventsInsteadOfFullSnapshot() {
+                draftFlowService.setDeltaEventsEnabled(true);
+                when(customMatchRepository.findById(1L))
+                                .thenReturn(Optional.of(CustomMatch.builder().id(1L).status("draft").build()));
+                draftFlowService.startDraft(1L, List.of("A1", "A2", "A3", "A4", "A5"),
+                                List.of("B1", "B2", "B3", "B4", "B5"));
+
+                boolean ok = draftFlowService.processAction(1L, 0, "103", "A1");
+
+                assertThat(ok).isTrue();
+                verify(webSocketService).sendToPlayers(eq("draft_action_applied"),
+                                argThat(data -> "103".equals(data.get("championId")) && data.get("index").equals(0)
+                                                && "A1".equals(data.get("player")) && data.containsKey("version")),
+                                anyList());
+                verify(webSocketService).sendToPlayers(eq("draft_turn_changed"),
+                                argThat(data -> data.get("currentIndex").equals(1)
+                                                && "red".equals(data.get("currentTeam"))),
+                                anyList());
+                // Snapshot completo só no início do draft (draft_starting), não por ação
+                verify(webSocketService, never()).sendToPlayers(eq("draft_updated"), anyMap(), anyList());
+        }
+
+        @Test
+        void testAppliedCompareAndSetBroadcastsTheNewVersion() {
+                startDraft(4L);
+                whenActionScript("applied:7");
+
+                assertThat(draftFlowService.submitAction(4L, 0, "103", "A1"))
+                                .isEqualTo(DraftStateStore.ActionResult.APPLIED);
+                draftStateStore.flushDirty();
+
+                var after = draftFlowService.getState(4L).orElseThrow();
+                assertThat(after.getActions().get(0).championId()).isEqualTo("103");
+                assertThat(after.getCurrentIndex()).isEqualTo(1);
+                verify(webSocketService).sendToPlayers(eq("draft_action_applied"),
+                                argThat(data -> data.get("version").equals(7L) && data.get("index").equals(0)),
+                                anyList());
+                verify(webSocketService).sendToPlayers(eq("draft_turn_changed"),
+                                argThat(data -> data.get("version").equals(7L) && data.get("currentIndex").equals(1)),
+                                anyList());
+                verify(draftDeadlines).arm(eq(4L), eq(1), anyLong(), anyList());
+        }
+
+        @Test
+        void testStaleCompareAndSetLeavesStateUntouched() {
+                startDraft(5L);
+                // Outro nó/timeout aplicou a ação 0 entre a leitura e o compare-and-set
+                whenActionScript("stale:1");
+
+                assertThat(draftFlowService.submitAction(5L, 0, "103", "A1"))
+                                .isEqualTo(DraftStateStore.ActionResult.STALE);
+
+                assertNoActionApplied(5L);
+        }
+
+        @Test
+        void testNotYourTurnFromCompareAndSetIsRejected() {
+                startDraft(6L);
+                // Time do turno no estado quente não contém o jogador
+                whenActionScript("not_your_turn");
+
+                assertThat(draftFlowService.submitAction(6L, 0, "103", "A1"))
+                                .isEqualTo(DraftStateStore.ActionResult.NOT_YOUR_TURN);
+
+                assertNoActionApplied(6L);
+        }
+
+        @Test
+        void testMissingHotStateIsReseededAndRetried() {
+                startDraft(7L);
+                // HASH expirou: recarrega do MySQL e o segundo compare-and-set aplica
+                whenActionScript("missing", "applied:3");
+
+                assertThat(draftFlowService.submitAction(7L, 0, "103", "A1"))
+                                .isEqualTo(DraftStateStore.ActionResult.APPLIED);
+
+                verify(redisTemplate, times(2)).execute(actionScript(), any(), any(), anyList(), any(Object[].class));
+                verify(webSocketService).sendToPlayers(eq("draft_action_applied"),
+                                argThat(data -> data.get("version").equals(3L) && "103".equals(data.get("championId"))),
+                                anyList());
+                draftStateStore.flushDirty();
+                assertThat(draftFlowService.getState(7L).orElseThrow().getCurrentIndex()).isEqualTo(1);
+        }
+
+        @Test
+        void testRandomPickFromCatalogOnTimeout() {
+                // Catálogo do Data Dragon com 3 campeões; "10" já será banido
+                when(dataDragonService.getChampionOrdinals())
+                                .thenReturn(DataDragonService.ChampionOrdinals.of(List.of("10", "11", "12")));
                 when(customMatchRepository.findById(2L))
                                 .thenReturn(Optional.of(CustomMatch.builder().id(2L).status("draft").build()));
                 WebSocketSession ws = mock(WebSocketSession.class);
@@ -148,16 +261,49 @@ class DraftFlowServiceTest {
                 var st = draftFlowService.startDraft(2L, List.of("A1", "A2", "A3", "A4", "A5"),
                                 List.of("B1", "B2", "B3", "B4", "B5"));
 
-                // Force internal timer (simulate elapsed)
-                // Reflection quick hack: set lastActionStartMs far in past
-                var field = st.getClass().getDeclaredField("lastActionStartMs");
-                field.setAccessible(true);
-                field.set(st, System.currentTimeMillis() - 60000); // 60s ago
+                // Prazo da primeira ação armado no motor de prazos (sem polling)
+                verify(draftDeadlines).arm(eq(2L), eq(0), eq(st.getLastActionStartMs() + 30000), anyList());
+                assertThat(draftFlowService.processAction(2L, 0, "10", "A1")).isTrue();
+                draftStateStore.flushDirty();
+
+                // Simula o prazo vencido da ação 1: início persistido 60s no passado
+                var beforeTimeout = draftFlowService.getState(2L).orElseThrow();
+                beforeTimeout.restoreActionStart(System.currentTimeMillis() - 60000);
+                draftFlowService.persist(2L, beforeTimeout);
 
-                draftFlowService.monitorActionTimeouts();
+                draftFlowService.onActionDeadline(2L, 1);
+                draftStateStore.flushDirty(); // write-behind do pick_ban_data
+
+                var after = draftFlowService.getState(2L).orElseThrow();
+                assertThat(after.getActions().get(1).championId()).isIn("11", "12");
+                assertThat(after.getCurrentIndex()).isEqualTo(2);
+                verify(draftDeadlines).arm(eq(2L), eq(2), anyLong(), anyList());
+        }
+
+        private void startDraft(long matchId) {
+                when(customMatchRepository.findById(matchId))
+                                .thenReturn(Optional.of(CustomMatch.builder().id(matchId).status("draft").build()));
+                draftFlowService.startDraft(matchId, List.of("A1", "A2", "A3", "A4", "A5"),
+                                List.of("B1", "B2", "B3", "B4", "B5"));
+        }
+
+        // Respostas do script de compare-and-set (applied:V | stale:N | not_your_turn | missing)
+        private void whenActionScript(String reply, String... next) {
+                when(redisTemplate.execute(actionScript(), any(), any(), anyList(), any(Object[].class)))
+                                .thenReturn(reply, next);
+        }
+
+        private static RedisScript<String> actionScript() {
+                return argThat(script -> script != null && script.getScriptAsString().contains("'applied:'"));
+        }
 
-                assertThat(st.getActions().get(0).championId()).isEqualTo("SKIPPED");
-                assertThat(st.getCurrentIndex()).isEqualTo(1);
+        private void assertNoActionApplied(long matchId) {
+                draftStateStore.flushDirty();
+                var after = draftFlowService.getState(matchId).orElseThrow();
+                assertThat(after.getActions().get(0).championId()).isNull();
+                assertThat(after.getCurrentIndex()).isZero();
+                verify(webSocketService, never()).sendToPlayers(eq("draft_action_applied"), anyMap(), anyList());
+                verify(draftDeadlines, never()).arm(eq(matchId), eq(1), anyLong(), anyList());
         }
 
         @Test
@@ -0,0 +1,99 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de seleção do {@link MatchmakingPool} com 30 / 300 / 3.000 jogadores
+ * na fila (MMR 800-2000, entradas espalhadas nos últimos 2 minutos)
+ *
+ * - selectLobbies: um ciclo do sweep (quantos lobbies a fila permitir)
+ * - joinToMatch: entrada que torna a partida viável → lobby em volta do mais
+ * antigo → reserva (o que addToPool + claimLobbiesFromPool fazem sob o lock);
+ * o estado é restaurado ao final de cada chamada
+ *
+ * Não roda no build; executar com:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MatchmakingPoolBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchmakingPoolBenchmark {
+
+        private static final int MATCH_SIZE = 10;
+        private static final Instant NOW = Instant.parse("2025-01-01T00:02:00Z");
+
+        @Param({ "30", "300", "3000" })
+        private int queueSize;
+
+        private MatchmakingPool pool;
+        private QueuePlayer joiner;
+
+        @Setup
+        public void setup() {
+                Random random = new Random(42);
+                pool = new MatchmakingPool();
+                for (int i = 0; i < queueSize; i++) {
+                        pool.upsert(player(i, "P" + i, random));
+                }
+                joiner = player(queueSize, "Joiner", random);
+        }
+
+        @Benchmark
+        public List<List<MatchmakingPool.Candidate>> selectLobbies() {
+                return pool.selectLobbies(MATCH_SIZE, queueSize / MATCH_SIZE, NOW);
+        }
+
+        @Benchmark
+        public List<List<MatchmakingPool.Candidate>> joinToMatch() {
+                pool.upsert(joiner);
+                List<List<MatchmakingPool.Candidate>> lobbies = pool.selectLobbies(MATCH_SIZE, 1, NOW);
+                List<String> names = lobbies.isEmpty() ? List.of()
+                                : lobbies.get(0).stream().map(MatchmakingPool.Candidate::summonerName).toList();
+                if (pool.claim(names)) {
+                        pool.release(names);
+                }
+                pool.remove(joiner.getSummonerName());
+                return lobbies;
+        }
+
+        private static QueuePlayer player(int i, String name, Random random) {
+                return QueuePlayer.builder()
+                                .id((long) i)
+                                .summonerName(name)
+                                .customLp(800 + random.nextInt(1200))
+                                .primaryLane(MatchmakingPool.LANES.get(random.nextInt(MatchmakingPool.LANES.size())))
+                                .secondaryLane("fill")
+                                .joinTime(NOW.minusSeconds(random.nextInt(120)))
+                                .active(true)
+                                .acceptanceStatus(0)
+                                .build();
+        }
+
+        public static void main(String[] args) throws RunnerException {
+                new Runner(new OptionsBuilder()
+                                .include(MatchmakingPoolBenchmark.class.getSimpleName())
+                                .build()).run();
+        }
+}
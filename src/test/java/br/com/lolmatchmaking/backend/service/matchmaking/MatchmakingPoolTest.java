@@ -0,0 +1,150 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchmakingPoolTest {
+
+        private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+        private MatchmakingPool pool;
+
+        @BeforeEach
+        void setup() {
+                pool = new MatchmakingPool();
+        }
+
+        private static QueuePlayer player(long id, String name, int mmr, String lane, long joinOffsetSec) {
+                return QueuePlayer.builder()
+                                .id(id)
+                                .playerId(id)
+                                .summonerName(name)
+                                .region("br1")
+                                .customLp(mmr)
+                                .primaryLane(lane)
+                                .secondaryLane("fill")
+                                .joinTime(T0.plusSeconds(joinOffsetSec))
+                                .active(true)
+                                .acceptanceStatus(0)
+                                .build();
+        }
+
+        @Test
+        void testTenthJoinMakesMatchFeasible() {
+                for (int i = 0; i < 9; i++) {
+                        pool.upsert(player(i, "P" + i, 1000 + i, "mid", i));
+                }
+                assertThat(pool.canFormMatch(10)).isFalse();
+
+                pool.upsert(player(9, "P9", 1200, "top", 9));
+
+                assertThat(pool.canFormMatch(10)).isTrue();
+                List<List<MatchmakingPool.Candidate>> lobbies = pool.selectLobbies(10, 1, T0);
+                assertThat(lobbies).hasSize(1);
+                assertThat(lobbies.get(0)).extracting(MatchmakingPool.Candidate::summonerName)
+                                .containsExactlyInAnyOrder("P0", "P1", "P2", "P3", "P4", "P5", "P6", "P7", "P8", "P9");
+        }
+
+        @Test
+        void testClaimIsAllOrNothingAndReleaseRestores() {
+                for (int i = 0; i < 12; i++) {
+                        pool.upsert(player(i, "P" + i, 1000, "top", i));
+                }
+                assertThat(pool.claim(List.of("P0", "P1"))).isTrue();
+                assertThat(pool.claim(List.of("P1", "P2"))).isFalse();
+                assertThat(pool.isClaimed("P2")).isFalse();
+                assertThat(pool.availableCount()).isEqualTo(10);
+                assertThat(pool.availableCountForLane("top")).isEqualTo(10);
+
+                pool.release(List.of("P0", "P1"));
+
+                assertThat(pool.availableCount()).isEqualTo(12);
+                assertThat(pool.availableInMmrRange(1000, 1000).get(0).summonerName()).isEqualTo("P0");
+        }
+
+        @Test
+        void testReconcileRemovesStaleAndKeepsJoinsAfterSnapshot() {
+                pool.upsert(player(1, "Gone", 1000, "top", 1));
+                long snapshotStart = System.nanoTime();
+                pool.upsert(player(2, "JoinedDuringSnapshot", 1000, "top", 2));
+
+                QueuePlayer reserved = player(3, "Reserved", 1000, "mid", 3);
+                reserved.setAcceptanceStatus(-1);
+
+                pool.reconcile(List.of(reserved), snapshotStart);
+
+                assertThat(pool.contains("Gone")).isFalse();
+                assertThat(pool.contains("JoinedDuringSnapshot")).isTrue();
+                assertThat(pool.isClaimed("reserved")).isTrue();
+                assertThat(pool.availableCount()).isEqualTo(1);
+        }
+
+        @Test
+        void testMmrRangeLookup() {
+                pool.upsert(player(1, "Low", 800, "top", 1));
+                pool.upsert(player(2, "Mid", 1200, "top", 2));
+                pool.upsert(player(3, "High", 1800, "top", 3));
+
+                assertThat(pool.availableInMmrRange(1000, 1500))
+                                .extracting(MatchmakingPool.Candidate::summonerName)
+                                .containsExactly("Mid");
+        }
+
+        @Test
+        void testLobbiesStayInsideMmrWindowForNewPlayers() {
+                for (int i = 0; i < 10; i++) {
+                        pool.upsert(player(i, "Low" + i, 1000 + i, MatchmakingPool.LANES.get(i % 5), 0));
+                        pool.upsert(player(100 + i, "High" + i, 2000 + i, MatchmakingPool.LANES.get(i % 5), 0));
+                }
+
+                List<List<MatchmakingPool.Candidate>> lobbies = pool.selectLobbies(10, 2, T0);
+
+                assertThat(lobbies).hasSize(2);
+                for (List<MatchmakingPool.Candidate> lobby : lobbies) {
+                        int min = lobby.stream().mapToInt(MatchmakingPool.Candidate::mmr).min().orElseThrow();
+                        int max = lobby.stream().mapToInt(MatchmakingPool.Candidate::mmr).max().orElseThrow();
+                        assertThat(max - min).isLessThan(MatchmakingPool.SEARCH_WINDOW_BASE);
+                        assertThat(lobby).filteredOn(c -> "top".equals(c.primaryLane())).hasSize(2);
+                }
+        }
+
+        @Test
+        void testWindowWidensWithTimeInQueue() {
+                pool.upsert(player(0, "Anchor", 1000, "top", 0));
+                for (int i = 1; i < 10; i++) {
+                        pool.upsert(player(i, "P" + i, 1500, MatchmakingPool.LANES.get(i % 5), 0));
+                }
+                // 11º jogador fora de qualquer janela: pool maior que uma partida
+                pool.upsert(player(10, "Far", 3000, "mid", 0));
+
+                assertThat(pool.selectLobbies(10, 1, T0)).isEmpty();
+                // 1.000 → 1.500: janela precisa de ±500 → 150 + 7 × 50 após 70s
+                assertThat(pool.estimatedWaitSeconds("Anchor", 10, T0)).isEqualTo(70);
+
+                assertThat(pool.selectLobbies(10, 1, T0.plusSeconds(60))).isEmpty();
+                assertThat(pool.selectLobbies(10, 1, T0.plusSeconds(70))).hasSize(1);
+                assertThat(pool.estimatedWaitSeconds("Anchor", 10, T0.plusSeconds(70))).isZero();
+        }
+
+        @Test
+        void testExactlyOneMatchWorthOfPlayersMatchesImmediately() {
+                pool.upsert(player(0, "Anchor", 1000, "top", 0));
+                for (int i = 1; i < 10; i++) {
+                        pool.upsert(player(i, "P" + i, 1500, MatchmakingPool.LANES.get(i % 5), 0));
+                }
+
+                // Janelas ainda não se cruzam, mas não existe outro pareamento possível
+                assertThat(pool.estimatedWaitSeconds("Anchor", 10, T0)).isZero();
+                List<List<MatchmakingPool.Candidate>> lobbies = pool.selectLobbies(10, 1, T0);
+                assertThat(lobbies).hasSize(1);
+                assertThat(lobbies.get(0)).extracting(MatchmakingPool.Candidate::summonerName)
+                                .contains("Anchor", "P1", "P9")
+                                .hasSize(10);
+        }
+}
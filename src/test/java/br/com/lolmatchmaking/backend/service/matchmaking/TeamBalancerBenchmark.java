@@ -0,0 +1,104 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balanceamento de um lobby de 10: guloso antigo vs branch-and-bound
+ * ({@link OptimalTeamBalancer}) sobre 2.000 lobbies aleatórios (seed fixa)
+ *
+ * Latência por lobby no relatório do JMH; qualidade (diferença média de MMR
+ * entre times e % de autofill) impressa uma vez por trial.
+ *
+ * Não roda no build; executar com:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TeamBalancerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamBalancerBenchmark {
+
+        private static final int LOBBIES = 2000;
+
+        private final TeamBalancer greedy = new GreedyTeamBalancer();
+        private final TeamBalancer optimal = new OptimalTeamBalancer();
+        private List<List<QueuePlayer>> lobbies;
+        private List<PlayerRatingSnapshot> ratings;
+        private int next;
+
+        @Setup
+        public void setup() {
+                Random random = new Random(42);
+                lobbies = new ArrayList<>(LOBBIES);
+                ratings = new ArrayList<>(LOBBIES);
+                for (int i = 0; i < LOBBIES; i++) {
+                        List<QueuePlayer> lobby = TeamBalancerFixtures.randomLobby(random);
+                        lobbies.add(lobby);
+                        ratings.add(TeamBalancerFixtures.ratings(lobby));
+                }
+        }
+
+        @Benchmark
+        public List<QueuePlayer> greedy() {
+                int i = nextLobby();
+                return greedy.balance(lobbies.get(i), ratings.get(i));
+        }
+
+        @Benchmark
+        public List<QueuePlayer> optimal() {
+                int i = nextLobby();
+                return optimal.balance(lobbies.get(i), ratings.get(i));
+        }
+
+        private int nextLobby() {
+                int i = next;
+                next = i + 1 == LOBBIES ? 0 : i + 1;
+                return i;
+        }
+
+        @TearDown(Level.Trial)
+        public void reportQuality() {
+                System.out.printf("%nTeamBalancer (%d lobbies): greedy %s | optimal %s%n", LOBBIES,
+                                quality(greedy), quality(optimal));
+        }
+
+        private String quality(TeamBalancer balancer) {
+                long diff = 0;
+                long autofill = 0;
+                for (int i = 0; i < LOBBIES; i++) {
+                        List<QueuePlayer> slots = balancer.balance(lobbies.get(i), ratings.get(i));
+                        diff += TeamBalancerFixtures.mmrDiff(slots, ratings.get(i));
+                        autofill += TeamBalancerFixtures.autofills(slots);
+                }
+                return String.format("diffMMR=%.1f autofill=%.2f%%", diff / (double) LOBBIES,
+                                100.0 * autofill / (LOBBIES * (double) TeamBalancer.MATCH_SIZE));
+        }
+
+        public static void main(String[] args) throws RunnerException {
+                new Runner(new OptionsBuilder()
+                                .include(TeamBalancerBenchmark.class.getSimpleName())
+                                .build()).run();
+        }
+}
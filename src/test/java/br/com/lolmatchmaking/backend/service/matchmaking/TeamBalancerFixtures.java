@@ -0,0 +1,77 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import br.com.lolmatchmaking.backend.domain.repository.PlayerRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lobbies aleatórios e métricas de qualidade compartilhados entre
+ * TeamBalancerQualityTest e TeamBalancerBenchmark
+ */
+final class TeamBalancerFixtures {
+
+        private static final String[] LANE_CHOICES = { "top", "jungle", "mid", "bot", "support", "fill" };
+
+        private TeamBalancerFixtures() {
+        }
+
+        static PlayerRatingSnapshot ratings(List<QueuePlayer> players) {
+                PlayerRepository repository = mock(PlayerRepository.class);
+                when(repository.findBySummonerNameLowerIn(anyCollection())).thenReturn(List.of());
+                return PlayerRatingSnapshot.load(repository, players);
+        }
+
+        static List<QueuePlayer> randomLobby(Random random) {
+                List<QueuePlayer> players = new ArrayList<>();
+                for (int i = 0; i < TeamBalancer.MATCH_SIZE; i++) {
+                        players.add(QueuePlayer.builder()
+                                        .id((long) i)
+                                        .summonerName("P" + i)
+                                        .customLp(800 + random.nextInt(1200))
+                                        .primaryLane(LANE_CHOICES[random.nextInt(LANE_CHOICES.length)])
+                                        .secondaryLane(LANE_CHOICES[random.nextInt(LANE_CHOICES.length)])
+                                        .joinTime(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i))
+                                        .active(true)
+                                        .acceptanceStatus(0)
+                                        .build());
+                }
+                return players;
+        }
+
+        static int laneCost(List<QueuePlayer> slots) {
+                int cost = 0;
+                for (int slot = 0; slot < slots.size(); slot++) {
+                        cost += slotCost(slots, slot);
+                }
+                return cost;
+        }
+
+        static int mmrDiff(List<QueuePlayer> slots, PlayerRatingSnapshot ratings) {
+                return Math.abs(ratings.averageMmr(slots.subList(0, 5)) - ratings.averageMmr(slots.subList(5, 10)));
+        }
+
+        static int autofills(List<QueuePlayer> slots) {
+                int count = 0;
+                for (int slot = 0; slot < slots.size(); slot++) {
+                        if (slotCost(slots, slot) == OptimalTeamBalancer.COST_AUTOFILL) {
+                                count++;
+                        }
+                }
+                return count;
+        }
+
+        private static int slotCost(List<QueuePlayer> slots, int slot) {
+                QueuePlayer player = slots.get(slot);
+                return OptimalTeamBalancer.laneCost(OptimalTeamBalancer.laneBit(player.getPrimaryLane()),
+                                OptimalTeamBalancer.laneBit(player.getSecondaryLane()),
+                                slot % OptimalTeamBalancer.LANE_COUNT);
+        }
+}
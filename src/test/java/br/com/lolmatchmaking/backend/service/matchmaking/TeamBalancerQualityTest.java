@@ -0,0 +1,85 @@
+package br.com.lolmatchmaking.backend.service.matchmaking;
+
+import br.com.lolmatchmaking.backend.domain.entity.QueuePlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static br.com.lolmatchmaking.backend.service.matchmaking.TeamBalancerFixtures.autofills;
+import static br.com.lolmatchmaking.backend.service.matchmaking.TeamBalancerFixtures.laneCost;
+import static br.com.lolmatchmaking.backend.service.matchmaking.TeamBalancerFixtures.mmrDiff;
+import static br.com.lolmatchmaking.backend.service.matchmaking.TeamBalancerFixtures.ratings;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Qualidade do branch-and-bound vs guloso em uma amostra fixa pequena.
+ * Latência e relatório completo: {@link TeamBalancerBenchmark}.
+ */
+class TeamBalancerQualityTest {
+
+        private static final int LOBBIES = 50;
+
+        @Test
+        void testOptimalNeverWorseThanGreedy() {
+                TeamBalancer greedy = new GreedyTeamBalancer();
+                TeamBalancer optimal = new OptimalTeamBalancer();
+                Random random = new Random(42);
+
+                long greedyDiff = 0;
+                long optimalDiff = 0;
+                long greedyAutofill = 0;
+                long optimalAutofill = 0;
+
+                for (int i = 0; i < LOBBIES; i++) {
+                        List<QueuePlayer> lobby = TeamBalancerFixtures.randomLobby(random);
+                        PlayerRatingSnapshot ratings = ratings(lobby);
+
+                        List<QueuePlayer> greedySlots = greedy.balance(lobby, ratings);
+                        List<QueuePlayer> optimalSlots = optimal.balance(lobby, ratings);
+
+                        assertThat(greedySlots).hasSize(TeamBalancer.MATCH_SIZE);
+                        assertThat(optimalSlots).hasSize(TeamBalancer.MATCH_SIZE);
+                        assertThat(new HashSet<>(optimalSlots)).hasSize(TeamBalancer.MATCH_SIZE);
+
+                        int greedyScore = laneCost(greedySlots) * OptimalTeamBalancer.LANE_COST_WEIGHT
+                                        + 5 * mmrDiff(greedySlots, ratings);
+                        int optimalScore = laneCost(optimalSlots) * OptimalTeamBalancer.LANE_COST_WEIGHT
+                                        + 5 * mmrDiff(optimalSlots, ratings);
+                        // Tolerância de arredondamento das médias inteiras
+                        assertThat(optimalScore).isLessThanOrEqualTo(greedyScore + 10);
+
+                        greedyDiff += mmrDiff(greedySlots, ratings);
+                        optimalDiff += mmrDiff(optimalSlots, ratings);
+                        greedyAutofill += autofills(greedySlots);
+                        optimalAutofill += autofills(optimalSlots);
+                }
+
+                assertThat(optimalDiff).isLessThanOrEqualTo(greedyDiff);
+                assertThat(optimalAutofill).isLessThanOrEqualTo(greedyAutofill);
+        }
+
+        @Test
+        void testPrimaryLanesRespectedWhenLobbyIsComplete() {
+                List<QueuePlayer> lobby = new ArrayList<>();
+                for (int i = 0; i < TeamBalancer.MATCH_SIZE; i++) {
+                        lobby.add(QueuePlayer.builder()
+                                        .id((long) i)
+                                        .summonerName("P" + i)
+                                        .customLp(1000 + i * 50)
+                                        .primaryLane(MatchmakingPool.LANES.get(i % 5))
+                                        .secondaryLane("fill")
+                                        .build());
+                }
+
+                List<QueuePlayer> slots = new OptimalTeamBalancer().balance(lobby, ratings(lobby));
+
+                assertThat(laneCost(slots)).isZero();
+                for (int slot = 0; slot < slots.size(); slot++) {
+                        assertThat(MatchmakingPool.normalizeLane(slots.get(slot).getPrimaryLane()))
+                                        .isEqualTo(MatchmakingPool.LANES.get(slot % 5));
+                }
+        }
+}
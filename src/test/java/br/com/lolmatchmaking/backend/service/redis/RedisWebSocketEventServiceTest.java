@@ -0,0 +1,152 @@
+package br.com.lolmatchmaking.backend.service.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Log de eventos por jogador (Redis Streams) contra um Redis embarcado: seq,
+ * replay, lacuna podada, ack e cursor de entrega
+ */
+class RedisWebSocketEventServiceTest {
+
+        private static RedisServer redisServer;
+        private static RedissonClient redisson;
+
+        private RedisWebSocketEventService events;
+
+        @BeforeAll
+        static void startRedis() throws IOException {
+                int port;
+                try (ServerSocket socket = new ServerSocket(0)) {
+                        port = socket.getLocalPort();
+                }
+                redisServer = new RedisServer(port);
+                redisServer.start();
+
+                Config config = new Config();
+                config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+                redisson = Redisson.create(config);
+        }
+
+        @AfterAll
+        static void stopRedis() throws IOException {
+                if (redisson != null) {
+                        redisson.shutdown();
+                }
+                if (redisServer != null) {
+                        redisServer.stop();
+                }
+        }
+
+        @BeforeEach
+        void setup() {
+                redisson.getKeys().flushall();
+                events = new RedisWebSocketEventService(redisson);
+        }
+
+        @Test
+        void testSeqIsPerPlayerAndSkipsTransientEvents() {
+                assertThat(events.appendEvent("Player1", "match_found", "{}", true)).isEqualTo(1);
+                // Nome normalizado: mesma sequência
+                assertThat(events.appendEvent(" player1", "draft_updated", "{}", true)).isEqualTo(2);
+                assertThat(events.appendEvent("Player2", "match_found", "{}", true)).isEqualTo(1);
+                // Timer transitório não recebe seq nem entra no log
+                assertThat(events.appendEvent("Player1", "draft_update", "{}", true)).isZero();
+                assertThat(events.appendEvent("Player1", "game_started", "{}", true)).isEqualTo(3);
+        }
+
+        @Test
+        void testReplayReturnsOnlyEventsAfterLastSeenSeq() {
+                appendAll("Player1", 5, true);
+
+                RedisWebSocketEventService.EventReplay replay = events.replayEvents("Player1", 2);
+
+                assertThat(replay.events()).extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(3L, 4L, 5L);
+                assertThat(replay.events().get(0).eventType()).isEqualTo("event_3");
+                assertThat(replay.events().get(0).dataJson()).isEqualTo("{\"n\":3}");
+                assertThat(replay.latestSeq()).isEqualTo(5);
+                assertThat(replay.gap()).isFalse();
+
+                RedisWebSocketEventService.EventReplay upToDate = events.replayEvents("Player1", 5);
+                assertThat(upToDate.events()).isEmpty();
+                assertThat(upToDate.gap()).isFalse();
+        }
+
+        @Test
+        void testAckTrimsTheLogAndOlderResumeNeedsResync() {
+                appendAll("Player1", 5, true);
+
+                events.ackEvents("Player1", 3);
+
+                RedisWebSocketEventService.EventReplay afterAck = events.replayEvents("Player1", 3);
+                assertThat(afterAck.events()).extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(4L, 5L);
+                assertThat(afterAck.gap()).isFalse();
+
+                // Outra sessão parada no #1: #2 e #3 já foram podados → snapshot
+                RedisWebSocketEventService.EventReplay stale = events.replayEvents("Player1", 1);
+                assertThat(stale.events()).extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(4L, 5L);
+                assertThat(stale.gap()).isTrue();
+        }
+
+        @Test
+        void testClientAheadOfServerGetsWholeLogAsGap() {
+                // Log expirou e a sequência recomeçou
+                appendAll("Player1", 2, true);
+
+                RedisWebSocketEventService.EventReplay replay = events.replayEvents("Player1", 10);
+
+                assertThat(replay.events()).extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(1L, 2L);
+                assertThat(replay.gap()).isTrue();
+        }
+
+        @Test
+        void testCursorHoldsAtFirstUndeliveredEvent() {
+                events.appendEvent("Player1", "match_found", "{}", true);
+                events.appendEvent("Player1", "draft_starting", "{}", false); // sessão offline
+                events.appendEvent("Player1", "draft_updated", "{}", true);
+
+                assertThat(events.replayUndelivered("Player1").events())
+                                .extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(2L, 3L);
+
+                events.markDelivered("Player1", 3);
+                assertThat(events.replayUndelivered("Player1").events()).isEmpty();
+        }
+
+        @Test
+        void testUndeliveredFrameRewindsCursor() {
+                appendAll("Player1", 3, true);
+                assertThat(events.replayUndelivered("Player1").events()).isEmpty();
+
+                // Fila de saída cheia: #2 não chegou ao cliente
+                events.markUndelivered("Player1", 2);
+
+                assertThat(events.replayUndelivered("Player1").events())
+                                .extracting(RedisWebSocketEventService.LoggedEvent::seq)
+                                .containsExactly(2L, 3L);
+                // Rewind nunca avança o cursor
+                events.markUndelivered("Player1", 3);
+                assertThat(events.replayUndelivered("Player1").events()).hasSize(2);
+        }
+
+        private void appendAll(String player, int count, boolean deliveredLive) {
+                for (int i = 1; i <= count; i++) {
+                        events.appendEvent(player, "event_" + i, "{\"n\":" + i + "}", deliveredLive);
+                }
+        }
+}
@@ -0,0 +1,284 @@
+package br.com.lolmatchmaking.backend.simulation;
+
+import br.com.lolmatchmaking.backend.service.DraftFlowService;
+import br.com.lolmatchmaking.backend.service.DraftStateStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contenção de ações do draft: 10 jogadores disparando pick/ban ao mesmo tempo
+ * contra um Redis embarcado
+ *
+ * Compara o compare-and-set do {@link DraftStateStore#applyAction} com o
+ * caminho antigo (RLock draft_action:{matchId} + leitura + regravação).
+ * Relatório: applied/stale/not_your_turn e percentis de latência por tentativa
+ * (µs). Também confere que confirmações simultâneas (merge atômico) não se
+ * perdem.
+ *
+ * Não roda no build padrão (tag "simulation"):
+ * mvn test -Psimulation -Dtest=DraftActionContentionTest -Dsimulation.drafts=200
+ */
+@Slf4j
+@Tag("simulation")
+class DraftActionContentionTest {
+
+        private static final int ACTIONS = 20;
+        private static final int DRAFTS = Integer.getInteger("simulation.drafts", 200);
+        private static final List<String> TEAM1 = List.of("A1", "A2", "A3", "A4", "A5");
+        private static final List<String> TEAM2 = List.of("B1", "B2", "B3", "B4", "B5");
+
+        private static RedisServer redisServer;
+        private static LettuceConnectionFactory connectionFactory;
+        private static RedissonClient redisson;
+        private static DraftStateStore store;
+
+        @BeforeAll
+        static void startRedis() throws IOException {
+                int port;
+                try (ServerSocket socket = new ServerSocket(0)) {
+                        port = socket.getLocalPort();
+                }
+                redisServer = new RedisServer(port);
+                redisServer.start();
+
+                connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+                connectionFactory.afterPropertiesSet();
+                RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+                redisTemplate.setConnectionFactory(connectionFactory);
+                redisTemplate.setKeySerializer(new StringRedisSerializer());
+                redisTemplate.afterPropertiesSet();
+                store = new DraftStateStore(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+
+                Config config = new Config();
+                config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+                redisson = Redisson.create(config);
+        }
+
+        @AfterAll
+        static void stopRedis() throws IOException {
+                if (redisson != null) {
+                        redisson.shutdown();
+                }
+                if (connectionFactory != null) {
+                        connectionFactory.destroy();
+                }
+                if (redisServer != null) {
+                        redisServer.stop();
+                }
+        }
+
+        @Test
+        void compareAndSetAppliesEachActionOnceFromTheTeamOnTurn() throws InterruptedException {
+                Report lockFree = run(1_000_000L, this::compareAndSet);
+                Report locked = run(2_000_000L, this::lockedBaseline);
+
+                log.info("\n=== Contenção do draft ({} drafts x 10 jogadores) ===\ncompare-and-set: {}\nRLock:           {}",
+                                DRAFTS, lockFree, locked);
+
+                assertThat(lockFree.count(DraftStateStore.ActionResult.APPLIED)).isEqualTo((long) DRAFTS * ACTIONS);
+                assertThat(lockFree.count(DraftStateStore.ActionResult.FAILED)).isZero();
+                assertThat(locked.count(DraftStateStore.ActionResult.APPLIED)).isEqualTo((long) DRAFTS * ACTIONS);
+        }
+
+        @Test
+        void concurrentConfirmationsAreAllKept() throws InterruptedException {
+                long matchId = 3_000_000L;
+                store.seed(newDraft(matchId), false);
+                List<String> all = concat(TEAM1, TEAM2);
+                ExecutorService players = Executors.newFixedThreadPool(all.size());
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(all.size());
+                try {
+                        for (String player : all) {
+                                players.execute(() -> {
+                                        try {
+                                                start.await();
+                                                // Cada jogador confirma a partir da própria leitura (nós diferentes)
+                                                store.updateConfirmation(store.load(matchId), player, true);
+                                        } catch (InterruptedException e) {
+                                                Thread.currentThread().interrupt();
+                                        } finally {
+                                                done.countDown();
+                                        }
+                                });
+                        }
+                        start.countDown();
+                        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+                } finally {
+                        players.shutdownNow();
+                }
+
+                DraftFlowService.DraftState confirmed = store.load(matchId);
+                assertThat(confirmed.getConfirmations()).containsExactlyInAnyOrderElementsOf(all);
+                assertThat(confirmed.getCurrentIndex()).isZero();
+                assertThat(store.updateConfirmation(confirmed, "A1", true)).isFalse();
+                store.finish(matchId);
+        }
+
+        /**
+         * Uma tentativa de ação de um jogador com o índice que ele acabou de ler
+         */
+        private interface Attempt {
+                DraftStateStore.ActionResult apply(DraftFlowService.DraftState st, int index, String player);
+        }
+
+        private DraftStateStore.ActionResult compareAndSet(DraftFlowService.DraftState st, int index, String player) {
+                fill(st, index, player);
+                return store.applyAction(st, index, player);
+        }
+
+        // Caminho antigo: lock por partida, relê o estado, valida e regrava o estado
+        private DraftStateStore.ActionResult lockedBaseline(DraftFlowService.DraftState read, int index,
+                        String player) {
+                RLock lock = redisson.getLock("draft_action:" + read.getMatchId());
+                try {
+                        if (!lock.tryLock(5, 30, TimeUnit.SECONDS)) {
+                                return DraftStateStore.ActionResult.FAILED;
+                        }
+                        DraftFlowService.DraftState st = store.load(read.getMatchId());
+                        if (st.getCurrentIndex() != index || index >= ACTIONS) {
+                                return DraftStateStore.ActionResult.STALE;
+                        }
+                        if (!st.isPlayerInTeam(player, st.getActions().get(index).team())) {
+                                return DraftStateStore.ActionResult.NOT_YOUR_TURN;
+                        }
+                        fill(st, index, player);
+                        store.seed(st, false);
+                        return DraftStateStore.ActionResult.APPLIED;
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return DraftStateStore.ActionResult.FAILED;
+                } finally {
+                        if (lock.isHeldByCurrentThread()) {
+                                lock.unlock();
+                        }
+                }
+        }
+
+        private static void fill(DraftFlowService.DraftState st, int index, String player) {
+                DraftFlowService.DraftAction prev = st.getActions().get(index);
+                st.getActions().set(index, new DraftFlowService.DraftAction(index, prev.type(), prev.team(),
+                                String.valueOf(index + 1), null, player));
+                st.advance();
+                st.markActionStart();
+        }
+
+        private Report run(long firstMatchId, Attempt attempt) throws InterruptedException {
+                Report report = new Report();
+                ExecutorService players = Executors.newFixedThreadPool(TEAM1.size() + TEAM2.size());
+                try {
+                        for (long matchId = firstMatchId; matchId < firstMatchId + DRAFTS; matchId++) {
+                                store.seed(newDraft(matchId), false);
+                                runDraft(matchId, players, attempt, report);
+
+                                DraftFlowService.DraftState done = store.load(matchId);
+                                assertThat(done.getCurrentIndex()).isEqualTo(ACTIONS);
+                                for (DraftFlowService.DraftAction action : done.getActions()) {
+                                        assertThat(done.isPlayerInTeam(action.byPlayer(), action.team()))
+                                                        .as("ação %d do match %d", action.index(), matchId).isTrue();
+                                }
+                                store.finish(matchId);
+                        }
+                } finally {
+                        players.shutdownNow();
+                }
+                return report;
+        }
+
+        private void runDraft(long matchId, ExecutorService players, Attempt attempt, Report report)
+                        throws InterruptedException {
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(TEAM1.size() + TEAM2.size());
+                for (String player : concat(TEAM1, TEAM2)) {
+                        players.execute(() -> {
+                                try {
+                                        start.await();
+                                        DraftFlowService.DraftState st;
+                                        while ((st = store.load(matchId)) != null && st.getCurrentIndex() < ACTIONS) {
+                                                long begin = System.nanoTime();
+                                                DraftStateStore.ActionResult result = attempt.apply(st,
+                                                                st.getCurrentIndex(), player);
+                                                report.record(result, System.nanoTime() - begin);
+                                        }
+                                } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                } finally {
+                                        done.countDown();
+                                }
+                        });
+                }
+                start.countDown();
+                assertThat(done.await(60, TimeUnit.SECONDS)).as("draft %d terminou", matchId).isTrue();
+        }
+
+        private static DraftFlowService.DraftState newDraft(long matchId) {
+                List<DraftFlowService.DraftAction> actions = new ArrayList<>(ACTIONS);
+                for (int i = 0; i < ACTIONS; i++) {
+                        boolean ban = i < 6 || (i >= 12 && i < 16);
+                        actions.add(new DraftFlowService.DraftAction(i, ban ? "ban" : "pick", i % 2 + 1, null, null,
+                                        null));
+                }
+                return new DraftFlowService.DraftState(matchId, actions, TEAM1, TEAM2);
+        }
+
+        private static List<String> concat(List<String> a, List<String> b) {
+                List<String> all = new ArrayList<>(a);
+                all.addAll(b);
+                return all;
+        }
+
+        private static final class Report {
+                private final Map<DraftStateStore.ActionResult, AtomicLong> counters = new ConcurrentHashMap<>();
+                private final List<Long> latencyMicros = Collections.synchronizedList(new ArrayList<>());
+
+                void record(DraftStateStore.ActionResult result, long nanos) {
+                        counters.computeIfAbsent(result, r -> new AtomicLong()).incrementAndGet();
+                        latencyMicros.add(TimeUnit.NANOSECONDS.toMicros(nanos));
+                }
+
+                long count(DraftStateStore.ActionResult result) {
+                        AtomicLong counter = counters.get(result);
+                        return counter != null ? counter.get() : 0;
+                }
+
+                @Override
+                public String toString() {
+                        long[] sorted = SimulationMetrics.sorted(latencyMicros);
+                        return String.format("applied=%d stale=%d not_your_turn=%d | latência (µs) p50=%d p99=%d max=%d",
+                                        count(DraftStateStore.ActionResult.APPLIED),
+                                        count(DraftStateStore.ActionResult.STALE),
+                                        count(DraftStateStore.ActionResult.NOT_YOUR_TURN),
+                                        SimulationMetrics.percentile(sorted, 50), SimulationMetrics.percentile(sorted, 99),
+                                        sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+                }
+        }
+}
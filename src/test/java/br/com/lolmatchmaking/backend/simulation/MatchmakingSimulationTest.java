@@ -0,0 +1,286 @@
+package br.com.lolmatchmaking.backend.simulation;
+
+import br.com.lolmatchmaking.backend.domain.entity.CustomMatch;
+import br.com.lolmatchmaking.backend.domain.repository.CustomMatchRepository;
+import br.com.lolmatchmaking.backend.service.DraftFlowService;
+import br.com.lolmatchmaking.backend.service.GameInProgressService;
+import br.com.lolmatchmaking.backend.service.QueueManagementService;
+import br.com.lolmatchmaking.backend.service.lock.PlayerState;
+import br.com.lolmatchmaking.backend.service.lock.PlayerStateService;
+import br.com.lolmatchmaking.backend.websocket.SessionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Harness de simulação/carga do pipeline de matchmaking
+ *
+ * Leva milhares de bots (convenção de addBotToQueue: nomes "BotN", aceite e
+ * ações de draft automáticas) por fila → match_found → aceite → draft → jogo,
+ * contra H2 (modo MySQL) e um Redis embarcado.
+ *
+ * Relatório: partidas/min, percentis de time-to-match, contenção do lock de
+ * matchmaking e statements SQL / comandos Redis por fase.
+ *
+ * Profundidade de fila: com o matchmaking pausado (lock de processamento
+ * ocupado pelo harness) enche a fila com 30 / 300 / 3.000 bots, libera e mede
+ * time-to-match e statements SQL/min até a fila esvaziar.
+ *
+ * Não roda no build padrão (tag "simulation"):
+ * mvn test -Psimulation -Dsimulation.bots=2000
+ * mvn test -Psimulation -Dtest=MatchmakingSimulationTest#timeToMatchByQueueDepth
+ * -Dsimulation.queue-depths=30,300,3000
+ */
+@Slf4j
+@Tag("simulation")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("simulation")
+class MatchmakingSimulationTest {
+
+        private static final int MATCH_SIZE = 10;
+        private static final int BOTS = Integer.getInteger("simulation.bots", 1000);
+        private static final long PHASE_TIMEOUT_MS = Long.getLong("simulation.phase-timeout-ms", 600_000L);
+        private static final long POLL_INTERVAL_MS = 50;
+        private static final long DRAFT_POLL_INTERVAL_MS = 1000;
+        private static final int[] QUEUE_DEPTHS = Arrays.stream(System.getProperty("simulation.queue-depths",
+                        "30,300,3000").split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        private static final String PROCESS_LOCK_KEY = "lock:matchmaking:process";
+
+        private static final List<String> PRE_DRAFT_STATUSES = List.of("pending", "match_found", "accepted");
+        private static final List<String> DRAFT_STATUSES = List.of("draft", "draft_completed");
+
+        private static RedisServer redisServer;
+
+        @Autowired
+        private QueueManagementService queueManagementService;
+        @Autowired
+        private DraftFlowService draftFlowService;
+        @Autowired
+        private GameInProgressService gameInProgressService;
+        @Autowired
+        private CustomMatchRepository customMatchRepository;
+        @Autowired
+        private PlayerStateService playerStateService;
+        @Autowired
+        private RedisTemplate<String, Object> redisTemplate;
+        @Autowired
+        private MeterRegistry meterRegistry;
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        // Processamento da fila só roda com sessões WebSocket ativas
+        @SpyBean
+        private SessionRegistry sessionRegistry;
+
+        @DynamicPropertySource
+        static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+                int port;
+                try (ServerSocket socket = new ServerSocket(0)) {
+                        port = socket.getLocalPort();
+                }
+                redisServer = new RedisServer(port);
+                redisServer.start();
+                registry.add("spring.data.redis.port", () -> port);
+        }
+
+        @AfterAll
+        static void stopRedis() throws IOException {
+                if (redisServer != null) {
+                        redisServer.stop();
+                }
+        }
+
+        @Test
+        void simulateQueueToGamePipeline() throws InterruptedException {
+                doReturn(1).when(sessionRegistry).getActiveSessionCount();
+                SimulationMetrics metrics = new SimulationMetrics(entityManagerFactory, redisTemplate, meterRegistry);
+
+                // 1. Fila → match_found
+                metrics.startPhase("queue+match_found");
+                Map<String, Long> waiting = new LinkedHashMap<>();
+                List<Long> timeToMatchMillis = new ArrayList<>();
+                long matchmakingStart = System.nanoTime();
+                double matchesBefore = metrics.matchesCreated();
+                int completedBefore = findByStatus(List.of("completed"), metrics).size();
+
+                for (int i = 0; i < BOTS; i++) {
+                        String bot = queueManagementService.addBotToQueue();
+                        waiting.put(bot, System.nanoTime());
+                        if (i % MATCH_SIZE == MATCH_SIZE - 1) {
+                                collectMatched(waiting, timeToMatchMillis, metrics);
+                        }
+                }
+                // Sobras (< MATCH_SIZE) nunca formam partida; janela de MMR ilimitada após 180s
+                await("bots restantes na fila formarem partida", () -> {
+                        collectMatched(waiting, timeToMatchMillis, metrics);
+                        return waiting.size() < MATCH_SIZE;
+                }, POLL_INTERVAL_MS);
+
+                double matchmakingMinutes = (System.nanoTime() - matchmakingStart) / 60e9;
+                long matches = Math.round(metrics.matchesCreated() - matchesBefore);
+                metrics.endPhase();
+
+                playOutMatches(metrics);
+
+                double matchesPerMinute = matchmakingMinutes > 0 ? matches / matchmakingMinutes : 0;
+                log.info(metrics.format(BOTS, timeToMatchMillis, matchesPerMinute));
+
+                assertThat(timeToMatchMillis).hasSizeGreaterThanOrEqualTo(BOTS - (MATCH_SIZE - 1));
+                assertThat(matches).isGreaterThanOrEqualTo(BOTS / MATCH_SIZE - 1);
+                assertThat(findByStatus(List.of("completed"), metrics)).hasSize(completedBefore + (int) matches);
+        }
+
+        @Test
+        void timeToMatchByQueueDepth() throws InterruptedException {
+                doReturn(1).when(sessionRegistry).getActiveSessionCount();
+                SimulationMetrics metrics = new SimulationMetrics(entityManagerFactory, redisTemplate, meterRegistry);
+                StringBuilder report = new StringBuilder(
+                                String.format("%n===== Time-to-match por profundidade de fila =====%n"));
+                report.append(String.format("%8s %8s %10s %10s %10s %10s %12s%n",
+                                "fila", "partidas", "ttm p50", "ttm p99", "ms", "sql stmts", "sql stmts/min"));
+
+                for (int depth : QUEUE_DEPTHS) {
+                        // Matchmaking pausado: lock de processamento (sem TTL) ocupado pelo harness
+                        redisTemplate.opsForValue().set(PROCESS_LOCK_KEY, "simulation");
+                        Map<String, Long> waiting = new LinkedHashMap<>();
+                        for (int i = 0; i < depth; i++) {
+                                waiting.put(queueManagementService.addBotToQueue(), 0L);
+                        }
+
+                        metrics.startPhase("fila " + depth);
+                        List<Long> timeToMatchMillis = new ArrayList<>();
+                        long released = System.nanoTime();
+                        waiting.replaceAll((bot, joinedAt) -> released);
+                        redisTemplate.delete(PROCESS_LOCK_KEY);
+                        queueManagementService.triggerMatchAttempt();
+                        await("fila de " + depth + " esvaziar", () -> {
+                                collectMatched(waiting, timeToMatchMillis, metrics);
+                                return waiting.size() < MATCH_SIZE;
+                        }, POLL_INTERVAL_MS);
+                        SimulationMetrics.PhaseReport phase = metrics.endPhase();
+
+                        long[] ttm = SimulationMetrics.sorted(timeToMatchMillis);
+                        report.append(String.format("%8d %8d %10d %10d %10d %10d %12.0f%n", depth,
+                                        phase.matchesCreated(), SimulationMetrics.percentile(ttm, 50),
+                                        SimulationMetrics.percentile(ttm, 99), phase.millis(), phase.statements(),
+                                        phase.millis() > 0 ? phase.statements() * 60_000.0 / phase.millis() : 0));
+                        assertThat(phase.matchesCreated()).isGreaterThanOrEqualTo(depth / MATCH_SIZE - 1);
+
+                        // Próxima profundidade sem tráfego de aceite/draft/jogo desta
+                        playOutMatches(metrics);
+                }
+                log.info(report.toString());
+        }
+
+        /**
+         * Aceite → draft → jogo de todas as partidas criadas até agora
+         */
+        private void playOutMatches(SimulationMetrics metrics) throws InterruptedException {
+                // 2. Aceite (bots aceitam automaticamente após 2s)
+                metrics.startPhase("accept");
+                await("todas as partidas aceitas", () -> findByStatus(PRE_DRAFT_STATUSES, metrics).isEmpty(),
+                                POLL_INTERVAL_MS);
+                metrics.endPhase();
+
+                // 3. Draft (bots agem a cada 2s) + confirmação final de todos
+                metrics.startPhase("draft");
+                Set<Long> confirmed = new HashSet<>();
+                await("todos os drafts concluídos", () -> {
+                        List<CustomMatch> drafting = findByStatus(DRAFT_STATUSES, metrics);
+                        for (CustomMatch match : drafting) {
+                                if (!confirmed.contains(match.getId()) && confirmDraftIfComplete(match.getId())) {
+                                        confirmed.add(match.getId());
+                                }
+                        }
+                        return drafting.isEmpty();
+                }, DRAFT_POLL_INTERVAL_MS);
+                metrics.endPhase();
+
+                // 4. Jogo: finalizar todas as partidas em andamento
+                metrics.startPhase("game");
+                await("todas as partidas finalizadas", () -> {
+                        List<CustomMatch> running = findByStatus(List.of("game_ready", "in_progress"), metrics);
+                        for (CustomMatch match : running) {
+                                if ("in_progress".equals(match.getStatus())) {
+                                        gameInProgressService.finishGame(match.getId(),
+                                                        match.getId() % 2 == 0 ? 1 : 2, "simulation");
+                                }
+                        }
+                        return running.isEmpty();
+                }, POLL_INTERVAL_MS);
+                metrics.endPhase();
+        }
+
+        /**
+         * Bots que saíram de IN_QUEUE para um estado de partida (um MGET por poll)
+         */
+        private void collectMatched(Map<String, Long> waiting, List<Long> timeToMatchMillis,
+                        SimulationMetrics metrics) {
+                if (waiting.isEmpty()) {
+                        return;
+                }
+                Map<String, PlayerState> states = playerStateService.getPlayerStates(new ArrayList<>(waiting.keySet()));
+                metrics.harnessRedisCommands(1);
+                long now = System.nanoTime();
+                states.forEach((name, state) -> {
+                        if (state.isInMatch()) {
+                                Long joinedAt = waiting.remove(name);
+                                if (joinedAt != null) {
+                                        timeToMatchMillis.add((now - joinedAt) / 1_000_000);
+                                }
+                        }
+                });
+        }
+
+        /**
+         * Confirma o draft de todos os jogadores quando todas as ações foram feitas
+         */
+        private boolean confirmDraftIfComplete(Long matchId) {
+                Optional<DraftFlowService.DraftState> state = draftFlowService.getState(matchId);
+                if (state.isEmpty() || state.get().getCurrentIndex() < state.get().getActions().size()) {
+                        return false;
+                }
+                List<String> players = new ArrayList<>(state.get().getTeam1Players());
+                players.addAll(state.get().getTeam2Players());
+                for (String player : players) {
+                        draftFlowService.confirmFinalDraft(matchId, player);
+                }
+                return true;
+        }
+
+        private List<CustomMatch> findByStatus(List<String> statuses, SimulationMetrics metrics) {
+                metrics.harnessStatements(1);
+                return customMatchRepository.findByStatusInOrderByCreatedAtDesc(statuses);
+        }
+
+        private static void await(String description, BooleanSupplier condition, long pollIntervalMs)
+                        throws InterruptedException {
+                long deadline = System.currentTimeMillis() + PHASE_TIMEOUT_MS;
+                while (!condition.getAsBoolean()) {
+                        if (System.currentTimeMillis() > deadline) {
+                                fail("Timeout (" + PHASE_TIMEOUT_MS + "ms) aguardando: " + description);
+                        }
+                        Thread.sleep(pollIntervalMs);
+                }
+        }
+}
@@ -0,0 +1,156 @@
+package br.com.lolmatchmaking.backend.simulation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+  * Métricas do harness de simulação, agregadas por fase
+  *
+  * - Statements/entidades do Hibernate (hibernate.generate_statistics)
+  * - Comandos processados pelo Redis embarcado (INFO stats)
+  * - Contenção do lock de matchmaking (matchmaking.lock.acquire)
+  *
+  * Operações feitas pelo próprio harness (polling) são descontadas quando
+  * contáveis: cada poll registra seus comandos/statements via
+  * {@link #harnessRedisCommands(long)} e {@link #harnessStatements(long)}.
+  */
+class SimulationMetrics {
+
+        record Sample(long nanos, long statements, long entityLoads, long entityWrites, long redisCommands,
+                        double lockAcquired, double lockContended, double matchesCreated) {
+        }
+
+        record PhaseReport(String name, long millis, long statements, long entityLoads, long entityWrites,
+                        long redisCommands, long lockAcquired, long lockContended, long matchesCreated) {
+        }
+
+        private final Statistics hibernate;
+        private final RedisTemplate<String, Object> redisTemplate;
+        private final MeterRegistry meterRegistry;
+        private final List<PhaseReport> phases = new ArrayList<>();
+
+        private String currentPhase;
+        private Sample phaseStart;
+        private long harnessRedisCommands;
+        private long harnessStatements;
+
+        SimulationMetrics(EntityManagerFactory entityManagerFactory, RedisTemplate<String, Object> redisTemplate,
+                        MeterRegistry meterRegistry) {
+                this.hibernate = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                this.hibernate.setStatisticsEnabled(true);
+                this.redisTemplate = redisTemplate;
+                this.meterRegistry = meterRegistry;
+        }
+
+        void startPhase(String name) {
+                currentPhase = name;
+                harnessRedisCommands = 0;
+                harnessStatements = 0;
+                phaseStart = sample();
+        }
+
+        PhaseReport endPhase() {
+                Sample end = sample();
+                // +1: o próprio INFO do início da fase
+                long redisCommands = end.redisCommands() - phaseStart.redisCommands() - harnessRedisCommands - 1;
+                PhaseReport report = new PhaseReport(currentPhase,
+                                (end.nanos() - phaseStart.nanos()) / 1_000_000,
+                                end.statements() - phaseStart.statements() - harnessStatements,
+                                end.entityLoads() - phaseStart.entityLoads(),
+                                end.entityWrites() - phaseStart.entityWrites(),
+                                Math.max(0, redisCommands),
+                                Math.round(end.lockAcquired() - phaseStart.lockAcquired()),
+                                Math.round(end.lockContended() - phaseStart.lockContended()),
+                                Math.round(end.matchesCreated() - phaseStart.matchesCreated()));
+                phases.add(report);
+                return report;
+        }
+
+        void harnessRedisCommands(long commands) {
+                harnessRedisCommands += commands;
+        }
+
+        void harnessStatements(long statements) {
+                harnessStatements += statements;
+        }
+
+        double matchesCreated() {
+                return counter("matchmaking.matches.created", null);
+        }
+
+        List<PhaseReport> phases() {
+                return phases;
+        }
+
+        private Sample sample() {
+                return new Sample(System.nanoTime(),
+                                hibernate.getPrepareStatementCount(),
+                                hibernate.getEntityLoadCount(),
+                                hibernate.getEntityInsertCount() + hibernate.getEntityUpdateCount()
+                                                + hibernate.getEntityDeleteCount(),
+                                redisCommandsProcessed(),
+                                counter("matchmaking.lock.acquire", "acquired"),
+                                counter("matchmaking.lock.acquire", "contended"),
+                                matchesCreated());
+        }
+
+        private long redisCommandsProcessed() {
+                Properties info = redisTemplate.execute(
+                                (RedisCallback<Properties>) (RedisConnection connection) -> connection.serverCommands().info("stats"));
+                String total = info != null ? info.getProperty("total_commands_processed") : null;
+                return total != null ? Long.parseLong(total.trim()) : 0;
+        }
+
+        private double counter(String name, String result) {
+                Counter counter = result == null
+                                ? meterRegistry.find(name).counter()
+                                : meterRegistry.find(name).tag("result", result).counter();
+                return counter != null ? counter.count() : 0;
+        }
+
+        /**
+          * Percentil (nearest-rank) de uma amostra em milissegundos
+          */
+        static long percentile(long[] sortedMillis, double percentile) {
+                if (sortedMillis.length == 0) {
+                        return 0;
+                }
+                int rank = (int) Math.ceil(percentile / 100.0 * sortedMillis.length);
+                return sortedMillis[Math.max(0, Math.min(sortedMillis.length - 1, rank - 1))];
+        }
+
+        static long[] sorted(List<Long> values) {
+                long[] array = values.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(array);
+                return array;
+        }
+
+        String format(int bots, List<Long> timeToMatchMillis, double matchesPerMinute) {
+                long[] ttm = sorted(timeToMatchMillis);
+                StringBuilder out = new StringBuilder();
+                out.append(String.format("%n===== Simulação de matchmaking: %d bots =====%n", bots));
+                out.append(String.format("Partidas/min: %.1f | time-to-match (ms) p50=%d p90=%d p99=%d max=%d (n=%d)%n",
+                                matchesPerMinute, percentile(ttm, 50), percentile(ttm, 90), percentile(ttm, 99),
+                                ttm.length > 0 ? ttm[ttm.length - 1] : 0, ttm.length));
+                out.append(String.format("%-18s %9s %8s %10s %10s %10s %9s %10s %8s%n",
+                                "fase", "ms", "partidas", "sql stmts", "ent.loads", "ent.writes", "redis", "lock ok", "lock x"));
+                for (PhaseReport phase : phases) {
+                        out.append(String.format("%-18s %9d %8d %10d %10d %10d %9d %10d %8d%n",
+                                        phase.name(), phase.millis(), phase.matchesCreated(), phase.statements(),
+                                        phase.entityLoads(), phase.entityWrites(), phase.redisCommands(),
+                                        phase.lockAcquired(), phase.lockContended()));
+                }
+                return out.toString();
+        }
+}
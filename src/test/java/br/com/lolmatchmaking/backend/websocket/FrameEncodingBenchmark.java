@@ -0,0 +1,113 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envio personalizado (targetSummoner) por destinatário: caminho antigo
+ * (cópia do payload + writeValueAsString por destinatário) vs serializa-uma-vez
+ * ({@link WebSocketFrameEncoder})
+ *
+ * Não roda no build; executar com:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FrameEncodingBenchmark
+ * (gc.alloc.rate.norm do GCProfiler = lixo por operação)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameEncodingBenchmark {
+
+        @Param({ "10", "100", "1000" })
+        public int recipients;
+
+        private ObjectMapper objectMapper;
+        private WebSocketFrameEncoder encoder;
+        private Map<String, Object> data;
+        private List<String> players;
+
+        @Setup
+        public void setup() {
+                objectMapper = new ObjectMapper();
+                encoder = new WebSocketFrameEncoder(objectMapper);
+
+                // Payload no formato de draft_updated (20 ações, 2 times)
+                List<Map<String, Object>> actions = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        Map<String, Object> action = new LinkedHashMap<>();
+                        action.put("index", i);
+                        action.put("type", i < 6 || (i >= 12 && i < 16) ? "ban" : "pick");
+                        action.put("team", i % 2 + 1);
+                        action.put("championId", String.valueOf(100 + i));
+                        action.put("byPlayer", "Player" + (i % 10) + "#BR1");
+                        actions.add(action);
+                }
+                players = new ArrayList<>();
+                for (int i = 0; i < recipients; i++) {
+                        players.add("Player" + i + "#BR1");
+                }
+                data = new HashMap<>();
+                data.put("matchId", 12345L);
+                data.put("currentIndex", 10);
+                data.put("actions", actions);
+                data.put("team1", players.subList(0, Math.min(5, players.size())));
+                data.put("team2", players.subList(Math.min(5, players.size()), Math.min(10, players.size())));
+                data.put("remainingMs", 27000L);
+        }
+
+        @Benchmark
+        public void perRecipientSerialization(Blackhole blackhole) throws Exception {
+                for (String player : players) {
+                        Map<String, Object> personalizedData = new HashMap<>(data);
+                        personalizedData.put("targetSummoner", player);
+
+                        Map<String, Object> personalizedMessage = new HashMap<>();
+                        personalizedMessage.put("type", "draft_updated");
+                        personalizedMessage.put("data", personalizedData);
+                        personalizedMessage.put("timestamp", System.currentTimeMillis());
+                        personalizedMessage.put("targetSummoner", player);
+
+                        blackhole.consume(new TextMessage(objectMapper.writeValueAsString(personalizedMessage)));
+                }
+        }
+
+        @Benchmark
+        public void serializeOnce(Blackhole blackhole) throws Exception {
+                WebSocketFrameEncoder.Personalized personalized = encoder.personalize("draft_updated", data);
+                for (String player : players) {
+                        blackhole.consume(personalized.forRecipient(player));
+                }
+        }
+
+        public static void main(String[] args) throws RunnerException {
+                new Runner(new OptionsBuilder()
+                                .include(FrameEncodingBenchmark.class.getSimpleName())
+                                .addProfiler(GCProfiler.class)
+                                .build()).run();
+        }
+}
@@ -0,0 +1,105 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import br.com.lolmatchmaking.backend.service.redis.RedisWebSocketSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class HeartbeatSchedulerTest {
+
+        private static final int SESSIONS = 5_000;
+
+        private RedisWebSocketSessionService redisWSSession;
+        private HeartbeatScheduler scheduler;
+        private final Map<String, Integer> pings = new HashMap<>();
+        private final List<String> timedOut = new ArrayList<>();
+
+        @BeforeEach
+        void setup() {
+                redisWSSession = mock(RedisWebSocketSessionService.class);
+                scheduler = new HeartbeatScheduler(redisWSSession);
+                scheduler.bind(batch -> batch.forEach(id -> pings.merge(id, 1, Integer::sum)), timedOut::add);
+        }
+
+        @AfterEach
+        void tearDown() {
+                scheduler.shutdown();
+        }
+
+        @Test
+        void threadCountStaysConstantWithFiveThousandSessions() {
+                int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+                for (int i = 0; i < SESSIONS; i++) {
+                        scheduler.register("session-" + i);
+                }
+
+                int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+                assertThat(scheduler.size()).isEqualTo(SESSIONS);
+                // Antes: uma thread por sessão (+5000)
+                assertThat(threadsAfter).isLessThanOrEqualTo(threadsBefore + 1);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void everySessionPingedOncePerRotationWithBatchedRedisRefresh() {
+                scheduler.shutdown(); // ticks manuais a partir daqui
+                for (int i = 0; i < SESSIONS; i++) {
+                        scheduler.register("session-" + i);
+                }
+
+                long now = System.currentTimeMillis();
+                for (int tick = 0; tick < HeartbeatScheduler.SLOTS; tick++) {
+                        scheduler.tick(now);
+                }
+
+                assertThat(pings).hasSize(SESSIONS);
+                assertThat(pings.values()).allMatch(count -> count == 1);
+                assertThat(timedOut).isEmpty();
+
+                // Registro marca a sessão para renovação de TTL: um lote por tick, não uma
+                // chamada por sessão
+                ArgumentCaptor<Collection<String>> batches = ArgumentCaptor.forClass(Collection.class);
+                verify(redisWSSession, atLeastOnce()).refreshHeartbeats(batches.capture());
+                Set<String> refreshed = new HashSet<>();
+                batches.getAllValues().forEach(refreshed::addAll);
+                assertThat(refreshed).hasSize(SESSIONS);
+                assertThat(batches.getAllValues().size()).isLessThanOrEqualTo(2);
+        }
+
+        @Test
+        void silentSessionsTimeOutWithoutRedisLookups() {
+                scheduler.shutdown();
+                for (int i = 0; i < SESSIONS; i++) {
+                        scheduler.register("session-" + i);
+                }
+
+                long later = System.currentTimeMillis() + HeartbeatScheduler.HEARTBEAT_TIMEOUT_MS + 1;
+                for (int tick = 0; tick < HeartbeatScheduler.SLOTS; tick++) {
+                        scheduler.tick(later);
+                }
+
+                assertThat(timedOut).hasSize(SESSIONS);
+                assertThat(scheduler.size()).isZero();
+                assertThat(pings).isEmpty();
+                // Timeout decidido pelo relógio em memória: nenhum getClientInfo
+                verify(redisWSSession, never()).getClientInfo(anyString());
+        }
+}
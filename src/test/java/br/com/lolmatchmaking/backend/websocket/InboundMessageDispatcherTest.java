@@ -0,0 +1,112 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InboundMessageDispatcherTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private SimpleMeterRegistry meterRegistry;
+        private InboundMessageDispatcher dispatcher;
+        private WebSocketSession session;
+
+        @BeforeEach
+        void setup() {
+                meterRegistry = new SimpleMeterRegistry();
+                dispatcher = new InboundMessageDispatcher(objectMapper, new WebSocketFrameEncoder(objectMapper),
+                                meterRegistry, 4, 64);
+                session = mock(WebSocketSession.class);
+                when(session.getId()).thenReturn("s1");
+                when(session.isOpen()).thenReturn(true);
+        }
+
+        @AfterEach
+        void tearDown() {
+                dispatcher.shutdown();
+        }
+
+        @Test
+        void decodesTypedPayloadOffContainerThreadInSessionOrder() throws Exception {
+                List<Long> seen = new CopyOnWriteArrayList<>();
+                List<String> threads = new CopyOnWriteArrayList<>();
+                CountDownLatch done = new CountDownLatch(50);
+                dispatcher.register("draft_confirm", InboundMessages.DraftPlayer.class, (ws, request) -> {
+                        threads.add(Thread.currentThread().getName());
+                        seen.add(request.matchIdOrInvalid());
+                        done.countDown();
+                });
+
+                for (long i = 1; i <= 50; i++) {
+                        dispatcher.dispatch(session,
+                                        "{\"type\":\"draft_confirm\",\"data\":{\"matchId\":" + i + ",\"playerId\":\"P#BR1\"}}");
+                }
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(seen).isSorted().hasSize(50);
+                assertThat(threads).doesNotContain(Thread.currentThread().getName());
+                assertThat(meterRegistry.get("websocket.inbound.handler.latency").tag("type", "draft_confirm")
+                                .timer().count()).isEqualTo(50);
+        }
+
+        @Test
+        void typeNeedNotBeFirstFieldAndMissingFieldsKeepDefaults() throws Exception {
+                CountDownLatch done = new CountDownLatch(1);
+                long[] matchId = new long[1];
+                dispatcher.register("draft_action", InboundMessages.DraftAction.class, (ws, request) -> {
+                        matchId[0] = request.payload().matchIdOrInvalid();
+                        done.countDown();
+                });
+
+                dispatcher.dispatch(session, "{\"data\":{\"nested\":{\"type\":\"x\"}},\"type\":\"draft_action\"}");
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(matchId[0]).isEqualTo(-1);
+        }
+
+        @Test
+        void unknownTypeRepliesAndHandlerErrorsAreCountedPerType() throws Exception {
+                dispatcher.dispatch(session, "{\"type\":\"nope\"}");
+                verify(session).sendMessage(new TextMessage("{\"error\":\"unknown_type\"}"));
+
+                dispatcher.register("boom", InboundMessages.Acknowledgement.class, (ws, ack) -> {
+                        throw new IllegalStateException("falha");
+                });
+                dispatcher.dispatch(session, "{\"type\":\"boom\",\"matchId\":1}");
+
+                verify(session, timeout(5_000)).close(any(CloseStatus.class));
+                assertThat(meterRegistry.get("websocket.inbound.errors").tag("type", "boom").tag("stage", "handler")
+                                .counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void errorInOneFrameDoesNotStallTheSessionLane() throws Exception {
+                CountDownLatch done = new CountDownLatch(1);
+                dispatcher.register("fatal", InboundMessages.Acknowledgement.class, (ws, ack) -> {
+                        throw new AssertionError("falha fatal");
+                });
+                dispatcher.register("ping_ack", InboundMessages.Acknowledgement.class, (ws, ack) -> done.countDown());
+
+                dispatcher.dispatch(session, "{\"type\":\"fatal\",\"matchId\":1}");
+                dispatcher.dispatch(session, "{\"type\":\"ping_ack\",\"matchId\":1}");
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+}
@@ -0,0 +1,100 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LcuRpcGatewayTest {
+
+        private static final String GAMEFLOW = "/lol-gameflow/v1/session";
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final List<JsonNode> sent = new ArrayList<>();
+        private LcuRpcGateway gateway;
+
+        @BeforeEach
+        void setup() throws Exception {
+                WebSocketSession session = mock(WebSocketSession.class);
+                when(session.isOpen()).thenReturn(true);
+                doAnswer(invocation -> {
+                        TextMessage message = invocation.getArgument(0);
+                        sent.add(objectMapper.readTree(message.getPayload()));
+                        return null;
+                }).when(session).sendMessage(any());
+
+                gateway = new LcuRpcGateway(objectMapper, new SimpleMeterRegistry());
+                gateway.bind(id -> "s1".equals(id) ? session : null);
+        }
+
+        private void respond(JsonNode request, int status) {
+                ObjectNode response = objectMapper.createObjectNode();
+                response.put("type", "lcu_response");
+                response.put("id", request.path("id").asText());
+                response.put("status", status);
+                response.putObject("body").put("phase", "ChampSelect");
+                gateway.handleResponse(response);
+        }
+
+        @Test
+        void identicalConcurrentGetsShareOneRoundTrip() throws Exception {
+                List<CompletableFuture<JsonNode>> callers = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                        callers.add(gateway.request("s1", "GET", GAMEFLOW, null, 5_000));
+                }
+
+                assertThat(sent).hasSize(1);
+                respond(sent.get(0), 200);
+
+                for (CompletableFuture<JsonNode> caller : callers) {
+                        assertThat(caller.get().path("body").path("phase").asText()).isEqualTo("ChampSelect");
+                }
+                // Concluída: próxima leitura faz nova ida e volta (cache desligado)
+                gateway.request("s1", "GET", GAMEFLOW, null, 5_000);
+                assertThat(sent).hasSize(2);
+        }
+
+        @Test
+        void perClientLimitQueuesExcessUntilSlotFrees() {
+                List<CompletableFuture<JsonNode>> calls = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                        calls.add(gateway.request("s1", "POST", "/lol-lobby/v2/lobby", objectMapper.createObjectNode(),
+                                        5_000));
+                }
+
+                assertThat(sent).hasSize(4);
+                respond(sent.get(0), 200);
+                assertThat(calls.get(0)).isCompleted();
+                assertThat(sent).hasSize(5);
+        }
+
+        @Test
+        void missingSessionFailsFastAndTimeoutsSurfaceLikeBefore() {
+                assertThatThrownBy(() -> LcuRpcGateway.await(gateway.request("gone", "GET", GAMEFLOW, null, 5_000)))
+                                .isInstanceOf(IllegalStateException.class);
+
+                CompletableFuture<JsonNode> slow = gateway.request("s1", "GET", "/slow", null, 50);
+                assertThatThrownBy(slow::get).isInstanceOf(ExecutionException.class)
+                                .hasCauseInstanceOf(TimeoutException.class);
+                assertThatThrownBy(() -> LcuRpcGateway.await(slow))
+                                .isInstanceOf(RuntimeException.class)
+                                .hasMessageContaining("Timeout");
+        }
+}
@@ -0,0 +1,138 @@
+package br.com.lolmatchmaking.backend.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebSocketFrameEncoderTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final WebSocketFrameEncoder encoder = new WebSocketFrameEncoder(objectMapper);
+
+        /**
+         * Caminho antigo: cópia do payload + writeValueAsString por destinatário
+         */
+        private JsonNode perRecipient(String type, Map<String, Object> data, String player) {
+                Map<String, Object> personalizedData = new HashMap<>(data);
+                personalizedData.put("targetSummoner", player);
+                Map<String, Object> message = new HashMap<>();
+                message.put("type", type);
+                message.put("data", personalizedData);
+                message.put("targetSummoner", player);
+                return objectMapper.valueToTree(message);
+        }
+
+        private JsonNode withoutTimestamp(String json) throws Exception {
+                ObjectNode node = (ObjectNode) objectMapper.readTree(json);
+                assertThat(node.remove("timestamp")).isNotNull();
+                return node;
+        }
+
+        @Test
+        void personalizedFramesMatchPerRecipientSerialization() throws Exception {
+                Map<String, Object> data = Map.of(
+                                "matchId", 42,
+                                "team1", List.of("Alpha#BR1", "Quote \"Q\"#BR1"),
+                                "phase", "draft");
+                WebSocketFrameEncoder.Personalized personalized = encoder.personalize("draft_started", data);
+
+                for (String player : List.of("Player#BR1", "Tëst \"x\" \\ y#EUW")) {
+                        JsonNode actual = withoutTimestamp(personalized.forRecipient(player).getPayload());
+                        assertThat(actual).isEqualTo(perRecipient("draft_started", data, player));
+                }
+        }
+
+        @Test
+        void recipientOverridesTargetSummonerAndHandlesEmptyPayload() throws Exception {
+                Map<String, Object> stale = Map.of("targetSummoner", "Other#BR1", "matchId", 7);
+                JsonNode actual = withoutTimestamp(
+                                encoder.personalize("match_found", stale).forRecipient("Me#BR1").getPayload());
+                assertThat(actual).isEqualTo(perRecipient("match_found", stale, "Me#BR1"));
+
+                JsonNode empty = withoutTimestamp(
+                                encoder.personalize("ping", Map.of()).forRecipient("Me#BR1").getPayload());
+                assertThat(empty).isEqualTo(perRecipient("ping", Map.of(), "Me#BR1"));
+        }
+
+        @Test
+        void sequencedFrameCarriesSeqAndReplaysFromStoredPayload() throws Exception {
+                Map<String, Object> data = Map.of("matchId", 42, "targetSummoner", "Other#BR1");
+                WebSocketFrameEncoder.Personalized live = encoder.personalize("match_found", data);
+
+                ObjectNode expected = (ObjectNode) perRecipient("match_found", data, "Me#BR1");
+                expected.put("seq", 17);
+                assertThat(withoutTimestamp(live.forRecipient("Me#BR1", 17).getPayload())).isEqualTo(expected);
+
+                // Replay do log: mesmo frame a partir do payload serializado guardado
+                WebSocketFrameEncoder.Personalized replay = encoder.personalizeSerialized("match_found",
+                                live.dataJson());
+                assertThat(withoutTimestamp(replay.forRecipient("Me#BR1", 17).getPayload())).isEqualTo(expected);
+                assertThat(objectMapper.readTree(live.dataJson()).has("targetSummoner")).isFalse();
+        }
+
+        @Test
+        void envelopeMatchesMapSerializationAndOmitsNullData() throws Exception {
+                JsonNode actual = withoutTimestamp(encoder.envelope("queue_update", List.of("A", "B")).getPayload());
+                assertThat(actual).isEqualTo(objectMapper.valueToTree(
+                                Map.of("type", "queue_update", "data", List.of("A", "B"))));
+
+                JsonNode noData = withoutTimestamp(encoder.envelope("heartbeat_ack", null).getPayload());
+                assertThat(noData.has("data")).isFalse();
+                assertThat(noData.get("type").asText()).isEqualTo("heartbeat_ack");
+        }
+
+        @Test
+        void cborFrameCarriesSameTreeAndIsSmaller() throws Exception {
+                List<Map<String, Object>> actions = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        actions.add(Map.of("index", i, "type", i < 6 ? "ban" : "pick", "team", i % 2 + 1,
+                                        "championId", 100 + i, "byPlayer", "Player" + (i % 10) + "#BR1"));
+                }
+                TextMessage json = encoder.envelope("draft_updated",
+                                Map.of("matchId", 12345, "currentIndex", 10, "actions", actions, "remainingMs", 27000));
+
+                WebSocketMessage<?> wire = encoder.encode(json, WebSocketFrameEncoder.WireFormat.CBOR);
+
+                assertThat(wire).isInstanceOf(BinaryMessage.class);
+                assertThat(encoder.decode((BinaryMessage) wire)).isEqualTo(objectMapper.readTree(json.getPayload()));
+                assertThat(wire.getPayloadLength()).isLessThan(json.getPayloadLength());
+                // Broadcast: transcodificado uma vez por frame
+                assertThat(encoder.encode(json, WebSocketFrameEncoder.WireFormat.CBOR)).isSameAs(wire);
+                assertThat(encoder.encode(json, WebSocketFrameEncoder.WireFormat.JSON)).isSameAs(json);
+        }
+
+        @Test
+        void prebuiltFrameSizeMatchesUtf8EncodingAndCborIsShared() {
+                String json = "{\"type\":\"queue_delta\",\"joined\":[\"Tëst#BR1\",\"日本#JP1\",\"😀#NA1\"]}";
+                TextMessage frame = encoder.frame(json);
+
+                assertThat(WebSocketFrameEncoder.utf8Length(json)).isEqualTo(new TextMessage(json).getPayloadLength());
+                assertThat(((WebSocketFrameEncoder.EncodedFrame) frame).payloadBytes())
+                                .isEqualTo(new TextMessage(json).getPayloadLength());
+                assertThat(encoder.encode(frame, WebSocketFrameEncoder.WireFormat.CBOR))
+                                .isSameAs(encoder.encode(frame, WebSocketFrameEncoder.WireFormat.CBOR));
+        }
+
+        @Test
+        void negotiationFollowsClientPreferenceAndFallsBackToJson() throws Exception {
+                assertThat(encoder.negotiate(objectMapper.readTree("[\"cbor\",\"json\"]")))
+                                .isEqualTo(WebSocketFrameEncoder.WireFormat.CBOR);
+                assertThat(encoder.negotiate(objectMapper.readTree("[\"json\",\"cbor\"]")))
+                                .isEqualTo(WebSocketFrameEncoder.WireFormat.JSON);
+                assertThat(encoder.negotiate(objectMapper.readTree("[\"msgpack\"]")))
+                                .isEqualTo(WebSocketFrameEncoder.WireFormat.JSON);
+                assertThat(encoder.negotiate(objectMapper.missingNode()))
+                                .isEqualTo(WebSocketFrameEncoder.WireFormat.JSON);
+        }
+}